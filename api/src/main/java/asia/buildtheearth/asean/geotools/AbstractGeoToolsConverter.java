@@ -1,15 +1,37 @@
 package asia.buildtheearth.asean.geotools;
 
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.jfr.FeatureWrittenEvent;
+import asia.buildtheearth.asean.geotools.jfr.GeometryModifiedEvent;
+import asia.buildtheearth.asean.geotools.jfr.GeometryProjectedEvent;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParallelFeatureReader;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.projection.ApproximateDymaxionProjection;
 import com.bedatadriven.jackson.datatype.jts.JtsModule;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.parameter.GeneralParameterValue;
+import org.geotools.api.parameter.ParameterValue;
 import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.TransformException;
 import org.geotools.data.geojson.GeoJSONWriter;
+import org.geotools.geometry.jts.GeometryCoordinateSequenceTransformer;
 import org.geotools.referencing.operation.projection.MapProjection;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.*;
 import org.locationtech.jts.geom.util.GeometryEditor;
 
 import javax.xml.namespace.QName;
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A utility class to convert between KML and GeoJSON files with optional customization.
@@ -27,6 +49,30 @@ abstract sealed class AbstractGeoToolsConverter
         MapProjection get() throws FactoryException;
     }
 
+    /**
+     * Body of a {@linkplain #track(Path, Conversion) tracked} conversion.
+     *
+     * @param <E> Checked exception thrown besides {@link IOException}
+     */
+    @FunctionalInterface
+    protected interface Conversion<E extends Exception> {
+        void run() throws IOException, E;
+    }
+
+    /**
+     * An item of a {@linkplain #pipeline conversion pipeline} carrying a single geometry.
+     */
+    protected interface GeometryItem {
+        @NotNull Geometry geometry();
+
+        /**
+         * @return the identifier of the source feature, {@code null} if unknown
+         */
+        default @Nullable String id() {
+            return null;
+        }
+    }
+
     /** Whether to pretty-print the output XML or JSON. */
     protected boolean prettyPrint = true;
 
@@ -39,12 +85,33 @@ abstract sealed class AbstractGeoToolsConverter
     /** Offset to apply to existing Z values; {@code null} means no offset. */
     protected Double offsetZ = null;
 
+    /** Number of worker threads for conversion; {@code 1} means everything runs on the calling thread. */
+    protected int threads = 1;
+
     /** Root element used when parsing KML input. */
     protected QName parsingElement = org.geotools.kml.KML.Placemark;
 
+    /** Parser used when reading KML input. */
+    protected KMLParser kmlParser = KMLParser.XSD;
+
+    /** Compression of the output file; {@code null} means detected from the output file extension. */
+    protected Compression compression = null;
+
+    /** Geographic bounds every converted geometry must intersect; {@code null} means no bounds. */
+    protected Envelope bounds = null;
+
+    /** Number of points sampled along each edge of block bounds when inverse projected. */
+    private static final int BOUNDS_SAMPLES = 32;
+
     /** The input file to be converted. */
     protected final File sourceFile;
 
+    /** Observers of every conversion. */
+    private final List<ConversionListener> listeners = new CopyOnWriteArrayList<>();
+
+    /** Statistics of the last or running conversion. */
+    private volatile ConversionStatistics statistics = new ConversionStatistics();
+
     /**
      * Constructs a new converter using the given input file and output path.
      *
@@ -96,6 +163,13 @@ abstract sealed class AbstractGeoToolsConverter
         return this;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public AbstractGeoToolsConverter setKMLParser(@NotNull KMLParser parser) {
+        this.kmlParser = parser;
+        return this;
+    }
+
     /**
      * Drops all Z (elevation) values from the geometry, producing 2D coordinates only.
      * <p>
@@ -134,7 +208,8 @@ abstract sealed class AbstractGeoToolsConverter
      * This controls the rounding precision when writing coordinate data:
      * </p>
      * <ul>
-     *   <li><strong>GeoJSON:</strong> Precision is applied via {@link GeoJSONWriter}, with a default of {@linkplain JtsModule#DEFAULT_MAX_DECIMALS 6} decimal places.</li>
+     *   <li><strong>GeoJSON:</strong> {@link GeoJSONWriter} applies a default of {@linkplain JtsModule#DEFAULT_MAX_DECIMALS 6} decimal places;
+     *   an explicit precision is applied by the {@linkplain asia.buildtheearth.asean.geotools.format.CoordinateFormatter shared coordinate formatter}.</li>
      *   <li><strong>KML:</strong> No precision limit is applied by default; full {@code double} precision is retained unless this is explicitly set.</li>
      * </ul>
      *
@@ -147,6 +222,380 @@ abstract sealed class AbstractGeoToolsConverter
         return this;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public AbstractGeoToolsConverter setCompression(@NotNull Compression compression) {
+        this.compression = compression;
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractGeoToolsConverter setBounds(@NotNull Envelope bounds) {
+        this.bounds = new Envelope(bounds);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The projection is not affine, so the region is inverse projected by sampling
+     * {@value #BOUNDS_SAMPLES} points along each of its edges; the geographic bounds
+     * are the envelope of every sampled point.
+     * </p>
+     */
+    @Override
+    public AbstractGeoToolsConverter setBounds(@NotNull Envelope blocks, @NotNull MapProjection projection) throws TransformException {
+        double[] points = new double[BOUNDS_SAMPLES * 4 * 2];
+
+        for (int i = 0, index = 0; i < BOUNDS_SAMPLES; i++) {
+            double x = blocks.getWidth() * i / BOUNDS_SAMPLES;
+            double z = blocks.getHeight() * i / BOUNDS_SAMPLES;
+
+            // Walk the four edges counter-clockwise, each from its first corner
+            points[index++] = blocks.getMinX() + x; points[index++] = blocks.getMinY();
+            points[index++] = blocks.getMaxX();     points[index++] = blocks.getMinY() + z;
+            points[index++] = blocks.getMaxX() - x; points[index++] = blocks.getMaxY();
+            points[index++] = blocks.getMinX();     points[index++] = blocks.getMaxY() - z;
+        }
+
+        projection.inverse().transform(points, 0, points, 0, points.length / 2);
+
+        Envelope bounds = new Envelope();
+        for (int i = 0; i < points.length; i += 2) bounds.expandToInclude(points[i], points[i + 1]);
+
+        this.bounds = bounds;
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractGeoToolsConverter parallel(int threads) {
+        this.threads = Math.max(1, threads);
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public AbstractGeoToolsConverter addListener(@NotNull ConversionListener listener) {
+        this.listeners.add(listener);
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull ConversionStatistics getStatistics() {
+        return this.statistics;
+    }
+
+    /**
+     * Runs a conversion with fresh {@linkplain #getStatistics() statistics}, notifying every {@linkplain #addListener listener}.
+     *
+     * <p>Once converted, the source file size is recorded as read and the output file size as written,
+     * unless the conversion has recorded its own written bytes.</p>
+     *
+     * @param output the destination file path
+     * @param conversion the conversion body
+     * @throws IOException if the conversion fails to read or write
+     * @throws E if the conversion fails otherwise
+     * @param <E> checked exception thrown by the conversion besides {@link IOException}
+     */
+    protected final <E extends Exception> void track(@NotNull Path output, @NotNull Conversion<E> conversion) throws IOException, E {
+        ConversionStatistics statistics = new ConversionStatistics();
+        this.statistics = statistics;
+
+        for (ConversionListener listener : this.listeners) listener.conversionStarted(this, output);
+        long start = System.nanoTime();
+
+        try {
+            conversion.run();
+        }
+        catch (Exception ex) {
+            statistics.finish(System.nanoTime() - start, this.sourceFile.length());
+            for (ConversionListener listener : this.listeners) listener.conversionFailed(this, output, statistics, ex);
+            throw ex;
+        }
+
+        if(statistics.getBytesWritten() == 0 && Files.isRegularFile(output)) statistics.addBytesWritten(Files.size(output));
+        statistics.finish(System.nanoTime() - start, this.sourceFile.length());
+
+        for (ConversionListener listener : this.listeners) listener.conversionFinished(this, output, statistics);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public @NotNull File getSourceFile() {
+        return this.sourceFile;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Settings are {@linkplain #describe(Map) described} as {@code name=value} pairs, in a fixed order.
+     * </p>
+     */
+    @Override
+    public final @NotNull String getSettings() throws FactoryException {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        this.describe(settings);
+
+        StringJoiner joiner = new StringJoiner(";");
+        settings.forEach((name, value) -> joiner.add(name + '=' + value));
+
+        return joiner.toString();
+    }
+
+    /**
+     * Adds every setting affecting the output of this converter, subclasses add their own after calling super.
+     *
+     * @param settings the ordered settings to add to
+     * @throws FactoryException if the projection cannot be created
+     */
+    protected void describe(@NotNull Map<String, Object> settings) throws FactoryException {
+        settings.put("converter", this.getClass().getName());
+        settings.put("prettyPrint", this.prettyPrint);
+        settings.put("precision", this.precision);
+        settings.put("normalizedZ", this.normalizedZ);
+        settings.put("offsetZ", this.offsetZ);
+        settings.put("parsingElement", this.parsingElement);
+        settings.put("kmlParser", this.kmlParser);
+        settings.put("compression", this.compression);
+        settings.put("bounds", this.bounds);
+    }
+
+    /**
+     * Describes a projection by its class and parameter values.
+     *
+     * @param projection the projection to describe
+     * @return the projection class name followed by each {@code name=value} parameter
+     */
+    protected static @NotNull String describe(@NotNull MapProjection projection) {
+        StringJoiner parameters = new StringJoiner(",", projection.getClass().getName() + '[', "]");
+
+        for (GeneralParameterValue value : projection.getParameterValues().values())
+            if(value instanceof ParameterValue<?> parameter)
+                parameters.add(parameter.getDescriptor().getName().getCode() + '=' + parameter.getValue());
+
+        if(projection instanceof ApproximateDymaxionProjection approximate) {
+            parameters.add("window=" + approximate.getWindow());
+            parameters.add("cellSize=" + approximate.getCellSize());
+            parameters.add("maxError=" + approximate.getMaxError());
+        }
+
+        return parameters.toString();
+    }
+
+    /**
+     * Creates a conversion pipeline running on the configured number of {@linkplain #parallel(int) threads}.
+     *
+     * @param stage the processing of each item, run concurrently when parallel
+     * @param sink the ordered consumer of each processed item
+     * @return a new pipeline, to be closed once every item has been submitted
+     * @param <S> submitted item type
+     * @param <R> processed item type
+     */
+    protected final <S, R> @NotNull ConversionPipeline<S, R> pipeline(@NotNull ConversionPipeline.Stage<S, R> stage,
+                                                                       @NotNull ConversionPipeline.Sink<R> sink) {
+        ConversionStatistics statistics = this.statistics;
+
+        return new ConversionPipeline<>(this.threads, statistics,
+            item -> {
+                statistics.addFeatureIn(vertices(item));
+                return stage.apply(item);
+            },
+            item -> {
+                FeatureWrittenEvent event = new FeatureWrittenEvent();
+                event.begin();
+
+                long start = System.nanoTime();
+                sink.write(item);
+                statistics.addTime(ConversionStatistics.Stage.WRITE, System.nanoTime() - start);
+                statistics.addFeatureOut();
+
+                if(event.shouldCommit()) {
+                    event.featureId = id(item);
+                    event.vertices = vertices(item);
+                    event.commit();
+                }
+            }
+        );
+    }
+
+    /**
+     * Counts the vertices of a pipeline item: a geometry, a {@link GeometryItem} or every geometry of a feature.
+     */
+    private static int vertices(Object item) {
+        return switch (item) {
+            case Geometry geometry -> geometry.getNumPoints();
+            case GeometryItem geometry -> geometry.geometry().getNumPoints();
+            case SimpleFeature feature -> {
+                int vertices = 0;
+                for (Object value : feature.getAttributes())
+                    if(value instanceof Geometry geometry) vertices += geometry.getNumPoints();
+                yield vertices;
+            }
+            case null, default -> 0;
+        };
+    }
+
+    /**
+     * Identifies a pipeline item: a {@link GeometryItem} or a feature.
+     */
+    private static @Nullable String id(Object item) {
+        return switch (item) {
+            case GeometryItem geometry -> geometry.id();
+            case SimpleFeature feature -> feature.getID();
+            case null, default -> null;
+        };
+    }
+
+    /**
+     * Opens a reader of the KML source file with the configured {@linkplain #setKMLParser(KMLParser) parser}.
+     * <p>
+     * When {@linkplain #parallel(int) parallel}, placemarks are parsed on the same number of threads
+     * by a {@link KMLParallelFeatureReader}, still in document order.
+     * </p>
+     *
+     * @return a new reader of every {@linkplain #setParsingElement(QName) parsing element} within {@linkplain #setBounds(Envelope) bounds}, to be closed by the caller
+     * @throws IOException if the source file cannot be opened or parsed
+     */
+    protected final @NotNull FeatureReader<SimpleFeatureType, SimpleFeature> openKML() throws IOException {
+        return KMLParallelFeatureReader.open(this.sourceFile, this.parsingElement, this.kmlParser, this.bounds, this.threads, true);
+    }
+
+    /**
+     * Checks whether a source geometry is within the {@linkplain #setBounds(Envelope) bounds},
+     * to be tested before any modification or projection.
+     *
+     * @param geometry the source geometry, may be {@code null}
+     * @return {@code true} if no bounds are set or the geometry envelope intersects them;
+     *         {@code false} if bounds are set and the geometry is missing or outside
+     */
+    protected final boolean inBounds(@Nullable Object geometry) {
+        if(this.bounds == null) return true;
+        if(geometry instanceof Geometry source && this.bounds.intersects(source.getEnvelopeInternal())) return true;
+
+        this.statistics.addFeatureSkipped();
+        return false;
+    }
+
+    /**
+     * Checks whether a source geometry is present and within the {@linkplain #setBounds(Envelope) bounds},
+     * counting every rejected feature as {@linkplain ConversionStatistics#getFeaturesSkipped() skipped}.
+     *
+     * @param geometry the source geometry, may be {@code null}
+     * @return {@code true} if the geometry is to be converted
+     */
+    protected final boolean accept(@Nullable Object geometry) {
+        if(geometry != null) return this.inBounds(geometry);
+
+        this.statistics.addFeatureSkipped();
+        return false;
+    }
+
+    /**
+     * Checks whether a source geometry is present, regardless of the {@linkplain #setBounds(Envelope) bounds}
+     * for sources whose bounds can only be tested once projected,
+     * counting every missing geometry as {@linkplain ConversionStatistics#getFeaturesSkipped() skipped}.
+     *
+     * @param geometry the source geometry, may be {@code null}
+     * @return {@code true} if the geometry is to be converted
+     */
+    protected final boolean present(@Nullable Object geometry) {
+        if(geometry != null) return true;
+
+        this.statistics.addFeatureSkipped();
+        return false;
+    }
+
+    /**
+     * Projects a geometry, timed as the {@linkplain ConversionStatistics.Stage#PROJECT projection} stage.
+     *
+     * @param transformer the projection transformer of the current thread
+     * @param geometry the geometry to project
+     * @return the projected geometry
+     * @throws TransformException if the geometry cannot be projected, counted as a projection failure
+     */
+    protected final Geometry project(@NotNull GeometryCoordinateSequenceTransformer transformer,
+                                     @NotNull Geometry geometry) throws TransformException {
+        return this.project(transformer, geometry, null);
+    }
+
+    /**
+     * Projects a geometry of a source feature, timed as the {@linkplain ConversionStatistics.Stage#PROJECT projection} stage.
+     *
+     * @param transformer the projection transformer of the current thread
+     * @param geometry the geometry to project
+     * @param featureId the identifier of the source feature, {@code null} if unknown
+     * @return the projected geometry
+     * @throws TransformException if the geometry cannot be projected, counted as a projection failure
+     */
+    protected final Geometry project(@NotNull GeometryCoordinateSequenceTransformer transformer,
+                                     @NotNull Geometry geometry,
+                                     @Nullable String featureId) throws TransformException {
+        GeometryProjectedEvent event = new GeometryProjectedEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        try { return transformer.transform(geometry); }
+        catch (TransformException ex) {
+            this.statistics.addProjectionFailure();
+            event.failed = true;
+            throw ex;
+        }
+        finally {
+            this.statistics.addTime(ConversionStatistics.Stage.PROJECT, System.nanoTime() - start);
+
+            if(event.shouldCommit()) {
+                event.featureId = featureId;
+                event.vertices = geometry.getNumPoints();
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Records bytes written by a conversion writing other files than its output path.
+     *
+     * @param bytes the number of bytes written
+     */
+    protected final void addBytesWritten(long bytes) {
+        this.statistics.addBytesWritten(bytes);
+    }
+
+    /**
+     * Records time spent in a stage outside the {@linkplain #pipeline conversion pipeline}.
+     *
+     * @param stage the conversion stage
+     * @param nanos the elapsed time in nanoseconds
+     */
+    protected final void addTime(@NotNull ConversionStatistics.Stage stage, long nanos) {
+        this.statistics.addTime(stage, nanos);
+    }
+
+    /**
+     * Resolves the compression of an output file, {@linkplain Compression#of(Path) detected}
+     * from its extension unless {@linkplain #setCompression(Compression) explicitly set}.
+     *
+     * @param output the destination file path
+     * @return the output compression
+     */
+    protected final @NotNull Compression getCompression(@NotNull Path output) {
+        return this.compression != null? this.compression : Compression.of(output);
+    }
+
+    /**
+     * Opens an output file with its {@linkplain #getCompression(Path) compression}.
+     *
+     * @param output the destination file path
+     * @param entry the name of the archive entry when compressed as {@link Compression#ZIP}
+     * @return a stream of the uncompressed content, closing it completes the output file
+     * @throws IOException if the output file cannot be opened
+     */
+    protected final @NotNull OutputStream openOutput(@NotNull Path output, @NotNull String entry) throws IOException {
+        return this.getCompression(output).openOutput(output, entry);
+    }
+
     /**
      * Checks whether any Z-coordinate transformation (normalization or offset) has been requested.
      *
@@ -157,17 +606,95 @@ abstract sealed class AbstractGeoToolsConverter
     }
 
     /**
-     * Applies Z-coordinate modifications to the given coordinate array.
+     * Applies Z-coordinate modifications to a deep copy of the given geometry.
      *
-     * @param toEdit the geometry to be edited.
+     * @param toEdit the geometry to be edited, left untouched.
      * @return edited geometry.
      */
     protected final Geometry applyAllCoordinates(Geometry toEdit) {
+        return this.applyAllCoordinates(toEdit, false);
+    }
+
+    /**
+     * Applies Z-coordinate modifications to the given geometry.
+     * <p>
+     * When editing in place, ordinates are written directly into the geometry's coordinate sequences
+     * without copying any coordinate array, which is only safe when the geometry is not shared
+     * (e.g. a feature owned by a streaming reader). Geometries with any sequence lacking a Z dimension
+     * always fall back to the copy path of {@link #applyAllCoordinates(Geometry)}.
+     * </p>
+     *
+     * @param toEdit the geometry to be edited.
+     * @param inPlace whether {@code toEdit} may be mutated
+     * @return edited geometry, {@code toEdit} itself if edited in place.
+     */
+    protected final Geometry applyAllCoordinates(Geometry toEdit, boolean inPlace) {
+        return this.applyAllCoordinates(toEdit, inPlace, null);
+    }
+
+    /**
+     * Applies Z-coordinate modifications to a geometry of a source feature.
+     *
+     * @param toEdit the geometry to be edited.
+     * @param inPlace whether {@code toEdit} may be mutated
+     * @param featureId the identifier of the source feature, {@code null} if unknown
+     * @return edited geometry, {@code toEdit} itself if edited in place.
+     * @see #applyAllCoordinates(Geometry, boolean)
+     */
+    protected final Geometry applyAllCoordinates(Geometry toEdit, boolean inPlace, @Nullable String featureId) {
+        GeometryModifiedEvent event = new GeometryModifiedEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        try {
+            if(!inPlace || !hasZDimension(toEdit)) return this.editCopy(toEdit);
+
+            toEdit.apply(new InPlaceCoordinateOperation());
+            toEdit.geometryChanged();
+            event.inPlace = true;
+
+            return toEdit;
+        }
+        finally {
+            this.statistics.addTime(ConversionStatistics.Stage.MODIFY, System.nanoTime() - start);
+
+            if(event.shouldCommit()) {
+                event.featureId = featureId;
+                event.vertices = toEdit.getNumPoints();
+                event.commit();
+            }
+        }
+    }
+
+    private Geometry editCopy(Geometry toEdit) {
         GeometryEditor editor = new GeometryEditor();
 
         return editor.edit(toEdit, new DefaultCoordinateOperation());
     }
 
+    private static boolean hasZDimension(@NotNull Geometry geometry) {
+        boolean[] hasZ = { true };
+
+        geometry.apply(new CoordinateSequenceFilter() {
+            @Override
+            public void filter(CoordinateSequence sequence, int i) {
+                if(!sequence.hasZ()) hasZ[0] = false;
+            }
+
+            @Override
+            public boolean isDone() {
+                return !hasZ[0];
+            }
+
+            @Override
+            public boolean isGeometryChanged() {
+                return false;
+            }
+        });
+
+        return hasZ[0];
+    }
+
     /**
      * Default operation that apply Z coordinate modifier.
      * <p>
@@ -182,7 +709,15 @@ abstract sealed class AbstractGeoToolsConverter
          */
         @Override
         public Coordinate[] edit(Coordinate[] coordinates, Geometry geometry) {
-            Coordinate[] edits = CoordinateArrays.copyDeep(coordinates);
+            Coordinate[] edits = new Coordinate[coordinates.length];
+
+            // Coordinates of a 2D sequence, such as a packed one, cannot hold a Z value
+            for (int i = 0; i < coordinates.length; i++) {
+                Coordinate coordinate = coordinates[i];
+                edits[i] = coordinate instanceof CoordinateXY || coordinate instanceof CoordinateXYM
+                    ? new Coordinate(coordinate.getX(), coordinate.getY())
+                    : coordinate.copy();
+            }
 
             if (normalizedZ != null) {
                 // Check for normalized Z which takes 1st priority
@@ -201,4 +736,35 @@ abstract sealed class AbstractGeoToolsConverter
             return edits;
         }
     }
+
+    /**
+     * Operation that apply Z coordinate modifier directly on each coordinate sequence.
+     * <p>
+     * Z values do not affect the 2D envelope, so the geometry is not flagged as changed per sequence;
+     * the caller invokes {@link Geometry#geometryChanged()} once after the whole geometry is edited.
+     */
+    class InPlaceCoordinateOperation implements CoordinateSequenceFilter {
+        @Override
+        public void filter(CoordinateSequence sequence, int i) {
+            if (normalizedZ != null) {
+                sequence.setOrdinate(i, CoordinateSequence.Z, normalizedZ);
+            }
+            else if (offsetZ != null) {
+                double originalZ = sequence.getZ(i);
+
+                // Retain original Z if some coordinate value is NaN
+                if (!Double.isNaN(originalZ)) sequence.setOrdinate(i, CoordinateSequence.Z, originalZ + offsetZ);
+            }
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public boolean isGeometryChanged() {
+            return false;
+        }
+    }
 }
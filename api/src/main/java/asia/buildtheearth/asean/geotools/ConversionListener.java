@@ -0,0 +1,45 @@
+package asia.buildtheearth.asean.geotools;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+/**
+ * Observer of the conversions run by a {@link GeoToolsConverter}.
+ *
+ * <p>Every method is invoked on the thread calling {@link GeoToolsConverter#convert(Path)},
+ * each of them does nothing by default.</p>
+ *
+ * @see GeoToolsConverter#addListener(ConversionListener)
+ */
+public interface ConversionListener {
+
+    /**
+     * Invoked before reading the source file.
+     *
+     * @param converter The running converter
+     * @param output The output path
+     */
+    default void conversionStarted(@NotNull GeoToolsConverter converter, @NotNull Path output) { }
+
+    /**
+     * Invoked once the output is completely written.
+     *
+     * @param converter The running converter
+     * @param output The output path
+     * @param statistics The final statistics of the conversion
+     */
+    default void conversionFinished(@NotNull GeoToolsConverter converter, @NotNull Path output,
+                                    @NotNull ConversionStatistics statistics) { }
+
+    /**
+     * Invoked when the conversion fails, before the failure is thrown to the caller.
+     *
+     * @param converter The running converter
+     * @param output The output path
+     * @param statistics The statistics collected until the failure
+     * @param failure The failure cause
+     */
+    default void conversionFailed(@NotNull GeoToolsConverter converter, @NotNull Path output,
+                                  @NotNull ConversionStatistics statistics, @NotNull Exception failure) { }
+}
@@ -0,0 +1,299 @@
+package asia.buildtheearth.asean.geotools;
+
+import org.geotools.api.referencing.FactoryException;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manifest of previous conversions, to skip the conversions whose source content and converter settings are unchanged.
+ *
+ * <p>Each conversion is recorded by its output path, with the size, modification time and SHA-256 digest of its
+ * source file and the digest of the converter {@linkplain GeoToolsConverter#getSettings() settings}.
+ * A source file with the same size but a new modification time is hashed again, so touched but unchanged
+ * files are still skipped. A conversion is only up to date while its output is
+ * {@linkplain GeoToolsConverter#isWritten(Path) written}.</p>
+ *
+ * <p>Conversions may be checked and recorded from multiple threads,
+ * the manifest is only written to disk when {@linkplain #save() saved}.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * ConversionManifest manifest = ConversionManifest.load(Path.of("markers/.manifest"));
+ *
+ * for (File source : sources) {
+ *     ToBlueMapMarker.fromGeoJSON(source).convert(Path.of("markers", source.getName()), manifest);
+ * }
+ *
+ * manifest.save();
+ * }</blockquote>
+ *
+ * @see GeoToolsConverter#convert(Path, ConversionManifest)
+ */
+public final class ConversionManifest {
+
+    /** Version of the manifest entries, a manifest of any other version is discarded. */
+    private static final String VERSION = "1";
+    private static final String VERSION_KEY = "manifest.version";
+
+    private static final String DIGEST = "SHA-256";
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final Path file;
+
+    /** Recorded conversions, by absolute output path. */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * A recorded conversion.
+     *
+     * @param source The absolute source file path
+     * @param size The source file size in bytes
+     * @param modified The source file modification time in milliseconds
+     * @param digest The digest of the source file content
+     * @param settings The digest of the converter settings
+     */
+    private record Entry(@NotNull String source, long size, long modified, @NotNull String digest, @NotNull String settings) {
+
+        @Override
+        public @NotNull String toString() {
+            return this.size + "\t" + this.modified + '\t' + this.digest + '\t' + this.settings + '\t' + this.source;
+        }
+
+        static @Nullable Entry parse(@NotNull String value) {
+            String[] fields = value.split("\t", 5);
+            if(fields.length != 5) return null;
+
+            try { return new Entry(fields[4], Long.parseLong(fields[0]), Long.parseLong(fields[1]), fields[2], fields[3]); }
+            catch (NumberFormatException ex) { return null; }
+        }
+    }
+
+    private ConversionManifest(@NotNull Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Load a manifest file, or start an empty manifest if the file does not exist yet.
+     *
+     * @param file The manifest file
+     * @return The loaded manifest, to be {@linkplain #save() saved} back to the same file
+     * @throws IOException If the manifest file exists but cannot be read
+     */
+    @Contract("_ -> new")
+    public static @NotNull ConversionManifest load(@NotNull Path file) throws IOException {
+        ConversionManifest manifest = new ConversionManifest(file);
+        if(!Files.exists(file)) return manifest;
+
+        Properties properties = new Properties();
+        try(Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        catch (IOException | IllegalArgumentException ex) {
+            throw new IOException("Failed to read conversion manifest " + file, ex);
+        }
+
+        if(!VERSION.equals(properties.getProperty(VERSION_KEY))) return manifest;
+
+        for (String output : properties.stringPropertyNames()) {
+            Entry entry = output.equals(VERSION_KEY)? null : Entry.parse(properties.getProperty(output));
+            if(entry != null) manifest.entries.put(output, entry);
+        }
+
+        return manifest;
+    }
+
+    /**
+     * @return The manifest file
+     */
+    public @NotNull Path getFile() {
+        return this.file;
+    }
+
+    /**
+     * @return The number of recorded conversions
+     */
+    public int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * The state of a conversion source and converter settings, captured before converting.
+     *
+     * @see #check(GeoToolsConverter, Path)
+     */
+    public static final class Source {
+        private final Entry entry;
+
+        private Source(@NotNull Entry entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Check whether an output was converted from the current content of the converter source with the same settings.
+     *
+     * @param converter The configured converter
+     * @param output The output file
+     * @return {@code true} if the conversion can be skipped
+     * @throws IOException If the source file cannot be read
+     * @throws FactoryException If the converter projection cannot be created
+     */
+    public boolean isUpToDate(@NotNull GeoToolsConverter converter, @NotNull Path output) throws IOException, FactoryException {
+        return this.inspect(converter, output) == null;
+    }
+
+    /**
+     * Check whether an output is up to date, capturing the converter source otherwise.
+     *
+     * <p>The size, modification time and digest of the source are read before converting,
+     * so a source changed during the conversion is converted again by the next run.
+     * The source content is digested at most once per check.</p>
+     *
+     * @param converter The configured converter
+     * @param output The output file
+     * @return {@code null} if the conversion can be skipped,
+     *         otherwise the captured source to {@linkplain #update(Source, Path) record} once converted
+     * @throws IOException If the source file cannot be read
+     * @throws FactoryException If the converter projection cannot be created
+     */
+    public @Nullable Source check(@NotNull GeoToolsConverter converter, @NotNull Path output) throws IOException, FactoryException {
+        Entry entry = this.inspect(converter, output);
+        if(entry == null) return null;
+
+        if(entry.digest().isEmpty()) {
+            entry = new Entry(entry.source(), entry.size(), entry.modified(), digest(converter.getSourceFile()), entry.settings());
+        }
+
+        return new Source(entry);
+    }
+
+    /**
+     * Record a successful conversion.
+     *
+     * @param source The source captured before converting
+     * @param output The output file
+     */
+    public void update(@NotNull Source source, @NotNull Path output) {
+        this.entries.put(key(output), source.entry);
+    }
+
+    /**
+     * Compare the current source and settings of a converter with the recorded conversion of an output.
+     *
+     * @return {@code null} if up to date, otherwise the current state of the source,
+     *         with an empty digest unless the source content has been digested
+     */
+    private @Nullable Entry inspect(@NotNull GeoToolsConverter converter, @NotNull Path output) throws IOException, FactoryException {
+        String key = key(output);
+        Entry entry = this.entries.get(key);
+
+        File source = converter.getSourceFile();
+        BasicFileAttributes attributes = Files.readAttributes(source.toPath(), BasicFileAttributes.class);
+        long modified = attributes.lastModifiedTime().toMillis();
+
+        Entry current = new Entry(source.getAbsolutePath(), attributes.size(), modified, "", digest(converter.getSettings()));
+
+        if(entry == null || !converter.isWritten(output)) return current;
+        if(!entry.source().equals(current.source())) return current;
+        if(!entry.settings().equals(current.settings())) return current;
+        if(entry.size() != current.size()) return current;
+        if(entry.modified() == modified) return null;
+
+        // Touched since the last conversion, compare the content
+        String digest = digest(source);
+        if(!digest.equals(entry.digest())) return new Entry(current.source(), current.size(), modified, digest, current.settings());
+
+        this.entries.replace(key, entry, new Entry(entry.source(), entry.size(), modified, entry.digest(), entry.settings()));
+        return null;
+    }
+
+    /**
+     * Forget the conversion of an output, so it is converted again.
+     *
+     * @param output The output file
+     */
+    public void remove(@NotNull Path output) {
+        this.entries.remove(key(output));
+    }
+
+    /**
+     * Write every recorded conversion to the manifest file,
+     * replacing the previous manifest only once completely written.
+     *
+     * @throws IOException If the manifest file cannot be written
+     */
+    public synchronized void save() throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(VERSION_KEY, VERSION);
+        this.entries.forEach((output, entry) -> properties.setProperty(output, entry.toString()));
+
+        Path directory = this.file.toAbsolutePath().getParent();
+        Path temporary = null;
+
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, this.file.getFileName().toString(), ".tmp");
+
+            try(Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                properties.store(writer, "Conversion manifest");
+            }
+
+            try { Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); }
+            catch (AtomicMoveNotSupportedException ex) { Files.move(temporary, this.file, StandardCopyOption.REPLACE_EXISTING); }
+        }
+        catch (IOException ex) {
+            if(temporary != null) Files.deleteIfExists(temporary);
+            throw new IOException("Failed to write conversion manifest " + this.file, ex);
+        }
+    }
+
+    private static @NotNull String key(@NotNull Path output) {
+        return output.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * Digest the whole content of a file.
+     */
+    private static @NotNull String digest(@NotNull File file) throws IOException {
+        MessageDigest digest = newDigest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+        try(FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            while(channel.read(buffer) != -1) {
+                digest.update(buffer.flip());
+                buffer.clear();
+            }
+        }
+        catch (IOException ex) {
+            throw new IOException("Failed to digest conversion source " + file, ex);
+        }
+
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static @NotNull String digest(@NotNull String settings) {
+        return HexFormat.of().formatHex(newDigest().digest(settings.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static @NotNull MessageDigest newDigest() {
+        try { return MessageDigest.getInstance(DIGEST); }
+        catch (NoSuchAlgorithmException ex) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(ex);
+        }
+    }
+}
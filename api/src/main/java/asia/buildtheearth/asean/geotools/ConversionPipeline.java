@@ -0,0 +1,213 @@
+package asia.buildtheearth.asean.geotools;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ordered producer-consumer pipeline shared by every converter.
+ *
+ * <p>The calling thread {@linkplain #submit(Object) submits} each parsed item, a pool of workers runs the
+ * {@link Stage} (coordinate modification, projection) and a single writer thread hands the results to the
+ * {@link Sink} <strong>in submission order</strong>. The number of in-flight items is bounded so memory use
+ * stays flat on large inputs.</p>
+ *
+ * <p>With a single thread, every item is processed and written inline on the calling thread,
+ * exactly like a plain read-modify-write loop.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * try(ConversionPipeline<SimpleFeature, SimpleFeature> pipeline = new ConversionPipeline<>(8, statistics, this::modify, writer::write)) {
+ *     while(reader.hasNext()) pipeline.submit(reader.next());
+ * }
+ * }</blockquote>
+ *
+ * @param <S> Submitted item type
+ * @param <R> Processed item type
+ * @see GeoToolsConverter#parallel(int)
+ */
+final class ConversionPipeline<S, R> implements Closeable {
+
+    /** Number of queued items allowed per worker thread before the submitting thread blocks. */
+    private static final int QUEUE_PER_THREAD = 16;
+
+    /** Interval of checking whether the writer thread has died while waiting for queue space. */
+    private static final long POLL_MILLIS = 50;
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    /**
+     * Processing stage of each item, run concurrently on a worker thread.
+     *
+     * @param <S> Submitted item type
+     * @param <R> Processed item type
+     */
+    @FunctionalInterface
+    interface Stage<S, R> {
+        R apply(S item) throws Exception;
+    }
+
+    /**
+     * Final consumer of each processed item, always invoked from a single thread in submission order.
+     * Items processed to {@code null} are skipped.
+     *
+     * @param <R> Processed item type
+     */
+    @FunctionalInterface
+    interface Sink<R> {
+        void write(R item) throws Exception;
+    }
+
+    private final Stage<S, R> stage;
+    private final Sink<R> sink;
+    private final ConversionStatistics statistics;
+
+    /** Time the submitting thread last left the pipeline, elapsed time until the next submission is spent reading. */
+    private long reading = System.nanoTime();
+
+    private final ExecutorService workers;
+    private final ExecutorService writerThread;
+    private final BlockingQueue<Future<R>> queue;
+    private final Future<Void> writer;
+
+    /** Marker of the end of submission. */
+    private final Future<R> end = CompletableFuture.completedFuture(null);
+
+    private boolean closed = false;
+
+    /**
+     * Create a new pipeline.
+     *
+     * @param threads Number of worker threads, {@code 1} or lower processes everything inline
+     * @param statistics Statistics the {@linkplain ConversionStatistics.Stage#READ reading} time is added to
+     * @param stage Processing stage run on the worker threads
+     * @param sink Ordered consumer of every processed item
+     */
+    ConversionPipeline(int threads, @NotNull ConversionStatistics statistics, @NotNull Stage<S, R> stage, @NotNull Sink<R> sink) {
+        this.stage = stage;
+        this.sink = sink;
+        this.statistics = statistics;
+
+        if(threads <= 1) {
+            this.workers = null;
+            this.writerThread = null;
+            this.queue = null;
+            this.writer = null;
+            return;
+        }
+
+        String name = "geotools-converter-" + POOL_COUNT.incrementAndGet();
+        this.workers = Executors.newFixedThreadPool(threads, daemonFactory(name + "-worker-"));
+        this.writerThread = Executors.newSingleThreadExecutor(daemonFactory(name + "-writer-"));
+        this.queue = new ArrayBlockingQueue<>(threads * QUEUE_PER_THREAD);
+        this.writer = this.writerThread.submit(this::drain);
+    }
+
+    /**
+     * Submit an item to be processed and written.
+     *
+     * @param item The item to submit
+     * @throws IOException If processing or writing any previous item has failed
+     */
+    public void submit(S item) throws IOException {
+        if(this.closed) throw new IOException("Conversion pipeline is already closed");
+        this.statistics.addTime(ConversionStatistics.Stage.READ, System.nanoTime() - this.reading);
+
+        try {
+            if(this.workers == null) {
+                try { this.write(this.stage.apply(item)); }
+                catch (IOException | RuntimeException ex) { throw ex; }
+                catch (Exception ex) { throw new IOException("Failed to convert feature", ex); }
+                return;
+            }
+
+            this.enqueue(this.workers.submit(() -> this.stage.apply(item)));
+        }
+        finally { this.reading = System.nanoTime(); }
+    }
+
+    /**
+     * Wait for every submitted item to be written, then release all threads.
+     *
+     * @throws IOException If processing or writing any item has failed
+     */
+    @Override
+    public void close() throws IOException {
+        if(this.closed) return;
+        this.closed = true;
+        this.statistics.addTime(ConversionStatistics.Stage.READ, System.nanoTime() - this.reading);
+
+        if(this.workers == null) return;
+
+        try {
+            this.enqueue(this.end);
+            this.writer.get();
+        }
+        catch (ExecutionException ex) { throw unwrap(ex.getCause()); }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for conversion to finish", ex);
+        }
+        finally {
+            this.workers.shutdownNow();
+            this.writerThread.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue a pending result for the writer, blocking while the queue is full.
+     *
+     * @throws IOException If the writer thread has stopped due to a failure
+     */
+    private void enqueue(@NotNull Future<R> pending) throws IOException {
+        try {
+            while(!this.queue.offer(pending, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                if(!this.writer.isDone()) continue;
+
+                // Writer can only stop early on failure
+                pending.cancel(true);
+                this.writer.get();
+                throw new IOException("Conversion writer has stopped unexpectedly");
+            }
+        }
+        catch (ExecutionException ex) { throw unwrap(ex.getCause()); }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while submitting feature for conversion", ex);
+        }
+    }
+
+    /**
+     * Writer loop, takes every result in submission order until the end marker.
+     */
+    private Void drain() throws Exception {
+        while(true) {
+            Future<R> pending = this.queue.take();
+
+            if(pending == this.end) return null;
+
+            try { this.write(pending.get()); }
+            catch (ExecutionException ex) {
+                throw ex.getCause() instanceof Exception cause? cause : ex;
+            }
+        }
+    }
+
+    private void write(R result) throws Exception {
+        if(result != null) this.sink.write(result);
+    }
+
+    private static @NotNull IOException unwrap(Throwable cause) {
+        if(cause instanceof IOException ex) return ex;
+        if(cause instanceof RuntimeException ex) throw ex;
+        if(cause instanceof Error error) throw error;
+        return new IOException("Failed to convert feature", cause);
+    }
+
+    private static @NotNull ThreadFactory daemonFactory(@NotNull String prefix) {
+        return Thread.ofPlatform().name(prefix, 0).daemon(true).factory();
+    }
+}
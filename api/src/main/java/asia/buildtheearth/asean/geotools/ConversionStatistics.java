@@ -0,0 +1,198 @@
+package asia.buildtheearth.asean.geotools;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Statistics of a single conversion, collected by every {@link GeoToolsConverter}.
+ *
+ * <p>Stage times are summed over every thread working on that stage, so with {@linkplain GeoToolsConverter#parallel(int)
+ * parallel} conversion they may add up to more than the {@linkplain #getWallTime(TimeUnit) wall time}.</p>
+ *
+ * <ul>
+ *   <li>{@link Stage#READ}: parsing the source, the time the reading thread spends outside of any other stage.</li>
+ *   <li>{@link Stage#MODIFY}: Z normalization and offset.</li>
+ *   <li>{@link Stage#PROJECT}: projection into Minecraft coordinates.</li>
+ *   <li>{@link Stage#WRITE}: encoding and writing the output.</li>
+ * </ul>
+ *
+ * <p>Statistics are updated concurrently during a conversion and are final once
+ * {@link ConversionListener#conversionFinished(GeoToolsConverter, java.nio.file.Path, ConversionStatistics) finished}.</p>
+ *
+ * @see GeoToolsConverter#getStatistics()
+ */
+public final class ConversionStatistics {
+
+    /**
+     * Timed stage of a conversion.
+     */
+    public enum Stage { READ, MODIFY, PROJECT, WRITE }
+
+    private final LongAdder featuresIn = new LongAdder();
+    private final LongAdder featuresOut = new LongAdder();
+    private final LongAdder featuresSkipped = new LongAdder();
+    private final LongAdder vertices = new LongAdder();
+    private final LongAdder projectionFailures = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder[] stages = new LongAdder[Stage.values().length];
+
+    private volatile long bytesRead = 0;
+    private volatile long wallNanos = 0;
+
+    ConversionStatistics() {
+        for (int i = 0; i < this.stages.length; i++) this.stages[i] = new LongAdder();
+    }
+
+    void addFeatureIn(int vertices) {
+        this.featuresIn.increment();
+        this.vertices.add(vertices);
+    }
+
+    void addFeatureOut() {
+        this.featuresOut.increment();
+    }
+
+    void addFeatureSkipped() {
+        this.featuresSkipped.increment();
+    }
+
+    void addProjectionFailure() {
+        this.projectionFailures.increment();
+    }
+
+    void addBytesWritten(long bytes) {
+        this.bytesWritten.add(bytes);
+    }
+
+    void addTime(@NotNull Stage stage, long nanos) {
+        this.stages[stage.ordinal()].add(nanos);
+    }
+
+    void finish(long wallNanos, long bytesRead) {
+        this.wallNanos = wallNanos;
+        this.bytesRead = bytesRead;
+    }
+
+    /**
+     * @return The number of features submitted for conversion
+     */
+    public long getFeaturesIn() {
+        return this.featuresIn.sum();
+    }
+
+    /**
+     * @return The number of converted features handed to the output writer
+     */
+    public long getFeaturesOut() {
+        return this.featuresOut.sum();
+    }
+
+    /**
+     * @return The number of features dropped by the converter, without geometry or out of {@linkplain GeoToolsConverter#setBounds bounds}
+     */
+    public long getFeaturesSkipped() {
+        return this.featuresSkipped.sum();
+    }
+
+    /**
+     * @return The number of vertices of every submitted feature
+     */
+    public long getVertices() {
+        return this.vertices.sum();
+    }
+
+    /**
+     * @return The number of geometries that failed to be projected
+     */
+    public long getProjectionFailures() {
+        return this.projectionFailures.sum();
+    }
+
+    /**
+     * @return The size of the source file in bytes, as stored on disk
+     */
+    public long getBytesRead() {
+        return this.bytesRead;
+    }
+
+    /**
+     * @return The total size of every written output file in bytes
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten.sum();
+    }
+
+    /**
+     * @param stage The conversion stage
+     * @param unit The time unit to convert to
+     * @return The time spent in the stage, summed over every thread
+     */
+    public long getTime(@NotNull Stage stage, @NotNull TimeUnit unit) {
+        return unit.convert(this.stages[stage.ordinal()].sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit The time unit to convert to
+     * @return The elapsed time of the whole conversion
+     */
+    public long getWallTime(@NotNull TimeUnit unit) {
+        return unit.convert(this.wallNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Format these statistics as a single JSON object, with times in milliseconds.
+     *
+     * @return A JSON object
+     */
+    public @NotNull String toJson() {
+        StringBuilder json = new StringBuilder("{");
+
+        json.append("\"featuresIn\":").append(this.getFeaturesIn())
+            .append(",\"featuresOut\":").append(this.getFeaturesOut())
+            .append(",\"featuresSkipped\":").append(this.getFeaturesSkipped())
+            .append(",\"vertices\":").append(this.getVertices())
+            .append(",\"projectionFailures\":").append(this.getProjectionFailures())
+            .append(",\"bytesRead\":").append(this.getBytesRead())
+            .append(",\"bytesWritten\":").append(this.getBytesWritten())
+            .append(",\"wallMillis\":").append(millis(this.wallNanos))
+            .append(",\"stageMillis\":{");
+
+        for (Stage stage : Stage.values()) {
+            if(stage.ordinal() > 0) json.append(',');
+            json.append('"').append(stage.name().toLowerCase(Locale.ROOT)).append("\":")
+                .append(millis(this.stages[stage.ordinal()].sum()));
+        }
+
+        return json.append("}}").toString();
+    }
+
+    /**
+     * Format these statistics as a human-readable report.
+     */
+    @Override
+    public @NotNull String toString() {
+        StringBuilder report = new StringBuilder();
+
+        report.append(String.format(Locale.ROOT, "Features:  %,d in, %,d out, %,d skipped%n",
+            this.getFeaturesIn(), this.getFeaturesOut(), this.getFeaturesSkipped()));
+        report.append(String.format(Locale.ROOT, "Vertices:  %,d (%,d projection failures)%n",
+            this.getVertices(), this.getProjectionFailures()));
+        report.append(String.format(Locale.ROOT, "Bytes:     %,d read, %,d written%n",
+            this.getBytesRead(), this.getBytesWritten()));
+        report.append(String.format(Locale.ROOT, "Wall time: %,.1f ms%n", millis(this.wallNanos)));
+
+        for (Stage stage : Stage.values()) {
+            report.append(String.format(Locale.ROOT, "  %-8s %,10.1f ms%n",
+                stage.name().toLowerCase(Locale.ROOT), millis(this.stages[stage.ordinal()].sum())));
+        }
+
+        return report.toString();
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 1e5) / 10d;
+    }
+}
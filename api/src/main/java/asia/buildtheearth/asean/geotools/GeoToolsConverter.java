@@ -1,14 +1,20 @@
 package asia.buildtheearth.asean.geotools;
 
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
 import com.bedatadriven.jackson.datatype.jts.JtsModule;
 import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.TransformException;
 import org.geotools.data.geojson.GeoJSONWriter;
+import org.geotools.referencing.operation.projection.MapProjection;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
 
 import javax.xml.namespace.QName;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 
 /**
@@ -66,6 +72,19 @@ public interface GeoToolsConverter {
      */
     GeoToolsConverter setParsingElement(@NotNull QName elementName);
 
+    /**
+     * Selects the parser used when reading from a KML file.
+     * <p>
+     * By default, this is {@link KMLParser#XSD}, GeoTools' schema-bound streaming parser.
+     * {@link KMLParser#PULL} is a much lighter StAX parser that only reads {@code Placemark} elements
+     * with their name, description, extended data and geometry.
+     * </p>
+     *
+     * @param parser the KML parser implementation
+     * @return this instance for chaining
+     */
+    GeoToolsConverter setKMLParser(@NotNull KMLParser parser);
+
     /**
      * Drops all Z (elevation) values from the geometry, producing 2D coordinates only.
      * <p>
@@ -107,6 +126,112 @@ public interface GeoToolsConverter {
      */
     GeoToolsConverter setPrecision(int precision);
 
+    /**
+     * Sets the compression of the output file.
+     * <p>
+     * By default, compression is detected from the output file extension:
+     * {@code .gz} writes gzip and {@code .kmz} or {@code .zip} writes a single entry zip archive.
+     * Compressed input is always detected and decompressed on the fly.
+     * </p>
+     *
+     * @param compression the output compression
+     * @return this instance for chaining
+     */
+    GeoToolsConverter setCompression(@NotNull Compression compression);
+
+    /**
+     * Only converts features whose geometry intersects some geographic bounds.
+     * <p>
+     * Features are tested as soon as their geometry is read, before any Z modification or projection;
+     * features without geometry are dropped. By default, every feature is converted.
+     * </p>
+     *
+     * @param bounds the bounds in longitude ({@code x}) and latitude ({@code y}) degrees
+     * @return this instance for chaining
+     */
+    GeoToolsConverter setBounds(@NotNull Envelope bounds);
+
+    /**
+     * Only converts features whose geometry intersects a region of Minecraft blocks.
+     * <p>
+     * The region is converted to {@linkplain #setBounds(Envelope) geographic bounds}
+     * through the inverse of the given projection.
+     * </p>
+     *
+     * @param blocks the block region, with block X as {@code x} and block Z as {@code y}
+     * @param projection the projection from geographic to block coordinates,
+     *                   such as {@link asia.buildtheearth.asean.geotools.projection.MinecraftProjection#getBTE()}
+     * @return this instance for chaining
+     * @throws TransformException if a point of the region is outside the projection
+     */
+    GeoToolsConverter setBounds(@NotNull Envelope blocks, @NotNull MapProjection projection) throws TransformException;
+
+    /**
+     * Runs the conversion on multiple threads.
+     * <p>
+     * The calling thread parses features, a pool of {@code threads} workers applies Z modification
+     * and projection, and a single writer thread emits every feature in its original input order.
+     * KML placemarks are also parsed on {@code threads} threads when the source file can be split.
+     * The output is identical to a single-threaded conversion.
+     * </p>
+     *
+     * <p>By default, conversion runs on the calling thread only.</p>
+     *
+     * @param threads the number of worker threads, {@code 1} or lower disables parallel conversion
+     * @return this instance for chaining
+     */
+    GeoToolsConverter parallel(int threads);
+
+    /**
+     * Registers an observer notified of each conversion start, completion and failure.
+     *
+     * @param listener the listener to add
+     * @return this instance for chaining
+     */
+    GeoToolsConverter addListener(@NotNull ConversionListener listener);
+
+    /**
+     * Returns the statistics of the last conversion, updated while a conversion is running.
+     *
+     * @return the statistics of the last conversion, empty if nothing has been converted yet
+     */
+    @NotNull ConversionStatistics getStatistics();
+
+    /**
+     * Returns the source file read by this converter.
+     *
+     * @return the input file
+     */
+    @NotNull File getSourceFile();
+
+    /**
+     * Describes every setting affecting the converted output, such as the projection parameters,
+     * precision and Z mode, but not the number of {@linkplain #parallel(int) threads}.
+     * <p>
+     * Two converters of the same class and source content with equal settings write identical output.
+     * </p>
+     *
+     * @return a stable description of the output settings
+     * @throws FactoryException if the projection cannot be created
+     * @see ConversionManifest
+     */
+    @NotNull String getSettings() throws FactoryException;
+
+    /**
+     * Checks whether every file written by a previous conversion to the output path is still in place.
+     * <p>
+     * Converters writing a single file only check the output itself.
+     * </p>
+     *
+     * @param output the target file path of the conversion
+     * @return {@code true} if the converted output exists
+     * @throws IOException if the output directory cannot be listed
+     * @see ConversionManifest#isUpToDate(GeoToolsConverter, Path)
+     */
+    default boolean isWritten(@NotNull Path output) throws IOException {
+        return Files.exists(output);
+    }
+
     /**
      * Performs the format conversion and writes the result to the specified output path.
      *
@@ -114,4 +239,25 @@ public interface GeoToolsConverter {
      * @throws IOException if an I/O error occurs during reading or writing
      */
     void convert(Path output) throws FactoryException, IOException;
+
+    /**
+     * Performs the format conversion unless the output is up to date in a manifest,
+     * then records the conversion in the manifest.
+     *
+     * @param output the target file path to write the converted result to
+     * @param manifest the manifest of previous conversions, to be {@linkplain ConversionManifest#save() saved} by the caller
+     * @return {@code true} if converted, {@code false} if the source and settings are unchanged since the last conversion
+     * @throws IOException if an I/O error occurs during reading or writing
+     * @see ConversionManifest#check(GeoToolsConverter, Path)
+     */
+    default boolean convert(@NotNull Path output, @NotNull ConversionManifest manifest) throws FactoryException, IOException {
+        ConversionManifest.Source source = manifest.check(this, output);
+        if(source == null) return false;
+
+        manifest.remove(output);
+        this.convert(output);
+        manifest.update(source, output);
+
+        return true;
+    }
 }
\ No newline at end of file
@@ -3,16 +3,17 @@ package asia.buildtheearth.asean.geotools;
 import asia.buildtheearth.asean.geotools.kml.store.KMLFeatureReader;
 import asia.buildtheearth.asean.geotools.projection.MinecraftCRS;
 import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
 import asia.buildtheearth.asean.geotools.projection.TerraProjection;
+import asia.buildtheearth.asean.geotools.raster.ScanlineRasterizer;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.referencing.FactoryException;
-import org.geotools.api.referencing.operation.MathTransform;
 import org.geotools.api.referencing.operation.TransformException;
 import org.geotools.api.util.ProgressListener;
 import org.geotools.coverage.grid.GridCoverage2D;
 import org.geotools.data.simple.SimpleFeatureCollection;
 import org.geotools.feature.DefaultFeatureCollection;
-import org.geotools.geometry.jts.JTS;
+import org.geotools.geometry.jts.GeometryCoordinateSequenceTransformer;
 import org.geotools.geometry.jts.ReferencedEnvelope;
 import org.geotools.process.vector.VectorToRasterProcess;
 import org.geotools.referencing.operation.projection.MapProjection;
@@ -35,7 +36,10 @@ import java.util.List;
 import java.util.function.*;
 
 /**
- * Converts KML geometry into a schematic-compatible raster format using brute-force pixel containment logic.
+ * Converts KML geometry into a schematic-compatible raster format.
+ *
+ * <p>Each geometry is rasterized with the {@link ScanlineRasterizer}, the brute-force pixel containment
+ * logic is kept in {@link #rasterizeToBlockData(Geometry, BiPredicate)} for custom hit predicates.</p>
  *
  * <p><strong>Deprecated since 1.0.0:</strong> This implementation is deprecated due to severe performance limitations
  * and lack of integration with modern schematic editing libraries.</p>
@@ -97,11 +101,9 @@ public class KMLToSchematic {
     }
 
     /**
-     * Rasterizes each geometry individually using brute-force containment checks on every pixel.
+     * Rasterizes each geometry individually with the {@link ScanlineRasterizer}.
      *
-     * @deprecated  This method performs extremely poorly on large datasets due to its
-     * pixel-wise spatial checks using {@link Geometry#intersects}, which scale linearly with geometry count
-     * and pixel resolution.
+     * @deprecated Results are kept in memory for every geometry, use {@link SchematicExport} instead.
      *
      * @return A list of individual {@link RasterResult}s, one per geometry.
      * @throws IOException if reading KML data or performing coordinate transformation fails.
@@ -114,6 +116,9 @@ public class KMLToSchematic {
 
             List<RasterResult> result = new ArrayList<>();
 
+            // Resolve the projection once for all features
+            GeometryCoordinateSequenceTransformer transformer = PackedSequenceTransformer.create(this.projection.get());
+
             // Write each feature into geojson file
             while(reader.hasNext()) {
                 SimpleFeature feature = reader.next();
@@ -121,11 +126,9 @@ public class KMLToSchematic {
                 Geometry geometry = (Geometry) feature.getDefaultGeometry();
                 if (geometry == null) continue;
 
-                MathTransform transform = this.projection.get();
-
-                Geometry projected = JTS.transform(geometry, transform);
+                Geometry projected = transformer.transform(geometry);
 
-                result.add(this.rasterizeToBlockData(projected, PreparedGeometry::intersects));
+                result.add(this.rasterizeToBlockData(projected));
             }
 
             return result;
@@ -208,6 +211,29 @@ public class KMLToSchematic {
         );
     }
 
+    /**
+     * Rasterize a {@linkplain Geometry} into byte array data using the {@link ScanlineRasterizer}.
+     *
+     * <p>A block is hit when its center intersects the geometry, the same result as
+     * {@code rasterizeToBlockData(geometry, PreparedGeometry::intersects)}.</p>
+     *
+     * @param geometry The geometry to rasterize
+     * @return A raster result containing the block data as a byte array and its boundary data
+     */
+    @NotNull
+    protected RasterResult rasterizeToBlockData(@NotNull Geometry geometry) {
+        Envelope env = geometry.getEnvelopeInternal();
+
+        int minX = (int) Math.floor(env.getMinX());
+        int minZ = (int) Math.floor(env.getMinY());
+        int width = (int) Math.ceil(env.getMaxX()) - minX;
+        int length = (int) Math.ceil(env.getMaxY()) - minZ;
+
+        byte[] data = ScanlineRasterizer.rasterize(geometry, minX, minZ, width, length);
+
+        return new RasterResult(data, width, length, minX, minZ);
+    }
+
     /**
      * Rasterize a {@linkplain Geometry} into byte array data.
      *
@@ -230,6 +256,7 @@ public class KMLToSchematic {
 
         // For containment test, we need a prepared geometry
         PreparedGeometry prepared = PreparedGeometryFactory.prepare(geometry);
+        GeometryFactory factory = geometry.getFactory();
 
         // Loop through each meter-sized pixel (each block in X/Z)
         for (int dz = 0; dz < length; dz++) {
@@ -237,7 +264,7 @@ public class KMLToSchematic {
                 double worldX = dx + minX + 0.5;
                 double worldZ = dz + minZ + 0.5;
 
-                if (method.test(prepared, new GeometryFactory().createPoint(new Coordinate(worldX, worldZ))))
+                if (method.test(prepared, factory.createPoint(new Coordinate(worldX, worldZ))))
                     data[dz * width + dx] = 1; // hit
                 else data[dz * width + dx] = 0; // miss
             }
@@ -1,29 +1,512 @@
 package asia.buildtheearth.asean.geotools;
 
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONFeature;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import asia.buildtheearth.asean.geotools.jfr.BlocksWrittenEvent;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
+import asia.buildtheearth.asean.geotools.raster.ScanlineRasterizer;
+import asia.buildtheearth.asean.geotools.worldedit.WorldEditGeometryWriter;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
+import com.sk89q.worldedit.extent.clipboard.io.BuiltInClipboardFormat;
+import com.sk89q.worldedit.extent.clipboard.io.ClipboardWriter;
+import com.sk89q.worldedit.function.pattern.Pattern;
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.regions.CuboidRegion;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.geometry.jts.GeometryCoordinateSequenceTransformer;
+import org.geotools.referencing.operation.projection.MapProjection;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.CoordinateSequenceFilter;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.index.strtree.STRtree;
+
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Converts KML or GeoJSON geometries into Sponge v3 schematics ({@code .schem}).
+ *
+ * <p>Each feature is projected to Minecraft coordinates and filled with the {@link ScanlineRasterizer}:
+ * every block whose center intersects the geometry is placed at the geometry's lowest elevation.</p>
+ *
+ * <p>The output is split into square tiles of {@linkplain #setTileSize(int) tile size} blocks,
+ * aligned to multiples of the tile size in world coordinates. Tiles are rasterized and written one at a time,
+ * so only a single tile clipboard is ever held in memory regardless of the exported extent.
+ * When every geometry fits in one tile, the schematic is written to the output path as is,
+ * otherwise each tile is written next to it as {@code <name>_<tileX>_<tileZ>.schem}.
+ * The written files are recorded in a {@code <output>.tiles} list next to the output:
+ * once an export completes, files recorded by the previous export to the same output and not written again
+ * are deleted. Files that were never recorded, and every file of an export that fails, are left untouched.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * List<Path> tiles = SchematicExport.fromGeoJSON(geojsonFile)
+ *     .setProjection(MinecraftProjection.getASEAN())
+ *     .setTileSize(256)
+ *     .normalizeZ(64)
+ *     .export(Path.of("province.schem"));
+ * }</blockquote>
+ */
 public final class SchematicExport extends AbstractGeoToolsConverter {
 
+    /** Default tile size in blocks. */
+    public static final int DEFAULT_TILE_SIZE = 512;
+
+    /** Supported input formats. */
+    private enum Format { KML, GEOJSON }
+
+    private final Format format;
+
+    /** Projection from geographic to Minecraft coordinates. */
+    private ProjectionSupplier projection = MinecraftProjection::getBTE;
+
+    /** Pattern of every placed block. */
+    private Pattern pattern = WorldEditGeometryWriter.DEFAULT_PLACING_DIAMOND_BLOCK;
+
+    /** Width and length of each output tile in blocks. */
+    private int tileSize = DEFAULT_TILE_SIZE;
 
     /**
-     * Constructs a new converter using the given input file and output path.
+     * Constructs a new converter reading from a KML file.
+     *
+     * <p>Equivalent to {@link #fromKML(File)}.</p>
      *
-     * @param sourceFile source file to be converted
+     * @param sourceFile source KML file to be converted
      */
     public SchematicExport(File sourceFile) {
+        this(sourceFile, Format.KML);
+    }
+
+    private SchematicExport(File sourceFile, Format format) {
         super(sourceFile);
+        this.format = format;
+    }
+
+    /**
+     * Creates a new schematic converter that reads a KML file as input.
+     *
+     * @param kmlFile the input KML file to convert
+     * @return a converter that rasterizes the KML file into schematics
+     */
+    @Contract("_ -> new")
+    public static @NotNull SchematicExport fromKML(File kmlFile) {
+        return new SchematicExport(kmlFile, Format.KML);
+    }
+
+    /**
+     * Creates a new schematic converter that reads a GeoJSON file as input.
+     *
+     * @param geojsonFile the input GeoJSON file to convert
+     * @return a converter that rasterizes the GeoJSON file into schematics
+     */
+    @Contract("_ -> new")
+    public static @NotNull SchematicExport fromGeoJSON(File geojsonFile) {
+        return new SchematicExport(geojsonFile, Format.GEOJSON);
     }
 
     /**
-     * TODO: Finish this implementation
+     * Set a custom projection for this converter.
      *
-     * @param output the target file path to write the converted result to
-     * @throws IOException If conversion went wrong
+     * @param projection New projection to set
+     * @return This instance for chaining
      */
+    @Contract(value = "_ -> this", mutates = "this")
+    public SchematicExport setProjection(@NotNull MapProjection projection) {
+        this.projection = () -> projection;
+        return this;
+    }
+
+    /**
+     * Set the block pattern of every rasterized block.
+     *
+     * <p>By default, {@linkplain WorldEditGeometryWriter#DEFAULT_PLACING_DIAMOND_BLOCK diamond blocks} are placed.</p>
+     *
+     * @param pattern New pattern to set
+     * @return This instance for chaining
+     */
+    @Contract(value = "_ -> this", mutates = "this")
+    public SchematicExport setPattern(@NotNull Pattern pattern) {
+        this.pattern = pattern;
+        return this;
+    }
+
+    /**
+     * Set the width and length of each output tile.
+     *
+     * <p>By default, tiles are {@value #DEFAULT_TILE_SIZE} × {@value #DEFAULT_TILE_SIZE} blocks.</p>
+     *
+     * @param tileSize Tile size in blocks, must be positive
+     * @return This instance for chaining
+     */
+    @Contract(value = "_ -> this", mutates = "this")
+    public SchematicExport setTileSize(int tileSize) {
+        if(tileSize <= 0) throw new IllegalArgumentException("Tile size must be positive, got " + tileSize);
+        this.tileSize = tileSize;
+        return this;
+    }
+
+    /** {@inheritDoc} */
     @Override
-    public void convert(Path output) throws IOException {
+    protected void describe(@NotNull Map<String, Object> settings) throws FactoryException {
+        super.describe(settings);
+        settings.put("format", this.format);
+        settings.put("projection", describe(this.projection.get()));
+        settings.put("pattern", this.pattern);
+        settings.put("tileSize", this.tileSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The output is written if every file recorded by its last export exists,
+     * or the output file itself when no export has been recorded.
+     * </p>
+     */
+    @Override
+    public boolean isWritten(@NotNull Path output) throws IOException {
+        List<Path> recorded = recorded(output);
+        if(recorded.isEmpty()) return Files.exists(output);
+
+        for (Path file : recorded) if(!Files.exists(file)) return false;
+        return true;
+    }
+
+    /**
+     * Rasterizes every geometry and writes the result as one or more Sponge v3 schematic tiles.
+     *
+     * @param output the target schematic file to write the converted result to
+     * @throws IOException If the input cannot be read, transformed or any schematic cannot be written
+     * @throws FactoryException If the projection cannot be created
+     * @see #export(Path)
+     */
+    @Override
+    public void convert(Path output) throws IOException, FactoryException {
+        this.export(output);
+    }
+
+    /**
+     * Rasterizes every geometry and writes the result as one or more Sponge v3 schematic tiles.
+     *
+     * @param output the target schematic file to write the converted result to
+     * @return every written schematic file, in tile order
+     * @throws IOException If the input cannot be read, transformed or any schematic cannot be written
+     * @throws FactoryException If the projection cannot be created
+     */
+    public @NotNull List<Path> export(@NotNull Path output) throws IOException, FactoryException {
+        List<Path> written = new ArrayList<>();
+        this.track(output, () -> this.exportTiles(output, written));
+
+        return Collections.unmodifiableList(written);
+    }
+
+    /**
+     * Rasterize every geometry into tiles.
+     *
+     * @param written Every written schematic file is added to this list
+     */
+    private void exportTiles(@NotNull Path output, @NotNull List<Path> written) throws IOException, FactoryException {
+        STRtree index = new STRtree();
+        Envelope bounds = new Envelope();
+
+        // Resolve the projection once, transformers are not thread-safe
+        MapProjection projection = this.projection.get();
+        ThreadLocal<GeometryCoordinateSequenceTransformer> transformer =
+            ThreadLocal.withInitial(() -> PackedSequenceTransformer.create(projection));
+
+        // Read, modify and project all features into the tile index
+        try(ConversionPipeline<Shape, Shape> pipeline = this.pipeline(
+                shape -> this.project(shape, transformer.get()),
+                projected -> {
+                    Envelope envelope = projected.geometry().getEnvelopeInternal();
+                    bounds.expandToInclude(envelope);
+                    index.insert(envelope, projected.geometry());
+                }
+            )) {
+            this.readAll(pipeline);
+        }
+        catch (IOException ex) { throw new IOException("Failed to read geometry data to rasterize", ex); }
+
+        if(bounds.isNull()) throw new IOException("No geometry to export in " + this.sourceFile);
+
+        int fromTileX = Math.floorDiv((int) Math.floor(bounds.getMinX()), this.tileSize);
+        int fromTileZ = Math.floorDiv((int) Math.floor(bounds.getMinY()), this.tileSize);
+        int toTileX = Math.floorDiv((int) Math.floor(bounds.getMaxX()), this.tileSize);
+        int toTileZ = Math.floorDiv((int) Math.floor(bounds.getMaxY()), this.tileSize);
+        boolean single = fromTileX == toTileX && fromTileZ == toTileZ;
+
+        Spans spans = new Spans();
+        long start = System.nanoTime();
+
+        for (int tileZ = fromTileZ; tileZ <= toTileZ; tileZ++) {
+            for (int tileX = fromTileX; tileX <= toTileX; tileX++) {
+                Path tile = single? output : tilePath(output, tileX, tileZ);
+
+                if(this.writeTile(index, tileX, tileZ, spans, tile)) {
+                    written.add(tile);
+                    this.addBytesWritten(Files.size(tile));
+                }
+            }
+        }
+
+        // Files of the previous export are not all overwritten by this one
+        List<Path> stale = new ArrayList<>(recorded(output));
+        stale.removeAll(written);
+        record(output, written);
+        for (Path file : stale) Files.deleteIfExists(file);
+
+        this.addTime(ConversionStatistics.Stage.WRITE, System.nanoTime() - start);
+    }
+
+    /**
+     * Rasterize and write a single tile.
+     *
+     * @return {@code false} if no block has been placed in this tile, and nothing is written
+     */
+    private boolean writeTile(@NotNull STRtree index, int tileX, int tileZ,
+                              @NotNull Spans spans, @NotNull Path output) throws IOException {
+        int minX = tileX * this.tileSize, minZ = tileZ * this.tileSize;
+        int maxX = minX + this.tileSize - 1, maxZ = minZ + this.tileSize - 1;
+
+        // Geometries whose block cells may fall within this tile
+        @SuppressWarnings("unchecked")
+        List<Geometry> geometries = index.query(new Envelope(minX - 0.5, maxX + 1.5, minZ - 0.5, maxZ + 1.5));
+
+        if(geometries.isEmpty()) return false;
+
+        BlocksWrittenEvent event = new BlocksWrittenEvent();
+        event.begin();
+
+        // Collect spans first to size the clipboard to what is actually placed
+        int[] elevations = new int[geometries.size()];
+        int[] ends = new int[geometries.size()];
+        int blockMinX = Integer.MAX_VALUE, blockMinY = Integer.MAX_VALUE, blockMinZ = Integer.MAX_VALUE;
+        int blockMaxX = Integer.MIN_VALUE, blockMaxY = Integer.MIN_VALUE, blockMaxZ = Integer.MIN_VALUE;
+
+        spans.clear();
+        for (int g = 0; g < geometries.size(); g++) {
+            int start = spans.size;
+            ScanlineRasterizer.rasterize(geometries.get(g), minX, minZ, maxX, maxZ, spans);
+            elevations[g] = elevation(geometries.get(g));
+            ends[g] = spans.size;
+
+            if(start == spans.size) continue;
+
+            blockMinY = Math.min(blockMinY, elevations[g]);
+            blockMaxY = Math.max(blockMaxY, elevations[g]);
+
+            for (int i = start; i < spans.size; i += 3) {
+                blockMinZ = Math.min(blockMinZ, spans.data[i]);
+                blockMaxZ = Math.max(blockMaxZ, spans.data[i]);
+                blockMinX = Math.min(blockMinX, spans.data[i + 1]);
+                blockMaxX = Math.max(blockMaxX, spans.data[i + 2]);
+            }
+        }
+
+        if(spans.size == 0) return false;
+
+        BlockVector3 min = BlockVector3.at(blockMinX, blockMinY, blockMinZ);
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(
+            new CuboidRegion(min, BlockVector3.at(blockMaxX, blockMaxY, blockMaxZ))
+        );
+        clipboard.setOrigin(min);
+
+        long blocks = 0;
+
+        for (int g = 0, i = 0; g < geometries.size(); g++) {
+            for (; i < ends[g]; i += 3) {
+                int z = spans.data[i];
+                for (int x = spans.data[i + 1]; x <= spans.data[i + 2]; x++) {
+                    BlockVector3 position = BlockVector3.at(x, elevations[g], z);
+                    clipboard.setBlock(position, this.pattern.applyBlock(position));
+                }
+                blocks += spans.data[i + 2] - spans.data[i + 1] + 1;
+            }
+        }
+
+        try(OutputStream stream = Files.newOutputStream(output);
+            ClipboardWriter writer = BuiltInClipboardFormat.SPONGE_V3_SCHEMATIC.getWriter(stream)) {
+            writer.write(clipboard);
+        }
+        catch (IOException ex) { throw new IOException("Failed to write schematic tile " + output, ex); }
+
+        if(event.shouldCommit()) {
+            event.blocks = blocks;
+            event.bytes = Files.size(output);
+            event.path = output.toString();
+            event.commit();
+        }
+
+        return true;
+    }
+
+    /**
+     * Modify and project a source geometry, run on a worker thread when {@linkplain #parallel(int) parallel}.
+     */
+    private @NotNull Shape project(@NotNull Shape shape,
+                                   @NotNull GeometryCoordinateSequenceTransformer transformer) throws IOException {
+        Geometry geometry = shape.geometry();
+        Geometry modified = this.hasCoordinatesModifier()? this.applyAllCoordinates(geometry, true, shape.id()) : geometry;
+
+        try { return new Shape(this.project(transformer, modified, shape.id()), shape.id()); }
+        catch (TransformException ex) {
+            throw new IOException("Failed to transform the geometry into minecraft projection", ex);
+        }
+    }
+
+    /**
+     * Submit every source geometry to the pipeline.
+     */
+    private void readAll(@NotNull ConversionPipeline<Shape, ?> pipeline) throws IOException {
+        switch (this.format) {
+            case KML -> {
+                try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = this.openKML()) {
+                    while(reader.hasNext()) {
+                        SimpleFeature feature = reader.next();
+                        Object geometry = feature.getDefaultGeometry();
+                        if(this.accept(geometry)) pipeline.submit(new Shape((Geometry) geometry, feature.getID()));
+                    }
+                }
+            }
+            case GEOJSON -> {
+                try(GeoJSONStreamReader reader = new GeoJSONStreamReader(this.sourceFile)) {
+                    while(reader.hasNext()) {
+                        GeoJSONFeature feature = reader.next();
+                        if(this.accept(feature.geometry())) pipeline.submit(new Shape(feature.geometry(), feature.id()));
+                    }
+                }
+            }
+        }
+    }
+
+    /** A source or projected geometry with its feature identifier. */
+    private record Shape(@NotNull Geometry geometry, @Nullable String id) implements GeometryItem { }
+
+    /**
+     * Resolve the file of a tile next to the output file, as {@code <name>_<tileX>_<tileZ>.<extension>}.
+     */
+    private static @NotNull Path tilePath(@NotNull Path output, int tileX, int tileZ) {
+        String name = output.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+
+        String tile = dot > 0
+            ? name.substring(0, dot) + '_' + tileX + '_' + tileZ + name.substring(dot)
+            : name + '_' + tileX + '_' + tileZ;
+
+        return output.resolveSibling(tile);
+    }
+
+    /**
+     * Resolve the list of files written by the last export to an output, as {@code <output>.tiles}.
+     */
+    private static @NotNull Path tileList(@NotNull Path output) {
+        return output.resolveSibling(output.getFileName() + ".tiles");
+    }
+
+    /**
+     * Read every file recorded by the last export to an output.
+     *
+     * @return The recorded files, or an empty list if no export has been recorded
+     */
+    private static @NotNull List<Path> recorded(@NotNull Path output) throws IOException {
+        Path list = tileList(output);
+        if(!Files.exists(list)) return List.of();
+
+        List<Path> files = new ArrayList<>();
+        for (String name : Files.readAllLines(list, StandardCharsets.UTF_8))
+            if(!name.isBlank()) files.add(output.resolveSibling(name));
+
+        return files;
+    }
+
+    /**
+     * Record the files written by a completed export, replacing the previous list atomically.
+     */
+    private static void record(@NotNull Path output, @NotNull List<Path> written) throws IOException {
+        Path list = tileList(output);
+        Path temporary = list.resolveSibling(list.getFileName() + ".tmp");
+
+        List<String> names = new ArrayList<>(written.size());
+        for (Path file : written) names.add(file.getFileName().toString());
+
+        try {
+            Files.write(temporary, names, StandardCharsets.UTF_8);
+
+            try { Files.move(temporary, list, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); }
+            catch (AtomicMoveNotSupportedException ex) { Files.move(temporary, list, StandardCopyOption.REPLACE_EXISTING); }
+        }
+        catch (IOException ex) {
+            Files.deleteIfExists(temporary);
+            throw new IOException("Failed to record the schematic tiles of " + output, ex);
+        }
+    }
+
+    /**
+     * Block elevation of a projected geometry, its lowest Z value or {@code 0} without any Z value.
+     */
+    private static int elevation(@NotNull Geometry geometry) {
+        double[] min = { Double.NaN };
+
+        // Read from the sequences, getCoordinates() would copy every vertex
+        geometry.apply(new CoordinateSequenceFilter() {
+            @Override
+            public void filter(CoordinateSequence sequence, int i) {
+                if(!sequence.hasZ()) return;
+
+                double z = sequence.getZ(i);
+                if(!Double.isNaN(z) && (Double.isNaN(min[0]) || z < min[0])) min[0] = z;
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public boolean isGeometryChanged() {
+                return false;
+            }
+        });
+
+        return Double.isNaN(min[0])? 0 : (int) Math.floor(min[0]);
+    }
+
+    /**
+     * Growable list of rasterized {@code (z, fromX, toX)} spans.
+     */
+    private static final class Spans implements ScanlineRasterizer.SpanConsumer {
+        private int[] data = new int[96];
+        private int size = 0;
+
+        @Override
+        public void fill(int z, int fromX, int toX) {
+            if(this.size + 3 > this.data.length) this.data = Arrays.copyOf(this.data, this.data.length * 2);
+            this.data[this.size++] = z;
+            this.data[this.size++] = fromX;
+            this.data[this.size++] = toX;
+        }
 
+        void clear() {
+            this.size = 0;
+        }
     }
 }
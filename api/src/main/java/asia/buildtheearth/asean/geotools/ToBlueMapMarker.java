@@ -1,26 +1,26 @@
 package asia.buildtheearth.asean.geotools;
 
 import asia.buildtheearth.asean.geotools.bluemap.BlueMapMarkerWriter;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONFeature;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import asia.buildtheearth.asean.geotools.io.Compression;
 import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
 import de.bluecolored.bluemap.api.markers.*;
-import org.geotools.api.data.Query;
-import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.referencing.FactoryException;
-import org.geotools.api.referencing.operation.MathTransform;
 import org.geotools.api.referencing.operation.TransformException;
-import org.geotools.data.geojson.GeoJSONReader;
-import org.geotools.data.geojson.store.GeoJSONDataStore;
-import org.geotools.data.geojson.store.GeoJSONFeatureReader;
-import org.geotools.data.store.ContentEntry;
-import org.geotools.data.store.ContentState;
-import org.geotools.geometry.jts.JTS;
+import org.geotools.geometry.jts.GeometryCoordinateSequenceTransformer;
 import org.geotools.referencing.operation.projection.MapProjection;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.*;
 
 import java.io.*;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public abstract sealed class ToBlueMapMarker extends AbstractGeoToolsConverter {
     private ToBlueMapMarker(File source) { super(source); }
@@ -105,6 +105,18 @@ public abstract sealed class ToBlueMapMarker extends AbstractGeoToolsConverter {
         return this;
     }
 
+    /** {@inheritDoc} */
+    @Override
+    protected void describe(@NotNull Map<String, Object> settings) throws FactoryException {
+        super.describe(settings);
+        settings.put("projection", describe(this.projection.get()));
+        settings.put("writer", this.writer.getSettings());
+        settings.put("makerLabel", this.makerLabel);
+        settings.put("sortingPriority", this.sortingPriority);
+        settings.put("toggleable", this.toggleable);
+        settings.put("defaultHidden", this.defaultHidden);
+    }
+
     public static final class FromGeoJSON extends ToBlueMapMarker {
 
         public FromGeoJSON(File source) {
@@ -113,50 +125,81 @@ public abstract sealed class ToBlueMapMarker extends AbstractGeoToolsConverter {
 
         @Override
         public void convert(Path output) throws FactoryException, IOException {
+            this.track(output, () -> this.convertMarkers(output));
+        }
+
+        private void convertMarkers(@NotNull Path output) throws FactoryException, IOException {
             // Create a marker writer
             MarkerSet.Builder markerSet = MarkerSet.builder();
 
             if (makerLabel != null) markerSet.label(makerLabel);
-            else markerSet.label(this.stripExt(output.getFileName()));
+            else markerSet.label(this.stripExt(Compression.baseName(output.getFileName().toString())));
 
             if (toggleable != null) markerSet.toggleable(toggleable);
             if (defaultHidden != null) markerSet.defaultHidden(defaultHidden);
             if (sortingPriority != null) markerSet.sorting(sortingPriority);
 
-            MarkerSet marker = markerSet.build();
-            GeoJSONDataStore store = new GeoJSONDataStore(this.sourceFile);
-            ContentState content = new ContentState(new ContentEntry(store, store.getTypeName()));
-
-            // Read all GeoJSON features
-            try (GeoJSONFeatureReader reader = new GeoJSONFeatureReader(content, Query.ALL)) {
-
-                // Write each feature into kml file
-                int count = 0;
-                while(reader.hasNext()) {
-                    SimpleFeature feature = reader.next();
-
-                    Object geometryAttribute = feature.getAttribute(GeoJSONReader.GEOMETRY_NAME);
-                    if (geometryAttribute instanceof Geometry raw) {
-                        Geometry geometry = this.hasCoordinatesModifier()? this.applyAllCoordinates(raw) : raw;
-
-                        MathTransform transform = this.projection.get();
-
-                        Geometry projected = JTS.transform(geometry, transform);
-
-                        this.writer.writeGeometry(count++, projected, feature, marker::put);
+            // Resolve the projection once for the whole conversion, transformers are not thread-safe
+            MapProjection projection = this.projection.get();
+            ThreadLocal<GeometryCoordinateSequenceTransformer> transformer =
+                ThreadLocal.withInitial(() -> PackedSequenceTransformer.create(projection));
+
+            // Stream each marker to the output file as soon as it is built, after the marker set header
+            try (BlueMapMarkerWriter.MarkerSetWriter markerWriter = this.writer.open(markerSet.build(), output, this.getCompression(output))) {
+                try (GeoJSONStreamReader reader = new GeoJSONStreamReader(this.sourceFile);
+                     ConversionPipeline<IndexedFeature, FeatureMarkers> pipeline = this.pipeline(
+                         indexed -> this.collectMarkers(indexed, transformer.get()),
+                         collected -> {
+                             for (Map.Entry<String, Marker> entry : collected.markers()) markerWriter.write(entry.getKey(), entry.getValue());
+                         }
+                     )) {
+
+                    // Write each feature into marker set
+                    int count = 0;
+                    while(reader.hasNext()) {
+                        GeoJSONFeature feature = reader.next();
+
+                        if (this.accept(feature.geometry()))
+                            pipeline.submit(new IndexedFeature(count++, feature.id(), feature.getName(), feature.geometry()));
                     }
                 }
 
+                // Only complete the marker file once every feature has been written, a failure discards it
+                markerWriter.finish();
             } catch (IOException ex) {
-                throw new IOException("Failed to write Geometry data to KMLWriter", ex);
-            } catch (TransformException ex) {
-                throw new IOException("Failed to transform the geometry into minecraft projection", ex);
+                throw new IOException("Failed to write Geometry data to BlueMap marker file", ex);
             }
+        }
 
-            // Finally, write the marker to JSON output file
-            this.writer.export(marker, output);
+        /**
+         * Modify, project and build all markers of a feature, run on a worker thread when {@linkplain #parallel(int) parallel}.
+         */
+        private @NotNull FeatureMarkers collectMarkers(@NotNull IndexedFeature indexed,
+                                                       @NotNull GeometryCoordinateSequenceTransformer transformer) throws IOException {
+            Geometry geometry = this.hasCoordinatesModifier()? this.applyAllCoordinates(indexed.geometry(), true, indexed.id()) : indexed.geometry();
+            List<Map.Entry<String, Marker>> markers = new ArrayList<>(1);
+
+            try {
+                Geometry projected = this.project(transformer, geometry, indexed.id());
+                this.writer.writeGeometry(indexed.count(), projected, indexed.name(),
+                    (key, marker) -> markers.add(Map.entry(key, marker))
+                );
+
+                return new FeatureMarkers(indexed.id(), projected, markers);
+            }
+            catch (TransformException ex) {
+                throw new IOException("Failed to transform the geometry into minecraft projection", ex);
+            }
         }
 
+        /** A source feature geometry with its identifier, its marker label and its fallback marker index. */
+        private record IndexedFeature(int count, @Nullable String id, @Nullable String name,
+                                      @NotNull Geometry geometry) implements GeometryItem { }
+
+        /** Every marker built from a projected feature geometry, keyed by marker ID. */
+        private record FeatureMarkers(@Nullable String id, @NotNull Geometry geometry,
+                                      @NotNull List<Map.Entry<String, Marker>> markers) implements GeometryItem { }
+
         private @NotNull String stripExt(@NotNull Path base) {
             return this.stripExt(base.toString());
         }
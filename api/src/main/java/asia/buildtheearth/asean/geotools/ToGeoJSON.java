@@ -1,29 +1,50 @@
 package asia.buildtheearth.asean.geotools;
 
-import asia.buildtheearth.asean.geotools.kml.store.KMLFeatureReader;
-import org.geotools.api.data.Query;
+import asia.buildtheearth.asean.geotools.bluemap.BlueMapMarkerReader;
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamWriter;
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.projection.DymaxionMapProjection;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
+import de.bluecolored.bluemap.api.markers.Marker;
+import de.bluecolored.bluemap.api.markers.MarkerSet;
+import org.geotools.api.data.FeatureReader;
 import org.geotools.api.feature.Property;
 import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.NoninvertibleTransformException;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.data.geojson.GeoJSONReader;
 import org.geotools.data.geojson.GeoJSONWriter;
-import org.geotools.data.geojson.store.GeoJSONDataStore;
-import org.geotools.data.geojson.store.GeoJSONFeatureReader;
-import org.geotools.data.store.ContentEntry;
-import org.geotools.data.store.ContentState;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.geometry.jts.GeometryCoordinateSequenceTransformer;
+import org.geotools.referencing.operation.projection.MapProjection;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 
 import javax.xml.namespace.QName;
+import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.Map;
 
 /**
  *  Converts geospatial file to GeoJSON format.
  *
  * @see #identity(File)
  * @see #fromKML(File)
+ * @see #fromBlueMap(File)
+ * @see #fromBlocks(File)
  */
 public abstract sealed class ToGeoJSON extends AbstractGeoToolsConverter {
     private ToGeoJSON(File source) { super(source); }
@@ -32,6 +53,52 @@ public abstract sealed class ToGeoJSON extends AbstractGeoToolsConverter {
     @Override
     public abstract void convert(Path output) throws IOException;
 
+    /**
+     * Consumer of each converted feature, closing it completes the GeoJSON document.
+     */
+    protected interface FeatureWriter extends Closeable {
+        void write(@NotNull SimpleFeature feature) throws IOException;
+    }
+
+    /**
+     * Opens the GeoJSON writer of an output file.
+     *
+     * <p>With a {@linkplain #setPrecision(int) precision} set, features are written by {@link GeoJSONStreamWriter}
+     * whose coordinates are rounded by the allocation-free {@link CoordinateFormatter},
+     * otherwise by GeoTools' {@link GeoJSONWriter}.</p>
+     *
+     * @param output the destination GeoJSON file path
+     * @return a new writer of the output file
+     * @throws IOException if the output file cannot be opened
+     */
+    protected final @NotNull FeatureWriter openWriter(@NotNull Path output) throws IOException {
+        OutputStream stream = this.openOutput(output, "doc.geojson");
+
+        try {
+            if(this.precision != null) {
+                GeoJSONStreamWriter writer = new GeoJSONStreamWriter(stream,
+                    CoordinateFormatter.fixed(this.precision), this.prettyPrint);
+
+                return new FeatureWriter() {
+                    @Override public void write(@NotNull SimpleFeature feature) throws IOException { writer.write(feature); }
+                    @Override public void close() throws IOException { writer.close(); }
+                };
+            }
+
+            GeoJSONWriter writer = new GeoJSONWriter(stream);
+            writer.setPrettyPrinting(this.prettyPrint);
+
+            return new FeatureWriter() {
+                @Override public void write(@NotNull SimpleFeature feature) throws IOException { writer.write(feature); }
+                @Override public void close() throws IOException { writer.close(); }
+            };
+        } catch (IOException | RuntimeException ex) {
+            // The writer never took ownership of the stream
+            stream.close();
+            throw ex;
+        }
+    }
+
     /**
      * Identity converter that reads a GeoJSON file and writes it back with optional modifications
      * such as projection transformation or geometry adjustment.
@@ -56,6 +123,32 @@ public abstract sealed class ToGeoJSON extends AbstractGeoToolsConverter {
         return new FromKML(kmlFile);
     }
 
+    /**
+     * Creates a new GeoJSON converter that reads a BlueMap marker file,
+     * inverse projecting every marker back to WGS84 coordinates.
+     *
+     * @param markerFile the input BlueMap marker file
+     * @return a converter that transforms the markers to GeoJSON
+     * @see FromBlueMap
+     */
+    @Contract("_ -> new")
+    public static @NotNull FromMinecraft fromBlueMap(File markerFile) {
+        return new FromBlueMap(markerFile);
+    }
+
+    /**
+     * Creates a new GeoJSON converter that reads a GeoJSON file in Minecraft block coordinates,
+     * inverse projecting every geometry back to WGS84 coordinates.
+     *
+     * @param geojsonFile the input GeoJSON file in block coordinates
+     * @return a converter that transforms the block coordinates to WGS84 GeoJSON
+     * @see FromBlocks
+     */
+    @Contract("_ -> new")
+    public static @NotNull FromMinecraft fromBlocks(File geojsonFile) {
+        return new FromBlocks(geojsonFile);
+    }
+
     /**
      * Converts KML file to GeoJSON format.
      *
@@ -84,28 +177,20 @@ public abstract sealed class ToGeoJSON extends AbstractGeoToolsConverter {
          */
         @Override
         public void convert(Path output) throws IOException {
-            // Create a geojson writer
-            try(GeoJSONWriter geojsonWriter = new GeoJSONWriter(Files.newOutputStream(output))) {
-                if(precision != null) geojsonWriter.setMaxDecimals(precision);
-                geojsonWriter.setPrettyPrinting(prettyPrint);
-
-                // Read all KML features
-                try(KMLFeatureReader reader = new KMLFeatureReader(this.sourceFile, this.parsingElement)) {
+            this.track(output, () -> {
+                // Create a geojson writer
+                try(FeatureWriter geojsonWriter = this.openWriter(output)) {
+                    // Read all KML features
+                    try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = this.openKML();
+                        ConversionPipeline<SimpleFeature, SimpleFeature> pipeline = this.pipeline(this::modify, geojsonWriter::write)) {
 
-                    // Write each feature into geojson file
-                    while(reader.hasNext()) {
-                        SimpleFeature feature = reader.next();
-
-                        // Modify coordinates if detected change
-                        if(this.hasCoordinatesModifier())
-                            this.modifyAllCoordinates(feature);
-
-                        geojsonWriter.write(feature);
+                        // Write each feature into geojson file
+                        while(reader.hasNext()) pipeline.submit(reader.next());
                     }
+                    catch (IOException ex) { throw new IOException("Failed to write KML data to GeoJSONWriter", ex); }
                 }
-                catch (IOException ex) { throw new IOException("Failed to write KML data to GeoJSONWriter", ex); }
-            }
-            catch (IOException ex) { throw new IOException("Failed to construct GeoJSONWriter", ex); }
+                catch (IOException ex) { throw new IOException("Failed to construct GeoJSONWriter", ex); }
+            });
         }
     }
 
@@ -124,40 +209,216 @@ public abstract sealed class ToGeoJSON extends AbstractGeoToolsConverter {
 
         @Override
         public void convert(Path output) throws IOException {
-            // Create a geojson writer
-            try(GeoJSONWriter geojsonWriter = new GeoJSONWriter(Files.newOutputStream(output))) {
-                if(precision != null) geojsonWriter.setMaxDecimals(precision);
-                geojsonWriter.setPrettyPrinting(prettyPrint);
+            this.track(output, () -> {
+                // Create a geojson writer
+                try(FeatureWriter geojsonWriter = this.openWriter(output)) {
+                    // Read all GeoJSON features, decompressing the source on the fly
+                    try(GeoJSONReader source = new GeoJSONReader(Compression.openInput(this.sourceFile));
+                        SimpleFeatureIterator reader = source.getIterator();
+                        ConversionPipeline<SimpleFeature, SimpleFeature> pipeline = this.pipeline(this::modify, geojsonWriter::write)) {
 
-                GeoJSONDataStore store = new GeoJSONDataStore(this.sourceFile);
-                ContentState content = new ContentState(new ContentEntry(store, store.getTypeName()));
+                        // Write each feature within bounds into geojson file
+                        while(reader.hasNext()) {
+                            SimpleFeature feature = reader.next();
+                            if(this.inBounds(feature.getDefaultGeometry())) pipeline.submit(feature);
+                        }
+                    }
+                    catch (IOException ex) { throw new IOException("Failed to write KML data to GeoJSONWriter", ex); }
+                }
+                catch (IOException ex) { throw new IOException("Failed to construct GeoJSONWriter", ex); }
+            });
+        }
+    }
 
-                // Read all GeoJSON features
-                try(GeoJSONFeatureReader reader = new GeoJSONFeatureReader(content, Query.ALL)) {
+    /**
+     * Converts geometries in Minecraft block coordinates back to WGS84 GeoJSON.
+     *
+     * <p>Every geometry is inverse projected by its {@linkplain #setProjection(MapProjection) projection},
+     * through the warm-started {@linkplain DymaxionMapProjection#inverseTransform(double[], int, int, double[], int, int, int)
+     * batch inverse} of Dymaxion projections. {@linkplain #setBounds(Envelope) Bounds} are geographic
+     * and tested once inverse projected, Z modifications apply to the elevation afterward.</p>
+     *
+     * <p>Example usage:</p>
+     * <blockquote>{@snippet :
+     * ToGeoJSON.fromBlueMap(markerFile)
+     *     .setProjection(MinecraftProjection.getASEAN())
+     *     .convert(Path.of("markers.geojson"));
+     * }</blockquote>
+     */
+    public abstract static sealed class FromMinecraft extends ToGeoJSON permits FromBlueMap, FromBlocks {
 
-                    // Write each feature into kml file
-                    while(reader.hasNext()) {
-                        SimpleFeature feature = reader.next();
+        protected ProjectionSupplier projection = MinecraftProjection::getBTE;
 
-                        // Modify coordinates if detected change
-                        if(this.hasCoordinatesModifier())
-                            this.modifyAllCoordinates(feature);
+        private FromMinecraft(File source) {
+            super(source);
+        }
 
-                        geojsonWriter.write(feature);
-                    }
+        /**
+         * Set the projection of the source block coordinates.
+         *
+         * @param projection New projection to set
+         * @return This instance for chaining
+         */
+        public FromMinecraft setProjection(@NotNull MapProjection projection) {
+            this.projection = () -> projection;
+            return this;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected void describe(@NotNull Map<String, Object> settings) throws FactoryException {
+            super.describe(settings);
+            settings.put("projection", describe(this.projection.get()));
+        }
+
+        /**
+         * Creates the inverse geometry transformers of every pipeline thread, transformers are not thread-safe.
+         *
+         * @throws IOException if the projection cannot be created or inverted
+         */
+        protected final @NotNull ThreadLocal<GeometryCoordinateSequenceTransformer> inverseTransformers() throws IOException {
+            MathTransform inverse;
+
+            // Resolve the projection once for the whole conversion
+            try { inverse = this.projection.get().inverse(); }
+            catch (FactoryException | NoninvertibleTransformException ex) {
+                throw new IOException("Failed to create the inverse of minecraft projection", ex);
+            }
+
+            return ThreadLocal.withInitial(() -> PackedSequenceTransformer.create(inverse));
+        }
+
+        /**
+         * Inverse project then modify every geometry of a feature in place, run on a worker thread when {@linkplain #parallel(int) parallel}.
+         *
+         * @return the same feature, or {@code null} if out of {@linkplain #setBounds(Envelope) bounds}
+         */
+        protected final @Nullable SimpleFeature unproject(@NotNull SimpleFeature feature,
+                                                          @NotNull GeometryCoordinateSequenceTransformer transformer) throws IOException {
+            for(Property props : feature.getValue()) {
+                if(props == null || !(props.getValue() instanceof Geometry geometry)) continue;
+
+                try { props.setValue(this.project(transformer, geometry, feature.getID())); }
+                catch (TransformException ex) {
+                    throw new IOException("Failed to inverse transform the geometry from minecraft projection", ex);
                 }
-                catch (IOException ex) { throw new IOException("Failed to write KML data to GeoJSONWriter", ex); }
             }
-            catch (IOException ex) { throw new IOException("Failed to construct GeoJSONWriter", ex); }
+
+            if(!this.inBounds(feature.getDefaultGeometry())) return null;
+            return this.modify(feature);
         }
     }
 
+    /**
+     * Converts a BlueMap marker file back to WGS84 GeoJSON.
+     *
+     * <p>Each marker is written as a feature identified by its marker key, with the {@code label}
+     * of the marker and the {@code markerSet} key it belongs to. Markers are read as by
+     * {@link BlueMapMarkerReader}, those without any geometry are skipped.</p>
+     */
+    public static final class FromBlueMap extends FromMinecraft {
+
+        /** Feature type of every converted marker. */
+        private static final SimpleFeatureType TYPE;
+
+        static {
+            SimpleFeatureTypeBuilder builder = new SimpleFeatureTypeBuilder();
+            builder.setName("Marker");
+            builder.add("geometry", Geometry.class);
+            builder.add("label", String.class);
+            builder.add("markerSet", String.class);
+            builder.setDefaultGeometry("geometry");
+            TYPE = builder.buildFeatureType();
+        }
+
+        /**
+         * Constructs a new converter using the given input file.
+         *
+         * @param markerFile source BlueMap marker file to be converted
+         */
+        public FromBlueMap(File markerFile) {
+            super(markerFile);
+        }
+
+        @Override
+        public void convert(Path output) throws IOException {
+            this.track(output, () -> {
+                Map<String, MarkerSet> sets = BlueMapMarkerReader.read(this.sourceFile);
+                ThreadLocal<GeometryCoordinateSequenceTransformer> transformer = this.inverseTransformers();
+
+                try(FeatureWriter geojsonWriter = this.openWriter(output);
+                    ConversionPipeline<SimpleFeature, SimpleFeature> pipeline = this.pipeline(
+                        feature -> this.unproject(feature, transformer.get()), geojsonWriter::write)) {
+
+                    for (Map.Entry<String, MarkerSet> set : sets.entrySet()) {
+                        for (Map.Entry<String, Marker> marker : set.getValue().getMarkers().entrySet()) {
+                            Geometry geometry = BlueMapMarkerReader.toGeometry(marker.getValue());
+                            if(!this.present(geometry)) continue;
+
+                            pipeline.submit(SimpleFeatureBuilder.build(TYPE,
+                                new Object[] { geometry, marker.getValue().getLabel(), set.getKey() }, marker.getKey()));
+                        }
+                    }
+                }
+                catch (IOException ex) { throw new IOException("Failed to write BlueMap markers to GeoJSONWriter", ex); }
+            });
+        }
+    }
+
+    /**
+     * Converts a GeoJSON file in Minecraft block coordinates back to WGS84 GeoJSON, keeping every feature property.
+     */
+    public static final class FromBlocks extends FromMinecraft {
+
+        /**
+         * Constructs a new converter using the given input file.
+         *
+         * @param geojsonFile source GeoJSON file in block coordinates
+         */
+        public FromBlocks(File geojsonFile) {
+            super(geojsonFile);
+        }
+
+        @Override
+        public void convert(Path output) throws IOException {
+            this.track(output, () -> {
+                ThreadLocal<GeometryCoordinateSequenceTransformer> transformer = this.inverseTransformers();
+
+                try(FeatureWriter geojsonWriter = this.openWriter(output);
+                    GeoJSONReader source = new GeoJSONReader(Compression.openInput(this.sourceFile));
+                    SimpleFeatureIterator reader = source.getIterator();
+                    ConversionPipeline<SimpleFeature, SimpleFeature> pipeline = this.pipeline(
+                        feature -> this.unproject(feature, transformer.get()), geojsonWriter::write)) {
+
+                    while(reader.hasNext()) {
+                        SimpleFeature feature = reader.next();
+                        if(this.present(feature.getDefaultGeometry())) pipeline.submit(feature);
+                    }
+                }
+                catch (IOException ex) { throw new IOException("Failed to write block coordinates to GeoJSONWriter", ex); }
+            });
+        }
+    }
+
+    /**
+     * Modify coordinates of a feature if any modifier is set, run on a worker thread when {@linkplain #parallel(int) parallel}.
+     *
+     * @param feature the feature to modify in place
+     * @return the same feature
+     */
+    protected SimpleFeature modify(@NotNull SimpleFeature feature) {
+        if(this.hasCoordinatesModifier())
+            this.modifyAllCoordinates(feature);
+
+        return feature;
+    }
+
     protected void modifyAllCoordinates(@NotNull SimpleFeature feature) {
         for(Property props : feature.getValue()) {
             if(props == null) continue;
 
             if(props.getValue() instanceof Geometry geometry) {
-                props.setValue(this.applyAllCoordinates(geometry));
+                props.setValue(this.applyAllCoordinates(geometry, true, feature.getID()));
             }
         }
     }
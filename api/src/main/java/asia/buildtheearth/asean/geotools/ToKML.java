@@ -1,24 +1,26 @@
 package asia.buildtheearth.asean.geotools;
 
-import asia.buildtheearth.asean.geotools.kml.store.KMLFeatureReader;
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONFeature;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLStreamWriter;
 import asia.buildtheearth.asean.geotools.kml.writer.KMLWriter;
 import asia.buildtheearth.asean.geotools.kml.writer.KMLWriterV21;
 import asia.buildtheearth.asean.geotools.kml.writer.KMLWriterV22;
-import org.geotools.api.data.Query;
+import org.geotools.api.data.FeatureReader;
 import org.geotools.api.feature.Property;
 import org.geotools.api.feature.simple.SimpleFeature;
-import org.geotools.data.geojson.GeoJSONReader;
-import org.geotools.data.geojson.store.GeoJSONDataStore;
-import org.geotools.data.geojson.store.GeoJSONFeatureReader;
-import org.geotools.data.store.ContentEntry;
-import org.geotools.data.store.ContentState;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.api.referencing.FactoryException;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.Geometry;
 
 import java.io.*;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Map;
 import java.util.function.Supplier;
 
 /**
@@ -38,6 +40,24 @@ public abstract sealed class ToKML extends AbstractGeoToolsConverter {
     /** Writer of KML v2.2 configuration */
     protected Supplier<@NotNull KMLWriter> writer = KMLWriterV22::new;
 
+    /** Whether to encode each geometry as it is read instead of buffering the whole document. */
+    protected boolean streaming = false;
+
+    /**
+     * Consumer of each converted geometry, either buffered or streamed to the output.
+     */
+    @FunctionalInterface
+    protected interface GeometryWriter {
+        void write(@NotNull Geometry geometry, FeatureId identifier) throws IOException;
+    }
+
+    /**
+     * Reader that feeds all source geometries to a {@link GeometryWriter}, as read from the source file.
+     */
+    @FunctionalInterface
+    protected interface GeometrySource {
+        void readAll(@NotNull GeometryWriter writer) throws IOException;
+    }
 
     /** {@inheritDoc} */
     @Override
@@ -80,6 +100,21 @@ public abstract sealed class ToKML extends AbstractGeoToolsConverter {
         return this;
     }
 
+    /**
+     * Streams the KML output instead of buffering every geometry before encoding.
+     *
+     * <p>The {@code <kml><Document>} header is written up front and each geometry is flushed as its own
+     * {@code <Placemark>} as soon as it is read, so memory use stays flat regardless of the input size.</p>
+     *
+     * @return this instance for chaining
+     * @see KMLWriter#stream(java.io.OutputStream)
+     */
+    @Contract(value = " -> this", mutates = "this")
+    public ToKML enableStreaming() {
+        this.streaming = true;
+        return this;
+    }
+
     /**
      * Sets the indentation size for pretty-printed XML output.
      *
@@ -112,16 +147,96 @@ public abstract sealed class ToKML extends AbstractGeoToolsConverter {
     }
 
     /**
-     * Unsupported operation.
+     * Sets the maximum number of decimal places for coordinate values in the output.
      *
-     * <p>The KML writer uses full precision by default and does not support limiting coordinate precision.</p>
+     * <p>Coordinates are rounded by the shared {@link CoordinateFormatter} and trailing zeros are stripped.
+     * Since the buffered GeoTools encoder always writes full precision, setting a precision implies
+     * {@linkplain #enableStreaming() streaming}.</p>
      *
-     * @throws UnsupportedOperationException always thrown since this operation is not supported
+     * @param precision the number of decimal places to keep (e.g. 6 for micro-degree accuracy)
+     * @return this instance for chaining
      */
     @Override
-    @Contract("_ -> fail")
-    public ToKML setPrecision(int ignored) {
-        throw new UnsupportedOperationException("Fixed precision is not supported by KML writer");
+    @Contract(value = "_ -> this", mutates = "this")
+    public ToKML setPrecision(int precision) {
+        this.precision = precision;
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected void describe(@NotNull Map<String, Object> settings) throws FactoryException {
+        super.describe(settings);
+        settings.put("indentSize", this.indentSize);
+        settings.put("writer", this.writer.get().getClass().getName());
+        settings.put("streaming", this.streaming);
+    }
+
+    /**
+     * Writes all geometries from a source into the KML output file,
+     * either buffered or {@linkplain #enableStreaming() streamed}.
+     * Output with a {@linkplain #setPrecision(int) precision} is always streamed.
+     *
+     * @param kmlOutput the destination kml file path
+     * @param source the reader of all geometries to write
+     * @throws IOException if the input file cannot be read or the output file cannot be written
+     */
+    protected final void write(@NotNull Path kmlOutput, @NotNull GeometrySource source) throws IOException {
+        this.track(kmlOutput, () -> {
+            // Create a kml writer
+            KMLWriter kmlWriter = this.writer.get();
+
+            if(prettyPrint) kmlWriter.enablePrettyPrinting(this.indentSize);
+            kmlWriter.setMaxDecimals(this.precision);
+
+            OutputStream output;
+            try { output = this.openOutput(kmlOutput, "doc.kml"); }
+            catch (IOException ex) { throw new IOException("Failed to construct KMLWriter", ex); }
+
+            try(output) {
+                if(this.streaming || this.precision != null) {
+                    KMLStreamWriter stream;
+                    try { stream = kmlWriter.stream(output); }
+                    catch (IOException ex) { throw new IOException("Failed to construct KMLWriter", ex); }
+
+                    try(stream) {
+                        this.writeAll(source, stream::writeGeometry);
+                    }
+                }
+                else {
+                    this.writeAll(source, kmlWriter::writeGeometry);
+
+                    long start = System.nanoTime();
+                    kmlWriter.export(output);
+                    this.addTime(ConversionStatistics.Stage.WRITE, System.nanoTime() - start);
+                }
+            }
+        });
+    }
+
+    /**
+     * Feeds every source geometry through the conversion pipeline, applying Z modification
+     * (concurrently when {@linkplain #parallel(int) parallel}) before writing them in input order.
+     */
+    private void writeAll(@NotNull GeometrySource source, @NotNull GeometryWriter writer) throws IOException {
+        try(ConversionPipeline<Placemark, Placemark> pipeline = this.pipeline(this::modify,
+            placemark -> writer.write(placemark.geometry(), placemark.identifier()))) {
+            source.readAll((geometry, identifier) -> pipeline.submit(new Placemark(geometry, identifier)));
+        }
+    }
+
+    private @NotNull Placemark modify(@NotNull Placemark placemark) {
+        if(!this.hasCoordinatesModifier()) return placemark;
+
+        return new Placemark(this.applyAllCoordinates(placemark.geometry(), true, placemark.id()), placemark.identifier());
+    }
+
+    /** A geometry waiting to be written with its feature identifier. */
+    private record Placemark(@NotNull Geometry geometry, FeatureId identifier) implements GeometryItem {
+        @Override
+        public @Nullable String id() {
+            return this.identifier == null? null : this.identifier.getID();
+        }
     }
 
     /**
@@ -153,32 +268,19 @@ public abstract sealed class ToKML extends AbstractGeoToolsConverter {
          */
         @Override
         public void convert(Path kmlOutput) throws IOException {
-            // Create a kml writer
-            try(OutputStream writer = Files.newOutputStream(kmlOutput)) {
-                KMLWriter kmlWriter = this.writer.get();
-
-                if(prettyPrint) kmlWriter.enablePrettyPrinting(this.indentSize);
-
-                GeoJSONDataStore store = new GeoJSONDataStore(this.sourceFile);
-                ContentState content = new ContentState(new ContentEntry(store, store.getTypeName()));
+            this.write(kmlOutput, kmlWriter -> {
                 // Read all GeoJSON features
-                try(GeoJSONFeatureReader reader = new GeoJSONFeatureReader(content, Query.ALL)) {
+                try(GeoJSONStreamReader reader = new GeoJSONStreamReader(this.sourceFile)) {
 
                     // Write each feature into kml file
                     while(reader.hasNext()) {
-                        SimpleFeature feature = reader.next();
-                        Object geometryAttribute = feature.getAttribute(GeoJSONReader.GEOMETRY_NAME);
-                        if(geometryAttribute instanceof Geometry raw) {
-                            Geometry geometry = this.hasCoordinatesModifier()? this.applyAllCoordinates(raw) : raw;
-                            kmlWriter.writeGeometry(geometry, feature.getIdentifier());
-                        }
+                        GeoJSONFeature feature = reader.next();
+                        if(this.accept(feature.geometry()))
+                            kmlWriter.write(feature.geometry(), feature.getIdentifier());
                     }
-
-                    kmlWriter.export(writer);
                 }
                 catch (IOException ex) { throw new IOException("Failed to write Geometry data to KMLWriter", ex); }
-            }
-            catch (IOException ex) { throw new IOException("Failed to construct KMLWriter", ex); }
+            });
         }
     }
 
@@ -195,34 +297,24 @@ public abstract sealed class ToKML extends AbstractGeoToolsConverter {
         /** {@inheritDoc} */
         @Override
         public void convert(Path kmlOutput) throws IOException {
-            // Create a kml writer
-            try(OutputStream writer = Files.newOutputStream(kmlOutput)) {
-                KMLWriter kmlWriter = this.writer.get();
-
-                if(prettyPrint) kmlWriter.enablePrettyPrinting(this.indentSize);
-
+            this.write(kmlOutput, kmlWriter -> {
                 // Read all KML features
-                try(KMLFeatureReader reader = new KMLFeatureReader(this.sourceFile, this.parsingElement)) {
+                try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = this.openKML()) {
 
-                    // Write each feature into geojson file
+                    // Write each feature into kml file
                     while(reader.hasNext()) {
                         SimpleFeature feature = reader.next();
 
                         for(Property props : feature.getValue()) {
                             if(props == null) continue;
 
-                            if(props.getValue() instanceof Geometry raw) {
-                                Geometry geometry = this.hasCoordinatesModifier()? this.applyAllCoordinates(raw) : raw;
-                                kmlWriter.writeGeometry(geometry, feature.getIdentifier());
-                            }
+                            if(props.getValue() instanceof Geometry geometry)
+                                kmlWriter.write(geometry, feature.getIdentifier());
                         }
                     }
                 }
                 catch (IOException ex) { throw new IOException("Failed to write KML data to KML file", ex); }
-
-                kmlWriter.export(writer);
-            }
-            catch (IOException ex) { throw new IOException("Failed to construct KMLWriter", ex); }
+            });
         }
     }
 }
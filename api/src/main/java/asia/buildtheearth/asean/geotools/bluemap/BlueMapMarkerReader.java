@@ -0,0 +1,147 @@
+package asia.buildtheearth.asean.geotools.bluemap;
+
+import asia.buildtheearth.asean.geotools.io.Compression;
+import com.flowpowered.math.vector.Vector2d;
+import com.flowpowered.math.vector.Vector3d;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import de.bluecolored.bluemap.api.gson.MarkerGson;
+import de.bluecolored.bluemap.api.markers.*;
+import de.bluecolored.bluemap.api.math.Line;
+import de.bluecolored.bluemap.api.math.Shape;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads BlueMap marker files back into geometries in Minecraft block coordinates.
+ *
+ * <p>Geometries mirror the axes written by {@link BlueMapMarkerWriter}: the X and Y ordinates of every marker
+ * vector are the projected X and Z, the marker elevation is kept as the Z ordinate.</p>
+ *
+ * <ul>
+ *   <li>{@link POIMarker} to a {@link Point}</li>
+ *   <li>{@link LineMarker} to a {@link LineString}</li>
+ *   <li>{@link ShapeMarker} and {@link ExtrudeMarker} to a {@link Polygon} with its holes, at the shape floor</li>
+ * </ul>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * for (MarkerSet set : BlueMapMarkerReader.read(file).values()) {
+ *     set.getMarkers().forEach((key, marker) -> {
+ *         Geometry geometry = BlueMapMarkerReader.toGeometry(marker);
+ *     });
+ * }
+ * }</blockquote>
+ */
+public final class BlueMapMarkerReader {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+
+    private BlueMapMarkerReader() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Read every marker set of a marker file, decompressed by its extension.
+     *
+     * @param file The marker file
+     * @return Every marker set by its key, in file order
+     * @throws IOException If the file cannot be read or is not a marker file
+     */
+    public static @NotNull Map<String, MarkerSet> read(@NotNull File file) throws IOException {
+        try(Reader reader = new InputStreamReader(Compression.openInput(file), StandardCharsets.UTF_8)) {
+            Map<String, MarkerSet> sets = MarkerGson.INSTANCE.fromJson(reader, new TypeToken<Map<String, MarkerSet>>() {}.getType());
+
+            if(sets == null) throw new IOException("Empty BlueMap marker file " + file);
+            return sets;
+        }
+        catch (JsonParseException ex) { throw new IOException("Invalid BlueMap marker file " + file, ex); }
+    }
+
+    /**
+     * Convert a marker to a geometry in Minecraft block coordinates.
+     *
+     * @param marker The marker to convert
+     * @return The marker geometry, or {@code null} if the marker has no geometry such as an HTML marker
+     */
+    public static @Nullable Geometry toGeometry(@NotNull Marker marker) {
+        return switch (marker) {
+            case POIMarker poi -> {
+                Vector3d position = poi.getPosition();
+                yield FACTORY.createPoint(new Coordinate(position.getX(), position.getY(), position.getZ()));
+            }
+            case LineMarker line -> toLineString(line.getLine());
+            case ShapeMarker shape -> toPolygon(shape.getShape(), shape.getHoles(), shape.getShapeY());
+            case ExtrudeMarker extrude -> toPolygon(extrude.getShape(), extrude.getHoles(), extrude.getShapeMinY());
+            default -> null;
+        };
+    }
+
+    private static @Nullable LineString toLineString(@NotNull Line line) {
+        int size = line.getPointCount();
+        if(size < 2) return null;
+
+        double[] packed = new double[size * 3];
+
+        for (int i = 0; i < size; i++) {
+            Vector3d point = line.getPoint(i);
+            packed[i * 3] = point.getX();
+            packed[i * 3 + 1] = point.getY();
+            packed[i * 3 + 2] = point.getZ();
+        }
+
+        return FACTORY.createLineString(PackedCoordinateSequenceFactory.DOUBLE_FACTORY.create(packed, 3));
+    }
+
+    private static @Nullable Polygon toPolygon(@NotNull Shape shape, @NotNull Collection<Shape> holes, double elevation) {
+        LinearRing shell = toRing(shape, elevation);
+        if(shell == null) return null;
+
+        LinearRing[] rings = new LinearRing[holes.size()];
+        int count = 0;
+
+        for (Shape hole : holes) {
+            LinearRing ring = toRing(hole, elevation);
+            if(ring != null) rings[count++] = ring;
+        }
+
+        if(count < rings.length) rings = Arrays.copyOf(rings, count);
+        return FACTORY.createPolygon(shell, rings);
+    }
+
+    /**
+     * @return The closed ring of a shape, or {@code null} if it has less than three distinct points
+     */
+    private static @Nullable LinearRing toRing(@NotNull Shape shape, double elevation) {
+        int size = shape.getPointCount();
+        if(size < 3) return null;
+
+        Vector2d first = shape.getPoint(0), last = shape.getPoint(size - 1);
+        boolean closed = first.getX() == last.getX() && first.getY() == last.getY();
+        int points = closed? size : size + 1;
+
+        if(points < 4) return null;
+
+        double[] packed = new double[points * 3];
+
+        for (int i = 0; i < points; i++) {
+            Vector2d point = shape.getPoint(i < size? i : 0);
+            packed[i * 3] = point.getX();
+            packed[i * 3 + 1] = point.getY();
+            packed[i * 3 + 2] = elevation;
+        }
+
+        return FACTORY.createLinearRing(PackedCoordinateSequenceFactory.DOUBLE_FACTORY.create(packed, 3));
+    }
+}
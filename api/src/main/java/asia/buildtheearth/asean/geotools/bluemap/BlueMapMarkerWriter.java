@@ -1,9 +1,15 @@
 package asia.buildtheearth.asean.geotools.bluemap;
 
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.jfr.DocumentWrittenEvent;
 import com.flowpowered.math.vector.Vector2d;
 import com.flowpowered.math.vector.Vector3d;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonWriter;
 import de.bluecolored.bluemap.api.gson.MarkerGson;
 import de.bluecolored.bluemap.api.markers.*;
 import de.bluecolored.bluemap.api.math.Line;
@@ -16,13 +22,19 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.locationtech.jts.geom.*;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.Normalizer;
-import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -90,24 +102,193 @@ public class BlueMapMarkerWriter {
         return this;
     }
 
+    /**
+     * Describes every setting affecting the written markers.
+     *
+     * @return a stable description of this writer settings
+     */
+    public @NotNull String getSettings() {
+        return "compact=" + (this.writer.get() == COMPACT_WRITER)
+            + ",elevation=" + this.elevation
+            + ",normalizeZ=" + this.normalizeZ
+            + ",extrudePolygon=" + this.extrudePolygon
+            + ",normalizeNaming=" + this.normalizeNaming
+            + ",disableClipping=" + this.disableClipping;
+    }
+
     /**
      * Export marker set to final JSON file
      *
-     * @param marker
-     * @param output
-     * @throws IOException
+     * @param marker The marker set to export
+     * @param output The output file
+     * @throws IOException If the output file cannot be written
      */
     public void export(@NotNull MarkerSet marker, @NotNull Path output) throws IOException {
-        Map<String, MarkerSet> exports = Map.of(this.getKeyName(output.getFileName().toString()), marker);
+        this.export(marker, output, Compression.of(output));
+    }
+
+    /**
+     * Export marker set to final JSON file with the given compression,
+     * the marker set key is named after the output file without its compression extension.
+     *
+     * @param marker The marker set to export
+     * @param output The output file
+     * @param compression The output file compression
+     * @throws IOException If the output file cannot be written
+     */
+    public void export(@NotNull MarkerSet marker, @NotNull Path output, @NotNull Compression compression) throws IOException {
+        try (MarkerSetWriter writer = this.open(marker, output, compression)) {
+            for (Map.Entry<String, Marker> entry : marker.getMarkers().entrySet())
+                writer.write(entry.getKey(), entry.getValue());
 
-        // Finally, write the marker to JSON output file
-        try (OutputStreamWriter writer = new OutputStreamWriter(Files.newOutputStream(output))) {
-            this.writer.get().toJson(exports, writer);
-        } catch (IOException ex) {
+            writer.finish();
+        }
+    }
+
+    /**
+     * Open a streaming marker file with the given compression, writing the marker set header right away,
+     * the marker set key is named after the output file without its compression extension.
+     *
+     * <p>Markers of the given set are <em>not</em> written, each marker is to be
+     * {@linkplain MarkerSetWriter#write(String, Marker) written} as soon as it is built
+     * so that no marker is kept in memory once written.</p>
+     *
+     * <p>Markers are written to a {@code <output>.part} file next to the output, only moved
+     * in place once {@linkplain MarkerSetWriter#finish() finished}. A writer closed without finishing,
+     * such as on a failed conversion, deletes its partial file and leaves any previous output untouched.</p>
+     *
+     * @param header The marker set whose label and settings are written, its markers are ignored
+     * @param output The output file
+     * @param compression The output file compression
+     * @return A new writer of each marker, to be finished then closed
+     * @throws IOException If the output file cannot be opened
+     */
+    public @NotNull MarkerSetWriter open(@NotNull MarkerSet header, @NotNull Path output,
+                                         @NotNull Compression compression) throws IOException {
+        String name = Compression.baseName(output.getFileName().toString());
+        Path partial = output.resolveSibling(output.getFileName() + ".part");
+        Writer stream = new OutputStreamWriter(compression.openOutput(partial, name), StandardCharsets.UTF_8);
+
+        try {
+            return new MarkerSetWriter(this.getClass(), this.writer.get(), stream, this.getKeyName(name), header, output, partial);
+        } catch (IOException | JsonIOException ex) {
+            stream.close();
+            Files.deleteIfExists(partial);
             throw new IOException("Failed to export Geometry data to final BlueMap marker file", ex);
         }
     }
 
+    /**
+     * Streaming writer of a single marker set file.
+     *
+     * <p>The marker set header is written on creation, then each marker with the same
+     * {@link MarkerGson} adapters as a whole marker set. A key already written is skipped,
+     * only the first marker of each key is kept.</p>
+     *
+     * <p>The marker file is only completed by {@link #finish()}, closing an unfinished
+     * writer discards every written marker.</p>
+     */
+    public static final class MarkerSetWriter implements Closeable {
+
+        private final Class<?> owner;
+        private final Gson gson;
+        private final JsonWriter json;
+        private final Path output, partial;
+        private final Set<String> keys = new HashSet<>();
+
+        /** Whether any marker failed to be written, the partial file is then never completed. */
+        private boolean failed = false;
+
+        /** Whether the marker file has been completed and moved in place. */
+        private boolean finished = false;
+
+        private final DocumentWrittenEvent event = new DocumentWrittenEvent();
+
+        private MarkerSetWriter(@NotNull Class<?> owner, @NotNull Gson gson, @NotNull Writer writer,
+                                @NotNull String key, @NotNull MarkerSet header,
+                                @NotNull Path output, @NotNull Path partial) throws IOException {
+            this.event.begin();
+            this.owner = owner;
+            this.gson = gson;
+            this.json = gson.newJsonWriter(writer);
+            this.output = output;
+            this.partial = partial;
+
+            // Every marker set field but its markers, serialized as it would be as a whole
+            JsonObject settings = gson.toJsonTree(header, MarkerSet.class).getAsJsonObject();
+            settings.remove("markers");
+
+            this.json.beginObject().name(key).beginObject();
+            for (Map.Entry<String, JsonElement> setting : settings.entrySet()) {
+                this.json.name(setting.getKey());
+                gson.toJson(setting.getValue(), this.json);
+            }
+            this.json.name("markers").beginObject();
+        }
+
+        /**
+         * Write a marker of the set.
+         *
+         * @param key The marker key
+         * @param marker The marker to write
+         * @throws IOException If the marker cannot be written
+         */
+        public void write(@NotNull String key, @NotNull Marker marker) throws IOException {
+            if(!this.keys.add(key)) return;
+
+            try {
+                this.json.name(key);
+                this.gson.toJson(marker, Marker.class, this.json);
+            } catch (IOException | JsonIOException ex) {
+                this.failed = true;
+                throw new IOException("Failed to write marker " + key + " to BlueMap marker file", ex);
+            }
+        }
+
+        /**
+         * Complete the marker file and move it in place of the output file, once every marker is written.
+         *
+         * @throws IOException If a marker has failed to be written, or the marker file cannot be completed
+         */
+        public void finish() throws IOException {
+            if(this.failed) throw new IOException("BlueMap marker file " + this.output + " is incomplete after a failed marker");
+
+            try (JsonWriter json = this.json) {
+                json.endObject().endObject().endObject();
+            } catch (IOException | JsonIOException ex) {
+                this.failed = true;
+                throw new IOException("Failed to export Geometry data to final BlueMap marker file", ex);
+            }
+
+            try { Files.move(this.partial, this.output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE); }
+            catch (AtomicMoveNotSupportedException ex) { Files.move(this.partial, this.output, StandardCopyOption.REPLACE_EXISTING); }
+
+            this.finished = true;
+
+            if(this.event.shouldCommit()) {
+                this.event.writer = this.owner;
+                this.event.features = this.keys.size();
+                this.event.bytes = Files.size(this.output);
+                this.event.commit();
+            }
+        }
+
+        /**
+         * Release the marker file, deleting the partial file unless {@linkplain #finish() finished}.
+         *
+         * @throws IOException If the partial file cannot be deleted
+         */
+        @Override
+        public void close() throws IOException {
+            if(this.finished) return;
+
+            // Discarded anyway, an unfinished document fails to close after releasing its stream
+            try { this.json.close(); }
+            catch (IOException ignored) { }
+            finally { Files.deleteIfExists(this.partial); }
+        }
+    }
+
     /**
      * Normalizes a base string into lower-hyphen (kebab-case) to be conventional with BlueMap marker naming.
      * <p>If {@code preserveNaming} is true, the original string is returned unmodified.</p>
@@ -164,10 +345,23 @@ public class BlueMapMarkerWriter {
                               @NotNull Geometry geometry,
                               @NotNull SimpleFeature feature,
                               @NotNull MarkerWriter writer) {
+        this.writeGeometry(count, geometry, getFeatureName(feature), writer);
+    }
 
+    /**
+     * Write N geometry to a writer consumer.
+     *
+     * @param count The geometry count of the current geometry to write,
+     *              only use as a fallback name for when the feature name is not found.
+     * @param geometry The geometry data to be written
+     * @param markerName The marker name, {@code null} to use the fallback name.
+     * @param writer Writer consumer to handle how the resulting {@link Marker} will be written.
+     */
+    public void writeGeometry(int count,
+                              @NotNull Geometry geometry,
+                              @Nullable String markerName,
+                              @NotNull MarkerWriter writer) {
 
-        // Determine marker name
-        String markerName = getFeatureName(feature);
         String key = getKeyName(markerName, String.valueOf(count));
 
         switch (geometry) {
@@ -223,7 +417,7 @@ public class BlueMapMarkerWriter {
                 for (int i = 0; i < collection.getNumGeometries(); i++) {
                     // Display name will be modified as name-[i]
                     Function<String, String> index = this.indexedKey(i);
-                    this.writeGeometry(count, collection.getGeometryN(i), feature,
+                    this.writeGeometry(count, collection.getGeometryN(i), markerName,
                         (keyN, marker) -> writer.write(index.apply(keyN), marker)
                     );
                 }
@@ -275,69 +469,52 @@ public class BlueMapMarkerWriter {
             return;
         }
 
-        Vector2d[] shape = new Vector2d[ring.getNumPoints()];
-
-        double sumZ = 0;
-        int countZ = 0;
-
-        for (int i = 0; i < ring.getNumPoints(); i++) {
-            Coordinate point = ring.getCoordinateN(i);
-            shape[i] = new Vector2d(point.x, point.y);
-
-            if (Double.isNaN(point.getZ())) continue;
-
-            sumZ += point.getZ();
-            countZ++;
-        }
-
-        long averageZ = countZ > 0 ? Math.round(sumZ / countZ) : 0;
-
-        receiver.accept(new Shape(shape), averageZ);
+        receiver.accept(this.collectRing(ring), averageZ(ring.getCoordinateSequence()));
     }
 
     protected Shape collectRing(@NotNull LinearRing ring) {
-        Vector2d[] shape = new Vector2d[ring.getNumPoints()];
+        // Read ordinates straight from the sequence, packed sequences would allocate a coordinate per point
+        CoordinateSequence sequence = ring.getCoordinateSequence();
+        Vector2d[] shape = new Vector2d[sequence.size()];
 
-        for (int i = 0; i < ring.getNumPoints(); i++) {
-            Coordinate point = ring.getCoordinateN(i);
-            shape[i] = new Vector2d(point.x, point.y);
-        }
+        for (int i = 0; i < shape.length; i++)
+            shape[i] = new Vector2d(sequence.getX(i), sequence.getY(i));
 
         return new Shape(shape);
     }
 
     protected Line collectLine(@NotNull LineString line) {
-        if(this.elevation == ElevationMode.AVERAGE) {
-            double sumZ = 0;
-            int countZ = 0;
-            ArrayList<Vector2d> shape = new ArrayList<>(line.getNumPoints());
-
-            for (Coordinate point : line.getCoordinates()) {
-                shape.add(new Vector2d(point.x, point.y));
+        CoordinateSequence sequence = line.getCoordinateSequence();
+        Vector3d[] shape = new Vector3d[sequence.size()];
 
-                if (Double.isNaN(point.getZ())) continue;
+        if(this.elevation == ElevationMode.AVERAGE) {
+            long averageZ = averageZ(sequence);
 
-                sumZ += point.getZ();
-                countZ++;
-            }
+            for (int i = 0; i < shape.length; i++)
+                shape[i] = new Vector3d(sequence.getX(i), sequence.getY(i), averageZ);
+        }
+        else for (int i = 0; i < shape.length; i++)
+            shape[i] = new Vector3d(sequence.getX(i), sequence.getY(i), sequence.getZ(i));
 
-            long averageZ = countZ > 0 ? Math.round(sumZ / countZ) : 0;
+        return new Line(shape);
+    }
 
-            return new Line(shape
-                .stream()
-                .map(vector -> new Vector3d(vector, averageZ))
-                .toArray(Vector3d[]::new)
-            );
-        }
+    /**
+     * @return The rounded average of every Z ordinate of a sequence, {@code 0} if none is set
+     */
+    private static long averageZ(@NotNull CoordinateSequence sequence) {
+        double sumZ = 0;
+        int countZ = 0;
 
-        Vector3d[] shape = new Vector3d[line.getNumPoints()];
+        for (int i = 0; i < sequence.size(); i++) {
+            double z = sequence.getZ(i);
+            if (Double.isNaN(z)) continue;
 
-        for (int i = 0; i < line.getNumPoints(); i++) {
-            Coordinate point = line.getCoordinateN(i);
-            shape[i] = new Vector3d(point.x, point.y, point.z);
+            sumZ += z;
+            countZ++;
         }
 
-        return new Line(shape);
+        return countZ > 0 ? Math.round(sumZ / countZ) : 0;
     }
 
     private @NotNull String getKeyName(@Nullable String name, @NotNull String fallback) {
@@ -0,0 +1,166 @@
+package asia.buildtheearth.asean.geotools.format;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Allocation-free decimal formatting of coordinate ordinates, shared by the GeoJSON and KML writers.
+ *
+ * <ul>
+ *     <li><strong>Shortest:</strong> the shortest decimal that round-trips to the same {@code double},
+ *     as produced by {@link StringBuilder#append(double)} (the JDK shortest-decimal algorithm).</li>
+ *     <li><strong>Fixed:</strong> rounded half away from zero to at most {@code maxDecimals} decimal places
+ *     using integer arithmetic only.</li>
+ * </ul>
+ *
+ * <p>Trailing fractional zeros are always stripped, so {@code 100.0} is written as {@code 100}
+ * and {@code 13.750000} as {@code 13.75}. Values too large to be scaled exactly,
+ * and non-finite values, fall back to the shortest representation.</p>
+ *
+ * <p>Formatting into a {@code char[]} reuses an internal buffer, so one instance must not be shared across threads.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * CoordinateFormatter formatter = CoordinateFormatter.fixed(6);
+ * formatter.append(builder, 100.12345678); // 100.123457
+ * }</blockquote>
+ */
+public final class CoordinateFormatter {
+
+    /** Maximum supported number of fixed decimals, larger values format as shortest. */
+    public static final int MAX_DECIMALS = 15;
+
+    /** Maximum number of characters produced for one value. */
+    public static final int MAX_LENGTH = 32;
+
+    private static final long[] POW10 = new long[MAX_DECIMALS + 1];
+
+    /** Largest absolute value per number of decimals whose scaled value is still an exact {@code double} integer. */
+    private static final double[] LIMIT = new double[MAX_DECIMALS + 1];
+
+    static {
+        long power = 1;
+        for (int i = 0; i <= MAX_DECIMALS; i++) {
+            POW10[i] = power;
+            LIMIT[i] = (double) (1L << 53) / power;
+            power *= 10;
+        }
+    }
+
+    /** Number of fixed decimals, or {@code -1} for the shortest representation. */
+    private final int decimals;
+
+    private final StringBuilder scratch = new StringBuilder(MAX_LENGTH);
+
+    private CoordinateFormatter(int decimals) {
+        this.decimals = decimals;
+    }
+
+    /**
+     * Create a formatter of the shortest round-trip representation.
+     *
+     * @return A new formatter
+     */
+    @Contract("-> new")
+    public static @NotNull CoordinateFormatter shortest() {
+        return new CoordinateFormatter(-1);
+    }
+
+    /**
+     * Create a formatter rounding to at most {@code maxDecimals} decimal places.
+     *
+     * @param maxDecimals Maximum number of decimal places, above {@value #MAX_DECIMALS} formats as shortest
+     * @return A new formatter
+     * @throws IllegalArgumentException If {@code maxDecimals} is negative
+     */
+    @Contract("_ -> new")
+    public static @NotNull CoordinateFormatter fixed(int maxDecimals) {
+        if(maxDecimals < 0) throw new IllegalArgumentException("Decimal places must not be negative, got " + maxDecimals);
+        return new CoordinateFormatter(maxDecimals > MAX_DECIMALS? -1 : maxDecimals);
+    }
+
+    /**
+     * Create a formatter from an optional precision.
+     *
+     * @param precision Maximum number of decimal places, or {@code null} for the shortest representation
+     * @return A new formatter
+     */
+    @Contract("_ -> new")
+    public static @NotNull CoordinateFormatter of(@Nullable Integer precision) {
+        return precision == null? shortest() : fixed(precision);
+    }
+
+    /**
+     * Append a formatted value.
+     *
+     * @param output The builder to append to
+     * @param value The value to format
+     * @return The same builder
+     */
+    @Contract("_, _ -> param1")
+    public @NotNull StringBuilder append(@NotNull StringBuilder output, double value) {
+        if(this.decimals < 0 || !(Math.abs(value) < LIMIT[this.decimals])) return appendShortest(output, value);
+
+        long scaled = Math.round(Math.abs(value) * POW10[this.decimals]);
+
+        if(scaled == 0) return output.append('0');
+        if(value < 0) output.append('-');
+
+        long unit = POW10[this.decimals];
+        output.append(scaled / unit);
+
+        long fraction = scaled % unit;
+        if(fraction == 0) return output;
+
+        int digits = this.decimals;
+        while(fraction % 10 == 0) {
+            fraction /= 10;
+            digits--;
+        }
+
+        output.append('.');
+        for (long bound = POW10[digits - 1]; fraction < bound; bound /= 10) output.append('0');
+        return output.append(fraction);
+    }
+
+    /**
+     * Format a value into a character buffer.
+     *
+     * @param value The value to format
+     * @param buffer The destination buffer, with at least {@value #MAX_LENGTH} characters left after {@code offset}
+     * @param offset The position to write at
+     * @return The number of written characters
+     */
+    public int format(double value, char @NotNull [] buffer, int offset) {
+        this.scratch.setLength(0);
+        this.append(this.scratch, value);
+
+        int length = this.scratch.length();
+        this.scratch.getChars(0, length, buffer, offset);
+        return length;
+    }
+
+    /**
+     * Format a value into a new string.
+     *
+     * @param value The value to format
+     * @return The formatted value
+     */
+    public @NotNull String format(double value) {
+        this.scratch.setLength(0);
+        return this.append(this.scratch, value).toString();
+    }
+
+    private static @NotNull StringBuilder appendShortest(@NotNull StringBuilder output, double value) {
+        int start = output.length();
+        output.append(value);
+
+        // Strip the ".0" of integral values, exponent notation is left untouched
+        int length = output.length();
+        if(length - start > 2 && output.charAt(length - 1) == '0' && output.charAt(length - 2) == '.')
+            output.setLength(length - 2);
+
+        return output;
+    }
+}
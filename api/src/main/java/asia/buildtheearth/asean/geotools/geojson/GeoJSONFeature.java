@@ -0,0 +1,46 @@
+package asia.buildtheearth.asean.geotools.geojson;
+
+import org.geotools.api.filter.identity.FeatureId;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Geometry;
+
+import java.util.Map;
+
+/**
+ * Lightweight view of a GeoJSON feature read by {@link GeoJSONStreamReader}.
+ *
+ * <p>Unlike a {@link org.geotools.api.feature.simple.SimpleFeature}, no feature type is built or validated:
+ * the properties are kept as parsed JSON values ({@link String}, {@link Number}, {@link Boolean},
+ * nested {@link Map} and {@link java.util.List}).</p>
+ *
+ * @param id The feature {@code "id"}, or {@code null} if absent
+ * @param geometry The feature geometry, or {@code null} if absent
+ * @param properties The feature properties, empty if absent
+ */
+public record GeoJSONFeature(@Nullable String id,
+                             @Nullable Geometry geometry,
+                             @NotNull Map<String, Object> properties) {
+
+    /**
+     * @return The feature ID as a GeoTools identifier, or {@code null} if absent
+     */
+    @Contract(pure = true)
+    public @Nullable FeatureId getIdentifier() {
+        return this.id == null? null : new FeatureIdImpl(this.id);
+    }
+
+    /**
+     * Resolve the display name of this feature,
+     * the {@code "name"} property if it is a string, else the feature ID.
+     *
+     * @return The feature name, or {@code null} if neither is present
+     */
+    @Contract(pure = true)
+    public @Nullable String getName() {
+        if(this.properties.get("name") instanceof String name) return name;
+        return this.id;
+    }
+}
@@ -0,0 +1,455 @@
+package asia.buildtheearth.asean.geotools.geojson;
+
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.jfr.FeatureParsedEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Pull-based GeoJSON reader tokenizing with Jackson's {@link JsonParser}.
+ *
+ * <p>Features of a {@code FeatureCollection} are parsed one at a time as the {@code "features"} array is streamed,
+ * so memory use stays constant regardless of the file size. Coordinates are written straight into
+ * {@link PackedCoordinateSequence packed coordinate sequences} without intermediate {@link Coordinate} objects,
+ * and each feature is exposed as a lightweight {@link GeoJSONFeature} instead of a full
+ * {@link org.geotools.api.feature.simple.SimpleFeature}.</p>
+ *
+ * <p>A root {@code Feature} or bare geometry object is read as a single feature.
+ * Sequences are 3-dimensional when any of their positions has an elevation, 2-dimensional otherwise,
+ * extra ordinates beyond elevation are ignored.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * try(GeoJSONStreamReader reader = new GeoJSONStreamReader(file)) {
+ *     while(reader.hasNext()) {
+ *         GeoJSONFeature feature = reader.next();
+ *         // ...
+ *     }
+ * }
+ * }</blockquote>
+ */
+public class GeoJSONStreamReader implements Closeable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private static final GeometryFactory DEFAULT_FACTORY = new GeometryFactory(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+
+    private final JsonParser parser;
+    private final GeometryFactory factory;
+
+    /** Reusable buffer of the sequence currently being parsed. */
+    private final SequenceBuilder sequence = new SequenceBuilder();
+
+    /** Whether the parser is positioned within the root {@code "features"} array. */
+    private boolean streaming = false;
+
+    private GeoJSONFeature next = null;
+
+    /**
+     * Open a GeoJSON file, gzip compressed files and zip archives are decompressed on the fly.
+     *
+     * @param file The GeoJSON source file
+     * @throws IOException If the file cannot be opened or is not a GeoJSON object
+     */
+    public GeoJSONStreamReader(@NotNull File file) throws IOException {
+        this(Compression.openInput(file));
+    }
+
+    /**
+     * Read GeoJSON from a stream, the stream is closed with this reader.
+     *
+     * @param input The GeoJSON source stream
+     * @throws IOException If the stream is not a GeoJSON object
+     */
+    public GeoJSONStreamReader(@NotNull InputStream input) throws IOException {
+        this(input, DEFAULT_FACTORY);
+    }
+
+    /**
+     * Read GeoJSON from a stream, the stream is closed with this reader.
+     *
+     * @param input The GeoJSON source stream
+     * @param factory Factory of every parsed geometry, its coordinate sequence factory is only used for empty geometries
+     * @throws IOException If the stream is not a GeoJSON object
+     */
+    public GeoJSONStreamReader(@NotNull InputStream input, @NotNull GeometryFactory factory) throws IOException {
+        this.parser = JSON.createParser(input);
+        this.factory = factory;
+
+        try { this.start(); }
+        catch (IOException | RuntimeException ex) {
+            this.parser.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Check if there is another feature to read.
+     *
+     * @return {@code true} if {@link #next()} will return a feature
+     * @throws IOException If the next feature is malformed
+     */
+    public boolean hasNext() throws IOException {
+        while(this.next == null && this.streaming) {
+            FeatureParsedEvent event = new FeatureParsedEvent();
+            event.begin();
+
+            JsonToken token = this.parser.nextToken();
+
+            if(token == JsonToken.START_OBJECT) {
+                this.next = this.toFeature(this.readObject());
+
+                if(event.shouldCommit()) {
+                    event.featureId = this.next.id();
+                    event.vertices = this.next.geometry() == null? 0 : this.next.geometry().getNumPoints();
+                    event.parser = "GeoJSON";
+                    event.commit();
+                }
+            }
+            else if(token == JsonToken.END_ARRAY) this.streaming = false; // Rest of the root is ignored
+            else throw this.unexpected(token, "a feature");
+        }
+
+        return this.next != null;
+    }
+
+    /**
+     * Read the next feature.
+     *
+     * @return The next feature
+     * @throws IOException If the next feature is malformed
+     * @throws NoSuchElementException If there are no more features
+     */
+    public @NotNull GeoJSONFeature next() throws IOException {
+        if(!this.hasNext()) throw new NoSuchElementException("No more GeoJSON features");
+
+        GeoJSONFeature feature = this.next;
+        this.next = null;
+        return feature;
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.parser.close();
+    }
+
+    /**
+     * Read the root object up to its {@code "features"} array, or completely if it is a single feature or geometry.
+     */
+    private void start() throws IOException {
+        JsonToken token = this.parser.nextToken();
+        if(token != JsonToken.START_OBJECT) throw this.unexpected(token, "a GeoJSON object");
+
+        GeoJSONObject root = new GeoJSONObject();
+
+        while((token = this.parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = this.parser.currentName();
+            JsonToken value = this.parser.nextToken();
+
+            if(field.equals("features") && value == JsonToken.START_ARRAY) {
+                this.streaming = true;
+                return;
+            }
+
+            this.read(root, field, value);
+        }
+
+        if(token != JsonToken.END_OBJECT) throw this.unexpected(token, "end of the GeoJSON object");
+        if(!"FeatureCollection".equals(root.type)) this.next = this.toFeature(root);
+    }
+
+    /**
+     * Read an object whose start token is current.
+     */
+    private @NotNull GeoJSONObject readObject() throws IOException {
+        GeoJSONObject object = new GeoJSONObject();
+        JsonToken token;
+
+        while((token = this.parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = this.parser.currentName();
+            this.read(object, field, this.parser.nextToken());
+        }
+
+        if(token != JsonToken.END_OBJECT) throw this.unexpected(token, "end of object");
+        return object;
+    }
+
+    /**
+     * Read one member of a GeoJSON object, its value token is current.
+     */
+    private void read(@NotNull GeoJSONObject object, @NotNull String field, JsonToken value) throws IOException {
+        switch (field) {
+            case "type" -> object.type = this.parser.getValueAsString();
+            case "id" -> object.id = value == JsonToken.VALUE_NULL? null : this.parser.getValueAsString();
+            case "geometry" -> {
+                if(value == JsonToken.START_OBJECT) object.geometry = this.toGeometry(this.readObject());
+                else this.parser.skipChildren();
+            }
+            case "properties" -> {
+                if(value == JsonToken.START_OBJECT) object.properties = this.readMap();
+                else this.parser.skipChildren();
+            }
+            case "coordinates" -> {
+                if(value == JsonToken.START_ARRAY) object.coordinates = this.readCoordinates(this.parser.nextToken());
+                else this.parser.skipChildren();
+            }
+            case "geometries" -> {
+                if(value != JsonToken.START_ARRAY) {
+                    this.parser.skipChildren();
+                    break;
+                }
+
+                object.geometries = new ArrayList<>();
+                JsonToken token;
+                while((token = this.parser.nextToken()) == JsonToken.START_OBJECT)
+                    object.geometries.add(this.toGeometry(this.readObject()));
+
+                if(token != JsonToken.END_ARRAY) throw this.unexpected(token, "a geometry");
+            }
+            default -> this.parser.skipChildren();
+        }
+    }
+
+    /**
+     * Read a coordinates array whose start token has been consumed, starting from its first element token.
+     *
+     * @return A {@link CoordinateSequence} for a position or an array of positions,
+     *         a {@link List} of nested results for deeper arrays
+     */
+    private @NotNull Object readCoordinates(JsonToken first) throws IOException {
+        if(first == JsonToken.END_ARRAY) return List.of();
+
+        // A single position
+        if(first != null && first.isNumeric()) {
+            this.sequence.clear();
+            this.readPosition(first);
+            return this.sequence.build();
+        }
+
+        if(first != JsonToken.START_ARRAY) throw this.unexpected(first, "a coordinate array");
+
+        JsonToken inner = this.parser.nextToken();
+        JsonToken token;
+
+        // An array of positions
+        if(inner != null && inner.isNumeric()) {
+            this.sequence.clear();
+            this.readPosition(inner);
+
+            while((token = this.parser.nextToken()) == JsonToken.START_ARRAY)
+                this.readPosition(this.parser.nextToken());
+
+            if(token != JsonToken.END_ARRAY) throw this.unexpected(token, "a position");
+            return this.sequence.build();
+        }
+
+        // Deeper nesting
+        List<Object> parts = new ArrayList<>();
+        parts.add(this.readCoordinates(inner));
+
+        while((token = this.parser.nextToken()) == JsonToken.START_ARRAY)
+            parts.add(this.readCoordinates(this.parser.nextToken()));
+
+        if(token != JsonToken.END_ARRAY) throw this.unexpected(token, "a coordinate array");
+        return parts;
+    }
+
+    /**
+     * Read a position whose start token has been consumed into the sequence buffer.
+     */
+    private void readPosition(JsonToken first) throws IOException {
+        double x = Double.NaN, y = Double.NaN, z = Double.NaN;
+        int ordinates = 0;
+
+        for (JsonToken token = first; token != JsonToken.END_ARRAY; token = this.parser.nextToken()) {
+            if(token == null || !token.isNumeric()) throw this.unexpected(token, "a coordinate ordinate");
+
+            switch (ordinates++) {
+                case 0 -> x = this.parser.getDoubleValue();
+                case 1 -> y = this.parser.getDoubleValue();
+                case 2 -> z = this.parser.getDoubleValue();
+                default -> { } // Measures are not supported
+            }
+        }
+
+        if(ordinates < 2) throw new IOException("GeoJSON position must have at least 2 ordinates at " + this.location());
+
+        this.sequence.add(x, y, z, ordinates > 2);
+    }
+
+    private @NotNull Map<String, Object> readMap() throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        JsonToken token;
+
+        while((token = this.parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String field = this.parser.currentName();
+            map.put(field, this.readValue(this.parser.nextToken()));
+        }
+
+        if(token != JsonToken.END_OBJECT) throw this.unexpected(token, "end of object");
+        return map;
+    }
+
+    private @Nullable Object readValue(JsonToken token) throws IOException {
+        if(token == null) throw this.unexpected(null, "a value");
+
+        return switch (token) {
+            case START_OBJECT -> this.readMap();
+            case START_ARRAY -> {
+                List<Object> list = new ArrayList<>();
+                JsonToken element;
+                while((element = this.parser.nextToken()) != JsonToken.END_ARRAY) list.add(this.readValue(element));
+                yield list;
+            }
+            case VALUE_STRING -> this.parser.getText();
+            case VALUE_NUMBER_INT -> this.parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT -> this.parser.getDoubleValue();
+            case VALUE_TRUE -> Boolean.TRUE;
+            case VALUE_FALSE -> Boolean.FALSE;
+            case VALUE_NULL -> null;
+            default -> throw this.unexpected(token, "a value");
+        };
+    }
+
+    private @NotNull GeoJSONFeature toFeature(@NotNull GeoJSONObject object) throws IOException {
+        Map<String, Object> properties = object.properties == null? Map.of() : object.properties;
+
+        if("Feature".equals(object.type))
+            return new GeoJSONFeature(object.id, object.geometry, properties);
+
+        // Bare geometry
+        return new GeoJSONFeature(object.id, this.toGeometry(object), properties);
+    }
+
+    private @NotNull Geometry toGeometry(@NotNull GeoJSONObject object) throws IOException {
+        if(object.type == null) throw new IOException("GeoJSON geometry is missing its type at " + this.location());
+
+        try {
+            return switch (object.type) {
+                case "Point" -> this.factory.createPoint(this.toSequence(object.coordinates));
+                case "MultiPoint" -> this.factory.createMultiPoint(this.toSequence(object.coordinates));
+                case "LineString" -> this.factory.createLineString(this.toSequence(object.coordinates));
+                case "MultiLineString" -> {
+                    List<?> parts = this.toParts(object.coordinates);
+                    LineString[] lines = new LineString[parts.size()];
+
+                    for (int i = 0; i < lines.length; i++)
+                        lines[i] = this.factory.createLineString(this.toSequence(parts.get(i)));
+
+                    yield this.factory.createMultiLineString(lines);
+                }
+                case "Polygon" -> this.toPolygon(object.coordinates);
+                case "MultiPolygon" -> {
+                    List<?> parts = this.toParts(object.coordinates);
+                    Polygon[] polygons = new Polygon[parts.size()];
+
+                    for (int i = 0; i < polygons.length; i++)
+                        polygons[i] = this.toPolygon(parts.get(i));
+
+                    yield this.factory.createMultiPolygon(polygons);
+                }
+                case "GeometryCollection" -> this.factory.createGeometryCollection(
+                    object.geometries == null? new Geometry[0] : object.geometries.toArray(Geometry[]::new)
+                );
+                default -> throw new IOException("Unsupported GeoJSON geometry type " + object.type + " at " + this.location());
+            };
+        }
+        catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid GeoJSON " + object.type + " at " + this.location(), ex);
+        }
+    }
+
+    private @NotNull Polygon toPolygon(@Nullable Object coordinates) throws IOException {
+        List<?> rings = this.toParts(coordinates);
+        if(rings.isEmpty()) return this.factory.createPolygon();
+
+        LinearRing shell = this.factory.createLinearRing(this.toSequence(rings.getFirst()));
+        LinearRing[] holes = new LinearRing[rings.size() - 1];
+
+        for (int i = 0; i < holes.length; i++)
+            holes[i] = this.factory.createLinearRing(this.toSequence(rings.get(i + 1)));
+
+        return this.factory.createPolygon(shell, holes);
+    }
+
+    private @NotNull CoordinateSequence toSequence(@Nullable Object coordinates) throws IOException {
+        if(coordinates instanceof CoordinateSequence sequence) return sequence;
+        if(coordinates == null || coordinates instanceof List<?> list && list.isEmpty())
+            return this.factory.getCoordinateSequenceFactory().create(0, 2);
+
+        throw new IOException("GeoJSON coordinates are nested too deep at " + this.location());
+    }
+
+    private @NotNull List<?> toParts(@Nullable Object coordinates) throws IOException {
+        if(coordinates == null) return List.of();
+        if(coordinates instanceof List<?> list) return list;
+
+        throw new IOException("GeoJSON coordinates are not nested deep enough at " + this.location());
+    }
+
+    private @NotNull IOException unexpected(@Nullable JsonToken token, @NotNull String expected) {
+        return new IOException("Expected " + expected + " but got " + token + " at " + this.location());
+    }
+
+    private @NotNull String location() {
+        return "line " + this.parser.currentLocation().getLineNr() + ", column " + this.parser.currentLocation().getColumnNr();
+    }
+
+    /** Members of a GeoJSON object, collected in any order. */
+    private static final class GeoJSONObject {
+        private String type, id;
+        private Geometry geometry;
+        private Map<String, Object> properties;
+        private Object coordinates;
+        private List<Geometry> geometries;
+    }
+
+    /**
+     * Growable XYZ buffer of one coordinate sequence.
+     */
+    private static final class SequenceBuilder {
+        private double[] data = new double[3 * 64];
+        private int size = 0;
+        private boolean hasZ = false;
+
+        void clear() {
+            this.size = 0;
+            this.hasZ = false;
+        }
+
+        void add(double x, double y, double z, boolean hasZ) {
+            if(this.size * 3 + 3 > this.data.length) this.data = Arrays.copyOf(this.data, this.data.length * 2);
+
+            int offset = this.size++ * 3;
+            this.data[offset] = x;
+            this.data[offset + 1] = y;
+            this.data[offset + 2] = z;
+            this.hasZ |= hasZ;
+        }
+
+        @NotNull CoordinateSequence build() {
+            if(this.hasZ)
+                return new PackedCoordinateSequence.Double(Arrays.copyOf(this.data, this.size * 3), 3, 0);
+
+            double[] packed = new double[this.size * 2];
+            for (int i = 0; i < this.size; i++) {
+                packed[i * 2] = this.data[i * 3];
+                packed[i * 2 + 1] = this.data[i * 3 + 1];
+            }
+
+            return new PackedCoordinateSequence.Double(packed, 2, 0);
+        }
+    }
+}
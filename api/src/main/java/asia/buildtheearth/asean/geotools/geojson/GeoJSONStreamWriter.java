@@ -0,0 +1,260 @@
+package asia.buildtheearth.asean.geotools.geojson;
+
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Streaming GeoJSON {@code FeatureCollection} writer tokenizing with Jackson's {@link JsonGenerator}.
+ *
+ * <p>Each feature is written as soon as it is received, and every coordinate ordinate is formatted by a
+ * {@link CoordinateFormatter} straight into the generator, without building an intermediate JSON tree.</p>
+ *
+ * <p>The default geometry of a feature is written as its {@code "geometry"} member, every other attribute
+ * as a property: strings, numbers and booleans natively, other geometries as GeoJSON geometry objects,
+ * dates as ISO-8601 instants, maps, collections and arrays recursively and anything else as its string value.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * try(GeoJSONStreamWriter writer = new GeoJSONStreamWriter(output, CoordinateFormatter.fixed(6), true)) {
+ *     writer.write(feature);
+ * }
+ * }</blockquote>
+ *
+ * <p><strong>Note:</strong> Closing this writer ends the collection and closes the underlying output stream.</p>
+ */
+public class GeoJSONStreamWriter implements Closeable {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final JsonGenerator generator;
+    private final CoordinateFormatter formatter;
+    private final char[] number = new char[CoordinateFormatter.MAX_LENGTH];
+
+    private boolean closed = false;
+
+    /**
+     * Open a new feature collection on the given output stream.
+     *
+     * @param output The stream to write to
+     * @param formatter Formatter of every coordinate ordinate
+     * @param prettyPrint Whether to indent the output
+     * @throws IOException If the collection header cannot be written
+     */
+    public GeoJSONStreamWriter(@NotNull OutputStream output,
+                               @NotNull CoordinateFormatter formatter,
+                               boolean prettyPrint) throws IOException {
+        this.generator = JSON.createGenerator(output, JsonEncoding.UTF8);
+        this.formatter = formatter;
+
+        if(prettyPrint) this.generator.useDefaultPrettyPrinter();
+
+        this.generator.writeStartObject();
+        this.generator.writeStringField("type", "FeatureCollection");
+        this.generator.writeArrayFieldStart("features");
+    }
+
+    /**
+     * Write a feature.
+     *
+     * @param feature The feature to write
+     * @throws IOException If writing fails or this writer is already closed
+     */
+    public void write(@NotNull SimpleFeature feature) throws IOException {
+        if(this.closed) throw new IOException("GeoJSON stream writer is already closed");
+
+        Object defaultGeometry = feature.getDefaultGeometry();
+
+        this.generator.writeStartObject();
+        this.generator.writeStringField("type", "Feature");
+        if(feature.getID() != null) this.generator.writeStringField("id", feature.getID());
+
+        this.generator.writeFieldName("geometry");
+        if(defaultGeometry instanceof Geometry geometry) this.writeGeometry(geometry);
+        else this.generator.writeNull();
+
+        this.generator.writeObjectFieldStart("properties");
+        for (AttributeDescriptor descriptor : feature.getFeatureType().getAttributeDescriptors()) {
+            Object value = feature.getAttribute(descriptor.getName());
+            if(value == defaultGeometry && value != null) continue;
+
+            this.generator.writeFieldName(descriptor.getLocalName());
+            this.writeValue(value);
+        }
+        this.generator.writeEndObject();
+
+        this.generator.writeEndObject();
+    }
+
+    /**
+     * Write a geometry as a GeoJSON geometry object at the current position.
+     *
+     * @param geometry The geometry to write
+     * @throws IOException If writing fails
+     */
+    public void writeGeometry(@NotNull Geometry geometry) throws IOException {
+        this.generator.writeStartObject();
+
+        switch (geometry) {
+            case Point point -> {
+                this.generator.writeStringField("type", "Point");
+                this.generator.writeFieldName("coordinates");
+                if(point.isEmpty()) {
+                    this.generator.writeStartArray();
+                    this.generator.writeEndArray();
+                }
+                else this.writePosition(point.getCoordinateSequence(), 0);
+            }
+            case LineString line -> {
+                this.generator.writeStringField("type", "LineString");
+                this.generator.writeFieldName("coordinates");
+                this.writeSequence(line.getCoordinateSequence());
+            }
+            case Polygon polygon -> {
+                this.generator.writeStringField("type", "Polygon");
+                this.generator.writeFieldName("coordinates");
+                this.writeRings(polygon);
+            }
+            case MultiPoint points -> {
+                this.generator.writeStringField("type", "MultiPoint");
+                this.generator.writeArrayFieldStart("coordinates");
+                for (int i = 0; i < points.getNumGeometries(); i++) {
+                    Point point = (Point) points.getGeometryN(i);
+                    if(!point.isEmpty()) this.writePosition(point.getCoordinateSequence(), 0);
+                }
+                this.generator.writeEndArray();
+            }
+            case MultiLineString lines -> {
+                this.generator.writeStringField("type", "MultiLineString");
+                this.generator.writeArrayFieldStart("coordinates");
+                for (int i = 0; i < lines.getNumGeometries(); i++)
+                    this.writeSequence(((LineString) lines.getGeometryN(i)).getCoordinateSequence());
+                this.generator.writeEndArray();
+            }
+            case MultiPolygon polygons -> {
+                this.generator.writeStringField("type", "MultiPolygon");
+                this.generator.writeArrayFieldStart("coordinates");
+                for (int i = 0; i < polygons.getNumGeometries(); i++)
+                    this.writeRings((Polygon) polygons.getGeometryN(i));
+                this.generator.writeEndArray();
+            }
+            case GeometryCollection collection -> {
+                this.generator.writeStringField("type", "GeometryCollection");
+                this.generator.writeArrayFieldStart("geometries");
+                for (int i = 0; i < collection.getNumGeometries(); i++)
+                    this.writeGeometry(collection.getGeometryN(i));
+                this.generator.writeEndArray();
+            }
+            default -> throw new IOException("Unsupported geometry type: " + geometry.getGeometryType());
+        }
+
+        this.generator.writeEndObject();
+    }
+
+    /**
+     * Ends the feature collection, then flushes and closes the output stream.
+     *
+     * @throws IOException If the collection cannot be completed
+     */
+    @Override
+    public void close() throws IOException {
+        if(this.closed) return;
+        this.closed = true;
+
+        try {
+            this.generator.writeEndArray();
+            this.generator.writeEndObject();
+        }
+        finally { this.generator.close(); }
+    }
+
+    private void writeRings(@NotNull Polygon polygon) throws IOException {
+        this.generator.writeStartArray();
+        if(!polygon.isEmpty()) {
+            this.writeSequence(polygon.getExteriorRing().getCoordinateSequence());
+            for (int i = 0; i < polygon.getNumInteriorRing(); i++)
+                this.writeSequence(polygon.getInteriorRingN(i).getCoordinateSequence());
+        }
+        this.generator.writeEndArray();
+    }
+
+    private void writeSequence(@NotNull CoordinateSequence sequence) throws IOException {
+        this.generator.writeStartArray();
+        for (int i = 0; i < sequence.size(); i++) this.writePosition(sequence, i);
+        this.generator.writeEndArray();
+    }
+
+    private void writePosition(@NotNull CoordinateSequence sequence, int index) throws IOException {
+        this.generator.writeStartArray();
+        this.writeOrdinate(sequence.getX(index));
+        this.writeOrdinate(sequence.getY(index));
+
+        double z = sequence.hasZ()? sequence.getZ(index) : Double.NaN;
+        if(!Double.isNaN(z)) this.writeOrdinate(z);
+
+        this.generator.writeEndArray();
+    }
+
+    private void writeOrdinate(double value) throws IOException {
+        int length = this.formatter.format(value, this.number, 0);
+        this.generator.writeNumber(this.number, 0, length);
+    }
+
+    private void writeValue(@Nullable Object value) throws IOException {
+        switch (value) {
+            case null -> this.generator.writeNull();
+            case String text -> this.generator.writeString(text);
+            case Boolean bool -> this.generator.writeBoolean(bool);
+            case Integer number -> this.generator.writeNumber(number);
+            case Long number -> this.generator.writeNumber(number);
+            case Short number -> this.generator.writeNumber(number);
+            case Byte number -> this.generator.writeNumber(number);
+            case Double number -> this.generator.writeNumber(number);
+            case Float number -> this.generator.writeNumber(number);
+            case BigInteger number -> this.generator.writeNumber(number);
+            case BigDecimal number -> this.generator.writeNumber(number);
+            case Geometry geometry -> this.writeGeometry(geometry);
+            case Date date -> this.generator.writeString(Instant.ofEpochMilli(date.getTime()).toString());
+            case Map<?, ?> map -> {
+                this.generator.writeStartObject();
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    this.generator.writeFieldName(String.valueOf(entry.getKey()));
+                    this.writeValue(entry.getValue());
+                }
+                this.generator.writeEndObject();
+            }
+            case Collection<?> collection -> {
+                this.generator.writeStartArray();
+                for (Object element : collection) this.writeValue(element);
+                this.generator.writeEndArray();
+            }
+            default -> {
+                if(!value.getClass().isArray()) {
+                    this.generator.writeString(value.toString());
+                    break;
+                }
+
+                this.generator.writeStartArray();
+                for (int i = 0; i < Array.getLength(value); i++) this.writeValue(Array.get(value, i));
+                this.generator.writeEndArray();
+            }
+        }
+    }
+}
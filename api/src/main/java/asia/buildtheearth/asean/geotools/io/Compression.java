@@ -0,0 +1,178 @@
+package asia.buildtheearth.asean.geotools.io;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Transparent compression of converter input and output files.
+ *
+ * <p>Input files are detected by their content: gzip members are inflated on the fly and zip archives
+ * (such as KMZ) are read from their first data entry, without ever extracting to disk.
+ * Output compression is {@linkplain #of(Path) detected} from the file extension unless explicitly selected.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * try(InputStream input = Compression.openInput(new File("data.kmz"))) {
+ *     // Reads doc.kml
+ * }
+ *
+ * try(OutputStream output = Compression.of(path).openOutput(path, "doc.kml")) {
+ *     // Writes gzip when path ends with .gz
+ * }
+ * }</blockquote>
+ */
+public enum Compression {
+    /** Plain uncompressed file. */
+    NONE,
+
+    /** Gzip stream, conventionally {@code .gz}. */
+    GZIP,
+
+    /** Zip archive of a single entry, conventionally {@code .zip} or {@code .kmz}. */
+    ZIP;
+
+    /** Buffer size of compressed streams. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Extensions of the data entries read out of a zip archive. */
+    private static final String[] DATA_EXTENSIONS = { ".kml", ".geojson", ".json" };
+
+    /**
+     * Detect the compression of a file from its extension.
+     *
+     * @param file The file path
+     * @return {@link #GZIP} for {@code .gz}, {@link #ZIP} for {@code .zip} or {@code .kmz}, {@link #NONE} otherwise
+     */
+    @Contract(pure = true)
+    public static @NotNull Compression of(@NotNull Path file) {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        if(name.endsWith(".gz") || name.endsWith(".gzip")) return GZIP;
+        if(name.endsWith(".zip") || name.endsWith(".kmz")) return ZIP;
+        return NONE;
+    }
+
+    /**
+     * Strip the compression extension of a file name, {@code data.geojson.gz} becomes {@code data.geojson}.
+     *
+     * <p>The {@code .kmz} extension is kept since it also names the KML format.</p>
+     *
+     * @param name The file name
+     * @return The file name without its compression extension
+     */
+    @Contract(pure = true)
+    public static @NotNull String baseName(@NotNull String name) {
+        String lower = name.toLowerCase(Locale.ROOT);
+
+        for (String extension : new String[] { ".gz", ".gzip", ".zip" })
+            if(lower.endsWith(extension)) return name.substring(0, name.length() - extension.length());
+
+        return name;
+    }
+
+    /**
+     * Open a possibly compressed file for reading, detecting its compression from its first bytes.
+     *
+     * <p>A zip archive is read from its first {@code .kml}, {@code .geojson} or {@code .json} entry,
+     * the {@code doc.kml} of a KMZ archive is conventionally its first entry.</p>
+     *
+     * @param file The file to read
+     * @return A buffered stream of the decompressed content, to be closed by the caller
+     * @throws IOException If the file cannot be opened or an archive has no data entry
+     */
+    public static @NotNull InputStream openInput(@NotNull File file) throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(file.toPath()), BUFFER_SIZE);
+
+        try {
+            input.mark(4);
+            Compression compression = sniff(input);
+            input.reset();
+
+            return switch (compression) {
+                case NONE -> input;
+                case GZIP -> new GZIPInputStream(input, BUFFER_SIZE);
+                case ZIP -> openEntry(new ZipInputStream(input), file);
+            };
+        }
+        catch (IOException | RuntimeException ex) {
+            input.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Detect the compression of a file from its first bytes, regardless of its extension.
+     *
+     * @param file The file to inspect
+     * @return The compression {@linkplain #openInput(File) decompressed when reading} the file
+     * @throws IOException If the file cannot be read
+     */
+    public static @NotNull Compression detect(@NotNull File file) throws IOException {
+        try(InputStream input = Files.newInputStream(file.toPath())) {
+            return sniff(input);
+        }
+    }
+
+    /**
+     * Open a file for writing with this compression.
+     *
+     * @param file The file to create or overwrite
+     * @param entry Name of the single archive entry when this is {@link #ZIP}, such as {@code doc.kml}
+     * @return A stream of the uncompressed content, closing it completes the compressed file
+     * @throws IOException If the file cannot be opened
+     */
+    public @NotNull OutputStream openOutput(@NotNull Path file, @NotNull String entry) throws IOException {
+        OutputStream output = Files.newOutputStream(file);
+
+        try {
+            return switch (this) {
+                case NONE -> output;
+                case GZIP -> new BufferedOutputStream(new GZIPOutputStream(output, BUFFER_SIZE), BUFFER_SIZE);
+                case ZIP -> {
+                    ZipOutputStream zip = new ZipOutputStream(output);
+                    zip.putNextEntry(new ZipEntry(entry));
+                    yield new BufferedOutputStream(zip, BUFFER_SIZE);
+                }
+            };
+        }
+        catch (IOException | RuntimeException ex) {
+            output.close();
+            throw ex;
+        }
+    }
+
+    private static @NotNull Compression sniff(@NotNull InputStream input) throws IOException {
+        int first = input.read(), second = input.read(), third = input.read(), fourth = input.read();
+
+        // Gzip magic number 1F 8B
+        if(first == 0x1F && second == 0x8B) return GZIP;
+
+        // Zip local file header PK\3\4
+        if(first == 'P' && second == 'K' && third == 3 && fourth == 4) return ZIP;
+
+        return NONE;
+    }
+
+    private static @NotNull InputStream openEntry(@NotNull ZipInputStream zip, @NotNull File file) throws IOException {
+        // Entries are streamed in archive order, the first data entry is read
+        for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+            if(entry.isDirectory()) continue;
+
+            String name = entry.getName().toLowerCase(Locale.ROOT);
+            for (String extension : DATA_EXTENSIONS)
+                if(name.endsWith(extension)) return zip;
+        }
+
+        throw new IOException("No KML or GeoJSON entry found in archive " + file);
+    }
+}
@@ -0,0 +1,26 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Blocks placed from a geometry in a WorldEdit session, or a whole schematic tile written to disk.
+ */
+@Name("asia.buildtheearth.geotools.BlocksWritten")
+@Label("Blocks Written")
+@Category({ GeoToolsEvents.CATEGORY, "Write" })
+@Description("Blocks placed by WorldEdit or written as a schematic tile")
+@StackTrace(false)
+public final class BlocksWrittenEvent extends Event {
+
+    @Label("Blocks")
+    public long blocks;
+
+    @Label("Bytes")
+    @DataAmount
+    @Description("Size of the written schematic, zero when placed in a session")
+    public long bytes;
+
+    @Label("Path")
+    @Description("The written schematic, none when placed in a session")
+    public String path;
+}
@@ -0,0 +1,25 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A buffered document encoded and written at once.
+ */
+@Name("asia.buildtheearth.geotools.DocumentWritten")
+@Label("Document Written")
+@Category({ GeoToolsEvents.CATEGORY, "Write" })
+@Description("A buffered KML or BlueMap marker document exported at once")
+@StackTrace(false)
+public final class DocumentWrittenEvent extends Event {
+
+    @Label("Writer")
+    public Class<?> writer;
+
+    @Label("Features")
+    public int features;
+
+    @Label("Bytes")
+    @DataAmount
+    @Description("Written size, as stored on disk when compressed")
+    public long bytes;
+}
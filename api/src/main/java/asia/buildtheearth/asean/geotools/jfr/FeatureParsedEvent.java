@@ -0,0 +1,24 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A feature parsed by a source reader, lasting from the end of the previous feature.
+ * Features out of the reader bounds are skipped and part of the duration of the next one.
+ */
+@Name("asia.buildtheearth.geotools.FeatureParsed")
+@Label("Feature Parsed")
+@Category({ GeoToolsEvents.CATEGORY, "Read" })
+@Description("A feature parsed by a KML or GeoJSON reader")
+@StackTrace(false)
+public final class FeatureParsedEvent extends Event {
+
+    @Label("Feature ID")
+    public String featureId;
+
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Parser")
+    public String parser;
+}
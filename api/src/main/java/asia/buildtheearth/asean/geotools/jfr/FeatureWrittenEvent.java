@@ -0,0 +1,20 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * A converted feature handed to the output writer, in document order.
+ */
+@Name("asia.buildtheearth.geotools.FeatureWritten")
+@Label("Feature Written")
+@Category({ GeoToolsEvents.CATEGORY, "Write" })
+@Description("A converted feature handed to the output writer")
+@StackTrace(false)
+public final class FeatureWrittenEvent extends Event {
+
+    @Label("Feature ID")
+    public String featureId;
+
+    @Label("Vertices")
+    public int vertices;
+}
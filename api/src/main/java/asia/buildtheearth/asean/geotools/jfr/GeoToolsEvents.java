@@ -0,0 +1,64 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+
+/**
+ * Java Flight Recorder events emitted by every conversion stage.
+ *
+ * <p>Events are disabled unless a recording enables them, then costing a single check per feature.
+ * The bundled {@value #SETTINGS} template enables all of them, per-feature events only above
+ * a threshold of 1 ms by default. It can be opened in JDK Mission Control, extracted to start a recording
+ * from the command line with {@code -XX:StartFlightRecording:settings=geotools-utils.jfc},
+ * or used programmatically with {@link #configuration()}.</p>
+ *
+ * <table>
+ *   <caption>Conversion events</caption>
+ *   <tr><th>Event</th><th>Stage</th></tr>
+ *   <tr><td>{@link FeatureParsedEvent}</td><td>a feature parsed by a KML or GeoJSON reader</td></tr>
+ *   <tr><td>{@link GeometryModifiedEvent}</td><td>Z normalization and offset of a geometry</td></tr>
+ *   <tr><td>{@link GeometryProjectedEvent}</td><td>projection of a geometry into Minecraft coordinates</td></tr>
+ *   <tr><td>{@link FeatureWrittenEvent}</td><td>a feature handed to the output writer</td></tr>
+ *   <tr><td>{@link DocumentWrittenEvent}</td><td>a buffered KML or BlueMap document exported at once</td></tr>
+ *   <tr><td>{@link BlocksWrittenEvent}</td><td>blocks placed by WorldEdit, or a schematic tile written</td></tr>
+ * </table>
+ */
+public final class GeoToolsEvents {
+
+    /** Top level category of every event. */
+    public static final String CATEGORY = "GeoTools Utils";
+
+    /** Classpath resource name of the bundled recording template, relative to this class. */
+    public static final String SETTINGS = "geotools-utils.jfc";
+
+    private GeoToolsEvents() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Parse the bundled recording template.
+     *
+     * <pre>{@code
+     * try(Recording recording = new Recording(GeoToolsEvents.configuration())) { ... }
+     * }</pre>
+     *
+     * @return The configuration to start a {@link Recording} with
+     * @throws IOException If the template cannot be read
+     */
+    public static @NotNull Configuration configuration() throws IOException {
+        InputStream template = GeoToolsEvents.class.getResourceAsStream(SETTINGS);
+        if(template == null) throw new IOException("Missing JFR template " + SETTINGS);
+
+        try(InputStreamReader reader = new InputStreamReader(template, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+        catch (ParseException ex) { throw new IOException("Invalid JFR template " + SETTINGS, ex); }
+    }
+}
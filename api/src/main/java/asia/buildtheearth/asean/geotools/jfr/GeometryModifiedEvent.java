@@ -0,0 +1,24 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Z normalization and offset of a single geometry.
+ */
+@Name("asia.buildtheearth.geotools.GeometryModified")
+@Label("Geometry Modified")
+@Category({ GeoToolsEvents.CATEGORY, "Modify" })
+@Description("Z coordinates of a geometry normalized or offset")
+@StackTrace(false)
+public final class GeometryModifiedEvent extends Event {
+
+    @Label("Feature ID")
+    public String featureId;
+
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("In Place")
+    @Description("Whether ordinates were written in place instead of into a copy")
+    public boolean inPlace;
+}
@@ -0,0 +1,23 @@
+package asia.buildtheearth.asean.geotools.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Projection of a single geometry into Minecraft coordinates.
+ */
+@Name("asia.buildtheearth.geotools.GeometryProjected")
+@Label("Geometry Projected")
+@Category({ GeoToolsEvents.CATEGORY, "Project" })
+@Description("A geometry projected into Minecraft coordinates")
+@StackTrace(false)
+public final class GeometryProjectedEvent extends Event {
+
+    @Label("Feature ID")
+    public String featureId;
+
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Failed")
+    public boolean failed;
+}
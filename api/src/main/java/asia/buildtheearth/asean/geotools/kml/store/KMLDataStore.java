@@ -24,6 +24,7 @@
  */
 package asia.buildtheearth.asean.geotools.kml.store;
 
+import asia.buildtheearth.asean.geotools.io.Compression;
 import org.geotools.api.data.Query;
 import org.geotools.api.data.ServiceInfo;
 import org.geotools.api.feature.type.Name;
@@ -35,14 +36,18 @@ import org.geotools.factory.CommonFactoryFinder;
 import org.geotools.feature.FeatureTypes;
 import org.geotools.feature.NameImpl;
 import org.geotools.feature.type.FeatureTypeFactoryImpl;
+import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.GeometryFactory;
 
+import javax.xml.namespace.QName;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 /**
  * KMLDataStore implementation
@@ -50,11 +55,38 @@ import java.util.List;
  * @author Niels Charlier, Scitus Development
  */
 public class KMLDataStore extends ContentDataStore {
+    private static final Logger LOGGER = Logging.getLogger(KMLDataStore.class);
+
     /**
      *  The source file to retrieve information
      */
     protected File file;
 
+    /**
+     *  The parser used to read features from {@link #file}
+     */
+    protected KMLParser parser = KMLParser.XSD;
+
+    /**
+     *  Whether a {@link KMLIndex} of {@link #file} is built and persisted next to it
+     */
+    protected boolean indexed = false;
+
+    /**
+     *  The number of threads parsing {@link #file}, see {@link KMLParallelFeatureReader}
+     */
+    protected int threads = 1;
+
+    /**
+     *  Whether features parsed on multiple threads are read in document order
+     */
+    protected boolean ordered = true;
+
+    /**
+     *  The last index read or built, {@code null} until first needed
+     */
+    private KMLIndex index;
+
     /**
      * Create a new KMLDataStore
      *
@@ -111,8 +143,116 @@ public class KMLDataStore extends ContentDataStore {
         this.namespaceURI = namespaceURI;
     }
 
+    /**
+     * Select the parser used to read features, {@link KMLParser#XSD} by default.
+     *
+     * @param parser The KML parser
+     */
+    public void setParser(KMLParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * @return The parser used to read features
+     */
+    public KMLParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Parse the source file on multiple threads, one by default.
+     *
+     * <p>The file is split at its {@code Placemark} boundaries, files that cannot be split are read on a single thread.</p>
+     *
+     * @param threads The number of parser threads
+     * @see KMLParallelFeatureReader
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * @return The number of parser threads
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Select whether features parsed on multiple threads are read in document order, {@code true} by default.
+     *
+     * <p>Unordered reading returns each batch of features as soon as it is parsed.</p>
+     *
+     * @param ordered Whether features are read in document order
+     */
+    public void setOrdered(boolean ordered) {
+        this.ordered = ordered;
+    }
+
+    /**
+     * @return Whether features parsed on multiple threads are read in document order
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Enable the sidecar {@link KMLIndex} of the source file, disabled by default.
+     *
+     * <p>The index is built on the first bounds, count or schema query and persisted as
+     * {@link KMLIndex#getIndexFile(File)}. It is rebuilt whenever the file size or modification time changes.</p>
+     *
+     * @param indexed Whether to use an index
+     */
+    public void setIndexed(boolean indexed) {
+        this.indexed = indexed;
+    }
+
+    /**
+     * @return Whether a sidecar index is used
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+
+    /**
+     * Get the index of the source file, reading the persisted index or building it when missing or stale.
+     *
+     * <p>An index that cannot be persisted is still kept in memory.</p>
+     *
+     * @param element The {@link QName} of the element read as features
+     * @return The index, or {@code null} if indexing is disabled
+     * @throws IOException If the source file cannot be parsed
+     */
+    synchronized KMLIndex getIndex(QName element) throws IOException {
+        if (!indexed) {
+            return null;
+        }
+        if (index != null && index.isValid(file, parser, element)) {
+            return index;
+        }
+
+        File indexFile = KMLIndex.getIndexFile(file);
+        try {
+            index = KMLIndex.read(indexFile, file, parser, element);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Ignoring unreadable KML index " + indexFile, e);
+            index = null;
+        }
+
+        if (index == null) {
+            index = KMLIndex.build(file, parser, element);
+            try {
+                index.write(indexFile);
+            } catch (IOException e) {
+                LOGGER.log(Level.WARNING, "Failed to persist KML index " + indexFile, e);
+            }
+        }
+        return index;
+    }
+
     protected List<Name> createTypeNames() throws IOException {
-        String name = file.getName();
+        String name = Compression.baseName(file.getName());
         String typeName = name.substring(0, name.lastIndexOf('.'));
         List<Name> typeNames = new ArrayList<Name>();
         typeNames.add(new NameImpl(namespaceURI, typeName));
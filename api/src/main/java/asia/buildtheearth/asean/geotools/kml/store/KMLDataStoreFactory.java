@@ -24,12 +24,14 @@
  */
 package asia.buildtheearth.asean.geotools.kml.store;
 
+import asia.buildtheearth.asean.geotools.io.Compression;
 import org.geotools.api.data.DataStore;
 import org.geotools.api.data.DataStoreFactorySpi;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.Locale;
 import java.util.Map;
 
 /**
@@ -46,6 +48,22 @@ public class KMLDataStoreFactory implements DataStoreFactorySpi {
     public static final Param NAMESPACE =
             new Param("namespace", String.class, "namespace of datastore", false);
 
+    /** Parser property metadata, one of the {@link KMLParser} names */
+    public static final Param PARSER =
+            new Param("parser", String.class, "KML parser implementation (XSD or PULL)", false, KMLParser.XSD.name());
+
+    /** Index property metadata, whether to persist a {@link KMLIndex} next to the file */
+    public static final Param INDEX =
+            new Param("index", Boolean.class, "Persist a sidecar index of the KML file", false, Boolean.FALSE);
+
+    /** Threads property metadata, the number of threads parsing the file */
+    public static final Param THREADS =
+            new Param("threads", Integer.class, "Number of threads parsing the KML file", false, 1);
+
+    /** Ordered property metadata, whether features parsed on multiple threads keep their document order */
+    public static final Param ORDERED =
+            new Param("ordered", Boolean.class, "Read features parsed on multiple threads in document order", false, Boolean.TRUE);
+
     /**
      * Construct an empty factory
      */
@@ -56,7 +74,11 @@ public class KMLDataStoreFactory implements DataStoreFactorySpi {
         File file = fileLookup(params);
         String namespaceURI = (String) NAMESPACE.lookUp(params);
         if (file.exists() && !file.isDirectory()) {
-            return new KMLDataStore(file, namespaceURI);
+            KMLDataStore store = new KMLDataStore(file, namespaceURI);
+            store.setParser(parserLookup(params));
+            store.setIndexed(Boolean.TRUE.equals(INDEX.lookUp(params)));
+            configureParsing(store, params);
+            return store;
         } else {
             throw new IOException("Existing file is required");
         }
@@ -71,7 +93,11 @@ public class KMLDataStoreFactory implements DataStoreFactorySpi {
         }
 
         String namespaceURI = (String) NAMESPACE.lookUp(params);
-        return new KMLDataStore(file, namespaceURI);
+        KMLDataStore store = new KMLDataStore(file, namespaceURI);
+        store.setParser(parserLookup(params));
+        store.setIndexed(Boolean.TRUE.equals(INDEX.lookUp(params)));
+        configureParsing(store, params);
+        return store;
     }
 
     @Override
@@ -88,10 +114,14 @@ public class KMLDataStoreFactory implements DataStoreFactorySpi {
      * {@inheritDoc}
      *
      * @see KMLDataStoreFactory#NAMESPACE
+     * @see KMLDataStoreFactory#PARSER
+     * @see KMLDataStoreFactory#INDEX
+     * @see KMLDataStoreFactory#THREADS
+     * @see KMLDataStoreFactory#ORDERED
      */
     @Override
     public Param[] getParametersInfo() {
-        return new Param[] {FILE, NAMESPACE};
+        return new Param[] {FILE, NAMESPACE, PARSER, INDEX, THREADS, ORDERED};
     }
 
     /**
@@ -121,12 +151,13 @@ public class KMLDataStoreFactory implements DataStoreFactorySpi {
             return false;
         }
         if (file != null) {
-            String name = file.getName();
+            String name = Compression.baseName(file.getName());
             int index = name.lastIndexOf('.');
             if (index == -1) {
                 return false;
             }
-            if (name.substring(index + 1).equalsIgnoreCase("kml")) {
+            String extension = name.substring(index + 1);
+            if (extension.equalsIgnoreCase("kml") || extension.equalsIgnoreCase("kmz")) {
                 return true;
             }
         }
@@ -169,4 +200,37 @@ public class KMLDataStoreFactory implements DataStoreFactorySpi {
             return file;
         }
     }
+
+    /**
+     * Lookups the {@linkplain #PARSER parser} in the params argument.
+     *
+     * @throws IOException if the parser is not a {@link KMLParser} name
+     */
+    private KMLParser parserLookup(Map params) throws IOException {
+        String parser = (String) PARSER.lookUp(params);
+        if (parser == null) {
+            return KMLParser.XSD;
+        }
+        try {
+            return KMLParser.valueOf(parser.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Unknown KML parser: " + parser, e);
+        }
+    }
+
+    /**
+     * Applies the {@linkplain #THREADS threads} and {@linkplain #ORDERED ordered} parameters to a data store.
+     *
+     * @throws IOException if a parameter has the wrong type
+     */
+    private void configureParsing(KMLDataStore store, Map params) throws IOException {
+        Integer threads = (Integer) THREADS.lookUp(params);
+        if (threads != null) {
+            store.setThreads(threads);
+        }
+        Boolean ordered = (Boolean) ORDERED.lookUp(params);
+        if (ordered != null) {
+            store.setOrdered(ordered);
+        }
+    }
 }
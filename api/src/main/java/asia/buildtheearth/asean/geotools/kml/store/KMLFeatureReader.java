@@ -24,14 +24,18 @@
  */
 package asia.buildtheearth.asean.geotools.kml.store;
 
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.jfr.FeatureParsedEvent;
 import org.geotools.api.data.FeatureReader;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
 
 import javax.xml.namespace.QName;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.NoSuchElementException;
 
 /**
@@ -45,20 +49,52 @@ public class KMLFeatureReader implements FeatureReader<SimpleFeatureType, Simple
     SimpleFeature f = null;
     // PullParser parser;
     org.geotools.xsd.StreamingParser parser;
-    FileInputStream fis;
+    InputStream fis;
+    Envelope bounds;
 
     /**
      * Construct a KMLFeatureReader on a specified element
      *
+     * <p>Gzip compressed files and KMZ archives are decompressed on the fly.</p>
+     *
      * @param file The KML parse-able source file
      * @param name The {@link QName} of an element that will be the parsing root
      * @throws IOException If {@linkplain org.geotools.xsd.StreamingParser parser} failed to parse the source file
      */
     public KMLFeatureReader(File file, QName name) throws IOException {
-        fis = new FileInputStream(file);
+        this(file, name, null);
+    }
+
+    /**
+     * Construct a KMLFeatureReader on a specified element, reading only features intersecting some bounds
+     *
+     * <p>The streaming parser builds each feature completely, features whose default geometry does not
+     * intersect the bounds are dropped before being returned.</p>
+     *
+     * @param file The KML parse-able source file
+     * @param name The {@link QName} of an element that will be the parsing root
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every feature
+     * @throws IOException If {@linkplain org.geotools.xsd.StreamingParser parser} failed to parse the source file
+     */
+    public KMLFeatureReader(File file, QName name, Envelope bounds) throws IOException {
+        this(Compression.openInput(file), name, bounds);
+    }
+
+    /**
+     * Construct a KMLFeatureReader on a specified element of a stream, reading only features intersecting some bounds
+     *
+     * @param input The KML source stream, closed with this reader
+     * @param name The {@link QName} of an element that will be the parsing root
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every feature
+     * @throws IOException If {@linkplain org.geotools.xsd.StreamingParser parser} failed to parse the source stream
+     */
+    public KMLFeatureReader(InputStream input, QName name, Envelope bounds) throws IOException {
+        this.bounds = bounds;
+        fis = input;
         try {
             parser = new org.geotools.xsd.StreamingParser(new org.geotools.kml.KMLConfiguration(), fis, name);
         } catch (Exception e) {
+            fis.close();
             throw new IOException("Error processing KML file", e);
         }
         forward();
@@ -92,16 +128,32 @@ public class KMLFeatureReader implements FeatureReader<SimpleFeatureType, Simple
     }
 
     /**
-     * Forward the streaming parser to a constructed member
+     * Forward the streaming parser to a constructed member within bounds
      *
      * @throws IOException If the parser failed to parse
      */
     public void forward() throws IOException {
+        FeatureParsedEvent event = new FeatureParsedEvent();
+        event.begin();
         try {
-            f = (SimpleFeature) parser.parse();
+            do {
+                f = (SimpleFeature) parser.parse();
+            } while (f != null && !intersects(f));
         } catch (Exception e) {
             throw new IOException("Error processing KML file", e);
         }
+        if (f != null && event.shouldCommit()) {
+            event.featureId = f.getID();
+            event.vertices = f.getDefaultGeometry() instanceof Geometry geometry ? geometry.getNumPoints() : 0;
+            event.parser = KMLParser.XSD.name();
+            event.commit();
+        }
+    }
+
+    private boolean intersects(SimpleFeature feature) {
+        if (bounds == null) return true;
+        return feature.getDefaultGeometry() instanceof Geometry geometry
+                && bounds.intersects(geometry.getEnvelopeInternal());
     }
 
     /**
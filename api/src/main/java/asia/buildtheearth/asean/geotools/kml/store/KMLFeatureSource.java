@@ -31,8 +31,11 @@ import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.data.store.ContentEntry;
 import org.geotools.data.store.ContentFeatureSource;
+import org.geotools.api.filter.Filter;
 import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.visitor.ExtractBoundsFilterVisitor;
 import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.locationtech.jts.geom.Envelope;
 
 import javax.xml.namespace.QName;
 import java.io.IOException;
@@ -40,6 +43,13 @@ import java.io.IOException;
 /**
  * Feature source for KML
  *
+ * <p>The bounds of a query filter are pushed down to the feature reader, which drops features out of bounds as soon as
+ * their geometry is parsed. The complete filter is still evaluated on every returned feature.</p>
+ *
+ * <p>When the data store is {@linkplain KMLDataStore#setIndexed(boolean) indexed}, the bounds, count and schema
+ * of the whole file are answered by its {@link KMLIndex}, and bounded queries seek to each intersecting placemark
+ * when the index allows it.</p>
+ *
  * @author Niels Charlier, Scitus Development
  */
 public class KMLFeatureSource extends ContentFeatureSource {
@@ -68,6 +78,11 @@ public class KMLFeatureSource extends ContentFeatureSource {
 
     @Override
     protected ReferencedEnvelope getBoundsInternal(Query query) throws IOException {
+        KMLIndex index = getIndex();
+        if (index != null && query.getFilter() == Filter.INCLUDE) {
+            return new ReferencedEnvelope(index.getBounds(), getSchema().getCoordinateReferenceSystem());
+        }
+
         ReferencedEnvelope bounds =
                 new ReferencedEnvelope(getSchema().getCoordinateReferenceSystem());
 
@@ -85,6 +100,11 @@ public class KMLFeatureSource extends ContentFeatureSource {
 
     @Override
     protected int getCountInternal(Query query) throws IOException {
+        KMLIndex index = getIndex();
+        if (index != null && query.getFilter() == Filter.INCLUDE) {
+            return index.getCount();
+        }
+
         int count = 0;
         try (FeatureReader<SimpleFeatureType, SimpleFeature> featureReader = getReaderInternal(query)) {
             while (featureReader.hasNext()) {
@@ -101,8 +121,13 @@ public class KMLFeatureSource extends ContentFeatureSource {
         String namespace = getEntry().getName().getNamespaceURI();
 
         SimpleFeatureType type;
-        try (FeatureReader<SimpleFeatureType, SimpleFeature> featureReader = getReaderInternal(query)) {
-            type = featureReader.getFeatureType();
+        KMLIndex index = getIndex();
+        if (index != null) {
+            type = index.getSchema();
+        } else {
+            try (FeatureReader<SimpleFeatureType, SimpleFeature> featureReader = getReaderInternal(query)) {
+                type = featureReader.getFeatureType();
+            }
         }
 
         // rename
@@ -119,8 +144,51 @@ public class KMLFeatureSource extends ContentFeatureSource {
     protected FeatureReader<SimpleFeatureType, SimpleFeature> getReaderInternal(Query query)
             throws IOException {
         KMLDataStore dataStore = (KMLDataStore) getEntry().getDataStore();
-        return new KMLFeatureReader(
-                dataStore.file,
-                new QName(getEntry().getName().getNamespaceURI(), getEntry().getTypeName()));
+        Envelope bounds = getBounds(query.getFilter());
+
+        // Seek to the placemarks within bounds only
+        KMLIndex index = bounds != null ? getIndex() : null;
+        if (index != null && index.isSeekable()) {
+            return index.open(dataStore.file, bounds);
+        }
+
+        return KMLParallelFeatureReader.open(
+                dataStore.file, getElement(), dataStore.parser, bounds, dataStore.threads, dataStore.ordered);
+    }
+
+    /**
+     * @return The element read as features
+     */
+    private QName getElement() {
+        KMLDataStore dataStore = (KMLDataStore) getEntry().getDataStore();
+        // The pull parser only reads placemarks, whatever the type name
+        return dataStore.parser == KMLParser.PULL
+                ? org.geotools.kml.KML.Placemark
+                : new QName(getEntry().getName().getNamespaceURI(), getEntry().getTypeName());
+    }
+
+    /**
+     * @return The index of the data store file, or {@code null} if the data store is not indexed
+     */
+    private KMLIndex getIndex() throws IOException {
+        return ((KMLDataStore) getEntry().getDataStore()).getIndex(getElement());
+    }
+
+    /**
+     * Extract the bounds of a filter, any feature matching the filter intersects them.
+     *
+     * @param filter The query filter
+     * @return The bounds of every matched feature, or {@code null} if the filter is not spatially bounded
+     */
+    static Envelope getBounds(Filter filter) {
+        if (filter == null || filter == Filter.INCLUDE) return null;
+
+        Envelope bounds = (Envelope) filter.accept(ExtractBoundsFilterVisitor.BOUNDS_VISITOR, null);
+        if (bounds == null
+                || Double.isInfinite(bounds.getWidth())
+                || Double.isInfinite(bounds.getHeight())) return null;
+
+        // A null envelope matches nothing, such as Filter.EXCLUDE
+        return bounds;
     }
 }
@@ -0,0 +1,441 @@
+package asia.buildtheearth.asean.geotools.kml.store;
+
+import asia.buildtheearth.asean.geotools.io.Compression;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.feature.type.AttributeDescriptor;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.Geometry;
+
+import javax.xml.namespace.QName;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Sidecar index of the features of a KML file.
+ *
+ * <p>The index records the feature count, the total and per-feature envelopes and the feature type
+ * read by one {@link KMLParser} on one parsing element, so metadata queries do not parse the file again.
+ * It is persisted {@linkplain #getIndexFile(File) next to the KML file} and keyed by the file size and
+ * last modification time: any change to the file invalidates the index.</p>
+ *
+ * <p>When built with the {@link KMLParser#PULL PULL} parser on an uncompressed file, the index also records
+ * the byte range of each {@code Placemark} element, so a bounding box query only {@linkplain #open(File, Envelope) reads}
+ * the placemarks whose envelope intersects the box.</p>
+ *
+ * @see KMLDataStore#setIndexed(boolean)
+ */
+public final class KMLIndex {
+
+    /** Extension appended to the KML file name to name its index. */
+    public static final String EXTENSION = ".idx";
+
+    private static final int MAGIC = 0x4B4D4C58; // "KMLX"
+    private static final int VERSION = 1;
+
+    private final long size;
+    private final long lastModified;
+    private final @NotNull KMLParser parser;
+    private final @NotNull String element;
+    private final @Nullable SimpleFeatureType schema;
+    private final @NotNull Envelope bounds;
+    private final int count;
+
+    /** {@code minX, maxX, minY, maxY} of each feature, {@code NaN} for a feature without geometry. */
+    private final double @NotNull [] envelopes;
+
+    /** Start and end byte offsets of each placemark, {@code null} if the file cannot be seeked. */
+    private final long @Nullable [] offsets;
+
+    /** Character encoding of the file, {@code null} if the file cannot be seeked. */
+    private final @Nullable String encoding;
+
+    private KMLIndex(long size, long lastModified,
+                     @NotNull KMLParser parser, @NotNull String element,
+                     @Nullable SimpleFeatureType schema, @NotNull Envelope bounds, int count,
+                     double @NotNull [] envelopes, long @Nullable [] offsets, @Nullable String encoding) {
+        this.size = size;
+        this.lastModified = lastModified;
+        this.parser = parser;
+        this.element = element;
+        this.schema = schema;
+        this.bounds = bounds;
+        this.count = count;
+        this.envelopes = envelopes;
+        this.offsets = offsets;
+        this.encoding = encoding;
+    }
+
+    /**
+     * Resolve the index file of a KML file, {@code data.kml.idx} for {@code data.kml}.
+     *
+     * @param file The KML file
+     * @return The sidecar index file
+     */
+    @Contract(pure = true)
+    public static @NotNull File getIndexFile(@NotNull File file) {
+        return new File(file.getPath() + EXTENSION);
+    }
+
+    /**
+     * Build the index of a KML file by parsing it completely.
+     *
+     * @param file The KML file
+     * @param parser The parser reading the features
+     * @param element The {@link QName} of the element read as features
+     * @return The index of the file
+     * @throws IOException If the file cannot be read or parsed
+     */
+    public static @NotNull KMLIndex build(@NotNull File file,
+                                          @NotNull KMLParser parser,
+                                          @NotNull QName element) throws IOException {
+        long size = file.length();
+        long lastModified = file.lastModified();
+
+        SimpleFeatureType schema;
+        Envelope bounds = new Envelope();
+        double[] envelopes = new double[4 * 1024];
+        int count = 0;
+
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = parser.open(file, element)) {
+            schema = reader.getFeatureType();
+
+            while(reader.hasNext()) {
+                SimpleFeature feature = reader.next();
+
+                if(count * 4 + 4 > envelopes.length) envelopes = Arrays.copyOf(envelopes, envelopes.length * 2);
+
+                int offset = count++ * 4;
+                if(feature.getDefaultGeometry() instanceof Geometry geometry && !geometry.isEmpty()) {
+                    Envelope envelope = geometry.getEnvelopeInternal();
+                    envelopes[offset] = envelope.getMinX();
+                    envelopes[offset + 1] = envelope.getMaxX();
+                    envelopes[offset + 2] = envelope.getMinY();
+                    envelopes[offset + 3] = envelope.getMaxY();
+                    bounds.expandToInclude(envelope);
+                }
+                else Arrays.fill(envelopes, offset, offset + 4, Double.NaN);
+            }
+        }
+
+        // Byte ranges are only meaningful when the pull parser reads every placemark of a plain file
+        long[] offsets = null;
+        String encoding = null;
+        if(parser == KMLParser.PULL && Compression.detect(file) == Compression.NONE) {
+            try(MappedFile mapped = new MappedFile(file)) {
+                PlacemarkScanner scanner = new PlacemarkScanner(mapped);
+
+                // Prefixed placemarks cannot be parsed without the namespace declarations of the document
+                if(scanner.scan() && !scanner.prefixed && scanner.count == count) {
+                    offsets = scanner.getOffsets();
+                    encoding = scanner.encoding;
+                }
+            }
+        }
+
+        return new KMLIndex(size, lastModified, parser, element.toString(), schema, bounds, count,
+            Arrays.copyOf(envelopes, count * 4), offsets, encoding);
+    }
+
+    /**
+     * Read the persisted index of a KML file.
+     *
+     * @param index The index file
+     * @param file The indexed KML file
+     * @param parser The parser the index must have been built with
+     * @param element The parsing element the index must have been built with
+     * @return The index, or {@code null} if it does not exist, is stale or was built differently
+     * @throws IOException If the index exists but cannot be read
+     */
+    public static @Nullable KMLIndex read(@NotNull File index,
+                                          @NotNull File file,
+                                          @NotNull KMLParser parser,
+                                          @NotNull QName element) throws IOException {
+        if(!index.isFile()) return null;
+
+        try(DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(index.toPath())))) {
+            if(input.readInt() != MAGIC || input.readInt() != VERSION) return null;
+
+            long size = input.readLong();
+            long lastModified = input.readLong();
+            String parserName = input.readUTF();
+            String elementName = input.readUTF();
+
+            if(size != file.length() || lastModified != file.lastModified()
+                || !parserName.equals(parser.name()) || !elementName.equals(element.toString())) return null;
+
+            SimpleFeatureType schema = readSchema(input);
+            Envelope bounds = input.readBoolean()
+                ? new Envelope(input.readDouble(), input.readDouble(), input.readDouble(), input.readDouble())
+                : new Envelope();
+
+            int count = input.readInt();
+            double[] envelopes = new double[count * 4];
+            for (int i = 0; i < envelopes.length; i++) envelopes[i] = input.readDouble();
+
+            long[] offsets = null;
+            String encoding = null;
+            if(input.readBoolean()) {
+                encoding = input.readUTF();
+                offsets = new long[count * 2];
+                for (int i = 0; i < offsets.length; i++) offsets[i] = input.readLong();
+            }
+
+            return new KMLIndex(size, lastModified, parser, elementName, schema, bounds, count, envelopes, offsets, encoding);
+        }
+        catch (ClassNotFoundException ex) {
+            // An attribute binding is no longer available, the index is rebuilt
+            return null;
+        }
+        catch (EOFException ex) {
+            throw new IOException("Truncated KML index " + index, ex);
+        }
+    }
+
+    /**
+     * Persist this index.
+     *
+     * @param index The index file to create or overwrite
+     * @throws IOException If the index cannot be written
+     */
+    public void write(@NotNull File index) throws IOException {
+        try(DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index.toPath())))) {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(this.size);
+            output.writeLong(this.lastModified);
+            output.writeUTF(this.parser.name());
+            output.writeUTF(this.element);
+
+            writeSchema(output, this.schema);
+
+            output.writeBoolean(!this.bounds.isNull());
+            if(!this.bounds.isNull()) {
+                output.writeDouble(this.bounds.getMinX());
+                output.writeDouble(this.bounds.getMaxX());
+                output.writeDouble(this.bounds.getMinY());
+                output.writeDouble(this.bounds.getMaxY());
+            }
+
+            output.writeInt(this.count);
+            for (double value : this.envelopes) output.writeDouble(value);
+
+            output.writeBoolean(this.offsets != null);
+            if(this.offsets != null) {
+                output.writeUTF(this.encoding);
+                for (long offset : this.offsets) output.writeLong(offset);
+            }
+        }
+    }
+
+    /**
+     * Check whether this index still describes a KML file read with some parser.
+     *
+     * @param file The KML file
+     * @param parser The parser reading the file
+     * @param element The parsing element
+     * @return {@code true} if the file is unchanged and the index was built with the same parser and element
+     */
+    public boolean isValid(@NotNull File file, @NotNull KMLParser parser, @NotNull QName element) {
+        return this.size == file.length() && this.lastModified == file.lastModified()
+            && this.parser == parser && this.element.equals(element.toString());
+    }
+
+    /**
+     * @return The number of indexed features
+     */
+    public int getCount() {
+        return this.count;
+    }
+
+    /**
+     * @return The envelope of every feature geometry, a null envelope if there is none
+     */
+    public @NotNull Envelope getBounds() {
+        return new Envelope(this.bounds);
+    }
+
+    /**
+     * Get the envelope of one feature.
+     *
+     * @param index The feature index, in document order
+     * @return The feature envelope, or {@code null} if the feature has no geometry
+     */
+    public @Nullable Envelope getEnvelope(int index) {
+        int offset = index * 4;
+        if(Double.isNaN(this.envelopes[offset])) return null;
+
+        return new Envelope(this.envelopes[offset], this.envelopes[offset + 1],
+                            this.envelopes[offset + 2], this.envelopes[offset + 3]);
+    }
+
+    /**
+     * @return The feature type read by the parser, {@code null} if the file has no feature
+     */
+    public @Nullable SimpleFeatureType getSchema() {
+        return this.schema;
+    }
+
+    /**
+     * @return {@code true} if the byte range of every placemark is known and {@link #open(File, Envelope)} can be used
+     */
+    public boolean isSeekable() {
+        return this.offsets != null;
+    }
+
+    /**
+     * Read the placemarks intersecting some bounds, seeking directly to each of them.
+     *
+     * @param file The indexed KML file
+     * @param bounds Geographic bounds every read geometry must intersect
+     * @return A new reader of the intersecting placemarks in document order, to be closed by the caller
+     * @throws IOException If the file cannot be opened
+     * @throws IllegalStateException If this index is not {@linkplain #isSeekable() seekable}
+     */
+    public @NotNull FeatureReader<SimpleFeatureType, SimpleFeature> open(@NotNull File file,
+                                                                        @NotNull Envelope bounds) throws IOException {
+        if(this.offsets == null) throw new IllegalStateException("KML index of " + file + " has no placemark offsets");
+
+        return new SeekingReader(FileChannel.open(file.toPath(), StandardOpenOption.READ), bounds);
+    }
+
+    private boolean intersects(int index, @NotNull Envelope bounds) {
+        int offset = index * 4;
+
+        // Features without geometry have NaN envelopes, which never intersect
+        return !bounds.isNull()
+            && this.envelopes[offset] <= bounds.getMaxX() && this.envelopes[offset + 1] >= bounds.getMinX()
+            && this.envelopes[offset + 2] <= bounds.getMaxY() && this.envelopes[offset + 3] >= bounds.getMinY();
+    }
+
+    private static void writeSchema(@NotNull DataOutputStream output, @Nullable SimpleFeatureType schema) throws IOException {
+        output.writeBoolean(schema != null);
+        if(schema == null) return;
+
+        output.writeUTF(schema.getTypeName());
+        output.writeUTF(schema.getName().getNamespaceURI() == null? "" : schema.getName().getNamespaceURI());
+        output.writeUTF(schema.getGeometryDescriptor() == null? "" : schema.getGeometryDescriptor().getLocalName());
+
+        output.writeInt(schema.getAttributeCount());
+        for (AttributeDescriptor descriptor : schema.getAttributeDescriptors()) {
+            output.writeUTF(descriptor.getLocalName());
+            output.writeUTF(descriptor.getType().getBinding().getName());
+        }
+    }
+
+    private static @Nullable SimpleFeatureType readSchema(@NotNull DataInputStream input) throws IOException, ClassNotFoundException {
+        if(!input.readBoolean()) return null;
+
+        SimpleFeatureTypeBuilder builder = new SimpleFeatureTypeBuilder();
+        builder.setName(input.readUTF());
+
+        String namespace = input.readUTF();
+        if(!namespace.isEmpty()) builder.setNamespaceURI(namespace);
+
+        // KML coordinates are always geographic WGS84
+        builder.setCRS(DefaultGeographicCRS.WGS84);
+
+        String geometry = input.readUTF();
+        int attributes = input.readInt();
+        for (int i = 0; i < attributes; i++) {
+            String name = input.readUTF();
+            builder.add(name, Class.forName(input.readUTF(), false, KMLIndex.class.getClassLoader()));
+        }
+
+        if(!geometry.isEmpty()) builder.setDefaultGeometry(geometry);
+
+        return builder.buildFeatureType();
+    }
+
+    /**
+     * Reader of the placemarks within bounds, each parsed out of its own byte range.
+     */
+    private final class SeekingReader implements FeatureReader<SimpleFeatureType, SimpleFeature> {
+        private final FileChannel channel;
+        private final Envelope bounds;
+
+        /** XML declaration prepended to each placemark, so it is decoded like the whole file. */
+        private final byte[] declaration;
+
+        private ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        private int index = -1;
+        private SimpleFeature next;
+
+        SeekingReader(@NotNull FileChannel channel, @NotNull Envelope bounds) throws IOException {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.declaration = ("<?xml version=\"1.0\" encoding=\"" + encoding + "\"?>").getBytes(StandardCharsets.US_ASCII);
+
+            try { this.forward(); }
+            catch (IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        }
+
+        @Override
+        public SimpleFeatureType getFeatureType() {
+            return KMLPullFeatureReader.TYPE;
+        }
+
+        @Override
+        public SimpleFeature next() throws IOException, NoSuchElementException {
+            if(!this.hasNext()) throw new NoSuchElementException();
+
+            SimpleFeature next = this.next;
+            this.forward();
+            return next;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+
+        private void forward() throws IOException {
+            this.next = null;
+
+            while(++this.index < count) {
+                if(!intersects(this.index, this.bounds)) continue;
+
+                long start = offsets[this.index * 2];
+                int length = Math.toIntExact(offsets[this.index * 2 + 1] - start);
+
+                if(this.buffer.capacity() < length) this.buffer = ByteBuffer.allocate(Math.max(length, this.buffer.capacity() * 2));
+                this.buffer.clear().limit(length);
+
+                while(this.buffer.hasRemaining())
+                    if(this.channel.read(this.buffer, start + this.buffer.position()) < 0)
+                        throw new IOException("KML file is shorter than its index, placemark " + this.index);
+
+                InputStream placemark = new SequenceInputStream(
+                    new ByteArrayInputStream(this.declaration),
+                    new ByteArrayInputStream(this.buffer.array(), 0, length)
+                );
+
+                try(KMLPullFeatureReader reader = new KMLPullFeatureReader(placemark, org.geotools.kml.KML.Placemark)) {
+                    if(!reader.hasNext()) throw new IOException("No placemark at indexed offset " + start);
+                    this.next = reader.next();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package asia.buildtheearth.asean.geotools.kml.store;
+
+import asia.buildtheearth.asean.geotools.io.Compression;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read the placemarks of a KML file on multiple threads.
+ *
+ * <p>The file is {@linkplain MappedFile memory-mapped} and {@linkplain PlacemarkScanner scanned} for the byte range
+ * of every {@code Placemark} element. Consecutive ranges are grouped into batches of about {@value #BATCH_BYTES} bytes,
+ * each batch is wrapped into a small document opened by the original root start tag, so every namespace declared
+ * on the root element is in scope, and parsed by a worker thread with the configured {@link KMLParser}.</p>
+ *
+ * <p>Features are returned in document order, or in batch completion order when unordered. The number of
+ * batches in flight is bounded so memory use stays flat on large files.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = KMLParallelFeatureReader.open(file, KML.Placemark, KMLParser.PULL, null, 8, true)) {
+ *     while(reader.hasNext()) {
+ *         SimpleFeature feature = reader.next();
+ *         // ...
+ *     }
+ * }
+ * }</blockquote>
+ *
+ * @see KMLDataStore#setThreads(int)
+ */
+public class KMLParallelFeatureReader implements FeatureReader<SimpleFeatureType, SimpleFeature> {
+
+    /** Target size of the placemarks parsed by a worker at once. */
+    static final int BATCH_BYTES = 1 << 20;
+
+    /** Number of batches in flight per worker thread. */
+    private static final int BATCHES_PER_THREAD = 4;
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final MappedFile file;
+    private final QName element;
+    private final KMLParser parser;
+    private final @Nullable Envelope bounds;
+    private final boolean ordered;
+
+    /** Bytes written before and after the placemarks of each batch. */
+    private final byte[] prolog, epilog;
+
+    /** Start and end byte offsets of each placemark, and the first placemark index of each batch. */
+    private final long[] offsets;
+    private final int[] batches;
+
+    private final ExecutorService workers;
+    private final int window;
+
+    /** Batches in flight, in submission order. */
+    private final Deque<Future<List<SimpleFeature>>> pending = new ArrayDeque<>();
+
+    /** Completion queue of the batches in flight when unordered. */
+    private final CompletionService<List<SimpleFeature>> completion;
+
+    private int submitted = 0;
+    private Iterator<SimpleFeature> current = Collections.emptyIterator();
+    private SimpleFeatureType type = null;
+
+    /**
+     * Open a parallel reader of the placemarks of a KML file, falling back to a sequential
+     * {@linkplain KMLParser#open(File, QName, Envelope) reader} when the file cannot be split:
+     * a single thread, a compressed file, an element other than {@code Placemark}, nested placemarks,
+     * namespaces declared below the root element or an encoding that is not ASCII compatible.
+     *
+     * @param file The KML source file
+     * @param element The {@link QName} of the element to read as features
+     * @param parser The parser of each batch
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every feature
+     * @param threads The number of parser threads
+     * @param ordered Whether features are returned in document order
+     * @return A new feature reader, to be closed by the caller
+     * @throws IOException If the file cannot be opened or parsed
+     */
+    public static @NotNull FeatureReader<SimpleFeatureType, SimpleFeature> open(@NotNull File file,
+                                                                               @NotNull QName element,
+                                                                               @NotNull KMLParser parser,
+                                                                               @Nullable Envelope bounds,
+                                                                               int threads,
+                                                                               boolean ordered) throws IOException {
+        if(threads <= 1 || !element.getLocalPart().equals("Placemark") || Compression.detect(file) != Compression.NONE)
+            return parser.open(file, element, bounds);
+
+        MappedFile mapped = new MappedFile(file);
+        try {
+            PlacemarkScanner scanner = new PlacemarkScanner(mapped);
+
+            if(!scanner.scan() || scanner.rootName == null || scanner.rootEnd < 0) {
+                mapped.close();
+                return parser.open(file, element, bounds);
+            }
+
+            return new KMLParallelFeatureReader(mapped, scanner, element, parser, bounds, threads, ordered);
+        }
+        catch (IOException | RuntimeException ex) {
+            mapped.close();
+            throw ex;
+        }
+    }
+
+    private KMLParallelFeatureReader(@NotNull MappedFile file, @NotNull PlacemarkScanner scanner,
+                                     @NotNull QName element, @NotNull KMLParser parser, @Nullable Envelope bounds,
+                                     int threads, boolean ordered) throws IOException {
+        this.file = file;
+        this.element = element;
+        this.parser = parser;
+        this.bounds = bounds;
+        this.ordered = ordered;
+        this.offsets = scanner.getOffsets();
+        this.batches = split(this.offsets);
+
+        // Root tag bytes are copied as is, names are decoded byte for byte
+        byte[] declaration = ("<?xml version=\"1.0\" encoding=\"" + scanner.encoding + "\"?>").getBytes(StandardCharsets.US_ASCII);
+        byte[] root = new byte[(int) (scanner.rootEnd - scanner.rootStart)];
+        file.get(scanner.rootStart, root, 0, root.length);
+
+        this.prolog = Arrays.copyOf(declaration, declaration.length + root.length);
+        System.arraycopy(root, 0, this.prolog, declaration.length, root.length);
+        this.epilog = ("</" + scanner.rootName + ">").getBytes(StandardCharsets.ISO_8859_1);
+
+        String name = "geotools-kml-parser-" + POOL_COUNT.incrementAndGet() + "-";
+        this.workers = Executors.newFixedThreadPool(threads, Thread.ofPlatform().name(name, 0).daemon(true).factory());
+        this.completion = ordered? null : new ExecutorCompletionService<>(this.workers);
+        this.window = threads * BATCHES_PER_THREAD;
+
+        try {
+            this.fill();
+            this.advance();
+
+            if(this.parser == KMLParser.PULL) this.type = KMLPullFeatureReader.TYPE;
+        }
+        catch (IOException | RuntimeException ex) {
+            this.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Return the feature type of the parsed features, the type of the first feature with the {@link KMLParser#XSD XSD} parser.
+     *
+     * @return the feature type, {@code null} if the XSD parser has read no feature
+     */
+    @Override
+    public SimpleFeatureType getFeatureType() {
+        return this.type;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SimpleFeature next() throws IOException, NoSuchElementException {
+        if(!this.hasNext()) throw new NoSuchElementException();
+
+        SimpleFeature next = this.current.next();
+        if(!this.current.hasNext()) this.advance();
+
+        return next;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        return this.current.hasNext();
+    }
+
+    /**
+     * Stop every worker and release the mapped file.
+     */
+    @Override
+    public void close() throws IOException {
+        this.workers.shutdownNow();
+        this.file.close();
+    }
+
+    /**
+     * Take batches until one has features, keeping the window of batches in flight full.
+     */
+    private void advance() throws IOException {
+        while(!this.current.hasNext() && !this.pending.isEmpty()) {
+            try {
+                Future<List<SimpleFeature>> batch = this.ordered? this.pending.peekFirst() : this.completion.take();
+                List<SimpleFeature> features = batch.get();
+
+                this.pending.remove(batch);
+                this.fill();
+
+                if(this.type == null && !features.isEmpty()) this.type = features.getFirst().getFeatureType();
+                this.current = features.iterator();
+            }
+            catch (ExecutionException ex) {
+                if(ex.getCause() instanceof IOException cause) throw cause;
+                throw new IOException("Failed to parse KML placemarks", ex.getCause());
+            }
+            catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while parsing KML placemarks", ex);
+            }
+        }
+    }
+
+    private void fill() {
+        while(this.pending.size() < this.window && this.submitted < this.batches.length - 1) {
+            int batch = this.submitted++;
+            Callable<List<SimpleFeature>> task = () -> this.parse(this.batches[batch], this.batches[batch + 1]);
+
+            this.pending.addLast(this.ordered? this.workers.submit(task) : this.completion.submit(task));
+        }
+    }
+
+    /**
+     * Parse a batch of placemarks, run on a worker thread.
+     *
+     * @param from Index of the first placemark
+     * @param to Index after the last placemark
+     */
+    private @NotNull List<SimpleFeature> parse(int from, int to) throws IOException {
+        int length = this.prolog.length + this.epilog.length;
+        for (int i = from; i < to; i++) length += (int) (this.offsets[i * 2 + 1] - this.offsets[i * 2]);
+
+        byte[] document = Arrays.copyOf(this.prolog, length);
+        int position = this.prolog.length;
+        for (int i = from; i < to; i++) {
+            int size = (int) (this.offsets[i * 2 + 1] - this.offsets[i * 2]);
+            this.file.get(this.offsets[i * 2], document, position, size);
+            position += size;
+        }
+        System.arraycopy(this.epilog, 0, document, position, this.epilog.length);
+
+        List<SimpleFeature> features = new ArrayList<>(to - from);
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = this.parser.open(new ByteArrayInputStream(document), this.element, this.bounds)) {
+            while(reader.hasNext()) features.add(reader.next());
+        }
+
+        return features;
+    }
+
+    /**
+     * Group consecutive placemarks into batches of about {@link #BATCH_BYTES}.
+     *
+     * @return The first placemark index of each batch, followed by the placemark count
+     */
+    private static int @NotNull [] split(long @NotNull [] offsets) {
+        int count = offsets.length / 2;
+        int[] batches = new int[count + 1];
+        int size = 0;
+
+        for (int i = 0; i < count; ) {
+            batches[size++] = i;
+
+            long start = offsets[i * 2];
+            do i++; while(i < count && offsets[i * 2 + 1] - start < BATCH_BYTES);
+        }
+
+        batches[size++] = count;
+        return Arrays.copyOf(batches, size);
+    }
+}
@@ -0,0 +1,87 @@
+package asia.buildtheearth.asean.geotools.kml.store;
+
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.Envelope;
+
+import javax.xml.namespace.QName;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Implementation used to read features out of a KML file.
+ *
+ * @see KMLDataStore#setParser(KMLParser)
+ */
+public enum KMLParser {
+    /**
+     * GeoTools' {@link org.geotools.xsd.StreamingParser} bound to the full KML schema,
+     * supports any parsing element and every KML feature attribute.
+     *
+     * @see KMLFeatureReader
+     */
+    XSD,
+
+    /**
+     * Lightweight StAX pull parser of {@code Placemark} elements only,
+     * several times faster to initialize and to parse.
+     *
+     * @see KMLPullFeatureReader
+     */
+    PULL;
+
+    /**
+     * Open a reader of a KML file with this parser.
+     *
+     * @param file The KML source file
+     * @param element The {@link QName} of the element to read as features
+     * @return A new feature reader, to be closed by the caller
+     * @throws IOException If the file cannot be opened or parsed
+     */
+    public @NotNull FeatureReader<SimpleFeatureType, SimpleFeature> open(@NotNull File file, @NotNull QName element) throws IOException {
+        return this.open(file, element, null);
+    }
+
+    /**
+     * Open a reader of the features of a KML file intersecting some bounds with this parser.
+     *
+     * <p>The {@link #PULL} parser rejects a placemark before building its feature,
+     * the {@link #XSD} parser drops features after they are built.</p>
+     *
+     * @param file The KML source file
+     * @param element The {@link QName} of the element to read as features
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every feature
+     * @return A new feature reader, to be closed by the caller
+     * @throws IOException If the file cannot be opened or parsed
+     */
+    public @NotNull FeatureReader<SimpleFeatureType, SimpleFeature> open(@NotNull File file,
+                                                                        @NotNull QName element,
+                                                                        @Nullable Envelope bounds) throws IOException {
+        return switch (this) {
+            case XSD -> new KMLFeatureReader(file, element, bounds);
+            case PULL -> new KMLPullFeatureReader(file, element, bounds);
+        };
+    }
+
+    /**
+     * Open a reader of the features of a KML stream intersecting some bounds with this parser.
+     *
+     * @param input The KML source stream, closed with the reader
+     * @param element The {@link QName} of the element to read as features
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every feature
+     * @return A new feature reader, to be closed by the caller
+     * @throws IOException If the stream cannot be parsed
+     */
+    public @NotNull FeatureReader<SimpleFeatureType, SimpleFeature> open(@NotNull InputStream input,
+                                                                        @NotNull QName element,
+                                                                        @Nullable Envelope bounds) throws IOException {
+        return switch (this) {
+            case XSD -> new KMLFeatureReader(input, element, bounds);
+            case PULL -> new KMLPullFeatureReader(input, element, bounds);
+        };
+    }
+}
@@ -0,0 +1,492 @@
+package asia.buildtheearth.asean.geotools.kml.store;
+
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.jfr.FeatureParsedEvent;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequenceFactory;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * Read a KML file with a plain StAX {@link XMLStreamReader}.
+ *
+ * <p>A lightweight alternative to {@link KMLFeatureReader} that does not initialize the GeoTools XSD/EMF
+ * binding stack. Only {@code Placemark} elements are parsed, understanding their {@code name}, {@code description},
+ * {@code ExtendedData} and geometry ({@code Point}, {@code LineString}, {@code LinearRing}, {@code Polygon}
+ * and {@code MultiGeometry}); every other element is skipped. Elements are matched by local name,
+ * so KML 2.1, 2.2 and namespace-less documents are all accepted.</p>
+ *
+ * <p>Every feature shares the {@linkplain #TYPE same feature type}. {@code Data} values and typed
+ * {@code SimpleData} of the {@code ExtendedData} are collected as strings into a map stored in the
+ * feature {@linkplain SimpleFeature#getUserData() user data} under {@link #EXTENDED_DATA}.
+ * Coordinates are written into {@link PackedCoordinateSequence packed coordinate sequences}, 3-dimensional
+ * when any tuple has an altitude.</p>
+ *
+ * <p>When constructed with bounds, a placemark is rejected as soon as its geometry is parsed and its envelope
+ * does not intersect the bounds: its attributes and user data are never set on a feature.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * try(KMLPullFeatureReader reader = new KMLPullFeatureReader(file, KML.Placemark)) {
+ *     while(reader.hasNext()) {
+ *         SimpleFeature feature = reader.next();
+ *         // ...
+ *     }
+ * }
+ * }</blockquote>
+ *
+ * @see KMLParser#PULL
+ */
+public class KMLPullFeatureReader implements FeatureReader<SimpleFeatureType, SimpleFeature> {
+
+    /** User data key of the {@code ExtendedData} map of each feature, matching the GeoTools KML bindings. */
+    public static final String EXTENDED_DATA = "UntypedExtendedData";
+
+    /** Feature type of every parsed placemark. */
+    public static final SimpleFeatureType TYPE = createType();
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(PackedCoordinateSequenceFactory.DOUBLE_FACTORY);
+
+    private final InputStream input;
+    private final XMLStreamReader reader;
+    private final SimpleFeatureBuilder builder = new SimpleFeatureBuilder(TYPE);
+
+    /** Bounds every read geometry must intersect, {@code null} to read every placemark. */
+    private final @Nullable Envelope bounds;
+
+    /** Reusable buffer of the coordinates currently being parsed. */
+    private final SequenceBuilder sequence = new SequenceBuilder();
+
+    private SimpleFeature next = null;
+
+    /**
+     * Construct a KMLPullFeatureReader of every {@code Placemark} element,
+     * gzip compressed files and KMZ archives are decompressed on the fly.
+     *
+     * @param file The KML source file
+     * @param name The {@link QName} of the parsed element, must be a {@code Placemark}
+     * @throws IOException If the file cannot be opened, the element is not supported or the first placemark is malformed
+     */
+    public KMLPullFeatureReader(@NotNull File file, @NotNull QName name) throws IOException {
+        this(file, name, null);
+    }
+
+    /**
+     * Construct a KMLPullFeatureReader of the {@code Placemark} elements intersecting some bounds,
+     * gzip compressed files and KMZ archives are decompressed on the fly.
+     *
+     * @param file The KML source file
+     * @param name The {@link QName} of the parsed element, must be a {@code Placemark}
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every placemark
+     * @throws IOException If the file cannot be opened, the element is not supported or the first placemark is malformed
+     */
+    public KMLPullFeatureReader(@NotNull File file, @NotNull QName name, @Nullable Envelope bounds) throws IOException {
+        this(Compression.openInput(file), name, bounds);
+    }
+
+    /**
+     * Construct a KMLPullFeatureReader of every {@code Placemark} element, the stream is closed with this reader.
+     *
+     * @param input The KML source stream
+     * @param name The {@link QName} of the parsed element, must be a {@code Placemark}
+     * @throws IOException If the element is not supported or the first placemark is malformed
+     */
+    public KMLPullFeatureReader(@NotNull InputStream input, @NotNull QName name) throws IOException {
+        this(input, name, null);
+    }
+
+    /**
+     * Construct a KMLPullFeatureReader of the {@code Placemark} elements intersecting some bounds,
+     * the stream is closed with this reader.
+     *
+     * @param input The KML source stream
+     * @param name The {@link QName} of the parsed element, must be a {@code Placemark}
+     * @param bounds Geographic bounds every read geometry must intersect, {@code null} to read every placemark
+     * @throws IOException If the element is not supported or the first placemark is malformed
+     */
+    public KMLPullFeatureReader(@NotNull InputStream input, @NotNull QName name, @Nullable Envelope bounds) throws IOException {
+        this.input = input;
+        this.bounds = bounds;
+
+        try {
+            if(!name.getLocalPart().equals("Placemark"))
+                throw new IOException("KML pull parser only supports Placemark elements, got " + name);
+
+            this.reader = FACTORY.createXMLStreamReader(input);
+            this.forward();
+        }
+        catch (XMLStreamException ex) {
+            input.close();
+            throw new IOException("Error processing KML file", ex);
+        }
+        catch (IOException | RuntimeException ex) {
+            input.close();
+            throw ex;
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public SimpleFeatureType getFeatureType() {
+        return TYPE;
+    }
+
+    /**
+     * Grab the next placemark.
+     *
+     * @return feature
+     * @throws IOException If the following placemark is malformed
+     * @throws NoSuchElementException Check hasNext() to avoid reading off the end of the file
+     */
+    @Override
+    public SimpleFeature next() throws IOException, NoSuchElementException {
+        if (!this.hasNext()) throw new NoSuchElementException();
+
+        SimpleFeature next = this.next;
+        this.forward();
+        return next;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        return this.next != null;
+    }
+
+    /**
+     * Closes the parser and the source stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try { if(this.reader != null) this.reader.close(); }
+        catch (XMLStreamException ex) { throw new IOException("Error closing KML file", ex); }
+        finally { this.input.close(); }
+    }
+
+    /**
+     * Forward the parser to the next placemark within bounds, parsing it completely.
+     */
+    private void forward() throws IOException {
+        FeatureParsedEvent event = new FeatureParsedEvent();
+        event.begin();
+        this.next = null;
+
+        try {
+            while(this.reader.hasNext()) {
+                if(this.reader.next() == XMLStreamConstants.START_ELEMENT
+                    && this.reader.getLocalName().equals("Placemark")) {
+                    this.next = this.readPlacemark();
+                    if(this.next != null) {
+                        commit(event, this.next);
+                        return;
+                    }
+                }
+            }
+        }
+        catch (XMLStreamException ex) { throw new IOException("Error processing KML file", ex); }
+        catch (IllegalArgumentException ex) {
+            throw new IOException("Invalid KML geometry at line " + this.reader.getLocation().getLineNumber(), ex);
+        }
+    }
+
+    private static void commit(@NotNull FeatureParsedEvent event, @NotNull SimpleFeature feature) {
+        if(!event.shouldCommit()) return;
+
+        event.featureId = feature.getID();
+        event.vertices = feature.getDefaultGeometry() instanceof Geometry geometry? geometry.getNumPoints() : 0;
+        event.parser = KMLParser.PULL.name();
+        event.commit();
+    }
+
+    /**
+     * Read the current placemark up to its end tag.
+     *
+     * @return The placemark feature, or {@code null} if its geometry is out of bounds
+     */
+    private @Nullable SimpleFeature readPlacemark() throws XMLStreamException, IOException {
+        String id = this.reader.getAttributeValue(null, "id");
+        String[] text = new String[2];
+        Geometry[] geometry = new Geometry[1];
+        Map<String, Object> data = new LinkedHashMap<>();
+
+        this.readChildren(child -> {
+            switch (child) {
+                case "name" -> text[0] = this.reader.getElementText();
+                case "description" -> text[1] = this.reader.getElementText();
+                case "ExtendedData" -> this.readExtendedData(data);
+                default -> {
+                    Geometry parsed = this.readGeometry(child);
+                    if(parsed != null) geometry[0] = parsed;
+                }
+            }
+        });
+
+        // Reject before anything is set on the builder
+        if(this.bounds != null && (geometry[0] == null || !this.bounds.intersects(geometry[0].getEnvelopeInternal())))
+            return null;
+
+        this.builder.set("name", text[0]);
+        this.builder.set("description", text[1]);
+        this.builder.set("Geometry", geometry[0]);
+        if(!data.isEmpty()) this.builder.featureUserData(EXTENDED_DATA, data);
+
+        return this.builder.buildFeature(id);
+    }
+
+    private void readExtendedData(@NotNull Map<String, Object> data) throws XMLStreamException, IOException {
+        this.readChildren(child -> {
+            switch (child) {
+                case "Data" -> {
+                    String key = this.reader.getAttributeValue(null, "name");
+
+                    this.readChildren(value -> {
+                        if(value.equals("value") && key != null) data.put(key, this.reader.getElementText());
+                        else this.skip();
+                    });
+                }
+                case "SchemaData" -> this.readChildren(value -> {
+                    String key = this.reader.getAttributeValue(null, "name");
+
+                    if(value.equals("SimpleData") && key != null) data.put(key, this.reader.getElementText());
+                    else this.skip();
+                });
+                default -> this.skip();
+            }
+        });
+    }
+
+    /**
+     * Read a geometry element whose start tag is current, skipping it if it is not a supported geometry.
+     *
+     * @return The geometry, or {@code null} if the element was skipped
+     */
+    private @Nullable Geometry readGeometry(@NotNull String element) throws XMLStreamException, IOException {
+        return switch (element) {
+            case "Point" -> GEOMETRY_FACTORY.createPoint(this.readSequence());
+            case "LineString" -> GEOMETRY_FACTORY.createLineString(this.readSequence());
+            case "LinearRing" -> GEOMETRY_FACTORY.createLinearRing(this.readSequence());
+            case "Polygon" -> this.readPolygon();
+            case "MultiGeometry" -> this.readMultiGeometry();
+            default -> {
+                this.skip();
+                yield null;
+            }
+        };
+    }
+
+    private @NotNull Polygon readPolygon() throws XMLStreamException, IOException {
+        List<LinearRing> shell = new ArrayList<>(1);
+        List<LinearRing> holes = new ArrayList<>();
+
+        this.readChildren(child -> {
+            List<LinearRing> rings = switch (child) {
+                case "outerBoundaryIs" -> shell;
+                case "innerBoundaryIs" -> holes;
+                default -> null;
+            };
+
+            if(rings == null) {
+                this.skip();
+                return;
+            }
+
+            this.readChildren(ring -> {
+                if(ring.equals("LinearRing")) rings.add(GEOMETRY_FACTORY.createLinearRing(this.readSequence()));
+                else this.skip();
+            });
+        });
+
+        if(shell.isEmpty()) return GEOMETRY_FACTORY.createPolygon();
+
+        return GEOMETRY_FACTORY.createPolygon(shell.getFirst(), holes.toArray(LinearRing[]::new));
+    }
+
+    private @NotNull Geometry readMultiGeometry() throws XMLStreamException, IOException {
+        List<Geometry> geometries = new ArrayList<>();
+
+        this.readChildren(child -> {
+            Geometry geometry = this.readGeometry(child);
+            if(geometry != null) geometries.add(geometry);
+        });
+
+        // Homogeneous collections are narrowed like the GeoTools MultiGeometry binding
+        Class<?> common = geometries.isEmpty()? null : geometries.getFirst().getClass();
+        for (Geometry geometry : geometries) {
+            if(common == null) break;
+            if(geometry instanceof LineString && LineString.class.isAssignableFrom(common)) common = LineString.class;
+            else if(geometry.getClass() != common) common = null;
+        }
+
+        if(common == Point.class)
+            return GEOMETRY_FACTORY.createMultiPoint(geometries.toArray(Point[]::new));
+        if(common != null && LineString.class.isAssignableFrom(common))
+            return GEOMETRY_FACTORY.createMultiLineString(geometries.toArray(LineString[]::new));
+        if(common == Polygon.class)
+            return GEOMETRY_FACTORY.createMultiPolygon(geometries.toArray(Polygon[]::new));
+
+        return GEOMETRY_FACTORY.createGeometryCollection(geometries.toArray(Geometry[]::new));
+    }
+
+    /**
+     * Read the {@code coordinates} child of the current geometry element, skipping every other child.
+     */
+    private @NotNull CoordinateSequence readSequence() throws XMLStreamException, IOException {
+        this.sequence.clear();
+        this.readChildren(child -> {
+            if(child.equals("coordinates")) this.parseCoordinates(this.reader.getElementText());
+            else this.skip();
+        });
+        return this.sequence.build();
+    }
+
+    /**
+     * Parse whitespace separated {@code x,y[,z]} tuples into the sequence buffer.
+     */
+    private void parseCoordinates(@NotNull String text) throws IOException {
+        int length = text.length();
+        int i = skipWhitespace(text, 0);
+
+        while(i < length) {
+            double x = Double.NaN, y = Double.NaN, z = Double.NaN;
+            int ordinates = 0;
+
+            while(true) {
+                int start = i;
+                while(i < length && text.charAt(i) != ',' && !Character.isWhitespace(text.charAt(i))) i++;
+
+                double value;
+                try { value = Double.parseDouble(text.substring(start, i)); }
+                catch (NumberFormatException ex) {
+                    throw new IOException("Invalid KML coordinate at line " + this.reader.getLocation().getLineNumber(), ex);
+                }
+
+                switch (ordinates++) {
+                    case 0 -> x = value;
+                    case 1 -> y = value;
+                    case 2 -> z = value;
+                    default -> { } // Extra ordinates are ignored
+                }
+
+                // Tolerate whitespace around the ordinate separator
+                int separator = skipWhitespace(text, i);
+                if(separator >= length || text.charAt(separator) != ',') break;
+                i = skipWhitespace(text, separator + 1);
+            }
+
+            if(ordinates < 2)
+                throw new IOException("KML coordinate must have at least 2 ordinates at line " + this.reader.getLocation().getLineNumber());
+
+            this.sequence.add(x, y, z, ordinates > 2);
+            i = skipWhitespace(text, i);
+        }
+    }
+
+    private static int skipWhitespace(@NotNull String text, int index) {
+        while(index < text.length() && Character.isWhitespace(text.charAt(index))) index++;
+        return index;
+    }
+
+    /**
+     * Read every child element of the current element, up to and including its end tag.
+     *
+     * @param child Reader of each child element, which must consume the child up to its end tag
+     */
+    private void readChildren(@NotNull ChildReader child) throws XMLStreamException, IOException {
+        while(this.reader.hasNext()) {
+            switch (this.reader.next()) {
+                case XMLStreamConstants.START_ELEMENT -> child.read(this.reader.getLocalName());
+                case XMLStreamConstants.END_ELEMENT -> { return; }
+                default -> { } // Text, comments and processing instructions between elements
+            }
+        }
+
+        throw new XMLStreamException("Unexpected end of KML document", this.reader.getLocation());
+    }
+
+    /**
+     * Skip the current element and all of its content, up to and including its end tag.
+     */
+    private void skip() throws XMLStreamException, IOException {
+        this.readChildren(child -> this.skip());
+    }
+
+    @FunctionalInterface
+    private interface ChildReader {
+        void read(@NotNull String element) throws XMLStreamException, IOException;
+    }
+
+    private static @NotNull SimpleFeatureType createType() {
+        SimpleFeatureTypeBuilder builder = new SimpleFeatureTypeBuilder();
+        builder.setName("Placemark");
+        builder.setCRS(DefaultGeographicCRS.WGS84);
+        builder.add("name", String.class);
+        builder.add("description", String.class);
+        builder.add("Geometry", Geometry.class);
+        builder.setDefaultGeometry("Geometry");
+        return builder.buildFeatureType();
+    }
+
+    private static @NotNull XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Growable XYZ buffer of one coordinate sequence.
+     */
+    private static final class SequenceBuilder {
+        private double[] data = new double[3 * 64];
+        private int size = 0;
+        private boolean hasZ = false;
+
+        void clear() {
+            this.size = 0;
+            this.hasZ = false;
+        }
+
+        void add(double x, double y, double z, boolean hasZ) {
+            if(this.size * 3 + 3 > this.data.length) this.data = Arrays.copyOf(this.data, this.data.length * 2);
+
+            int offset = this.size++ * 3;
+            this.data[offset] = x;
+            this.data[offset + 1] = y;
+            this.data[offset + 2] = z;
+            this.hasZ |= hasZ;
+        }
+
+        @NotNull CoordinateSequence build() {
+            if(this.hasZ)
+                return new PackedCoordinateSequence.Double(Arrays.copyOf(this.data, this.size * 3), 3, 0);
+
+            double[] packed = new double[this.size * 2];
+            for (int i = 0; i < this.size; i++) {
+                packed[i * 2] = this.data[i * 3];
+                packed[i * 2 + 1] = this.data[i * 3 + 1];
+            }
+
+            return new PackedCoordinateSequence.Double(packed, 2, 0);
+        }
+    }
+}
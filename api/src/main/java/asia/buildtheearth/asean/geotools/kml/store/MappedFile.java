@@ -0,0 +1,98 @@
+package asia.buildtheearth.asean.geotools.kml.store;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only memory mapping of a whole file, split in segments of {@value #SEGMENT_SIZE} bytes
+ * since a single {@link MappedByteBuffer} is limited to 2 GiB.
+ *
+ * <p>Reads are absolute and never move the buffer positions, so a mapped file can be read from many threads.</p>
+ */
+final class MappedFile implements Closeable {
+
+    private static final int SEGMENT_SHIFT = 30;
+
+    /** Size of each mapped segment, 1 GiB. */
+    static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+
+    /**
+     * Map a whole file.
+     *
+     * @param file The file to map
+     * @throws IOException If the file cannot be opened or mapped
+     */
+    MappedFile(@NotNull File file) throws IOException {
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+
+        try {
+            this.size = this.channel.size();
+            this.segments = new MappedByteBuffer[(int) ((this.size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT)];
+
+            for (int i = 0; i < this.segments.length; i++) {
+                long position = (long) i << SEGMENT_SHIFT;
+                this.segments[i] = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(SEGMENT_SIZE, this.size - position));
+            }
+        }
+        catch (IOException | RuntimeException ex) {
+            this.channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @return The file size in bytes
+     */
+    long size() {
+        return this.size;
+    }
+
+    /**
+     * Read one byte.
+     *
+     * @param position The byte offset, less than {@link #size()}
+     * @return The unsigned byte value
+     */
+    int get(long position) {
+        return this.segments[(int) (position >>> SEGMENT_SHIFT)].get((int) (position & (SEGMENT_SIZE - 1))) & 0xFF;
+    }
+
+    /**
+     * Copy a byte range, which may span several segments.
+     *
+     * @param position The offset of the first byte
+     * @param destination The destination array
+     * @param offset The offset in the destination array
+     * @param length The number of bytes to copy
+     */
+    void get(long position, byte @NotNull [] destination, int offset, int length) {
+        while(length > 0) {
+            MappedByteBuffer segment = this.segments[(int) (position >>> SEGMENT_SHIFT)];
+            int index = (int) (position & (SEGMENT_SIZE - 1));
+            int count = Math.min(length, segment.limit() - index);
+
+            segment.get(index, destination, offset, count);
+            position += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Close the file channel, the mapping itself is released once garbage collected.
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,273 @@
+package asia.buildtheearth.asean.geotools.kml.store;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Byte-level scanner of the {@code Placemark} element ranges of a {@linkplain MappedFile memory-mapped} KML file.
+ *
+ * <p>Comments, CDATA sections and processing instructions are skipped, attribute values may contain {@code >}.
+ * The XML declaration encoding and the start tag of the root element are recorded, so a range can be parsed on
+ * its own with the namespace declarations of the document. Scanning fails on nested placemarks, on namespaces
+ * declared by an element between the root and the placemarks, and on encodings that are not ASCII compatible.</p>
+ *
+ * @see KMLIndex
+ * @see KMLParallelFeatureReader
+ */
+final class PlacemarkScanner {
+    private static final byte[] PLACEMARK = "Placemark".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] XMLNS = "xmlns".getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern ENCODING = Pattern.compile("encoding\\s*=\\s*[\"']([^\"']+)[\"']");
+
+    /** Name match of the last {@linkplain #readName(int) read name}. */
+    private static final int OTHER = 0, MATCH = 1, PREFIXED = 2;
+
+    private final MappedFile file;
+    private long position = 0;
+
+    /** Whether the last {@linkplain #skipTag() skipped tag} declares a namespace. */
+    private boolean declaring = false;
+
+    /** Start and end byte offsets of each placemark, only the first {@code 2 * count} values are set. */
+    long[] offsets = new long[2 * 1024];
+
+    /** Number of scanned placemarks. */
+    int count = 0;
+
+    /** Character encoding declared by the document, UTF-8 by default. */
+    String encoding = StandardCharsets.UTF_8.name();
+
+    /** Whether any placemark name has a namespace prefix, which must be declared to parse a range on its own. */
+    boolean prefixed = false;
+
+    /** Byte range of the root element start tag, {@code rootEnd} is {@code -1} if there is no root element. */
+    long rootStart = -1, rootEnd = -1;
+
+    /** Qualified name of the root element. */
+    @Nullable String rootName = null;
+
+    /**
+     * Create a scanner of a mapped file.
+     *
+     * @param file The mapped KML file
+     */
+    PlacemarkScanner(@NotNull MappedFile file) {
+        this.file = file;
+    }
+
+    /**
+     * Scan the whole file.
+     *
+     * @return {@code false} if the placemark ranges cannot be parsed on their own
+     */
+    boolean scan() {
+        long open = -1;
+
+        if(!this.readBOM()) return false;
+
+        for (int c = this.read(); c != -1; c = this.read()) {
+            if(c != '<') continue;
+
+            long start = this.position - 1;
+            c = this.read();
+
+            if(c == '!') {
+                c = this.read();
+                if(c == '-') this.skipPast("-->");
+                else if(c == '[') this.skipPast("]]>");
+                else this.skipPast(">");
+            }
+            else if(c == '?') {
+                String instruction = this.readPast("?>");
+                if(start == 0 || start == 3) {
+                    // The XML declaration, possibly after a UTF-8 byte order mark
+                    Matcher matcher = ENCODING.matcher(instruction);
+                    if(matcher.find() && !this.setEncoding(matcher.group(1))) return false;
+                }
+            }
+            else if(c == '/') {
+                int name = this.readName(this.read());
+                this.skipPast(">");
+
+                if(name != OTHER) {
+                    if(open < 0) return false;
+                    this.add(open, this.position);
+                    open = -1;
+                }
+            }
+            else if(c != -1) {
+                long nameStart = this.position - 1;
+                int name = this.readName(c);
+
+                boolean root = this.rootName == null;
+                if(root) this.rootName = this.text(nameStart, this.position);
+
+                boolean empty = this.skipTag();
+
+                // Only the root declarations are in scope of a range parsed on its own
+                if(!root && name == OTHER && open < 0 && this.declaring) return false;
+
+                if(this.rootEnd < 0 && !empty) {
+                    this.rootStart = start;
+                    this.rootEnd = this.position;
+                }
+
+                if(name != OTHER) {
+                    if(open >= 0) return false;
+                    this.prefixed |= name == PREFIXED;
+
+                    if(empty) this.add(start, this.position);
+                    else open = start;
+                }
+            }
+        }
+
+        return open < 0;
+    }
+
+    /**
+     * @return The start and end byte offsets of each placemark
+     */
+    long @NotNull [] getOffsets() {
+        return Arrays.copyOf(this.offsets, this.count * 2);
+    }
+
+    private boolean readBOM() {
+        if(this.file.size() < 2) return true;
+
+        int first = this.file.get(0), second = this.file.get(1);
+
+        // UTF-16 and UTF-32 with or without byte order marks, ranges cannot be found byte-wise
+        if((first == 0xFE && second == 0xFF) || (first == 0xFF && second == 0xFE) || first == 0 || second == 0) return false;
+
+        // UTF-8 byte order mark
+        if(first == 0xEF && second == 0xBB && this.file.size() > 2 && this.file.get(2) == 0xBF) this.position = 3;
+
+        return true;
+    }
+
+    private boolean setEncoding(@NotNull String name) {
+        try {
+            Charset charset = Charset.forName(name);
+            String canonical = charset.name().toUpperCase(Locale.ROOT);
+
+            // Multibyte encodings where '<' is not a single ASCII byte
+            if(canonical.startsWith("UTF-16") || canonical.startsWith("UTF-32")) return false;
+
+            this.encoding = charset.name();
+            return true;
+        }
+        catch (IllegalArgumentException ex) { return false; }
+    }
+
+    private void add(long start, long end) {
+        if(this.count * 2 + 2 > this.offsets.length) this.offsets = Arrays.copyOf(this.offsets, this.offsets.length * 2);
+        this.offsets[this.count * 2] = start;
+        this.offsets[this.count * 2 + 1] = end;
+        this.count++;
+    }
+
+    /**
+     * Read an element name starting with {@code c}, leaving its terminating byte unread.
+     */
+    private int readName(int c) {
+        int matched = 0;
+        boolean prefixed = false;
+
+        while(c != -1 && c != '>' && c != '/' && !isWhitespace(c)) {
+            if(c == ':') {
+                prefixed = true;
+                matched = 0;
+            }
+            else if(matched >= 0 && matched < PLACEMARK.length && c == PLACEMARK[matched]) matched++;
+            else matched = -1;
+
+            c = this.read();
+        }
+
+        if(c != -1) this.position--;
+
+        if(matched != PLACEMARK.length) return OTHER;
+        return prefixed? PREFIXED : MATCH;
+    }
+
+    /**
+     * Skip the rest of a start tag, attribute values may contain {@code >}.
+     * Whether any attribute declares a namespace is recorded as {@link #declaring}.
+     *
+     * @return {@code true} if the tag is an empty element tag
+     */
+    private boolean skipTag() {
+        int previous = -1, quote = -1, matched = -1;
+        this.declaring = false;
+
+        for (int c = this.read(); c != -1; c = this.read()) {
+            if(quote != -1) {
+                if(c == quote) quote = -1;
+            }
+            else if(c == '"' || c == '\'') quote = c;
+            else if(c == '>') return previous == '/';
+            else if(isWhitespace(c)) matched = 0;
+            else if(matched >= 0 && matched < XMLNS.length && c == XMLNS[matched]) {
+                if(++matched == XMLNS.length) this.declaring = true;
+            }
+            else matched = -1;
+
+            previous = c;
+        }
+
+        return false;
+    }
+
+    private void skipPast(@NotNull String terminator) {
+        int matched = 0;
+
+        for (int c = this.read(); c != -1; c = this.read()) {
+            if(c == terminator.charAt(matched)) {
+                if(++matched == terminator.length()) return;
+            }
+            else matched = resume(terminator, matched, c);
+        }
+    }
+
+    /**
+     * Length of the longest terminator prefix ending the partially matched text followed by a mismatched character,
+     * such as {@code ]]} still matched after {@code ]]]} while looking for {@code ]]>}.
+     */
+    private static int resume(@NotNull String terminator, int matched, int c) {
+        for (int length = matched; length > 0; length--) {
+            if(terminator.charAt(length - 1) == c
+                && terminator.regionMatches(0, terminator, matched - length + 1, length - 1)) return length;
+        }
+
+        return 0;
+    }
+
+    private @NotNull String readPast(@NotNull String terminator) {
+        long start = this.position;
+        this.skipPast(terminator);
+        return this.text(start, this.position);
+    }
+
+    private @NotNull String text(long start, long end) {
+        byte[] bytes = new byte[(int) (end - start)];
+        this.file.get(start, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    private int read() {
+        if(this.position >= this.file.size()) return -1;
+        return this.file.get(this.position++);
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+}
@@ -0,0 +1,238 @@
+package asia.buildtheearth.asean.geotools.kml.writer;
+
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import org.geotools.api.filter.identity.FeatureId;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.*;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Streaming KML writer that encodes each geometry as soon as it is written.
+ *
+ * <p>Unlike {@link KMLWriter#export(OutputStream)}, which buffers every feature before encoding the whole document,
+ * this writer emits the {@code <kml><Document>} header when it is opened, flushes one {@code <Placemark>} per call to
+ * {@link #writeGeometry(Geometry, FeatureId)} and closes the document on {@link #close()}.
+ * Memory use therefore stays constant regardless of the input size.</p>
+ *
+ * <p>Instances are created from a configured writer with {@link KMLWriter#stream(OutputStream)}:</p>
+ * <blockquote>{@snippet :
+ * try(KMLStreamWriter writer = new KMLWriterV22().stream(output)) {
+ *     writer.writeGeometry(geometry, identifier);
+ * }
+ * }</blockquote>
+ *
+ * <p><strong>Note:</strong> Closing this writer ends the KML document but does <strong>not</strong>
+ * close the underlying output stream.</p>
+ *
+ * @see KMLWriter#stream(OutputStream)
+ */
+public final class KMLStreamWriter implements Closeable {
+
+    /** Namespace prefix used for every written element. */
+    private static final String PREFIX = "kml";
+
+    /** Shared StAX factory, thread-safe once configured. */
+    private static final XMLOutputFactory FACTORY = XMLOutputFactory.newInstance();
+
+    private final XMLStreamWriter writer;
+
+    /** The KML namespace of every written element, or {@code null} without namespace. */
+    private final @Nullable String namespace;
+    private final String container;
+
+    /** Indentation size, or {@code null} for compact output. */
+    private final @Nullable Integer indentSize;
+
+    /** Formatter of every coordinate ordinate. */
+    private final CoordinateFormatter formatter;
+
+    /** Reusable buffer of one coordinate tuple. */
+    private final StringBuilder tuple = new StringBuilder(3 * CoordinateFormatter.MAX_LENGTH);
+    private char[] characters = new char[3 * CoordinateFormatter.MAX_LENGTH];
+
+    /** Current element depth used for pretty-printing. */
+    private int depth = 0;
+
+    /** Number of written placemarks, used as a fallback identifier. */
+    private int count = 0;
+
+    private boolean closed = false;
+
+    /**
+     * Opens a new KML document on the given output stream.
+     *
+     * @param output The stream to write to
+     * @param kml The KML root element, its namespace is used for the whole document
+     * @param container The element wrapping each geometry, conventionally a {@code Placemark}
+     * @param outputID Optional identifier for the {@code <Document>} element
+     * @param indentSize Indentation size for pretty-printing, or {@code null} for compact output
+     * @param namespaceAware Whether elements are written in the namespace of the root element
+     * @param formatter Formatter of every coordinate ordinate
+     * @throws IOException If the document header cannot be written
+     */
+    KMLStreamWriter(@NotNull OutputStream output,
+                    @NotNull QName kml,
+                    @NotNull QName container,
+                    @Nullable String outputID,
+                    @Nullable Integer indentSize,
+                    boolean namespaceAware,
+                    @NotNull CoordinateFormatter formatter) throws IOException {
+        this.namespace = namespaceAware? kml.getNamespaceURI() : null;
+        this.container = container.getLocalPart();
+        this.indentSize = indentSize;
+        this.formatter = formatter;
+
+        try {
+            this.writer = FACTORY.createXMLStreamWriter(output, StandardCharsets.UTF_8.name());
+            if(this.namespace != null) this.writer.setPrefix(PREFIX, this.namespace);
+            this.writer.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+
+            this.start(kml.getLocalPart());
+            if(this.namespace != null) this.writer.writeNamespace(PREFIX, this.namespace);
+
+            this.start("Document");
+            if(outputID != null) this.writer.writeAttribute("id", outputID);
+        }
+        catch (XMLStreamException ex) { throw new IOException("Failed to write KML document header", ex); }
+    }
+
+    /**
+     * Writes a geometry as its own {@code <Placemark>} directly to the output stream.
+     *
+     * @param geometry the geometry to write
+     * @param identifier optional feature ID; if {@code null}, an auto-generated ID is used
+     * @throws IOException if writing fails or this writer is already closed
+     */
+    public void writeGeometry(@NotNull Geometry geometry, @Nullable FeatureId identifier) throws IOException {
+        if(this.closed) throw new IOException("KML stream writer is already closed");
+
+        String id = identifier == null? String.valueOf(this.count) : identifier.getID();
+
+        try {
+            this.start(this.container);
+            this.writer.writeAttribute("id", id);
+            this.writeGeometryInternal(geometry);
+            this.end();
+        }
+        catch (XMLStreamException ex) { throw new IOException("Failed to write geometry " + id + " to KML stream", ex); }
+
+        this.count++;
+    }
+
+    /**
+     * Ends the KML document and flushes all pending output.
+     *
+     * <p>The underlying output stream is left open.</p>
+     *
+     * @throws IOException if the document cannot be completed
+     */
+    @Override
+    public void close() throws IOException {
+        if(this.closed) return;
+        this.closed = true;
+
+        try {
+            this.end(); // Document
+            this.end(); // kml
+            this.writer.writeEndDocument();
+            this.writer.flush();
+            this.writer.close();
+        }
+        catch (XMLStreamException ex) { throw new IOException("Failed to close KML document", ex); }
+    }
+
+    private void writeGeometryInternal(@NotNull Geometry geometry) throws XMLStreamException {
+        switch (geometry) {
+            case Point point -> {
+                this.start("Point");
+                this.writeCoordinates(point.getCoordinateSequence());
+                this.end();
+            }
+            case LinearRing ring -> this.writeRing(ring);
+            case LineString line -> {
+                this.start("LineString");
+                this.writeCoordinates(line.getCoordinateSequence());
+                this.end();
+            }
+            case Polygon polygon -> {
+                this.start("Polygon");
+                this.start("outerBoundaryIs");
+                this.writeRing(polygon.getExteriorRing());
+                this.end();
+                for (int i = 0; i < polygon.getNumInteriorRing(); i++) {
+                    this.start("innerBoundaryIs");
+                    this.writeRing(polygon.getInteriorRingN(i));
+                    this.end();
+                }
+                this.end();
+            }
+            case GeometryCollection collection -> {
+                this.start("MultiGeometry");
+                for (int i = 0; i < collection.getNumGeometries(); i++)
+                    this.writeGeometryInternal(collection.getGeometryN(i));
+                this.end();
+            }
+            default -> throw new XMLStreamException("Unsupported geometry type: " + geometry.getGeometryType());
+        }
+    }
+
+    private void writeRing(@NotNull LinearRing ring) throws XMLStreamException {
+        this.start("LinearRing");
+        this.writeCoordinates(ring.getCoordinateSequence());
+        this.end();
+    }
+
+    private void writeCoordinates(@NotNull CoordinateSequence sequence) throws XMLStreamException {
+        this.start("coordinates");
+
+        StringBuilder tuple = this.tuple;
+        boolean hasZ = sequence.hasZ();
+
+        for (int i = 0; i < sequence.size(); i++) {
+            tuple.setLength(0);
+            if(i > 0) tuple.append(' ');
+
+            this.formatter.append(tuple, sequence.getX(i)).append(',');
+            this.formatter.append(tuple, sequence.getY(i));
+
+            double z = hasZ? sequence.getZ(i) : Double.NaN;
+            if(!Double.isNaN(z)) this.formatter.append(tuple.append(','), z);
+
+            // Avoid a string per tuple
+            if(this.characters.length < tuple.length()) this.characters = new char[tuple.length()];
+            tuple.getChars(0, tuple.length(), this.characters, 0);
+            this.writer.writeCharacters(this.characters, 0, tuple.length());
+        }
+
+        this.writer.writeEndElement();
+        this.depth--;
+    }
+
+    private void start(@NotNull String localName) throws XMLStreamException {
+        this.indent();
+        if(this.namespace != null) this.writer.writeStartElement(PREFIX, localName, this.namespace);
+        else this.writer.writeStartElement(localName);
+        this.depth++;
+    }
+
+    private void end() throws XMLStreamException {
+        this.depth--;
+        this.indent();
+        this.writer.writeEndElement();
+    }
+
+    private void indent() throws XMLStreamException {
+        if(this.indentSize == null) return;
+        this.writer.writeCharacters("\n");
+        this.writer.writeCharacters(" ".repeat(this.depth * this.indentSize));
+    }
+}
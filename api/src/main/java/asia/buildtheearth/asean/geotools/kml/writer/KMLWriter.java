@@ -1,5 +1,8 @@
 package asia.buildtheearth.asean.geotools.kml.writer;
 
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import asia.buildtheearth.asean.geotools.jfr.DocumentWrittenEvent;
+import org.apache.commons.io.output.CountingOutputStream;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.simple.SimpleFeatureType;
 import org.geotools.api.filter.identity.FeatureId;
@@ -23,7 +26,11 @@ import java.util.List;
 /**
  * An abstract base class for exporting geometries as KML documents using different KML versions.
  *
+ * <p>Geometries are either buffered and encoded at once with {@link #export(OutputStream)},
+ * or streamed one by one through {@link #stream(OutputStream)}.</p>
+ *
  * @see KMLWriterV22
+ * @see KMLStreamWriter
  */
 public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
 
@@ -36,6 +43,18 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
     /** Optional identifier for the exported feature collection. */
     protected String outputID = null;
 
+    /** Indentation size for pretty-printing, {@code null} means compact output. */
+    protected Integer indentSize = null;
+
+    /** Maximum number of coordinate decimal places when streaming, {@code null} means full precision. */
+    protected Integer maxDecimals = null;
+
+    /** Whether elements are written in the KML namespace, see {@link #dropNamespace()}. */
+    protected boolean namespaceAware = true;
+
+    /** The container feature type shared by every written feature, built on first use. */
+    private SimpleFeatureType containerType = null;
+
     private KMLWriter(Configuration configuration) {
         this.encoder = new Encoder(configuration);
         this.collection = new ArrayList<>();
@@ -78,6 +97,7 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
      */
     public void enablePrettyPrinting() {
         this.encoder.setIndenting(true);
+        this.indentSize = 2;
     }
 
     /**
@@ -88,6 +108,7 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
     public void enablePrettyPrinting(int indentSize) {
         this.encoder.setIndenting(true);
         this.encoder.setIndentSize(indentSize);
+        this.indentSize = indentSize;
     }
 
     /**
@@ -97,6 +118,7 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
      */
     public void dropNamespace() {
         this.encoder.setNamespaceAware(false);
+        this.namespaceAware = false;
     }
 
     /**
@@ -108,6 +130,18 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
         this.outputID = identifier;
     }
 
+    /**
+     * Limits the number of coordinate decimal places written by {@link #stream(OutputStream) streaming} writers.
+     *
+     * <p>The buffered {@link #export(OutputStream)} is encoded by GeoTools and always keeps full precision.</p>
+     *
+     * @param maxDecimals maximum number of decimal places, {@code null} for full precision
+     * @see CoordinateFormatter
+     */
+    public void setMaxDecimals(@Nullable Integer maxDecimals) {
+        this.maxDecimals = maxDecimals;
+    }
+
     /**
      * Exports the KML content to the specified output stream.
      *
@@ -115,9 +149,39 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
      * @throws IOException if writing fails
      */
     public void export(OutputStream output) throws IOException {
+        DocumentWrittenEvent event = new DocumentWrittenEvent();
+        event.begin();
+
+        // Only count bytes when recorded, the stream is left open to the caller
+        CountingOutputStream counting = event.isEnabled()? new CountingOutputStream(output) : null;
+
         DefaultFeatureCollection feature = new DefaultFeatureCollection(this.outputID);
         feature.addAll(this.collection);
-        this.encoder.encode(feature, getKML(), output);
+        this.encoder.encode(feature, getKML(), counting != null? counting : output);
+
+        if(event.shouldCommit()) {
+            event.writer = this.getClass();
+            event.features = this.collection.size();
+            event.bytes = counting != null? counting.getByteCount() : 0;
+            event.commit();
+        }
+    }
+
+    /**
+     * Opens a streaming writer on the specified output stream using this writer's configuration.
+     *
+     * <p>The returned writer encodes each geometry as it is written instead of buffering
+     * the whole collection like {@link #export(OutputStream)}, keeping memory use constant for large inputs.
+     * The output ID, pretty-printing, {@linkplain #dropNamespace() namespace} and {@linkplain #setMaxDecimals(Integer) precision}
+     * settings of this writer are carried over.</p>
+     *
+     * @param output the stream to write to
+     * @return a new streaming writer with the document header already written
+     * @throws IOException if the document header cannot be written
+     */
+    public @NotNull KMLStreamWriter stream(@NotNull OutputStream output) throws IOException {
+        return new KMLStreamWriter(output, getKML(), getContainer(), this.outputID, this.indentSize,
+            this.namespaceAware, CoordinateFormatter.of(this.maxDecimals));
     }
 
     /**
@@ -128,12 +192,37 @@ public abstract sealed class KMLWriter permits KMLWriterV21, KMLWriterV22 {
      */
     public void writeGeometry(@NotNull Geometry geometry, @Nullable FeatureId identifier) {
         FeatureId id = identifier == null? new FeatureIdImpl(String.valueOf(this.collection.size())) : identifier;
-        this.collection.add(new SimpleFeatureImpl(Collections.singletonList(geometry), this.buildContainer(), id));
+        this.collection.add(this.buildFeature(geometry, id));
+    }
+
+    /**
+     * Returns the container {@link SimpleFeatureType} of this writer.
+     *
+     * <p>The type is built once per writer and shared by every feature it writes.</p>
+     *
+     * @return the cached container feature type
+     */
+    public @NotNull SimpleFeatureType getFeatureType() {
+        if(this.containerType == null) this.containerType = this.buildContainer();
+        return this.containerType;
+    }
+
+    /**
+     * Constructs a single-geometry feature using the {@linkplain #getFeatureType() cached container type}.
+     *
+     * @param geometry the feature geometry
+     * @param identifier the feature ID
+     * @return a new feature wrapping the geometry
+     */
+    protected @NotNull SimpleFeature buildFeature(@NotNull Geometry geometry, @NotNull FeatureId identifier) {
+        return new SimpleFeatureImpl(Collections.singletonList(geometry), this.getFeatureType(), identifier);
     }
 
     /**
      * Builds the container {@link SimpleFeatureType} for this writer's KML structure.
      *
+     * <p>Invoked once per writer, use {@link #getFeatureType()} to access the shared instance.</p>
+     *
      * @return a new feature type with a geometry field
      */
     protected @NotNull SimpleFeatureType buildContainer() {
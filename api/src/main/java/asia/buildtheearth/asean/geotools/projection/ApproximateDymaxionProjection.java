@@ -0,0 +1,245 @@
+package asia.buildtheearth.asean.geotools.projection;
+
+import org.geotools.api.referencing.FactoryException;
+import org.jetbrains.annotations.NotNull;
+import org.locationtech.jts.geom.Envelope;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A Dymaxion map projection interpolated from a grid of exactly projected nodes over a geographic window,
+ * trading a bounded error for skipping the icosahedron face lookup and conformal polynomial of every vertex.
+ *
+ * <p>The window is split into square cells, each interpolated by a bicubic Lagrange polynomial through
+ * the 4&times;4 exactly projected nodes around it. Cells are filled lazily on the first vertex falling
+ * in them, then validated against the exact projection on a 5&times;5 lattice of sample points:
+ * a cell whose sampled error exceeds half of the {@linkplain #getMaxError() maximum error}, typically
+ * around icosahedron face edges and cuts of the unfolded map, falls back to the exact projection
+ * as do all points outside the window.</p>
+ *
+ * <p>Only the {@linkplain #transform(double[], int, int, double[], int, int, int) bulk transform}
+ * used by {@link PackedSequenceTransformer} is approximated, single point transforms and the inverse stay exact.
+ * Filling a cell costs 41 exact projections, so the interpolation pays off for vertices denser than that per cell.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * DymaxionMapProjection projection = MinecraftProjection.getApproximate(
+ *     MinecraftProjection.getASEAN(), MinecraftProjection.getASEANWindow(), 0.05
+ * );
+ * }</blockquote>
+ *
+ * @see MinecraftProjection#getApproximate(DymaxionMapProjection, Envelope, double)
+ */
+public class ApproximateDymaxionProjection extends DymaxionMapProjection {
+
+    /** Default cell size in decimal degrees. */
+    public static final double DEFAULT_CELL_SIZE = 0.25;
+
+    /** Maximum number of cells of a window. */
+    private static final int MAX_CELLS = 1 << 24;
+
+    /** Number of sample points along each axis of a cell validation lattice. */
+    private static final int SAMPLES = 5;
+
+    /** Placeholder of cells projected exactly. */
+    private static final double[] EXACT = new double[0];
+
+    private final Envelope window;
+    private final double cellSize;
+    private final double maxError;
+    private final int columns, rows;
+
+    /** Interleaved X and Z of the 4&times;4 nodes of each cell, {@code null} until first used. */
+    private final AtomicReferenceArray<double[]> cells;
+
+    /**
+     * Construct an approximation of a Dymaxion map projection.
+     *
+     * @param projection The exact projection to approximate
+     * @param window The geographic window to interpolate, in decimal degrees
+     * @param cellSize The size of each interpolated cell in decimal degrees
+     * @param maxError The maximum distance to the exact projection in blocks
+     * @throws FactoryException If the projection cannot be created from the exact projection parameters
+     * @throws IllegalArgumentException If the window is out of geographic range or has too many cells
+     */
+    public ApproximateDymaxionProjection(@NotNull DymaxionMapProjection projection, @NotNull Envelope window,
+                                        double cellSize, double maxError) throws FactoryException {
+        super(projection.getParameterValues());
+
+        if(!(cellSize > 0) || !(maxError > 0))
+            throw new IllegalArgumentException("Cell size and maximum error must be positive");
+
+        if(window.isNull() || window.getMinX() < -180 || window.getMaxX() > 180
+            || window.getMinY() < -90 || window.getMaxY() > 90)
+            throw new IllegalArgumentException("Window is out of geographic range: " + window);
+
+        long columns = Math.max(1, (long) Math.ceil(window.getWidth() / cellSize));
+        long rows = Math.max(1, (long) Math.ceil(window.getHeight() / cellSize));
+
+        if(columns * rows > MAX_CELLS)
+            throw new IllegalArgumentException("Window of " + columns + "x" + rows + " cells is too large, use a larger cell size");
+
+        this.window = new Envelope(window);
+        this.cellSize = cellSize;
+        this.maxError = maxError;
+        this.columns = (int) columns;
+        this.rows = (int) rows;
+        this.cells = new AtomicReferenceArray<>(this.columns * this.rows);
+    }
+
+    /**
+     * @return A copy of the interpolated geographic window
+     */
+    public @NotNull Envelope getWindow() {
+        return new Envelope(this.window);
+    }
+
+    /**
+     * @return The size of each interpolated cell in decimal degrees
+     */
+    public double getCellSize() {
+        return this.cellSize;
+    }
+
+    /**
+     * @return The maximum distance to the exact projection in blocks
+     */
+    public double getMaxError() {
+        return this.maxError;
+    }
+
+    /**
+     * Count the cells filled so far that are interpolated, not falling back to the exact projection.
+     *
+     * @return The number of interpolated cells
+     */
+    public int countInterpolatedCells() {
+        int count = 0;
+
+        for (int i = 0; i < this.cells.length(); i++) {
+            double[] cell = this.cells.get(i);
+            if(cell != null && cell != EXACT) count++;
+        }
+
+        return count;
+    }
+
+    /**
+     * Interpolates points within the window, filling their cell on first use.
+     */
+    @Override
+    protected void transformPoint(double longitude, double latitude, double[] dstPts, int dstOff) {
+        double u = (longitude - this.window.getMinX()) / this.cellSize;
+        double v = (latitude - this.window.getMinY()) / this.cellSize;
+
+        // Negated to also reject NaN
+        if(!(u >= 0 && u < this.columns && v >= 0 && v < this.rows)) {
+            super.transformPoint(longitude, latitude, dstPts, dstOff);
+            return;
+        }
+
+        int column = (int) u, row = (int) v;
+        double[] cell = this.cell(column, row);
+
+        if(cell == EXACT) super.transformPoint(longitude, latitude, dstPts, dstOff);
+        else interpolate(cell, u - column, v - row, dstPts, dstOff);
+    }
+
+    private double @NotNull [] cell(int column, int row) {
+        int index = row * this.columns + column;
+        double[] cell = this.cells.get(index);
+
+        if(cell != null) return cell;
+
+        // Not a big deal if two threads fill the same cell, only the first one is kept
+        cell = this.fill(column, row);
+        double[] previous = this.cells.compareAndExchange(index, null, cell);
+
+        return previous != null? previous : cell;
+    }
+
+    /**
+     * Project the nodes of a cell and validate their interpolation.
+     *
+     * @return The interleaved nodes, or {@link #EXACT} if the cell cannot be interpolated within the maximum error
+     */
+    private double @NotNull [] fill(int column, int row) {
+        double[] cell = new double[32];
+        double[] exact = new double[2], approximate = new double[2];
+
+        try {
+            for (int j = 0; j < 4; j++) {
+                double latitude = this.window.getMinY() + (row + j - 1) * this.cellSize;
+                if(!(Math.abs(latitude) < 90)) return EXACT;
+
+                for (int i = 0; i < 4; i++) {
+                    double longitude = this.window.getMinX() + (column + i - 1) * this.cellSize;
+                    if(!(Math.abs(longitude) <= 180)) return EXACT;
+
+                    super.transformPoint(longitude, latitude, cell, 2 * (j * 4 + i));
+                }
+            }
+
+            for (int b = 0; b < SAMPLES; b++) {
+                double t = b / (SAMPLES - 1d);
+
+                for (int a = 0; a < SAMPLES; a++) {
+                    double s = a / (SAMPLES - 1d);
+
+                    super.transformPoint(
+                        this.window.getMinX() + (column + s) * this.cellSize,
+                        this.window.getMinY() + (row + t) * this.cellSize,
+                        exact, 0
+                    );
+                    interpolate(cell, s, t, approximate, 0);
+
+                    if(!(Math.hypot(approximate[0] - exact[0], approximate[1] - exact[1]) <= this.maxError / 2))
+                        return EXACT;
+                }
+            }
+        }
+        catch (RuntimeException ex) { return EXACT; }
+
+        return cell;
+    }
+
+    /**
+     * Bicubic Lagrange interpolation of a cell at its local coordinates within {@code [0, 1)}.
+     */
+    private static void interpolate(double @NotNull [] cell, double s, double t, double[] dstPts, int dstOff) {
+        double s0 = weight0(s), s1 = weight1(s), s2 = weight2(s), s3 = weight3(s);
+        double t0 = weight0(t), t1 = weight1(t), t2 = weight2(t), t3 = weight3(t);
+        double x = 0, z = 0;
+
+        for (int j = 0, k = 0; j < 4; j++, k += 8) {
+            double weight = j == 0? t0 : j == 1? t1 : j == 2? t2 : t3;
+
+            x += weight * (s0 * cell[k] + s1 * cell[k + 2] + s2 * cell[k + 4] + s3 * cell[k + 6]);
+            z += weight * (s0 * cell[k + 1] + s1 * cell[k + 3] + s2 * cell[k + 5] + s3 * cell[k + 7]);
+        }
+
+        dstPts[dstOff] = x;
+        dstPts[dstOff + 1] = z;
+    }
+
+    // Lagrange basis of the nodes at -1, 0, 1 and 2
+    private static double weight0(double t) { return -t * (t - 1) * (t - 2) / 6; }
+    private static double weight1(double t) { return (t + 1) * (t - 1) * (t - 2) / 2; }
+    private static double weight2(double t) { return -(t + 1) * t * (t - 2) / 2; }
+    private static double weight3(double t) { return (t + 1) * t * (t - 1) / 6; }
+
+    @Override
+    public boolean equals(Object object) {
+        return super.equals(object)
+            && object instanceof ApproximateDymaxionProjection that
+            && this.window.equals(that.window)
+            && Double.compare(this.cellSize, that.cellSize) == 0
+            && Double.compare(this.maxError, that.maxError) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * super.hashCode() + Objects.hash(this.window, this.cellSize, this.maxError);
+    }
+}
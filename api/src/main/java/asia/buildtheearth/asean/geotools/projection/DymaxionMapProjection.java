@@ -21,6 +21,15 @@ import java.awt.geom.Point2D;
 import static asia.buildtheearth.asean.geotools.projection.MinecraftProjection.EARTH_TO_MINECRAFT_SCALE;
 
 public class DymaxionMapProjection extends MapProjection {
+    /** Maximum distance in blocks between a warm-started inverse point and the point to invert. */
+    private static final double INVERSE_TOLERANCE = 1e-3;
+
+    /** Maximum number of warm-started iterations before falling back to the upstream inverse. */
+    private static final int INVERSE_ITERATIONS = 6;
+
+    /** Finite difference step of the inverse Jacobian, in normalized radians. */
+    private static final double JACOBIAN_STEP = 1e-7;
+
     private final DymaxionProjection projection;
 
     protected DymaxionMapProjection(ParameterValueGroup values) throws ParameterNotFoundException, FactoryException {
@@ -97,6 +106,217 @@ public class DymaxionMapProjection extends MapProjection {
         return new Point2D.Double(x, z);
     }
 
+    /**
+     * Transforms a list of packed (<var>longitude</var>,<var>latitude</var>) pairs in decimal degrees.
+     *
+     * <p>Overrides the point-by-point superclass loop to project directly on the primitive arrays
+     * without any intermediate {@link Point2D}.</p>
+     *
+     * @throws ProjectionException if a point can't be transformed. This method tries to transform every points even if
+     *     some of them can't be transformed. Non-transformable points will have value {@link Double#NaN}.
+     * @see #transform(double[], int, int, double[], int, int, int)
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts) throws ProjectionException {
+        this.transform(srcPts, srcOff, 2, dstPts, dstOff, 2, numPts);
+    }
+
+    /**
+     * Transforms a list of strided coordinate ordinal values, where the first two ordinates of each point
+     * are (<var>longitude</var>,<var>latitude</var>) in decimal degrees.
+     *
+     * <p>Ordinates beyond the first two (e.g. Z or M values of a {@code PackedCoordinateSequence})
+     * are copied from the source as-is when source and destination stride match, otherwise left untouched.</p>
+     *
+     * @param srcPts the array containing the source point coordinates
+     * @param srcOff the offset to the first point to be transformed in the source array
+     * @param srcStride the number of ordinates of each source point, at least {@code 2}
+     * @param dstPts the array into which the transformed point coordinates are returned, may be the same as {@code srcPts}
+     * @param dstOff the offset to the location of the first transformed point that is stored in the destination array
+     * @param dstStride the number of ordinates of each destination point, at least {@code 2}
+     * @param numPts the number of points to be transformed
+     * @throws ProjectionException if a point can't be transformed. Non-transformable points will have value {@link Double#NaN}.
+     *     If more than one point can't be transformed, then this exception may be about an arbitrary point.
+     */
+    public void transform(double[] srcPts, int srcOff, int srcStride,
+                          double[] dstPts, int dstOff, int dstStride, int numPts) throws ProjectionException {
+        if(srcStride < 2 || dstStride < 2)
+            throw new IllegalArgumentException("Coordinate stride must be at least 2 dimensions");
+
+        final boolean copyExtra = srcStride == dstStride && srcStride > 2;
+        int srcStep = srcStride, dstStep = dstStride;
+
+        // Iterate backward if the arrays overlap and the destination is after the source
+        if (srcPts == dstPts && srcOff < dstOff && srcOff + (srcStride * numPts) > dstOff) {
+            srcOff += srcStride * (numPts - 1);
+            dstOff += dstStride * (numPts - 1);
+            srcStep = -srcStride;
+            dstStep = -dstStride;
+        }
+
+        ProjectionException firstException = null;
+
+        for (int i = 0; i < numPts; i++, srcOff += srcStep, dstOff += dstStep) {
+            double longitude = srcPts[srcOff];
+            double latitude = srcPts[srcOff + 1];
+
+            if(copyExtra && (srcPts != dstPts || srcOff != dstOff))
+                System.arraycopy(srcPts, srcOff + 2, dstPts, dstOff + 2, srcStride - 2);
+
+            try {
+                this.transformPoint(longitude, latitude, dstPts, dstOff);
+            }
+            catch (RuntimeException ex) {
+                dstPts[dstOff] = Double.NaN;
+                dstPts[dstOff + 1] = Double.NaN;
+                if (firstException == null) firstException = new ProjectionException(ex);
+            }
+        }
+
+        if (firstException != null) throw firstException;
+    }
+
+    /**
+     * Projects a single (<var>longitude</var>,<var>latitude</var>) pair in decimal degrees
+     * into the first two ordinates of the destination, on behalf of the bulk transform.
+     *
+     * @param longitude the longitude in decimal degrees
+     * @param latitude the latitude in decimal degrees
+     * @param dstPts the array into which the projected X and Z are written
+     * @param dstOff the offset of the projected point in the destination array
+     * @throws RuntimeException if the point is out of the projection bounds
+     */
+    protected void transformPoint(double longitude, double latitude, double[] dstPts, int dstOff) {
+        double lambda = rollLongitude(Math.toRadians(longitude) - this.centralMeridian);
+        double phi = Math.toRadians(latitude);
+
+        double[] transform = this.projection.fromGeoNormalized(lambda, (Math.PI / 2) - phi);
+        dstPts[dstOff] = this.globalScale * transform[0] + this.falseEasting;
+        dstPts[dstOff + 1] = this.globalScale * -transform[1] + this.falseNorthing;
+    }
+
+    /**
+     * Inverse transforms a list of strided coordinate ordinal values, where the first two ordinates of each point
+     * are Minecraft (<var>x</var>,<var>z</var>) block coordinates, into (<var>longitude</var>,<var>latitude</var>)
+     * in decimal degrees.
+     *
+     * <p>Consecutive points of a geometry are spatially coherent, so each point is solved by a few chord iterations
+     * of the forward projection starting from the previous result, with the inverse Jacobian of the last
+     * upstream-solved point. Points which do not converge within {@value #INVERSE_ITERATIONS} iterations,
+     * typically across an icosahedron face edge, and the first point fall back to the upstream iterative inverse.
+     * The warm start is kept in local primitives, but every upstream call still returns a new array:
+     * one per chord iteration, and four per point solved by the upstream inverse.</p>
+     *
+     * <p>Ordinates beyond the first two are copied as in {@link #transform(double[], int, int, double[], int, int, int)}.</p>
+     *
+     * @param srcPts the array containing the source block coordinates
+     * @param srcOff the offset to the first point to be transformed in the source array
+     * @param srcStride the number of ordinates of each source point, at least {@code 2}
+     * @param dstPts the array into which the geographic coordinates are returned, may be the same as {@code srcPts}
+     * @param dstOff the offset to the location of the first transformed point that is stored in the destination array
+     * @param dstStride the number of ordinates of each destination point, at least {@code 2}
+     * @param numPts the number of points to be transformed
+     * @throws ProjectionException if a point can't be transformed. Non-transformable points will have value {@link Double#NaN}.
+     *     If more than one point can't be transformed, then this exception may be about an arbitrary point.
+     */
+    public void inverseTransform(double[] srcPts, int srcOff, int srcStride,
+                                 double[] dstPts, int dstOff, int dstStride, int numPts) throws ProjectionException {
+        if(srcStride < 2 || dstStride < 2)
+            throw new IllegalArgumentException("Coordinate stride must be at least 2 dimensions");
+
+        final boolean copyExtra = srcStride == dstStride && srcStride > 2;
+        final double tolerance = INVERSE_TOLERANCE / this.globalScale;
+        int srcStep = srcStride, dstStep = dstStride;
+
+        // Iterate backward if the arrays overlap and the destination is after the source
+        if (srcPts == dstPts && srcOff < dstOff && srcOff + (srcStride * numPts) > dstOff) {
+            srcOff += srcStride * (numPts - 1);
+            dstOff += dstStride * (numPts - 1);
+            srcStep = -srcStride;
+            dstStep = -dstStride;
+        }
+
+        ProjectionException firstException = null;
+
+        // Previous solution and inverse Jacobian to warm-start from
+        boolean warm = false;
+        double lambda = 0, colatitude = 0;
+        double j00 = 0, j01 = 0, j10 = 0, j11 = 0;
+
+        for (int i = 0; i < numPts; i++, srcOff += srcStep, dstOff += dstStep) {
+            double x = (srcPts[srcOff] - this.falseEasting) / this.globalScale;
+            double y = -(srcPts[srcOff + 1] - this.falseNorthing) / this.globalScale;
+
+            if(copyExtra && (srcPts != dstPts || srcOff != dstOff))
+                System.arraycopy(srcPts, srcOff + 2, dstPts, dstOff + 2, srcStride - 2);
+
+            try {
+                boolean solved = false;
+
+                if(warm) {
+                    double u = lambda, w = colatitude;
+
+                    for (int k = 0; k < INVERSE_ITERATIONS && w > 0 && w < Math.PI; k++) {
+                        double[] forward = this.projection.fromGeoNormalized(u, w);
+                        double dx = forward[0] - x, dy = forward[1] - y;
+
+                        if(Math.abs(dx) <= tolerance && Math.abs(dy) <= tolerance) {
+                            solved = true;
+                            break;
+                        }
+
+                        u -= j00 * dx + j01 * dy;
+                        w -= j10 * dx + j11 * dy;
+                    }
+
+                    if(solved) {
+                        lambda = u;
+                        colatitude = w;
+                    }
+                }
+
+                if(!solved) {
+                    double[] inverse = this.projection.toGeo(x, y);
+                    lambda = inverse[0];
+                    colatitude = inverse[1];
+
+                    // Finite difference Jacobian of the forward projection, inverted for the next points
+                    double[] origin = this.projection.fromGeoNormalized(lambda, colatitude);
+                    double[] east = this.projection.fromGeoNormalized(lambda + JACOBIAN_STEP, colatitude);
+                    double[] south = this.projection.fromGeoNormalized(lambda, colatitude + JACOBIAN_STEP);
+
+                    double a = (east[0] - origin[0]) / JACOBIAN_STEP, b = (south[0] - origin[0]) / JACOBIAN_STEP;
+                    double c = (east[1] - origin[1]) / JACOBIAN_STEP, d = (south[1] - origin[1]) / JACOBIAN_STEP;
+                    double determinant = a * d - b * c;
+
+                    warm = determinant != 0 && Double.isFinite(determinant);
+                    j00 = d / determinant;
+                    j01 = -b / determinant;
+                    j10 = -c / determinant;
+                    j11 = a / determinant;
+                }
+
+                dstPts[dstOff] = Math.toDegrees(rollLongitude(lambda + this.centralMeridian));
+                dstPts[dstOff + 1] = Math.toDegrees(Math.PI / 2 - colatitude);
+            }
+            catch (OutOfProjectionBoundsException | RuntimeException ex) {
+                warm = false;
+                dstPts[dstOff] = Double.NaN;
+                dstPts[dstOff + 1] = Double.NaN;
+                if (firstException == null) firstException = new ProjectionException(ex);
+            }
+        }
+
+        if (firstException != null) throw firstException;
+    }
+
+    /**
+     * Rolls a longitude in radians into the {@code [-PI, PI]} range, same as the single point transformation.
+     */
+    private static double rollLongitude(double lambda) {
+        return lambda - (2 * Math.PI) * Math.floor(lambda / (2 * Math.PI) + 0.5);
+    }
+
     public static class Provider extends AbstractProvider {
         /**
          * Projection codename as specified by upstream registries.
@@ -11,7 +11,10 @@ import org.geotools.api.referencing.FactoryException;
 import org.geotools.api.referencing.operation.MathTransformFactory;
 import org.geotools.referencing.ReferencingFactoryFinder;
 import org.jetbrains.annotations.NotNull;
+import org.locationtech.jts.geom.Envelope;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -25,9 +28,15 @@ import static asia.buildtheearth.asean.geotools.projection.DymaxionMapProjection
  *   <li>{@link #getBTE()} – Default BuildTheEarth projection centered globally.</li>
  *   <li>{@link #getASEAN()} – Regionally offset projection centered on Southeast Asia.</li>
  *   <li>{@link #getWithOffset(double, double)} – Factory for offset-adjusted Terra projections.</li>
+ *   <li>{@link #getApproximate(DymaxionMapProjection, Envelope, double)} – Grid-interpolated projection with a bounded error.</li>
  * </ul>
  *
  * <p>
+ * Map projections are resolved once through the GeoTools {@link MathTransformFactory} and cached by projection name
+ * and false easting/northing, so every converter requesting the same projection shares a single thread-safe instance.
+ * </p>
+ *
+ * <p>
  * All projections operate at a scale of {@value #EARTH_TO_MINECRAFT_SCALE}, which converts real-world meters to Minecraft blocks.
  * </p>
  */
@@ -44,6 +53,34 @@ public abstract class MinecraftProjection {
      */
     public static final double EARTH_TO_MINECRAFT_SCALE = 7318261.522857145;
 
+    /**
+     * Registry of all resolved projections, keyed by projection name and false easting/northing.
+     */
+    private static final Map<ProjectionKey, DymaxionMapProjection> REGISTRY = new ConcurrentHashMap<>();
+
+    /**
+     * Cache key of a resolved projection.
+     *
+     * @param projection Projection codename as specified by upstream registries
+     * @param offsetX False easting of the projection
+     * @param offsetY False northing of the projection
+     */
+    private record ProjectionKey(@NotNull String projection, double offsetX, double offsetY) { }
+
+    /**
+     * Registry of all approximate projections, kept so that their lazily filled grid is shared by every converter.
+     */
+    private static final Map<ApproximateKey, ApproximateDymaxionProjection> APPROXIMATE = new ConcurrentHashMap<>();
+
+    /**
+     * Cache key of an approximate projection.
+     *
+     * @param projection The exact projection
+     * @param window The interpolated geographic window
+     * @param maxError The maximum error in blocks
+     */
+    private record ApproximateKey(@NotNull DymaxionMapProjection projection, @NotNull Envelope window, double maxError) { }
+
     public static DymaxionMapProjection getBTE() throws FactoryException {
         return get("bte_conformal_dymaxion", 0, 0);
     }
@@ -56,7 +93,74 @@ public abstract class MinecraftProjection {
         return get("bte_conformal_dymaxion", offsetX, offsetY);
     }
 
+    /**
+     * The geographic window of the ASEAN member states, from Myanmar to Papua and from Kachin to Timor.
+     *
+     * @return A new envelope of longitudes {@code [92, 142]} and latitudes {@code [-11.5, 28.6]}
+     */
+    public static Envelope getASEANWindow() {
+        return new Envelope(92, 142, -11.5, 28.6);
+    }
+
+    /**
+     * Get a shared approximation of a Dymaxion map projection, interpolated over a geographic window
+     * with {@linkplain ApproximateDymaxionProjection#DEFAULT_CELL_SIZE default cells}.
+     *
+     * @param projection The exact projection to approximate
+     * @param window The geographic window to interpolate, in decimal degrees
+     * @param maxError The maximum distance to the exact projection in blocks
+     * @return The cached approximate projection instance
+     * @throws FactoryException If the projection cannot be created
+     * @see ApproximateDymaxionProjection
+     */
+    public static DymaxionMapProjection getApproximate(@NotNull DymaxionMapProjection projection,
+                                                       @NotNull Envelope window,
+                                                       double maxError) throws FactoryException {
+        ApproximateKey key = new ApproximateKey(projection, new Envelope(window), maxError);
+        ApproximateDymaxionProjection cached = APPROXIMATE.get(key);
+
+        if(cached != null) return cached;
+
+        ApproximateDymaxionProjection created = new ApproximateDymaxionProjection(projection, window,
+            ApproximateDymaxionProjection.DEFAULT_CELL_SIZE, maxError);
+        ApproximateDymaxionProjection previous = APPROXIMATE.putIfAbsent(key, created);
+
+        return previous != null? previous : created;
+    }
+
+    /**
+     * Get a shared Dymaxion map projection from the registry,
+     * resolving it through the GeoTools {@link MathTransformFactory} on first request.
+     *
+     * @param projection Projection codename as specified by upstream registries
+     * @param offsetX False easting of the projection
+     * @param offsetY False northing of the projection
+     * @return The cached projection instance
+     * @throws FactoryException If the projection cannot be created
+     */
     public static DymaxionMapProjection get(String projection, double offsetX, double offsetY) throws FactoryException {
+        ProjectionKey key = new ProjectionKey(projection, offsetX, offsetY);
+        DymaxionMapProjection cached = REGISTRY.get(key);
+
+        if(cached != null) return cached;
+
+        // Not a big deal if two threads resolve the same projection, only the first one is kept
+        DymaxionMapProjection created = create(projection, offsetX, offsetY);
+        DymaxionMapProjection previous = REGISTRY.putIfAbsent(key, created);
+
+        return previous != null? previous : created;
+    }
+
+    /**
+     * Create a new Dymaxion map projection without going through the registry.
+     *
+     * @param projection Projection codename as specified by upstream registries
+     * @param offsetX False easting of the projection
+     * @param offsetY False northing of the projection
+     * @return A newly created projection instance
+     * @throws FactoryException If the projection cannot be created
+     */
+    public static DymaxionMapProjection create(String projection, double offsetX, double offsetY) throws FactoryException {
         MathTransformFactory mtFactory = ReferencingFactoryFinder.getMathTransformFactory(null);
         final ParameterValueGroup parameters = mtFactory.getDefaultParameters("dymaxion");
         set(parameters, PROJECTION, projection);
@@ -0,0 +1,89 @@
+package asia.buildtheearth.asean.geotools.projection;
+
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.MathTransform2D;
+import org.geotools.api.referencing.operation.NoninvertibleTransformException;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.geometry.jts.CoordinateSequenceTransformer;
+import org.geotools.geometry.jts.DefaultCoordinateSequenceTransformer;
+import org.geotools.geometry.jts.GeometryCoordinateSequenceTransformer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
+
+/**
+ * Coordinate sequence transformer that projects whole sequences through
+ * {@link DymaxionMapProjection#transform(double[], int, int, double[], int, int, int) the bulk Dymaxion transform}.
+ *
+ * <p>Each sequence is projected as a single packed {@code double[]} and returned as a
+ * {@link PackedCoordinateSequence.Double}, instead of allocating a new {@code Coordinate} per point.
+ * {@link PackedCoordinateSequence.Double} inputs are read from their raw ordinates directly.</p>
+ *
+ * <p>The {@linkplain DymaxionMapProjection#inverse() inverse} of a Dymaxion projection is likewise applied through
+ * {@link DymaxionMapProjection#inverseTransform(double[], int, int, double[], int, int, int) the bulk inverse},
+ * warm-started along each sequence.
+ * Any other {@link MathTransform} falls back to GeoTools' {@link DefaultCoordinateSequenceTransformer}.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * GeometryCoordinateSequenceTransformer transformer = PackedSequenceTransformer.create(MinecraftProjection.getBTE());
+ * Geometry projected = transformer.transform(geometry);
+ * }</blockquote>
+ */
+public class PackedSequenceTransformer implements CoordinateSequenceTransformer {
+
+    /** Fallback transformer of any non-Dymaxion math transform. */
+    private final DefaultCoordinateSequenceTransformer fallback = new DefaultCoordinateSequenceTransformer();
+
+    /**
+     * Creates a geometry transformer backed by a {@link PackedSequenceTransformer}.
+     *
+     * @param transform The math transform to apply, usually a {@link DymaxionMapProjection}
+     * @return A new geometry transformer for the given transform
+     */
+    @Contract("_ -> new")
+    public static @NotNull GeometryCoordinateSequenceTransformer create(@NotNull MathTransform transform) {
+        GeometryCoordinateSequenceTransformer transformer = new GeometryCoordinateSequenceTransformer(new PackedSequenceTransformer());
+        transformer.setMathTransform(transform);
+        return transformer;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public CoordinateSequence transform(CoordinateSequence sequence, MathTransform transform) throws TransformException {
+        DymaxionMapProjection projection = transform instanceof DymaxionMapProjection forward? forward : inverseOf(transform);
+
+        if(projection == null)
+            return this.fallback.transform(sequence, transform);
+
+        int size = sequence.size();
+        int dimension = sequence.getDimension();
+        int measures = sequence.getMeasures();
+        double[] packed = new double[size * dimension];
+
+        if(sequence instanceof PackedCoordinateSequence.Double raw) {
+            System.arraycopy(raw.getRawCoordinates(), 0, packed, 0, packed.length);
+        }
+        else for (int i = 0; i < size; i++) {
+            for (int ordinate = 0; ordinate < dimension; ordinate++)
+                packed[i * dimension + ordinate] = sequence.getOrdinate(i, ordinate);
+        }
+
+        if(projection == transform) projection.transform(packed, 0, dimension, packed, 0, dimension, size);
+        else projection.inverseTransform(packed, 0, dimension, packed, 0, dimension, size);
+
+        return new PackedCoordinateSequence.Double(packed, dimension, measures);
+    }
+
+    /**
+     * @return The Dymaxion projection whose inverse is the given transform, {@code null} if it is not one
+     */
+    private static @Nullable DymaxionMapProjection inverseOf(@NotNull MathTransform transform) {
+        if(!(transform instanceof MathTransform2D)) return null;
+
+        try { return transform.inverse() instanceof DymaxionMapProjection projection? projection : null; }
+        catch (NoninvertibleTransformException ex) { return null; }
+    }
+}
@@ -0,0 +1,117 @@
+package asia.buildtheearth.asean.geotools.worldedit;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.util.collection.BlockMap;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+
+/**
+ * Storage backend of every block placed into a {@link BufferingRegionExtent}.
+ *
+ * <p>Blocks are addressed by their primitive coordinates so implementations are free to
+ * avoid allocating a {@link BlockVector3} per stored block.</p>
+ *
+ * @see #of(BlockMap)
+ * @see CompactBlockBuffer
+ */
+public interface BlockBuffer {
+
+    /**
+     * Receiver of each stored block.
+     */
+    @FunctionalInterface
+    interface BlockConsumer {
+        void accept(int x, int y, int z, @NotNull BaseBlock block);
+    }
+
+    /**
+     * Store a block, replacing any block previously stored at the same position.
+     *
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     * @param block The block to store
+     */
+    void put(int x, int y, int z, @NotNull BaseBlock block);
+
+    /**
+     * Get the block stored at a position.
+     *
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     * @return The stored block, or {@code null} if nothing is stored there
+     */
+    @Nullable BaseBlock get(int x, int y, int z);
+
+    /**
+     * Check whether a block is stored at a position.
+     *
+     * @param x Block X
+     * @param y Block Y
+     * @param z Block Z
+     * @return {@code true} if a block is stored there
+     */
+    default boolean contains(int x, int y, int z) {
+        return this.get(x, y, z) != null;
+    }
+
+    /**
+     * @return The number of stored blocks
+     */
+    int size();
+
+    /**
+     * Visit every stored block, in no particular order.
+     *
+     * @param consumer Receiver of each block
+     */
+    void forEach(@NotNull BlockConsumer consumer);
+
+    /**
+     * Iterate the position of every stored block, in the same order as {@link #forEach(BlockConsumer)}.
+     *
+     * @return A new iterator of block positions
+     */
+    @NotNull Iterator<BlockVector3> positions();
+
+    /**
+     * Wrap a WorldEdit {@link BlockMap} as a block buffer.
+     *
+     * @param map The map to store blocks into
+     * @return A buffer view of the given map
+     */
+    @Contract("_ -> new")
+    static @NotNull BlockBuffer of(@NotNull BlockMap<BaseBlock> map) {
+        return new BlockBuffer() {
+            @Override
+            public void put(int x, int y, int z, @NotNull BaseBlock block) {
+                map.put(BlockVector3.at(x, y, z), block);
+            }
+
+            @Override
+            public @Nullable BaseBlock get(int x, int y, int z) {
+                return map.get(BlockVector3.at(x, y, z));
+            }
+
+            @Override
+            public int size() {
+                return map.size();
+            }
+
+            @Override
+            public void forEach(@NotNull BlockConsumer consumer) {
+                map.forEach((position, block) -> consumer.accept(position.x(), position.y(), position.z(), block));
+            }
+
+            @Override
+            public @NotNull Iterator<BlockVector3> positions() {
+                return map.keySet().iterator();
+            }
+        };
+    }
+}
@@ -2,9 +2,11 @@ package asia.buildtheearth.asean.geotools.worldedit;
 
 import com.sk89q.worldedit.WorldEditException;
 import com.sk89q.worldedit.extent.NullExtent;
+import com.sk89q.worldedit.extent.clipboard.BlockArrayClipboard;
 import com.sk89q.worldedit.math.BlockVector2;
 import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.AbstractFlatRegion;
+import com.sk89q.worldedit.regions.CuboidRegion;
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.regions.iterator.FlatRegionIterator;
 import com.sk89q.worldedit.util.collection.BlockMap;
@@ -13,87 +15,157 @@ import com.sk89q.worldedit.world.block.BlockStateHolder;
 
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.Iterator;
-
+import java.util.Objects;
+
+/**
+ * Extent that buffers every placed block in memory instead of a world, tracking the bounds of all placed blocks.
+ *
+ * <p>Blocks are stored in a {@link BlockBuffer}, a {@link BlockMap} by default.
+ * Use {@link #compact()} for a {@link CompactBlockBuffer} backend when buffering very large areas,
+ * or {@link ConcurrentBufferingRegionExtent} to place blocks from several threads.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * BufferingRegionExtent buffer = BufferingRegionExtent.compact();
+ * // ... place blocks through an edit session using this extent
+ * BlockArrayClipboard clipboard = buffer.toClipboard();
+ * }</blockquote>
+ */
 public class BufferingRegionExtent extends NullExtent {
     private int minX = 0, minY = 0, minZ = 0;
     private int maxX = -1, maxY = -1, maxZ = -1;
 
-    private final BlockMap<BaseBlock> buffer;
+    private final BlockBuffer buffer;
+    private final @Nullable BlockMap<BaseBlock> map;
+
+    private boolean empty = true;
 
+    // Built lazily from the primitive bounds
     private BlockVector3 min = null, max = null;
 
     public BufferingRegionExtent(@NotNull BlockMap<BaseBlock> buffer) {
+        this.buffer = BlockBuffer.of(buffer);
+        this.map = buffer;
+    }
+
+    public BufferingRegionExtent(@NotNull BlockBuffer buffer) {
         this.buffer = buffer;
+        this.map = null;
     }
 
     public BufferingRegionExtent() {
         this(BlockMap.createForBaseBlock());
     }
 
-    public @NotNull BlockVector3 getMin() {
+    /**
+     * Create a buffering extent backed by a new {@link CompactBlockBuffer}.
+     *
+     * @return A new empty extent
+     */
+    @Contract("-> new")
+    public static @NotNull BufferingRegionExtent compact() {
+        return new BufferingRegionExtent(new CompactBlockBuffer());
+    }
+
+    /**
+     * @return The lowest corner of every placed block, or {@code null} if no block has been placed
+     */
+    public @Nullable BlockVector3 getMin() {
+        if(this.empty) return null;
+        if(this.min == null) this.min = BlockVector3.at(this.minX, this.minY, this.minZ);
         return this.min;
     }
 
-    public @NotNull BlockVector3 getMax() {
+    /**
+     * @return The highest corner of every placed block, or {@code null} if no block has been placed
+     */
+    public @Nullable BlockVector3 getMax() {
+        if(this.empty) return null;
+        if(this.max == null) this.max = BlockVector3.at(this.maxX, this.maxY, this.maxZ);
         return this.max;
     }
 
+    /**
+     * Get the backing {@link BlockMap} of this extent,
+     * only created by default or with {@link #BufferingRegionExtent(BlockMap)}.
+     *
+     * @return The block map
+     * @throws IllegalStateException If this extent has any other backend, such as {@link #compact()}
+     *                               or a {@link ConcurrentBufferingRegionExtent}: use {@link #getBlocks()} instead
+     */
     public BlockMap<BaseBlock> getBuffer() {
+        if(this.map == null)
+            throw new IllegalStateException("This extent is not backed by a BlockMap, use getBlocks() instead");
+        return this.map;
+    }
+
+    /**
+     * @return The buffer of every placed block
+     */
+    public @NotNull BlockBuffer getBlocks() {
         return this.buffer;
     }
 
     public <T extends BlockStateHolder<T>> boolean setBlock(int x, int y, int z, @NotNull T block) throws WorldEditException {
         this.include(x, y, z);
-        this.buffer.put(BlockVector3.at(x, y, z), block.toBaseBlock());
+        this.buffer.put(x, y, z, block.toBaseBlock());
         return true;
     }
 
     @Override
     public <B extends BlockStateHolder<B>> boolean setBlock(BlockVector3 location, @NotNull B block) throws WorldEditException {
-        this.include(location);
-        this.buffer.put(location, block.toBaseBlock());
-        return true;
+        return this.setBlock(location.x(), location.y(), location.z(), block);
     }
 
     public void include(@NotNull BlockVector3 location) {
-        int x = location.x();
-        int y = location.y();
-        int z = location.z();
-        this.include(x, y, z);
+        this.include(location.x(), location.y(), location.z());
     }
 
     public void include(int x, int y, int z) {
-        if (this.min == null || this.max == null) {
-            this.min = BlockVector3.at(x, y, z);
-            this.max = BlockVector3.at(x, y, z);
-            this.minX = x;
-            this.maxX = x;
-            this.minY = y;
-            this.maxY = y;
-            this.minZ = z;
-            this.maxZ = z;
-        } else {
-            if (x < this.minX) this.minX = x;
-            if (y < this.minY) this.minY = y;
-            if (z < this.minZ) this.minZ = z;
-
-            if (x > this.maxX) this.maxX = x;
-            if (y > this.maxY) this.maxY = y;
-            if (z > this.maxZ) this.maxZ = z;
-
-            // Avoid construction overhead
-            if(this.min.x() != this.minX
-            || this.min.z() != this.minZ
-            || this.min.y() != this.minY)
-                this.min = BlockVector3.at(this.minX, this.minY, this.minZ);
-
-            if(this.max.x() != this.maxX
-            || this.max.z() != this.maxZ
-            || this.max.y() != this.maxY)
-                this.max = BlockVector3.at(this.maxX, this.maxY, this.maxZ);
+        if (this.empty) {
+            this.empty = false;
+            this.minX = this.maxX = x;
+            this.minY = this.maxY = y;
+            this.minZ = this.maxZ = z;
+            this.min = this.max = null;
+            return;
         }
+
+        if (x < this.minX || y < this.minY || z < this.minZ) {
+            this.minX = Math.min(this.minX, x);
+            this.minY = Math.min(this.minY, y);
+            this.minZ = Math.min(this.minZ, z);
+            this.min = null;
+        }
+
+        if (x > this.maxX || y > this.maxY || z > this.maxZ) {
+            this.maxX = Math.max(this.maxX, x);
+            this.maxY = Math.max(this.maxY, y);
+            this.maxZ = Math.max(this.maxZ, z);
+            this.max = null;
+        }
+    }
+
+    /**
+     * Copy every buffered block into a new clipboard sized to the buffered bounds,
+     * with its origin at the minimum point.
+     *
+     * @return A new clipboard of all buffered blocks
+     */
+    @Contract("-> new")
+    public @NotNull BlockArrayClipboard toClipboard() {
+        BlockVector3 min = Objects.requireNonNullElse(this.getMin(), BlockVector3.ZERO);
+        BlockVector3 max = Objects.requireNonNullElse(this.getMax(), BlockVector3.ZERO);
+
+        BlockArrayClipboard clipboard = new BlockArrayClipboard(new CuboidRegion(min, max));
+        clipboard.setOrigin(min);
+
+        this.buffer.forEach((x, y, z, block) -> clipboard.setBlock(BlockVector3.at(x, y, z), block));
+
+        return clipboard;
     }
 
     @Contract("-> new")
@@ -101,12 +173,12 @@ public class BufferingRegionExtent extends NullExtent {
         return new AbstractFlatRegion(null) {
             @Override
             public BlockVector3 getMinimumPoint() {
-                return min != null? getMin() : BlockVector3.ZERO;
+                return Objects.requireNonNullElse(getMin(), BlockVector3.ZERO);
             }
 
             @Override
             public BlockVector3 getMaximumPoint() {
-                return max != null? getMax() : BlockVector3.ZERO;
+                return Objects.requireNonNullElse(getMax(), BlockVector3.ZERO);
             }
 
             @Override
@@ -121,12 +193,12 @@ public class BufferingRegionExtent extends NullExtent {
 
             @Override
             public boolean contains(BlockVector3 position) {
-                return buffer.containsKey(position);
+                return buffer.contains(position.x(), position.y(), position.z());
             }
 
             @Override
             public @NotNull Iterator<BlockVector3> iterator() {
-                return buffer.keySet().iterator();
+                return buffer.positions();
             }
 
             @Override
@@ -0,0 +1,336 @@
+package asia.buildtheearth.asean.geotools.worldedit;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Memory-compact {@link BlockBuffer} for buffering millions of blocks.
+ *
+ * <p>Every distinct {@link BaseBlock} is stored once in a palette, and blocks are chunked into
+ * 16×16 columns (sections) found by a packed {@code long} section key. Each section is an open-addressing
+ * table mapping the packed local position {@code (y, z & 15, x & 15)} to a {@code short} palette index.
+ * A slot costs 6 bytes ({@code int} key and {@code short} index), and tables are doubled once more than 75% full,
+ * so one block costs 8 to 16 bytes of table space instead of a boxed map entry with its own {@link BlockVector3} key.</p>
+ *
+ * <p>Limitations: at most {@value #MAX_PALETTE} distinct blocks can be stored,
+ * and block Y must lie within {@value #MIN_Y} to {@value #MAX_Y}.
+ * This buffer is not thread-safe.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * BufferingRegionExtent buffer = new BufferingRegionExtent(new CompactBlockBuffer());
+ * }</blockquote>
+ */
+public final class CompactBlockBuffer implements BlockBuffer {
+
+    /** Lowest block Y that fits a section key. */
+    public static final int MIN_Y = -(1 << 23);
+
+    /** Highest block Y that fits a section key. */
+    public static final int MAX_Y = (1 << 23) - 1;
+
+    /** Maximum number of distinct blocks, palette indices are stored as a positive {@code short}. */
+    public static final int MAX_PALETTE = Short.MAX_VALUE;
+
+    private static final int INITIAL_SECTIONS = 64;
+    private static final int INITIAL_SECTION_SLOTS = 32;
+
+    private final List<BaseBlock> palette = new ArrayList<>();
+    private final Map<BaseBlock, Short> paletteIndex = new HashMap<>();
+
+    // Patterns usually hand out the same block instance repeatedly
+    private BaseBlock lastBlock = null;
+    private short lastValue = 0;
+
+    // Open-addressing section table, a null section marks an empty slot
+    private long[] sectionKeys = new long[INITIAL_SECTIONS];
+    private Section[] sections = new Section[INITIAL_SECTIONS];
+    private int sectionCount = 0;
+
+    // Consecutive blocks usually land in the same section
+    private Section lastSection = null;
+    private long lastSectionKey = 0;
+
+    private int size = 0;
+
+    @Override
+    public void put(int x, int y, int z, @NotNull BaseBlock block) {
+        if(y < MIN_Y || y > MAX_Y)
+            throw new IllegalArgumentException("Block Y " + y + " is out of the buffer range " + MIN_Y + " to " + MAX_Y);
+
+        short value = this.paletteValue(block);
+        Section section = this.section(sectionKey(x >> 4, z >> 4), true);
+
+        if(section.put(localKey(x, y, z), value)) this.size++;
+    }
+
+    @Override
+    public @Nullable BaseBlock get(int x, int y, int z) {
+        if(y < MIN_Y || y > MAX_Y) return null;
+
+        Section section = this.section(sectionKey(x >> 4, z >> 4), false);
+        if(section == null) return null;
+
+        short value = section.get(localKey(x, y, z));
+        return value == 0? null : this.palette.get(value - 1);
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        if(y < MIN_Y || y > MAX_Y) return false;
+
+        Section section = this.section(sectionKey(x >> 4, z >> 4), false);
+        return section != null && section.get(localKey(x, y, z)) != 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return The number of distinct blocks stored
+     */
+    public int paletteSize() {
+        return this.palette.size();
+    }
+
+    @Override
+    public void forEach(@NotNull BlockConsumer consumer) {
+        for (int s = 0; s < this.sections.length; s++) {
+            Section section = this.sections[s];
+            if(section == null) continue;
+
+            int baseX = (int) (this.sectionKeys[s] >> 32) << 4;
+            int baseZ = (int) this.sectionKeys[s] << 4;
+
+            for (int i = 0; i < section.values.length; i++) {
+                short value = section.values[i];
+                if(value == 0) continue;
+
+                int key = section.keys[i];
+                consumer.accept(baseX | (key & 15), key >> 8, baseZ | ((key >> 4) & 15), this.palette.get(value - 1));
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The buffer must not be modified while iterating.</p>
+     */
+    @Override
+    @Contract("-> new")
+    public @NotNull Iterator<BlockVector3> positions() {
+        return new PositionIterator();
+    }
+
+    /**
+     * Resolve the stored value of a block, its palette index plus one.
+     */
+    private short paletteValue(@NotNull BaseBlock block) {
+        if(block == this.lastBlock) return this.lastValue;
+
+        Short value = this.paletteIndex.get(block);
+
+        if(value == null) {
+            if(this.palette.size() >= MAX_PALETTE)
+                throw new IllegalStateException("Block palette is full, at most " + MAX_PALETTE + " distinct blocks can be buffered");
+
+            this.palette.add(block);
+            value = (short) this.palette.size();
+            this.paletteIndex.put(block, value);
+        }
+
+        this.lastBlock = block;
+        this.lastValue = value;
+        return value;
+    }
+
+    private @Nullable Section section(long key, boolean create) {
+        if(this.lastSection != null && this.lastSectionKey == key) return this.lastSection;
+
+        int mask = this.sections.length - 1;
+        int slot = mix(key) & mask;
+
+        while(this.sections[slot] != null) {
+            if(this.sectionKeys[slot] == key) {
+                this.lastSectionKey = key;
+                return this.lastSection = this.sections[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if(!create) return null;
+
+        Section section = new Section();
+        this.sectionKeys[slot] = key;
+        this.sections[slot] = section;
+
+        if(++this.sectionCount * 4 > this.sections.length * 3) this.growSections();
+
+        this.lastSectionKey = key;
+        return this.lastSection = section;
+    }
+
+    private void growSections() {
+        long[] oldKeys = this.sectionKeys;
+        Section[] oldSections = this.sections;
+
+        this.sectionKeys = new long[oldKeys.length * 2];
+        this.sections = new Section[oldSections.length * 2];
+        int mask = this.sections.length - 1;
+
+        for (int i = 0; i < oldSections.length; i++) {
+            if(oldSections[i] == null) continue;
+
+            int slot = mix(oldKeys[i]) & mask;
+            while(this.sections[slot] != null) slot = (slot + 1) & mask;
+
+            this.sectionKeys[slot] = oldKeys[i];
+            this.sections[slot] = oldSections[i];
+        }
+    }
+
+    @Contract(pure = true)
+    private static long sectionKey(int sectionX, int sectionZ) {
+        return ((long) sectionX << 32) | (sectionZ & 0xFFFFFFFFL);
+    }
+
+    @Contract(pure = true)
+    private static int localKey(int x, int y, int z) {
+        return (y << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    @Contract(pure = true)
+    private static int mix(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+    @Contract(pure = true)
+    private static int mix(int key) {
+        int hash = key * 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * One 16×16 column of blocks, an open-addressing table of local keys to palette values.
+     * A value of {@code 0} marks an empty slot.
+     */
+    private static final class Section {
+        private int[] keys = new int[INITIAL_SECTION_SLOTS];
+        private short[] values = new short[INITIAL_SECTION_SLOTS];
+        private int size = 0;
+
+        /**
+         * @return {@code true} if the key is newly added, {@code false} if an existing block is replaced
+         */
+        boolean put(int key, short value) {
+            int mask = this.keys.length - 1;
+            int slot = mix(key) & mask;
+
+            while(this.values[slot] != 0) {
+                if(this.keys[slot] == key) {
+                    this.values[slot] = value;
+                    return false;
+                }
+                slot = (slot + 1) & mask;
+            }
+
+            this.keys[slot] = key;
+            this.values[slot] = value;
+
+            if(++this.size * 4 > this.keys.length * 3) this.grow();
+            return true;
+        }
+
+        short get(int key) {
+            int mask = this.keys.length - 1;
+            int slot = mix(key) & mask;
+
+            while(this.values[slot] != 0) {
+                if(this.keys[slot] == key) return this.values[slot];
+                slot = (slot + 1) & mask;
+            }
+
+            return 0;
+        }
+
+        private void grow() {
+            int[] oldKeys = this.keys;
+            short[] oldValues = this.values;
+
+            this.keys = new int[oldKeys.length * 2];
+            this.values = new short[oldValues.length * 2];
+            int mask = this.keys.length - 1;
+
+            for (int i = 0; i < oldValues.length; i++) {
+                if(oldValues[i] == 0) continue;
+
+                int slot = mix(oldKeys[i]) & mask;
+                while(this.values[slot] != 0) slot = (slot + 1) & mask;
+
+                this.keys[slot] = oldKeys[i];
+                this.values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private final class PositionIterator implements Iterator<BlockVector3> {
+        private int sectionSlot = -1;
+        private int entrySlot = -1;
+        private Section section = null;
+
+        PositionIterator() {
+            this.advance();
+        }
+
+        /** Move to the next occupied entry, leaving {@link #section} {@code null} when exhausted. */
+        private void advance() {
+            while(true) {
+                if(this.section != null) {
+                    while(++this.entrySlot < this.section.values.length)
+                        if(this.section.values[this.entrySlot] != 0) return;
+                }
+
+                do {
+                    if(++this.sectionSlot >= sections.length) {
+                        this.section = null;
+                        return;
+                    }
+                } while(sections[this.sectionSlot] == null);
+
+                this.section = sections[this.sectionSlot];
+                this.entrySlot = -1;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.section != null;
+        }
+
+        @Override
+        public BlockVector3 next() {
+            if(this.section == null) throw new NoSuchElementException();
+
+            long sectionKey = sectionKeys[this.sectionSlot];
+            int key = this.section.keys[this.entrySlot];
+
+            BlockVector3 position = BlockVector3.at(
+                ((int) (sectionKey >> 32) << 4) | (key & 15),
+                key >> 8,
+                ((int) sectionKey << 4) | ((key >> 4) & 15)
+            );
+
+            this.advance();
+            return position;
+        }
+    }
+}
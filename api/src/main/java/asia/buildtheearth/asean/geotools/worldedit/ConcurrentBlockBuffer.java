@@ -0,0 +1,135 @@
+package asia.buildtheearth.asean.geotools.worldedit;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import com.sk89q.worldedit.world.block.BaseBlock;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Thread-safe {@link BlockBuffer} sharded by chunk coordinate.
+ *
+ * <p>Every 16×16 chunk column belongs to one shard, a plain {@link BlockBuffer} guarded by its own lock (lock striping).
+ * Threads placing blocks in different chunks rarely contend, so several geometry writers
+ * can render disjoint features into one buffer at the same time.</p>
+ *
+ * <p>{@link #forEach(BlockConsumer)} locks one shard at a time, while {@link #positions()} does not lock at all
+ * and must only be used once every writer has finished.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * ConcurrentBlockBuffer blocks = new ConcurrentBlockBuffer(64, CompactBlockBuffer::new);
+ * }</blockquote>
+ *
+ * @see ConcurrentBufferingRegionExtent
+ */
+public final class ConcurrentBlockBuffer implements BlockBuffer {
+
+    /** Default number of shards per available processor. */
+    private static final int SHARDS_PER_PROCESSOR = 4;
+
+    private final BlockBuffer[] shards;
+    private final int mask;
+
+    /**
+     * Create a buffer of {@link CompactBlockBuffer} shards, sized to the available processors.
+     */
+    public ConcurrentBlockBuffer() {
+        this(Runtime.getRuntime().availableProcessors() * SHARDS_PER_PROCESSOR, CompactBlockBuffer::new);
+    }
+
+    /**
+     * Create a sharded buffer.
+     *
+     * @param shards Number of shards, rounded up to a power of two
+     * @param backend Factory of each shard's non-thread-safe buffer
+     * @throws IllegalArgumentException If the number of shards is not positive
+     */
+    public ConcurrentBlockBuffer(int shards, @NotNull Supplier<? extends BlockBuffer> backend) {
+        if(shards <= 0) throw new IllegalArgumentException("Number of shards must be positive, got " + shards);
+
+        int size = Integer.highestOneBit(shards);
+        if(size < shards) size <<= 1;
+
+        this.shards = new BlockBuffer[size];
+        this.mask = size - 1;
+
+        for (int i = 0; i < size; i++) this.shards[i] = backend.get();
+    }
+
+    @Override
+    public void put(int x, int y, int z, @NotNull BaseBlock block) {
+        BlockBuffer shard = this.shard(x, z);
+        synchronized (shard) { shard.put(x, y, z, block); }
+    }
+
+    @Override
+    public @Nullable BaseBlock get(int x, int y, int z) {
+        BlockBuffer shard = this.shard(x, z);
+        synchronized (shard) { return shard.get(x, y, z); }
+    }
+
+    @Override
+    public boolean contains(int x, int y, int z) {
+        BlockBuffer shard = this.shard(x, z);
+        synchronized (shard) { return shard.contains(x, y, z); }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (BlockBuffer shard : this.shards) {
+            synchronized (shard) { size += shard.size(); }
+        }
+        return size;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Each shard is locked while its blocks are visited, the consumer must not write back into this buffer.</p>
+     */
+    @Override
+    public void forEach(@NotNull BlockConsumer consumer) {
+        for (BlockBuffer shard : this.shards) {
+            synchronized (shard) { shard.forEach(consumer); }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Not synchronized, every writer must have finished before iterating.</p>
+     */
+    @Override
+    @Contract("-> new")
+    public @NotNull Iterator<BlockVector3> positions() {
+        return new Iterator<>() {
+            private int shard = 0;
+            private Iterator<BlockVector3> current = shards[0].positions();
+
+            @Override
+            public boolean hasNext() {
+                while(!this.current.hasNext()) {
+                    if(++this.shard >= shards.length) return false;
+                    this.current = shards[this.shard].positions();
+                }
+                return true;
+            }
+
+            @Override
+            public BlockVector3 next() {
+                if(!this.hasNext()) throw new NoSuchElementException();
+                return this.current.next();
+            }
+        };
+    }
+
+    private @NotNull BlockBuffer shard(int x, int z) {
+        int hash = (x >> 4) * 0x9E3779B9 + (z >> 4) * 0x85EBCA6B;
+        return this.shards[(hash ^ (hash >>> 16)) & this.mask];
+    }
+}
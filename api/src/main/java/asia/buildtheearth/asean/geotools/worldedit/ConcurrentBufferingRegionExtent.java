@@ -0,0 +1,83 @@
+package asia.buildtheearth.asean.geotools.worldedit;
+
+import com.sk89q.worldedit.math.BlockVector3;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * {@link BufferingRegionExtent} that can be written from several threads at once.
+ *
+ * <p>Blocks are stored in a {@link ConcurrentBlockBuffer} and bounds are tracked with atomic min/max accumulators,
+ * so one extent can be the target of many {@link com.sk89q.worldedit.EditSession edit sessions},
+ * each driven by its own {@link WorldEditGeometryWriter} on its own thread.</p>
+ *
+ * <p>Reading the bounds, region or clipboard is only consistent once every writer has finished.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * ConcurrentBufferingRegionExtent buffer = new ConcurrentBufferingRegionExtent();
+ * // Set it as the extent of every edit session, then render disjoint features in parallel
+ * features.parallelStream().forEach(feature -> render(buffer, feature));
+ * BlockArrayClipboard clipboard = buffer.toClipboard();
+ * }</blockquote>
+ */
+public class ConcurrentBufferingRegionExtent extends BufferingRegionExtent {
+    private static final IntBinaryOperator MIN = Math::min, MAX = Math::max;
+
+    private final AtomicInteger minX = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger minY = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger minZ = new AtomicInteger(Integer.MAX_VALUE);
+    private final AtomicInteger maxX = new AtomicInteger(Integer.MIN_VALUE);
+    private final AtomicInteger maxY = new AtomicInteger(Integer.MIN_VALUE);
+    private final AtomicInteger maxZ = new AtomicInteger(Integer.MIN_VALUE);
+
+    public ConcurrentBufferingRegionExtent(@NotNull ConcurrentBlockBuffer buffer) {
+        super(buffer);
+    }
+
+    public ConcurrentBufferingRegionExtent() {
+        this(new ConcurrentBlockBuffer());
+    }
+
+    @Override
+    public @NotNull ConcurrentBlockBuffer getBlocks() {
+        return (ConcurrentBlockBuffer) super.getBlocks();
+    }
+
+    @Override
+    public @Nullable BlockVector3 getMin() {
+        if(this.isEmpty()) return null;
+        return BlockVector3.at(this.minX.get(), this.minY.get(), this.minZ.get());
+    }
+
+    @Override
+    public @Nullable BlockVector3 getMax() {
+        if(this.isEmpty()) return null;
+        return BlockVector3.at(this.maxX.get(), this.maxY.get(), this.maxZ.get());
+    }
+
+    @Override
+    public void include(int x, int y, int z) {
+        accumulate(this.minX, x, MIN);
+        accumulate(this.minY, y, MIN);
+        accumulate(this.minZ, z, MIN);
+        accumulate(this.maxX, x, MAX);
+        accumulate(this.maxY, y, MAX);
+        accumulate(this.maxZ, z, MAX);
+    }
+
+    private boolean isEmpty() {
+        return this.minX.get() > this.maxX.get();
+    }
+
+    /**
+     * Accumulate a bound, skipping the atomic update when the value is already within it.
+     */
+    private static void accumulate(@NotNull AtomicInteger bound, int value, @NotNull IntBinaryOperator operator) {
+        int current = bound.get();
+        if(operator.applyAsInt(current, value) != current) bound.accumulateAndGet(value, operator);
+    }
+}
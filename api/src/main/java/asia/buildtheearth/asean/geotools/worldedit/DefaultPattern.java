@@ -24,4 +24,12 @@ public class DefaultPattern extends AbstractPattern {
         BlockType type = Objects.requireNonNull(holder.get());
         return type.getDefaultState().applyBlock(position);
     }
+
+    /**
+     * @return The identifier of the placed block type
+     */
+    @Override
+    public String toString() {
+        return Objects.requireNonNull(holder.get()).id();
+    }
 }
@@ -1,5 +1,7 @@
 package asia.buildtheearth.asean.geotools.worldedit;
 
+import asia.buildtheearth.asean.geotools.jfr.BlocksWrittenEvent;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.MaxChangedBlocksException;
 import com.sk89q.worldedit.function.pattern.Pattern;
@@ -42,8 +44,7 @@ public class WorldEditGeometryWriter extends AbstractGeometryWriter {
                                    @NotNull Pattern fallback) {
         super(patternMap, fallback);
         this.editSession = editSession;
-        this.transformer = new GeometryCoordinateSequenceTransformer();
-        this.transformer.setMathTransform(projection);
+        this.transformer = PackedSequenceTransformer.create(projection);
     }
 
     /**
@@ -86,9 +87,18 @@ public class WorldEditGeometryWriter extends AbstractGeometryWriter {
     }
 
     public int writeGeometry(@NotNull Geometry geometry) throws TransformException, MaxChangedBlocksException {
+        BlocksWrittenEvent event = new BlocksWrittenEvent();
+        event.begin();
+
         Geometry transformed = (this.transformer != null)? this.transformer.transform(geometry) : geometry;
+        int blocks = this.writeGeometryInternal(transformed, null);
+
+        if(event.shouldCommit()) {
+            event.blocks = blocks;
+            event.commit();
+        }
 
-        return this.writeGeometryInternal(transformed, null);
+        return blocks;
     }
 
     protected int writePoint(@NotNull Point point, Pattern pattern) throws MaxChangedBlocksException {
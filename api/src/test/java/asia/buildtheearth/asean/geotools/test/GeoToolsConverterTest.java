@@ -3,6 +3,11 @@ package asia.buildtheearth.asean.geotools.test;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.function.Supplier;
 
 /**
@@ -72,4 +77,115 @@ public class GeoToolsConverterTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Small inline documents with known identifiers and coordinates,
+     * for tests asserting exact features rather than a whole {@link KML.Test} resource.
+     */
+    public enum Document implements TestResource {
+        /** Placemarks with extended data, styles, a polygon with a hole and a multi-geometry. */
+        STRUCTURED_KML("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <kml xmlns="http://www.opengis.net/kml/2.2">
+              <Document>
+                <name>Document name is not a placemark</name>
+                <Folder>
+                  <Placemark id="point">
+                    <name>A</name>
+                    <description><![CDATA[<b>bold</b>]]></description>
+                    <ExtendedData>
+                      <Data name="rank"><value>3</value></Data>
+                      <SchemaData schemaUrl="#schema"><SimpleData name="kind">shrine</SimpleData></SchemaData>
+                    </ExtendedData>
+                    <Point><coordinates>100.5,13.75,2</coordinates></Point>
+                  </Placemark>
+                </Folder>
+                <Placemark id="polygon">
+                  <Style><LineStyle><width>2</width></LineStyle></Style>
+                  <Polygon>
+                    <extrude>1</extrude>
+                    <outerBoundaryIs><LinearRing><coordinates>
+                      0,0 10,0 10,10
+                      0,10 0,0
+                    </coordinates></LinearRing></outerBoundaryIs>
+                    <innerBoundaryIs><LinearRing><coordinates>2,2 4,2 4,4 2,2</coordinates></LinearRing></innerBoundaryIs>
+                  </Polygon>
+                </Placemark>
+                <Placemark id="lines">
+                  <MultiGeometry>
+                    <LineString><coordinates>0,0,1 1,1,1</coordinates></LineString>
+                    <LineString><coordinates>2,2,1 3,3,1</coordinates></LineString>
+                  </MultiGeometry>
+                </Placemark>
+              </Document>
+            </kml>
+            """),
+        /** A named point with elevation and a two-vertex line. */
+        BANGKOK_KML("""
+            <kml xmlns="http://www.opengis.net/kml/2.2"><Document>
+              <Placemark id="bangkok"><name>Bangkok</name><Point><coordinates>100.5,13.75,2</coordinates></Point></Placemark>
+              <Placemark id="crossing"><LineString><coordinates>99,13,1 101,14,1</coordinates></LineString></Placemark>
+            </Document></kml>
+            """),
+        /** Two-dimensional cities, a line between them and a placemark without geometry. */
+        CITIES_KML("""
+            <kml xmlns="http://www.opengis.net/kml/2.2"><Document>
+              <Placemark id="bangkok"><name>Bangkok</name><Point><coordinates>100.5,13.75</coordinates></Point></Placemark>
+              <Placemark id="hanoi"><name>Hanoi</name><Point><coordinates>105.85,21.03</coordinates></Point></Placemark>
+              <Placemark id="crossing"><LineString><coordinates>99,13 101,14</coordinates></LineString></Placemark>
+              <Placemark id="empty"><name>No geometry</name></Placemark>
+            </Document></kml>
+            """),
+        /** Placemarks behind a comment, CDATA, a folder and a quoted angle bracket. */
+        SCANNED_KML("""
+            <?xml version="1.0" encoding="UTF-8"?>
+            <kml xmlns="http://www.opengis.net/kml/2.2"><Document>
+              <!-- <Placemark id="comment"/> -->
+              <Placemark id="bangkok"><name>กรุงเทพ</name><Point><coordinates>100.5,13.75</coordinates></Point></Placemark>
+              <Folder>
+                <Placemark id="hanoi"><description><![CDATA[</Placemark>]]></description><Point><coordinates>105.85,21.03</coordinates></Point></Placemark>
+              </Folder>
+              <Placemark id="empty" name="a > b"><name>No geometry</name></Placemark>
+              <Placemark id="manila"><Point><coordinates>120.98,14.6</coordinates></Point></Placemark>
+            </Document></kml>
+            """),
+        /** Named cities with elevation and a two-vertex line between them. */
+        CITIES_GEOJSON("""
+            {"type":"FeatureCollection","features":[
+              {"type":"Feature","id":"bangkok","properties":{"name":"Bangkok"},"geometry":{"type":"Point","coordinates":[100.5,13.75,2]}},
+              {"type":"Feature","id":"hanoi","properties":{"name":"Hanoi"},"geometry":{"type":"Point","coordinates":[105.85,21.03,2]}},
+              {"type":"Feature","id":"crossing","properties":{"name":"Crossing"},"geometry":{"type":"LineString","coordinates":[[99,13,1],[101,14,1]]}}
+            ]}
+            """);
+
+        private final String text;
+
+        @Contract(pure = true)
+        Document(@NotNull String text) {
+            this.text = text;
+        }
+
+        /**
+         * @return The document content
+         */
+        public @NotNull String text() {
+            return this.text;
+        }
+
+        public byte[] get() {
+            return this.text.getBytes(StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Write this document to a file.
+         *
+         * @param directory The directory to write to
+         * @param name The file name
+         * @return The written file
+         * @throws IOException If the file cannot be written
+         */
+        public @NotNull File write(@NotNull Path directory, @NotNull String name) throws IOException {
+            return Files.writeString(directory.resolve(name), this.text).toFile();
+        }
+    }
+}
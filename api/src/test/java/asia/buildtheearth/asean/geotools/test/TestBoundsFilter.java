@@ -0,0 +1,72 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.ToGeoJSON;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.projection.DymaxionMapProjection;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Envelope;
+
+import java.awt.geom.Point2D;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Bounds Filter Test")
+public class TestBoundsFilter {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Readers drop features out of bounds")
+    public void readers() throws Exception {
+        File file = Document.CITIES_KML.write(directory, "readers.kml");
+        Envelope bounds = new Envelope(100, 101, 13, 14);
+
+        for (KMLParser parser : KMLParser.values()) {
+            List<String> identifiers = new ArrayList<>();
+
+            try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = parser.open(file, KML.Placemark, bounds)) {
+                while(reader.hasNext()) identifiers.add(reader.next().getID());
+            }
+
+            Assertions.assertEquals(List.of("bangkok", "crossing"), identifiers, parser.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Block bounds are inverse projected to geographic bounds")
+    public void blockBounds() throws Exception {
+        File file = Document.CITIES_KML.write(directory, "blocks.kml");
+        Path output = directory.resolve("blocks.geojson");
+
+        DymaxionMapProjection projection = MinecraftProjection.getBTE();
+        Point2D block = projection.transform(new Point2D.Double(100.5, 13.75), null);
+
+        Envelope blocks = new Envelope(block.getX() - 64, block.getX() + 64, block.getY() - 64, block.getY() + 64);
+
+        ToGeoJSON converter = ToGeoJSON.fromKML(file);
+        converter.setKMLParser(KMLParser.PULL);
+        converter.setBounds(blocks, projection);
+        converter.convert(output);
+
+        List<String> identifiers = new ArrayList<>();
+        try(GeoJSONStreamReader reader = new GeoJSONStreamReader(output.toFile())) {
+            while(reader.hasNext()) identifiers.add(reader.next().id());
+        }
+
+        // Bounds are tested against envelopes, the crossing line envelope covers Bangkok
+        Assertions.assertEquals(List.of("bangkok", "crossing"), identifiers);
+    }
+}
@@ -0,0 +1,97 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@DisplayName("Compression Test")
+public class TestCompression {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Detects compression from the file extension")
+    public void detect() {
+        Assertions.assertEquals(Compression.GZIP, Compression.of(Path.of("data.geojson.gz")));
+        Assertions.assertEquals(Compression.ZIP, Compression.of(Path.of("data.KMZ")));
+        Assertions.assertEquals(Compression.NONE, Compression.of(Path.of("data.kml")));
+        Assertions.assertEquals("data.geojson", Compression.baseName("data.geojson.gz"));
+        Assertions.assertEquals("data.kmz", Compression.baseName("data.kmz"));
+    }
+
+    @Test
+    @DisplayName("Written files are read back from their content")
+    public void roundtrip() throws IOException {
+        for (Compression compression : Compression.values()) {
+            Path file = directory.resolve("roundtrip." + compression);
+
+            try(OutputStream output = compression.openOutput(file, "doc.kml")) {
+                output.write(Document.BANGKOK_KML.get());
+            }
+
+            try(InputStream input = Compression.openInput(file.toFile())) {
+                Assertions.assertEquals(Document.BANGKOK_KML.text(), new String(input.readAllBytes(), StandardCharsets.UTF_8), compression.name());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Readers stream KMZ and gzip sources")
+    public void readers() throws IOException {
+        // KMZ with a leading non-data entry
+        Path kmz = directory.resolve("source.kmz");
+        try(ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(kmz))) {
+            zip.putNextEntry(new ZipEntry("files/icon.png"));
+            zip.write(new byte[] { 1, 2, 3 });
+            zip.putNextEntry(new ZipEntry("doc.kml"));
+            zip.write(Document.BANGKOK_KML.get());
+        }
+
+        for (KMLParser parser : KMLParser.values()) {
+            int count = 0;
+            try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = parser.open(kmz.toFile(), KML.Placemark)) {
+                while(reader.hasNext()) {
+                    reader.next();
+                    count++;
+                }
+            }
+            Assertions.assertEquals(2, count, parser.name());
+        }
+
+        Path geojson = directory.resolve("source.geojson.gz");
+        try(OutputStream output = Compression.GZIP.openOutput(geojson, "")) {
+            output.write("{ \"type\": \"Point\", \"coordinates\": [1, 2] }".getBytes(StandardCharsets.UTF_8));
+        }
+
+        try(GeoJSONStreamReader reader = new GeoJSONStreamReader(geojson.toFile())) {
+            Assertions.assertEquals(2, reader.next().geometry().getCoordinate().getY());
+        }
+
+        Assertions.assertThrows(IOException.class, () -> {
+            Path empty = directory.resolve("empty.zip");
+            try(ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(empty))) {
+                zip.putNextEntry(new ZipEntry("readme.txt"));
+            }
+            Compression.openInput(empty.toFile()).close();
+        });
+    }
+}
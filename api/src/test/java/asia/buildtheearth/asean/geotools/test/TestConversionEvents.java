@@ -0,0 +1,146 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
+import asia.buildtheearth.asean.geotools.SchematicExport;
+import asia.buildtheearth.asean.geotools.ToBlueMapMarker;
+import asia.buildtheearth.asean.geotools.ToGeoJSON;
+import asia.buildtheearth.asean.geotools.jfr.BlocksWrittenEvent;
+import asia.buildtheearth.asean.geotools.jfr.FeatureParsedEvent;
+import asia.buildtheearth.asean.geotools.jfr.FeatureWrittenEvent;
+import asia.buildtheearth.asean.geotools.jfr.GeoToolsEvents;
+import asia.buildtheearth.asean.geotools.jfr.GeometryModifiedEvent;
+import asia.buildtheearth.asean.geotools.jfr.GeometryProjectedEvent;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+@DisplayName("Conversion Events Test")
+public class TestConversionEvents {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Bundled template is a valid recording configuration")
+    public void template() throws Exception {
+        Configuration configuration = GeoToolsEvents.configuration();
+
+        Assertions.assertEquals("true", configuration.getSettings().get("asia.buildtheearth.geotools.FeatureParsed#enabled"));
+        Assertions.assertEquals("0 ms", configuration.getSettings().get("asia.buildtheearth.geotools.BlocksWritten#threshold"));
+    }
+
+    @Test
+    @DisplayName("Every stage of a conversion is recorded")
+    public void recorded() throws Exception {
+        File source = Document.BANGKOK_KML.write(directory, "recorded.kml");
+        Path recorded = directory.resolve("recorded.jfr");
+
+        try(Recording recording = new Recording(GeoToolsEvents.configuration())) {
+            recording.enable(FeatureParsedEvent.class).withoutThreshold();
+            recording.enable(GeometryModifiedEvent.class).withoutThreshold();
+            recording.enable(FeatureWrittenEvent.class).withoutThreshold();
+            recording.start();
+
+            GeoToolsConverter converter = ToGeoJSON.fromKML(source);
+            converter.setKMLParser(KMLParser.PULL).normalizeZ(8);
+            converter.convert(directory.resolve("recorded.geojson"));
+
+            recording.stop();
+            recording.dump(recorded);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recorded);
+
+        Assertions.assertEquals(List.of("bangkok", "crossing"), ids(events, "FeatureParsed"));
+        Assertions.assertEquals(List.of("bangkok", "crossing"), ids(events, "FeatureWritten"));
+        Assertions.assertEquals(List.of("bangkok", "crossing"), ids(events, "GeometryModified"));
+        Assertions.assertEquals(3, events.stream()
+            .filter(event -> event.getEventType().getName().endsWith("GeometryModified"))
+            .mapToInt(event -> event.getInt("vertices"))
+            .sum());
+    }
+
+    @Test
+    @DisplayName("Projected BlueMap markers carry their feature identifier")
+    public void recordedMarkers() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "markers.geojson");
+        Path recorded = directory.resolve("markers.jfr");
+
+        try(Recording recording = new Recording(GeoToolsEvents.configuration())) {
+            recording.enable(GeometryProjectedEvent.class).withoutThreshold();
+            recording.enable(FeatureWrittenEvent.class).withoutThreshold();
+            recording.start();
+
+            ToBlueMapMarker.fromGeoJSON(source).setProjection(MinecraftProjection.getASEAN()).convert(directory.resolve("markers.json"));
+
+            recording.stop();
+            recording.dump(recorded);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recorded);
+
+        // Identifiers, not the "name" property labelling the markers
+        Assertions.assertEquals(List.of("bangkok", "hanoi", "crossing"), ids(events, "GeometryProjected"));
+        Assertions.assertEquals(List.of("bangkok", "hanoi", "crossing"), ids(events, "FeatureWritten"));
+    }
+
+    @Test
+    @DisplayName("Projected schematic geometries and written tiles are recorded")
+    public void recordedBlocks() throws Exception {
+        File source = Files.writeString(directory.resolve("blocks.geojson"), """
+            {"type":"FeatureCollection","features":[
+              {"type":"Feature","id":"square","properties":{"name":"Square"},"geometry":{"type":"Polygon","coordinates":[
+                [[100.5,13.75,5],[100.5004,13.75,5],[100.5004,13.7503,5],[100.5,13.7503,5],[100.5,13.75,5]]
+              ]}}
+            ]}
+            """).toFile();
+        Path recorded = directory.resolve("blocks.jfr");
+        List<Path> tiles;
+
+        try(Recording recording = new Recording(GeoToolsEvents.configuration())) {
+            recording.enable(GeometryProjectedEvent.class).withoutThreshold();
+            recording.enable(BlocksWrittenEvent.class).withoutThreshold();
+            recording.start();
+
+            tiles = SchematicExport.fromGeoJSON(source).setTileSize(16).export(directory.resolve("blocks.schem"));
+
+            recording.stop();
+            recording.dump(recorded);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recorded);
+
+        // A tile holds blocks of any number of features, it is identified by its path instead
+        Assertions.assertEquals(List.of("square"), ids(events, "GeometryProjected"));
+        Assertions.assertEquals(tiles.stream().map(Path::toString).sorted().toList(), events.stream()
+            .filter(event -> event.getEventType().getName().endsWith("BlocksWritten"))
+            .map(event -> event.getString("path"))
+            .sorted()
+            .toList());
+        Assertions.assertTrue(events.stream()
+            .filter(event -> event.getEventType().getName().endsWith("BlocksWritten"))
+            .allMatch(event -> event.getLong("blocks") > 0 && event.getLong("bytes") > 0));
+    }
+
+    private static List<String> ids(List<RecordedEvent> events, String name) {
+        return events.stream()
+            .filter(event -> event.getEventType().getName().endsWith(name))
+            .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+            .map(event -> event.getString("featureId"))
+            .toList();
+    }
+}
@@ -0,0 +1,113 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.ConversionListener;
+import asia.buildtheearth.asean.geotools.ConversionManifest;
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
+import asia.buildtheearth.asean.geotools.ToGeoJSON;
+import asia.buildtheearth.asean.geotools.ToKML;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@DisplayName("Conversion Manifest Test")
+public class TestConversionManifest {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Unchanged sources and settings are skipped")
+    public void skipUnchanged() throws Exception {
+        File source = Document.BANGKOK_KML.write(directory, "skip.kml");
+        Path output = directory.resolve("skip.geojson");
+        Path file = directory.resolve("skip.manifest");
+
+        ConversionManifest manifest = ConversionManifest.load(file);
+        Assertions.assertTrue(converter(source, 4, false).convert(output, manifest));
+        Assertions.assertFalse(converter(source, 4, false).convert(output, manifest));
+        manifest.save();
+
+        // Reloaded from disk, touched without any content change
+        Assertions.assertTrue(source.setLastModified(source.lastModified() + 10_000));
+        manifest = ConversionManifest.load(file);
+        Assertions.assertEquals(1, manifest.size());
+        Assertions.assertFalse(converter(source, 4, false).convert(output, manifest));
+    }
+
+    @Test
+    @DisplayName("Changed sources, settings and missing outputs are converted again")
+    public void convertChanged() throws Exception {
+        File source = Document.BANGKOK_KML.write(directory, "changed.kml");
+        Path output = directory.resolve("changed.geojson");
+        ConversionManifest manifest = ConversionManifest.load(directory.resolve("changed.manifest"));
+
+        Assertions.assertTrue(ToGeoJSON.fromKML(source).convert(output, manifest));
+
+        // Settings: precision and Z mode
+        Assertions.assertTrue(converter(source, 2, false).convert(output, manifest));
+        Assertions.assertTrue(converter(source, 2, true).convert(output, manifest));
+        Assertions.assertFalse(converter(source, 2, true).convert(output, manifest));
+
+        // Same size, different content
+        long modified = source.lastModified();
+        Files.writeString(source.toPath(), Document.BANGKOK_KML.text().replace("13.75", "13.76"));
+        Assertions.assertTrue(source.setLastModified(modified + 10_000));
+        Assertions.assertTrue(converter(source, 2, true).convert(output, manifest));
+
+        Files.delete(output);
+        Assertions.assertTrue(converter(source, 2, true).convert(output, manifest));
+    }
+
+    @Test
+    @DisplayName("Sources changed during a conversion are converted again")
+    public void changedWhileConverting() throws Exception {
+        File source = Document.BANGKOK_KML.write(directory, "converting.kml");
+        Path output = directory.resolve("converting.geojson");
+        ConversionManifest manifest = ConversionManifest.load(directory.resolve("converting.manifest"));
+
+        GeoToolsConverter converter = ToGeoJSON.fromKML(source).addListener(new ConversionListener() {
+            @Override
+            public void conversionStarted(@NotNull GeoToolsConverter converter, @NotNull Path output) {
+                try {
+                    long modified = source.lastModified();
+                    Files.writeString(source.toPath(), Document.BANGKOK_KML.text().replace("13.75", "13.76"));
+                    Assertions.assertTrue(source.setLastModified(modified + 10_000));
+                }
+                catch (IOException ex) { Assertions.fail(ex); }
+            }
+        });
+
+        Assertions.assertTrue(converter.convert(output, manifest));
+        Assertions.assertTrue(ToGeoJSON.fromKML(source).convert(output, manifest));
+        Assertions.assertFalse(ToGeoJSON.fromKML(source).convert(output, manifest));
+    }
+
+    @Test
+    @DisplayName("Settings describe the converter and its options")
+    public void settings() throws Exception {
+        File source = directory.resolve("settings.kml").toFile();
+
+        String settings = ToKML.identity(source).getSettings();
+
+        GeoToolsConverter parallel = ToKML.identity(source).parallel(4);
+        Assertions.assertEquals(settings, parallel.getSettings());
+        Assertions.assertNotEquals(settings, ToKML.identity(source).setIndentSize(4).getSettings());
+        Assertions.assertNotEquals(settings, ToKML.fromGeoJSON(source).getSettings());
+    }
+
+    private static GeoToolsConverter converter(File source, int precision, boolean dropZ) {
+        GeoToolsConverter converter = ToGeoJSON.fromKML(source);
+        converter.setPrecision(precision);
+
+        if(dropZ) converter.dropZ();
+        return converter;
+    }
+}
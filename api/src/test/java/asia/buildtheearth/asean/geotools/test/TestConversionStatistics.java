@@ -0,0 +1,79 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.ConversionListener;
+import asia.buildtheearth.asean.geotools.ConversionStatistics;
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
+import asia.buildtheearth.asean.geotools.ToGeoJSON;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Envelope;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Conversion Statistics Test")
+public class TestConversionStatistics {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Features, vertices and bytes are counted")
+    public void counters() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "counters.geojson");
+        Path output = directory.resolve("counters.out.geojson");
+
+        GeoToolsConverter converter = ToGeoJSON.identity(source).normalizeZ(8);
+        converter.setBounds(new Envelope(100, 101, 13, 14));
+        converter.convert(output);
+
+        ConversionStatistics statistics = converter.getStatistics();
+
+        Assertions.assertEquals(2, statistics.getFeaturesIn());
+        Assertions.assertEquals(2, statistics.getFeaturesOut());
+        Assertions.assertEquals(1, statistics.getFeaturesSkipped());
+        Assertions.assertEquals(3, statistics.getVertices());
+        Assertions.assertEquals(0, statistics.getProjectionFailures());
+        Assertions.assertEquals(Files.size(source.toPath()), statistics.getBytesRead());
+        Assertions.assertEquals(Files.size(output), statistics.getBytesWritten());
+        Assertions.assertTrue(statistics.toJson().startsWith("{\"featuresIn\":2,"));
+    }
+
+    @Test
+    @DisplayName("Listeners are notified of each conversion")
+    public void listeners() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "listeners.geojson");
+        List<String> events = new ArrayList<>();
+
+        GeoToolsConverter converter = ToGeoJSON.identity(source).addListener(new ConversionListener() {
+            @Override
+            public void conversionStarted(@NotNull GeoToolsConverter converter, @NotNull Path output) {
+                events.add("started");
+            }
+
+            @Override
+            public void conversionFinished(@NotNull GeoToolsConverter converter, @NotNull Path output,
+                                           @NotNull ConversionStatistics statistics) {
+                events.add("finished " + statistics.getFeaturesOut());
+            }
+
+            @Override
+            public void conversionFailed(@NotNull GeoToolsConverter converter, @NotNull Path output,
+                                         @NotNull ConversionStatistics statistics, @NotNull Exception failure) {
+                events.add("failed");
+            }
+        });
+
+        converter.convert(directory.resolve("listeners.out.geojson"));
+        Assertions.assertThrows(Exception.class, () -> converter.convert(directory.resolve("missing").resolve("out.geojson")));
+
+        Assertions.assertEquals(List.of("started", "finished 3", "started", "failed"), events);
+    }
+}
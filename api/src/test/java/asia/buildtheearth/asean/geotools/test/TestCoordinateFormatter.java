@@ -0,0 +1,109 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONFeature;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamWriter;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+@DisplayName("Coordinate Formatter Test")
+public class TestCoordinateFormatter {
+
+    @Test
+    @DisplayName("Fixed precision rounds and strips trailing zeros")
+    public void fixed() {
+        CoordinateFormatter formatter = CoordinateFormatter.fixed(6);
+
+        Assertions.assertEquals("100.123457", formatter.format(100.12345678));
+        Assertions.assertEquals("13.75", formatter.format(13.75));
+        Assertions.assertEquals("100", formatter.format(100.0));
+        Assertions.assertEquals("0.000001", formatter.format(0.0000012));
+        Assertions.assertEquals("-1.5", formatter.format(-1.5));
+        Assertions.assertEquals("0", formatter.format(-0.0000001));
+        Assertions.assertEquals("0.05", CoordinateFormatter.fixed(2).format(0.049));
+        Assertions.assertEquals("3", CoordinateFormatter.fixed(0).format(2.5));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> CoordinateFormatter.fixed(-1));
+    }
+
+    @Test
+    @DisplayName("Fixed precision matches decimal rounding of the same value")
+    public void fixedRandom() {
+        CoordinateFormatter formatter = CoordinateFormatter.fixed(6);
+        Random random = new Random(0);
+
+        for (int i = 0; i < 10_000; i++) {
+            double value = (random.nextDouble() - 0.5) * 360;
+            Assertions.assertEquals(Math.round(value * 1e6) / 1e6, Double.parseDouble(formatter.format(value)), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Shortest representation round-trips")
+    public void shortest() {
+        CoordinateFormatter formatter = CoordinateFormatter.shortest();
+        Random random = new Random(0);
+
+        Assertions.assertEquals("100", formatter.format(100.0));
+        Assertions.assertEquals("13.75", formatter.format(13.75));
+        Assertions.assertEquals("NaN", formatter.format(Double.NaN));
+        Assertions.assertEquals(formatter.format(1e300), CoordinateFormatter.fixed(6).format(1e300));
+
+        for (int i = 0; i < 10_000; i++) {
+            double value = (random.nextDouble() - 0.5) * 360;
+            Assertions.assertEquals(value, Double.parseDouble(formatter.format(value)));
+        }
+
+        char[] buffer = new char[CoordinateFormatter.MAX_LENGTH + 2];
+        int length = formatter.format(-Double.MAX_VALUE, buffer, 2);
+        Assertions.assertEquals(-Double.MAX_VALUE, Double.parseDouble(new String(buffer, 2, length)));
+    }
+
+    @Test
+    @DisplayName("GeoJSON stream writer output is read back")
+    public void geojsonRoundtrip() throws IOException, ParseException {
+        SimpleFeatureTypeBuilder typeBuilder = new SimpleFeatureTypeBuilder();
+        typeBuilder.setName("test");
+        typeBuilder.add("geometry", Geometry.class);
+        typeBuilder.add("name", String.class);
+        typeBuilder.add("rank", Integer.class);
+        SimpleFeatureType type = typeBuilder.buildFeatureType();
+
+        Geometry polygon = new WKTReader().read("POLYGON Z ((100.1234567 13.1 1, 100.2 13.1 2, 100.2 13.2 3, 100.1234567 13.1 1))");
+
+        SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+        builder.set("geometry", polygon);
+        builder.set("name", "A");
+        builder.set("rank", 3);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try(GeoJSONStreamWriter writer = new GeoJSONStreamWriter(output, CoordinateFormatter.fixed(4), false)) {
+            writer.write(builder.buildFeature("test.1"));
+        }
+
+        Assertions.assertTrue(output.toString().contains("[100.1235,13.1,1]"), output.toString());
+
+        try(GeoJSONStreamReader reader = new GeoJSONStreamReader(new ByteArrayInputStream(output.toByteArray()))) {
+            GeoJSONFeature feature = reader.next();
+
+            Assertions.assertEquals("test.1", feature.id());
+            Assertions.assertEquals("A", feature.getName());
+            Assertions.assertEquals(3, ((Number) feature.properties().get("rank")).intValue());
+            Assertions.assertEquals(100.1235, feature.geometry().getCoordinate().getX());
+            Assertions.assertEquals(1, feature.geometry().getCoordinate().getZ());
+            Assertions.assertFalse(reader.hasNext());
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
+import asia.buildtheearth.asean.geotools.ToKML;
+import asia.buildtheearth.asean.geotools.jfr.GeoToolsEvents;
+import asia.buildtheearth.asean.geotools.jfr.GeometryModifiedEvent;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+@DisplayName("Coordinate Modifiers Test")
+public class TestCoordinateModifiers {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Normalized Z is written in place into packed XYZ sequences")
+    public void normalizeInPlace() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "normalize.geojson");
+
+        List<Geometry> geometries = convert(source, "normalize.kml", converter -> converter.normalizeZ(8), true);
+
+        Assertions.assertEquals(3, geometries.size());
+        assertCoordinate(100.5, 13.75, 8, geometries.get(0).getCoordinate());
+        assertCoordinate(105.85, 21.03, 8, geometries.get(1).getCoordinate());
+        assertCoordinate(99, 13, 8, geometries.get(2).getCoordinates()[0]);
+        assertCoordinate(101, 14, 8, geometries.get(2).getCoordinates()[1]);
+    }
+
+    @Test
+    @DisplayName("Z offset is added in place to packed XYZ sequences")
+    public void offsetInPlace() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "offset.geojson");
+
+        List<Geometry> geometries = convert(source, "offset.kml", converter -> converter.setOffsetZ(10), true);
+
+        Assertions.assertEquals(3, geometries.size());
+        assertCoordinate(100.5, 13.75, 12, geometries.get(0).getCoordinate());
+        assertCoordinate(105.85, 21.03, 12, geometries.get(1).getCoordinate());
+        assertCoordinate(99, 13, 11, geometries.get(2).getCoordinates()[0]);
+        assertCoordinate(101, 14, 11, geometries.get(2).getCoordinates()[1]);
+    }
+
+    @Test
+    @DisplayName("2D sequences are copied to hold the normalized Z")
+    public void copyWithoutZ() throws Exception {
+        File source = Files.writeString(directory.resolve("flat.geojson"), """
+            {"type":"FeatureCollection","features":[
+              {"type":"Feature","id":"bangkok","properties":{},"geometry":{"type":"Point","coordinates":[100.5,13.75]}},
+              {"type":"Feature","id":"crossing","properties":{},"geometry":{"type":"LineString","coordinates":[[99,13],[101,14]]}}
+            ]}
+            """).toFile();
+
+        List<Geometry> geometries = convert(source, "flat.kml", converter -> converter.normalizeZ(8), false);
+
+        Assertions.assertEquals(2, geometries.size());
+        assertCoordinate(100.5, 13.75, 8, geometries.get(0).getCoordinate());
+        assertCoordinate(99, 13, 8, geometries.get(1).getCoordinates()[0]);
+        assertCoordinate(101, 14, 8, geometries.get(1).getCoordinates()[1]);
+    }
+
+    /**
+     * Convert a GeoJSON source to KML with a coordinate modifier, streamed through packed sequences.
+     *
+     * @param inPlace Whether every geometry is expected to be modified in place
+     * @return Every geometry of the written KML, in document order
+     */
+    private static List<Geometry> convert(File source, String name,
+                                          Function<ToKML, GeoToolsConverter> modifier,
+                                          boolean inPlace) throws Exception {
+        Path output = directory.resolve(name);
+        Path recorded = directory.resolve(name + ".jfr");
+
+        try(Recording recording = new Recording(GeoToolsEvents.configuration())) {
+            recording.enable(GeometryModifiedEvent.class).withoutThreshold();
+            recording.start();
+
+            modifier.apply(ToKML.fromGeoJSON(source)).convert(output);
+
+            recording.stop();
+            recording.dump(recorded);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recorded).stream()
+            .filter(event -> event.getEventType().getName().endsWith("GeometryModified"))
+            .toList();
+
+        Assertions.assertFalse(events.isEmpty());
+        for (RecordedEvent event : events) Assertions.assertEquals(inPlace, event.getBoolean("inPlace"));
+
+        return read(output);
+    }
+
+    private static List<Geometry> read(Path output) throws IOException {
+        List<Geometry> geometries = new ArrayList<>();
+
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = KMLParser.PULL.open(output.toFile(), KML.Placemark)) {
+            while(reader.hasNext()) geometries.add((Geometry) reader.next().getDefaultGeometry());
+        }
+
+        return geometries;
+    }
+
+    private static void assertCoordinate(double x, double y, double z, Coordinate actual) {
+        Assertions.assertEquals(x, actual.getX(), 1e-9);
+        Assertions.assertEquals(y, actual.getY(), 1e-9);
+        Assertions.assertEquals(z, actual.getZ(), 1e-9);
+    }
+}
@@ -140,4 +140,72 @@ public final class TestFromKML extends AbstractTestFromKML {
             }
         });
     }
+
+    @Test @Order(6)
+    @DisplayName("Streamed KML match the original")
+    public void toStreamingKML() {
+
+        Path streamed = directory.resolve("streamed.kml");
+        ToKML converter = switch (test.type) {
+            case XYZ, XY -> ToKML.fromGeoJSON(output.toFile()).enableStreaming();
+            case Z -> ToKML.fromGeoJSON(output.toFile()).enableStreaming().setOffsetZ(AbstractTestFromKML.randomOffset);
+        };
+
+        Assertions.assertDoesNotThrow(() -> converter.convert(streamed));
+
+        int count = 0;
+        try(KMLFeatureReader reader = new KMLFeatureReader(streamed.toFile(), KML.Placemark)) {
+            while(reader.hasNext()) {
+                SimpleFeature feature = reader.next();
+
+                for(Property props : feature.getValue()) {
+                    if(props == null) continue;
+                    if(props.getValue() instanceof Geometry geo) {
+                        Geometry expected = AbstractTestFromKML.finalGeo.get(feature.getIdentifier().getID());
+                        Assertions.assertNotNull(expected, "Streamed geometry should exist in the buffered output");
+                        Assertions.assertTrue(expected.equalsExact(geo));
+                        count++;
+                    }
+                }
+            }
+        }
+        catch (IOException ex) { Assertions.fail("Failed to read streamed KML output", ex); }
+
+        Assertions.assertEquals(AbstractTestFromKML.finalGeo.size(), count);
+    }
+
+    @Test @Order(7)
+    @DisplayName("Parallel conversion match the sequential output")
+    public void parallelConversion() {
+        Path geojson = directory.resolve("parallel.geojson");
+        Path kml = directory.resolve("parallel.kml");
+
+        GeoToolsConverter toGeoJSON = switch (test.type) {
+            case XYZ, Z -> ToGeoJSON.fromKML(source.toFile());
+            case XY -> ToGeoJSON.fromKML(source.toFile()).dropZ();
+        };
+
+        GeoToolsConverter toKML = switch (test.type) {
+            case XYZ, XY -> ToKML.fromGeoJSON(output.toFile()).enableStreaming();
+            case Z -> ToKML.fromGeoJSON(output.toFile()).enableStreaming().setOffsetZ(AbstractTestFromKML.randomOffset);
+        };
+
+        toGeoJSON.parallel(4);
+        toKML.parallel(4);
+
+        Assertions.assertDoesNotThrow(() -> toGeoJSON.convert(geojson));
+        Assertions.assertDoesNotThrow(() -> toKML.convert(kml));
+
+        Assertions.assertEquals(
+            Assertions.assertDoesNotThrow(() -> Files.readString(output)),
+            Assertions.assertDoesNotThrow(() -> Files.readString(geojson)),
+            "Parallel GeoJSON output should be identical to the sequential output"
+        );
+
+        Assertions.assertEquals(
+            Assertions.assertDoesNotThrow(() -> Files.readString(directory.resolve("streamed.kml"))),
+            Assertions.assertDoesNotThrow(() -> Files.readString(kml)),
+            "Parallel KML output should be identical to the sequential output"
+        );
+    }
 }
@@ -0,0 +1,115 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.ToBlueMapMarker;
+import asia.buildtheearth.asean.geotools.ToGeoJSON;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.data.geojson.GeoJSONReader;
+import org.geotools.data.simple.SimpleFeatureIterator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("Minecraft to WGS84 Conversion Test")
+public class TestFromMinecraft {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("BlueMap markers are converted back to their source coordinates")
+    public void fromBlueMap() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "markers.geojson");
+        Path markers = directory.resolve("markers.json");
+        Path output = directory.resolve("markers.out.geojson");
+
+        ToBlueMapMarker.fromGeoJSON(source).setProjection(MinecraftProjection.getASEAN()).convert(markers);
+        ToGeoJSON.fromBlueMap(markers.toFile()).setProjection(MinecraftProjection.getASEAN()).convert(output);
+
+        // Markers are not ordered within their set
+        List<Geometry> geometries = read(output);
+
+        Assertions.assertEquals(3, geometries.size());
+        Geometry point = geometries.stream()
+            .filter(geometry -> geometry.getNumPoints() == 1 && geometry.getCoordinate().getX() < 103)
+            .findFirst().orElseThrow();
+        Geometry line = geometries.stream().filter(geometry -> geometry.getNumPoints() == 2).findFirst().orElseThrow();
+
+        assertCoordinate(100.5, 13.75, point.getCoordinate());
+        assertCoordinate(99, 13, line.getCoordinates()[0]);
+        assertCoordinate(101, 14, line.getCoordinates()[1]);
+    }
+
+    @Test
+    @DisplayName("Block coordinates are converted back to WGS84 coordinates")
+    public void fromBlocks() throws Exception {
+        double[] projected = new double[4];
+        MinecraftProjection.getBTE().transform(new double[] { 100.5, 13.75, 101, 14 }, 0, projected, 0, 2);
+
+        File source = Files.writeString(directory.resolve("blocks.geojson"), """
+            {"type":"FeatureCollection","features":[
+              {"type":"Feature","id":"road","properties":{"name":"Road"},"geometry":{"type":"LineString","coordinates":[[%s,%s,8],[%s,%s,8]]}}
+            ]}
+            """.formatted(projected[0], projected[1], projected[2], projected[3])).toFile();
+        Path output = directory.resolve("blocks.out.geojson");
+
+        ToGeoJSON.fromBlocks(source).convert(output);
+
+        List<Geometry> geometries = read(output);
+        Assertions.assertEquals(1, geometries.size());
+
+        Coordinate[] coordinates = geometries.getFirst().getCoordinates();
+        Assertions.assertEquals(2, coordinates.length);
+        assertCoordinate(100.5, 13.75, coordinates[0]);
+        assertCoordinate(101, 14, coordinates[1]);
+        Assertions.assertEquals(8, coordinates[1].getZ());
+    }
+
+    @Test
+    @DisplayName("Failed marker conversions leave the previous markers in place")
+    public void failedMarkers() throws Exception {
+        File source = Document.CITIES_GEOJSON.write(directory, "failed.geojson");
+        Path markers = directory.resolve("failed.json");
+
+        ToBlueMapMarker.fromGeoJSON(source).convert(markers);
+        String converted = Files.readString(markers);
+
+        // Truncated inside the last feature
+        String document = Document.CITIES_GEOJSON.text();
+        Files.writeString(source.toPath(), document.substring(0, document.indexOf("{\"type\":\"Feature\",\"id\":\"crossing\"") + 30));
+        Assertions.assertThrows(Exception.class, () -> ToBlueMapMarker.fromGeoJSON(source).convert(markers));
+
+        Assertions.assertEquals(converted, Files.readString(markers));
+        Assertions.assertFalse(Files.exists(directory.resolve("failed.json.part")));
+    }
+
+    /** Written by GeoTools with its default number of decimals. */
+    private static void assertCoordinate(double longitude, double latitude, Coordinate actual) {
+        Assertions.assertEquals(longitude, actual.getX(), 1e-4);
+        Assertions.assertEquals(latitude, actual.getY(), 1e-4);
+    }
+
+    private static List<Geometry> read(Path output) throws Exception {
+        List<Geometry> geometries = new ArrayList<>();
+
+        try(GeoJSONReader reader = new GeoJSONReader(Files.newInputStream(output));
+            SimpleFeatureIterator features = reader.getIterator()) {
+            while(features.hasNext()) {
+                SimpleFeature feature = features.next();
+                geometries.add((Geometry) feature.getDefaultGeometry());
+            }
+        }
+
+        return geometries;
+    }
+}
@@ -0,0 +1,119 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONFeature;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamReader;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("GeoJSON Stream Reader Test")
+public class TestGeoJSONStreamReader {
+
+    private static final String COLLECTION = """
+        {
+          "type": "FeatureCollection",
+          "crs": { "type": "name", "properties": { "name": "EPSG:4326" } },
+          "features": [
+            { "type": "Feature", "id": "point", "properties": { "name": "A", "rank": 3, "tags": ["x", 1.5, null] },
+              "geometry": { "type": "Point", "coordinates": [100.5, 13.75, 2] } },
+            { "geometry": { "coordinates": [[0, 0], [4, 0], [4, 4]], "type": "LineString" },
+              "properties": null, "type": "Feature", "id": 7 },
+            { "type": "Feature", "geometry": { "type": "MultiPolygon", "coordinates": [
+                [[[0, 0], [10, 0], [10, 10], [0, 10], [0, 0]], [[2, 2], [4, 2], [4, 4], [2, 2]]],
+                [[[20, 20, 1], [30, 20, 1], [30, 30, 1], [20, 20, 1]]]
+              ] } },
+            { "type": "Feature", "geometry": { "type": "GeometryCollection", "geometries": [
+                { "type": "MultiPoint", "coordinates": [[1, 2], [3, 4]] },
+                { "type": "MultiLineString", "coordinates": [[[0, 0], [1, 1]], [[2, 2], [3, 3]]] }
+              ] } },
+            { "type": "Feature", "geometry": null, "properties": { "empty": true } }
+          ],
+          "bbox": [0, 0, 100.5, 30]
+        }
+        """;
+
+    @Test
+    @DisplayName("Reads every geometry type of a feature collection")
+    public void featureCollection() throws IOException, ParseException {
+        List<GeoJSONFeature> features = read(COLLECTION);
+        WKTReader wkt = new WKTReader();
+
+        Assertions.assertEquals(5, features.size());
+
+        GeoJSONFeature point = features.getFirst();
+        Assertions.assertEquals("point", point.id());
+        Assertions.assertEquals("A", point.getName());
+        Assertions.assertEquals(3, ((Number) point.properties().get("rank")).intValue());
+        Assertions.assertEquals(List.of("x", 1.5), ((List<?>) point.properties().get("tags")).subList(0, 2));
+        Assertions.assertTrue(point.geometry().equalsExact(wkt.read("POINT Z (100.5 13.75 2)")));
+        Assertions.assertEquals(2, point.geometry().getCoordinate().getZ());
+
+        GeoJSONFeature line = features.get(1);
+        Assertions.assertEquals("7", line.id());
+        Assertions.assertEquals("7", line.getName());
+        Assertions.assertEquals(Map.of(), line.properties());
+        Assertions.assertTrue(line.geometry().equalsExact(wkt.read("LINESTRING (0 0, 4 0, 4 4)")));
+        Assertions.assertTrue(Double.isNaN(line.geometry().getCoordinate().getZ()));
+
+        Geometry polygons = features.get(2).geometry();
+        Assertions.assertNull(features.get(2).id());
+        Assertions.assertTrue(polygons.equalsExact(wkt.read(
+            "MULTIPOLYGON (((0 0, 10 0, 10 10, 0 10, 0 0), (2 2, 4 2, 4 4, 2 2)), ((20 20, 30 20, 30 30, 20 20)))"
+        )));
+        Assertions.assertEquals(1, polygons.getGeometryN(1).getCoordinate().getZ());
+
+        Assertions.assertTrue(features.get(3).geometry().equalsExact(wkt.read(
+            "GEOMETRYCOLLECTION (MULTIPOINT ((1 2), (3 4)), MULTILINESTRING ((0 0, 1 1), (2 2, 3 3)))"
+        )));
+
+        Assertions.assertNull(features.get(4).geometry());
+        Assertions.assertEquals(Boolean.TRUE, features.get(4).properties().get("empty"));
+    }
+
+    @Test
+    @DisplayName("Reads a root feature or geometry as a single feature")
+    public void singleObject() throws IOException, ParseException {
+        List<GeoJSONFeature> feature = read("""
+            { "properties": { "name": "root" }, "geometry": { "coordinates": [[[0, 0], [1, 0], [1, 1], [0, 0]]], "type": "Polygon" }, "type": "Feature" }
+            """);
+        Assertions.assertEquals(1, feature.size());
+        Assertions.assertEquals("root", feature.getFirst().getName());
+        Assertions.assertTrue(feature.getFirst().geometry().equalsExact(new WKTReader().read("POLYGON ((0 0, 1 0, 1 1, 0 0))")));
+
+        List<GeoJSONFeature> geometry = read("{ \"coordinates\": [5, 6], \"type\": \"Point\" }");
+        Assertions.assertEquals(1, geometry.size());
+        Assertions.assertTrue(geometry.getFirst().geometry().equalsExact(new WKTReader().read("POINT (5 6)")));
+
+        Assertions.assertTrue(read("{ \"type\": \"FeatureCollection\", \"features\": [] }").isEmpty());
+    }
+
+    @Test
+    @DisplayName("Malformed input fails with an IOException")
+    public void malformed() {
+        Assertions.assertThrows(IOException.class, () -> read("[]"));
+        Assertions.assertThrows(IOException.class, () -> read("{ \"type\": \"Point\", \"coordinates\": [1] }"));
+        Assertions.assertThrows(IOException.class, () -> read("{ \"type\": \"Curve\", \"coordinates\": [1, 2] }"));
+        Assertions.assertThrows(IOException.class, () -> read("{ \"type\": \"Polygon\", \"coordinates\": [[[0, 0], [1, 0], [1, 1]]] }"));
+        Assertions.assertThrows(IOException.class, () -> read("{ \"type\": \"FeatureCollection\", \"features\": [ 1 ] }"));
+    }
+
+    private static List<GeoJSONFeature> read(String json) throws IOException {
+        List<GeoJSONFeature> features = new ArrayList<>();
+
+        try(GeoJSONStreamReader reader = new GeoJSONStreamReader(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)))) {
+            while(reader.hasNext()) features.add(reader.next());
+        }
+
+        return features;
+    }
+}
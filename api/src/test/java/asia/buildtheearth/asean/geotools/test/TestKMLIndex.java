@@ -0,0 +1,118 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.kml.store.KMLDataStore;
+import asia.buildtheearth.asean.geotools.kml.store.KMLIndex;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.data.Query;
+import org.geotools.api.data.SimpleFeatureSource;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Envelope;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("KML Index Test")
+public class TestKMLIndex {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Records count, bounds and seekable placemarks")
+    public void build() throws IOException {
+        File file = Document.SCANNED_KML.write(directory, "build.kml");
+        KMLIndex index = KMLIndex.build(file, KMLParser.PULL, KML.Placemark);
+
+        Assertions.assertEquals(4, index.getCount());
+        Assertions.assertEquals(new Envelope(100.5, 120.98, 13.75, 21.03), index.getBounds());
+        Assertions.assertNull(index.getEnvelope(2));
+        Assertions.assertTrue(index.isSeekable());
+
+        List<SimpleFeature> features = new ArrayList<>();
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = index.open(file, new Envelope(100, 106, 13, 22))) {
+            while(reader.hasNext()) features.add(reader.next());
+        }
+
+        Assertions.assertEquals(List.of("bangkok", "hanoi"), features.stream().map(SimpleFeature::getID).toList());
+        Assertions.assertEquals("กรุงเทพ", features.getFirst().getAttribute("name"));
+        Assertions.assertEquals("</Placemark>", features.get(1).getAttribute("description"));
+    }
+
+    @Test
+    @DisplayName("Persisted index is reused until the file changes")
+    public void persist() throws IOException {
+        File file = Document.SCANNED_KML.write(directory, "persist.kml");
+        File indexFile = KMLIndex.getIndexFile(file);
+
+        KMLDataStore store = new KMLDataStore(file);
+        store.setParser(KMLParser.PULL);
+        store.setIndexed(true);
+
+        SimpleFeatureSource source = store.getFeatureSource(store.getTypeNames()[0]);
+        Assertions.assertEquals(4, source.getCount(Query.ALL));
+        Assertions.assertEquals(120.98, source.getBounds().getMaxX());
+        Assertions.assertTrue(indexFile.isFile());
+
+        KMLIndex index = KMLIndex.read(indexFile, file, KMLParser.PULL, KML.Placemark);
+        Assertions.assertNotNull(index);
+        Assertions.assertEquals(4, index.getCount());
+        Assertions.assertNotNull(index.getSchema());
+
+        // Stale once the file is rewritten, and never reused with another parser
+        Assertions.assertNull(KMLIndex.read(indexFile, file, KMLParser.XSD, KML.Placemark));
+        Files.writeString(file.toPath(), Document.SCANNED_KML.text().replace("<Placemark id=\"manila\">", "<Placemark id=\"cebu\">"));
+        Assertions.assertTrue(file.setLastModified(file.lastModified() + 2000));
+        Assertions.assertNull(KMLIndex.read(indexFile, file, KMLParser.PULL, KML.Placemark));
+    }
+
+    @Test
+    @DisplayName("CDATA sections ending with part of their terminator are skipped")
+    public void overlappingTerminators() throws IOException {
+        File file = Files.writeString(directory.resolve("overlapping.kml"), """
+            <kml xmlns="http://www.opengis.net/kml/2.2"><Document>
+              <Placemark id="first"><description><![CDATA[items[0]]]></description><Point><coordinates>1,2</coordinates></Point></Placemark>
+              <Placemark id="second"><description><![CDATA[]]]]></description><Point><coordinates>3,4</coordinates></Point></Placemark>
+            </Document></kml>
+            """).toFile();
+        KMLIndex index = KMLIndex.build(file, KMLParser.PULL, KML.Placemark);
+
+        Assertions.assertEquals(2, index.getCount());
+        Assertions.assertTrue(index.isSeekable());
+
+        List<SimpleFeature> features = new ArrayList<>();
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = index.open(file, new Envelope(0, 5, 0, 5))) {
+            while(reader.hasNext()) features.add(reader.next());
+        }
+
+        Assertions.assertEquals(List.of("first", "second"), features.stream().map(SimpleFeature::getID).toList());
+        Assertions.assertEquals("items[0]", features.getFirst().getAttribute("description"));
+        Assertions.assertEquals("]]", features.get(1).getAttribute("description"));
+    }
+
+    @Test
+    @DisplayName("Prefixed documents and the XSD parser are indexed without offsets")
+    public void unseekable() throws IOException {
+        File file = Files.writeString(directory.resolve("prefixed.kml"), """
+            <kml:kml xmlns:kml="http://www.opengis.net/kml/2.2">
+              <kml:Placemark><kml:Point><kml:coordinates>1,2</kml:coordinates></kml:Point></kml:Placemark>
+            </kml:kml>
+            """).toFile();
+        KMLIndex index = KMLIndex.build(file, KMLParser.PULL, KML.Placemark);
+
+        Assertions.assertEquals(1, index.getCount());
+        Assertions.assertFalse(index.isSeekable());
+        Assertions.assertFalse(KMLIndex.build(file, KMLParser.XSD, KML.Placemark).isSeekable());
+    }
+}
@@ -0,0 +1,115 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.kml.store.KMLParallelFeatureReader;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Geometry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@DisplayName("KML Parallel Feature Reader Test")
+public class TestKMLParallelFeatureReader {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Features match the sequential reader in order")
+    public void ordered() throws IOException {
+        // Large enough to be split into several batches
+        File file = write("ordered.kml", document("", 30_000));
+
+        List<SimpleFeature> sequential = read(KMLParser.PULL.open(file, KML.Placemark));
+        List<SimpleFeature> parallel = read(KMLParallelFeatureReader.open(file, KML.Placemark, KMLParser.PULL, null, 4, true));
+
+        Assertions.assertEquals(30_000, parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            Assertions.assertEquals(sequential.get(i).getID(), parallel.get(i).getID());
+            Assertions.assertTrue(((Geometry) sequential.get(i).getDefaultGeometry())
+                .equalsExact((Geometry) parallel.get(i).getDefaultGeometry()));
+        }
+    }
+
+    @Test
+    @DisplayName("Unordered reading returns every feature")
+    public void unordered() throws IOException {
+        File file = write("unordered.kml", document("", 30_000));
+
+        List<String> identifiers = new ArrayList<>();
+        for (SimpleFeature feature : read(KMLParallelFeatureReader.open(file, KML.Placemark, KMLParser.PULL, null, 4, false)))
+            identifiers.add(feature.getID());
+
+        Assertions.assertEquals(30_000, identifiers.size());
+        Assertions.assertEquals(30_000, identifiers.stream().distinct().count());
+    }
+
+    @Test
+    @DisplayName("Root namespace declarations are kept for prefixed placemarks and the XSD parser")
+    public void namespaces() throws IOException {
+        File file = write("prefixed.kml", document("kml:", 100));
+
+        for (KMLParser parser : KMLParser.values()) {
+            List<SimpleFeature> features = read(KMLParallelFeatureReader.open(file, KML.Placemark, parser, null, 2, true));
+
+            Assertions.assertEquals(100, features.size(), parser.name());
+            Assertions.assertEquals("p99", features.getLast().getID(), parser.name());
+        }
+    }
+
+    @Test
+    @DisplayName("Namespaces declared below the root fall back to the sequential reader")
+    public void nestedNamespaces() throws IOException {
+        File file = write("extension.kml", document("", 100)
+            .replace("<Document>", "<Document xmlns:gx=\"http://www.google.com/kml/ext/2.2\">")
+            .replace("</name>", "</name><gx:balloonVisibility>1</gx:balloonVisibility>"));
+
+        List<SimpleFeature> features = read(KMLParallelFeatureReader.open(file, KML.Placemark, KMLParser.PULL, null, 2, true));
+
+        Assertions.assertEquals(100, features.size());
+        Assertions.assertEquals("p99", features.getLast().getID());
+    }
+
+    private static String document(String prefix, int count) {
+        StringBuilder kml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+
+        if(prefix.isEmpty()) kml.append("<kml xmlns=\"http://www.opengis.net/kml/2.2\"><Document>\n");
+        else kml.append("<kml:kml xmlns:kml=\"http://www.opengis.net/kml/2.2\"><kml:Document>\n");
+
+        for (int i = 0; i < count; i++) {
+            kml.append("<").append(prefix).append("Placemark id=\"p").append(i).append("\">")
+               .append("<").append(prefix).append("name>Placemark ").append(i).append("</").append(prefix).append("name>")
+               .append("<").append(prefix).append("Point><").append(prefix).append("coordinates>")
+               .append(100 + i * 1e-4).append(',').append(13 + i * 1e-4)
+               .append("</").append(prefix).append("coordinates></").append(prefix).append("Point>")
+               .append("</").append(prefix).append("Placemark>\n");
+        }
+
+        return kml.append("</").append(prefix).append("Document></").append(prefix).append("kml>\n").toString();
+    }
+
+    private static List<SimpleFeature> read(FeatureReader<SimpleFeatureType, SimpleFeature> reader) throws IOException {
+        List<SimpleFeature> features = new ArrayList<>();
+
+        try(reader) {
+            while(reader.hasNext()) features.add(reader.next());
+        }
+
+        return features;
+    }
+
+    private static File write(String name, String kml) throws IOException {
+        return Files.writeString(directory.resolve(name), kml).toFile();
+    }
+}
@@ -0,0 +1,96 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import asia.buildtheearth.asean.geotools.kml.store.KMLPullFeatureReader;
+import asia.buildtheearth.asean.geotools.test.GeoToolsConverterTest.Document;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Geometry;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@DisplayName("KML Pull Feature Reader Test")
+public class TestKMLPullFeatureReader {
+
+    @TempDir
+    static Path directory;
+
+    @Test
+    @DisplayName("Reads placemark attributes, extended data and geometries")
+    public void readPlacemarks() throws IOException {
+        List<SimpleFeature> features = read(KMLParser.PULL, Document.STRUCTURED_KML.text());
+
+        Assertions.assertEquals(3, features.size());
+
+        SimpleFeature point = features.getFirst();
+        Assertions.assertEquals("point", point.getID());
+        Assertions.assertEquals("A", point.getAttribute("name"));
+        Assertions.assertEquals("<b>bold</b>", point.getAttribute("description"));
+        Assertions.assertEquals(Map.of("rank", "3", "kind", "shrine"), point.getUserData().get(KMLPullFeatureReader.EXTENDED_DATA));
+        Assertions.assertEquals(2, ((Geometry) point.getDefaultGeometry()).getCoordinate().getZ());
+
+        Geometry polygon = (Geometry) features.get(1).getDefaultGeometry();
+        Assertions.assertEquals("Polygon", polygon.getGeometryType());
+        Assertions.assertEquals(100 - 2, polygon.getArea());
+        Assertions.assertTrue(Double.isNaN(polygon.getCoordinate().getZ()));
+
+        Geometry lines = (Geometry) features.get(2).getDefaultGeometry();
+        Assertions.assertEquals("MultiLineString", lines.getGeometryType());
+        Assertions.assertEquals(2, lines.getNumGeometries());
+    }
+
+    @Test
+    @DisplayName("Geometries and identifiers match the XSD parser")
+    public void matchesXSD() throws IOException {
+        List<SimpleFeature> pull = read(KMLParser.PULL, Document.STRUCTURED_KML.text());
+        List<SimpleFeature> xsd = read(KMLParser.XSD, Document.STRUCTURED_KML.text());
+
+        Assertions.assertEquals(xsd.size(), pull.size());
+
+        for (int i = 0; i < xsd.size(); i++) {
+            Geometry expected = (Geometry) xsd.get(i).getDefaultGeometry();
+            Geometry actual = (Geometry) pull.get(i).getDefaultGeometry();
+
+            Assertions.assertEquals(xsd.get(i).getID(), pull.get(i).getID());
+            Assertions.assertTrue(expected.equalsExact(actual), () -> expected + " != " + actual);
+            Assertions.assertEquals(xsd.get(i).getAttribute("name"), pull.get(i).getAttribute("name"));
+        }
+    }
+
+    @Test
+    @DisplayName("Malformed input fails with an IOException")
+    public void malformed() {
+        Assertions.assertThrows(IOException.class, () -> read(KMLParser.PULL,
+            "<kml><Placemark><Point><coordinates>1</coordinates></Point></Placemark></kml>"));
+        Assertions.assertThrows(IOException.class, () -> read(KMLParser.PULL,
+            "<kml><Placemark><LinearRing><coordinates>0,0 1,0 1,1</coordinates></LinearRing></Placemark></kml>"));
+        Assertions.assertThrows(IOException.class, () -> read(KMLParser.PULL, "<kml><Placemark><name>"));
+        Assertions.assertThrows(IOException.class, () -> KMLParser.PULL.open(write(Document.STRUCTURED_KML.text()), KML.Polygon));
+    }
+
+    private static List<SimpleFeature> read(KMLParser parser, String kml) throws IOException {
+        List<SimpleFeature> features = new ArrayList<>();
+
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader = parser.open(write(kml), KML.Placemark)) {
+            while(reader.hasNext()) features.add(reader.next());
+        }
+
+        return features;
+    }
+
+    private static File write(String kml) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "test", ".kml"), kml).toFile();
+    }
+}
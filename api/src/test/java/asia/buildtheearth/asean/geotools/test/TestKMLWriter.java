@@ -0,0 +1,97 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.kml.writer.KMLStreamWriter;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLWriter;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLWriterV22;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+
+@DisplayName("KML Writer Test")
+public class TestKMLWriter {
+
+    /** Number of geometries written per measurement. */
+    private static final int WRITES = 100_000;
+
+    /**
+     * Upper bound of allocated bytes per written geometry.
+     *
+     * <p>Wrapping a geometry costs a feature, its value list and an identifier (well under 512 bytes),
+     * while rebuilding the feature type per geometry costs several kilobytes.</p>
+     */
+    private static final long MAX_BYTES_PER_GEOMETRY = 1024;
+
+    private static final Geometry POINT = new GeometryFactory().createPoint(new Coordinate(100.5, 13.75, 0));
+
+    @Test
+    @DisplayName("Feature type is cached per writer")
+    public void featureTypeIsCached() {
+        KMLWriter writer = new KMLWriterV22();
+
+        Assertions.assertSame(writer.getFeatureType(), writer.getFeatureType());
+        Assertions.assertNotSame(writer.getFeatureType(), new KMLWriterV22().getFeatureType());
+    }
+
+    @Test
+    @DisplayName("Streamed documents honor the dropped namespace")
+    public void streamWithoutNamespace() throws IOException {
+        ByteArrayOutputStream aware = new ByteArrayOutputStream();
+        try(KMLStreamWriter stream = new KMLWriterV22().stream(aware)) {
+            stream.writeGeometry(POINT, new FeatureIdImpl("aware"));
+        }
+
+        KMLWriter writer = new KMLWriterV22();
+        writer.dropNamespace();
+
+        ByteArrayOutputStream dropped = new ByteArrayOutputStream();
+        try(KMLStreamWriter stream = writer.stream(dropped)) {
+            stream.writeGeometry(POINT, new FeatureIdImpl("dropped"));
+        }
+
+        Assertions.assertTrue(aware.toString(StandardCharsets.UTF_8).contains("<kml:Placemark"));
+
+        String document = dropped.toString(StandardCharsets.UTF_8);
+        Assertions.assertTrue(document.contains("<kml><Document><Placemark"), document);
+        Assertions.assertFalse(document.contains("xmlns"), document);
+    }
+
+    @Test
+    @DisplayName("Writing geometry does not rebuild the feature type")
+    public void writeGeometryAllocation() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+            "Thread allocation measurement is not supported");
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(),
+            "Thread allocation measurement is not supported");
+
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        // Warm up class loading and the cached feature type
+        KMLWriter warmup = new KMLWriterV22();
+        for (int i = 0; i < WRITES; i++) warmup.writeGeometry(POINT, new FeatureIdImpl("warmup"));
+
+        KMLWriter writer = new KMLWriterV22();
+        FeatureIdImpl identifier = new FeatureIdImpl("test");
+        long thread = Thread.currentThread().threadId();
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < WRITES; i++) writer.writeGeometry(POINT, identifier);
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        long perGeometry = allocated / WRITES;
+        Assertions.assertTrue(perGeometry < MAX_BYTES_PER_GEOMETRY,
+            "Expected less than " + MAX_BYTES_PER_GEOMETRY + " bytes per written geometry, but allocated " + perGeometry
+        );
+    }
+}
@@ -1,12 +1,20 @@
 package asia.buildtheearth.asean.geotools.test;
 
+import asia.buildtheearth.asean.geotools.projection.ApproximateDymaxionProjection;
+import asia.buildtheearth.asean.geotools.projection.DymaxionMapProjection;
 import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
+import org.geotools.api.referencing.FactoryException;
 import org.geotools.referencing.operation.projection.MapProjection;
 import org.geotools.api.referencing.operation.TransformException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.CoordinateSequence;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.impl.PackedCoordinateSequence;
 
 import java.awt.geom.Point2D;
+import java.util.Random;
 
 
 public class TestProjections {
@@ -60,4 +68,139 @@ public class TestProjections {
             Assertions.assertEquals(z, xz.getY(), .1d);
         }
     }
+
+    @Test
+    void testProjectionRegistry() throws FactoryException {
+        Assertions.assertSame(MinecraftProjection.getBTE(), MinecraftProjection.getBTE());
+        Assertions.assertSame(MinecraftProjection.getASEAN(), MinecraftProjection.getWithOffset(-13379008d, 2727648d));
+        Assertions.assertNotSame(MinecraftProjection.getBTE(), MinecraftProjection.getASEAN());
+        Assertions.assertNotSame(MinecraftProjection.getBTE(), MinecraftProjection.create("bte_conformal_dymaxion", 0, 0));
+    }
+
+    @Test
+    void testBatchTransform() throws TransformException, FactoryException {
+        MapProjection map = MinecraftProjection.getBTE();
+
+        // Packed 2D array through the overridden bulk transform
+        double[] projected = new double[GEOGRAPHIC.length];
+        map.transform(GEOGRAPHIC, 0, projected, 0, GEOGRAPHIC.length / 2);
+
+        for (int i = 0; i < GEOGRAPHIC.length / 2; i++) {
+            Point2D xz = map.transform(new Point2D.Double(GEOGRAPHIC[i * 2], GEOGRAPHIC[i * 2 + 1]), null);
+            Assertions.assertEquals(xz.getX(), projected[i * 2], 1e-6);
+            Assertions.assertEquals(xz.getY(), projected[i * 2 + 1], 1e-6);
+            Assertions.assertEquals(PROJECTED[i * 2], projected[i * 2], .1d);
+            Assertions.assertEquals(PROJECTED[i * 2 + 1], projected[i * 2 + 1], .1d);
+        }
+
+        // Packed 3D sequence retains its Z ordinate
+        int size = GEOGRAPHIC.length / 2;
+        double[] xyz = new double[size * 3];
+        for (int i = 0; i < size; i++) {
+            xyz[i * 3] = GEOGRAPHIC[i * 2];
+            xyz[i * 3 + 1] = GEOGRAPHIC[i * 2 + 1];
+            xyz[i * 3 + 2] = i;
+        }
+
+        CoordinateSequence sequence = new PackedSequenceTransformer()
+            .transform(new PackedCoordinateSequence.Double(xyz, 3, 0), map);
+
+        Assertions.assertInstanceOf(PackedCoordinateSequence.Double.class, sequence);
+        for (int i = 0; i < size; i++) {
+            Assertions.assertEquals(projected[i * 2], sequence.getX(i));
+            Assertions.assertEquals(projected[i * 2 + 1], sequence.getY(i));
+            Assertions.assertEquals(i, sequence.getZ(i));
+        }
+    }
+
+    @Test
+    void testApproximateProjection() throws TransformException, FactoryException {
+        MapProjection exact = MinecraftProjection.getASEAN();
+        ApproximateDymaxionProjection approximate = (ApproximateDymaxionProjection)
+            MinecraftProjection.getApproximate(MinecraftProjection.getASEAN(), MinecraftProjection.getASEANWindow(), 0.05);
+
+        Assertions.assertSame(approximate,
+            MinecraftProjection.getApproximate(MinecraftProjection.getASEAN(), MinecraftProjection.getASEANWindow(), 0.05));
+        Assertions.assertNotEquals(exact, approximate);
+
+        // Dense random vertices within the window, and a few around the world falling back to exact math
+        Random random = new Random(42);
+        Envelope window = approximate.getWindow();
+        int size = 20_000;
+        double[] geographic = new double[(size + GEOGRAPHIC.length / 2) * 2];
+
+        for (int i = 0; i < size; i++) {
+            geographic[i * 2] = window.getMinX() + random.nextDouble() * window.getWidth();
+            geographic[i * 2 + 1] = window.getMinY() + random.nextDouble() * window.getHeight();
+        }
+        System.arraycopy(GEOGRAPHIC, 0, geographic, size * 2, GEOGRAPHIC.length);
+
+        double[] expected = new double[geographic.length];
+        double[] actual = new double[geographic.length];
+        exact.transform(geographic, 0, expected, 0, geographic.length / 2);
+        approximate.transform(geographic, 0, actual, 0, geographic.length / 2);
+
+        for (int i = 0; i < geographic.length / 2; i++) {
+            double error = Math.hypot(actual[i * 2] - expected[i * 2], actual[i * 2 + 1] - expected[i * 2 + 1]);
+            Assertions.assertTrue(error <= approximate.getMaxError(),
+                "Error of " + error + " blocks at " + geographic[i * 2] + ", " + geographic[i * 2 + 1]);
+        }
+
+        for (int i = size; i < geographic.length / 2; i++) {
+            Assertions.assertEquals(expected[i * 2], actual[i * 2]);
+            Assertions.assertEquals(expected[i * 2 + 1], actual[i * 2 + 1]);
+        }
+
+        Assertions.assertTrue(approximate.countInterpolatedCells() > 0);
+    }
+
+    @Test
+    void testBatchInverse() throws TransformException, FactoryException {
+        DymaxionMapProjection map = MinecraftProjection.getASEAN();
+
+        // Dense line across the region, warm-started vertex after vertex, then a jump around the world
+        int size = 10_000;
+        double[] geographic = new double[(size + GEOGRAPHIC.length / 2) * 2];
+
+        for (int i = 0; i < size; i++) {
+            geographic[i * 2] = 95 + 40d * i / size;
+            geographic[i * 2 + 1] = -10 + 35d * i / size;
+        }
+        System.arraycopy(GEOGRAPHIC, 0, geographic, size * 2, GEOGRAPHIC.length);
+
+        int points = geographic.length / 2;
+        double[] projected = new double[geographic.length];
+        map.transform(geographic, 0, projected, 0, points);
+
+        // Interleaved with an elevation ordinate kept untouched
+        double[] xyz = new double[points * 3];
+        for (int i = 0; i < points; i++) {
+            xyz[i * 3] = projected[i * 2];
+            xyz[i * 3 + 1] = projected[i * 2 + 1];
+            xyz[i * 3 + 2] = i;
+        }
+
+        double[] batch = new double[points * 3];
+        map.inverseTransform(xyz, 0, 3, batch, 0, 3, points);
+
+        double[] expected = new double[geographic.length];
+        map.inverse().transform(projected, 0, expected, 0, points);
+
+        for (int i = 0; i < points; i++) {
+            Assertions.assertEquals(expected[i * 2], batch[i * 3], 1e-6);
+            Assertions.assertEquals(expected[i * 2 + 1], batch[i * 3 + 1], 1e-6);
+            Assertions.assertEquals(geographic[i * 2], batch[i * 3], 1e-6);
+            Assertions.assertEquals(geographic[i * 2 + 1], batch[i * 3 + 1], 1e-6);
+        }
+
+        // Packed sequences resolve the batch inverse from the inverse transform
+        CoordinateSequence sequence = new PackedSequenceTransformer()
+            .transform(new PackedCoordinateSequence.Double(xyz, 3, 0), map.inverse());
+
+        for (int i = 0; i < points; i++) {
+            Assertions.assertEquals(batch[i * 3], sequence.getX(i));
+            Assertions.assertEquals(batch[i * 3 + 1], sequence.getY(i));
+            Assertions.assertEquals(i, sequence.getZ(i));
+        }
+    }
 }
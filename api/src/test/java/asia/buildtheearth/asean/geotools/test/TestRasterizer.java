@@ -0,0 +1,113 @@
+package asia.buildtheearth.asean.geotools.test;
+
+import asia.buildtheearth.asean.geotools.raster.ScanlineRasterizer;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.*;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.util.Random;
+
+@DisplayName("Scanline Rasterizer Test")
+public class TestRasterizer {
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    /** Geometries with vertices and edges lying exactly on block centers. */
+    private static final String[] BOUNDARY_CASES = {
+        "POLYGON ((0.5 0.5, 10.5 0.5, 10.5 6.5, 0.5 6.5, 0.5 0.5))",
+        "POLYGON ((0 0, 12 0, 6 9.5, 0 0))",
+        "POLYGON ((2.5 1.5, 7.5 4.5, 2.5 7.5, 4.5 4.5, 2.5 1.5))",
+        "POLYGON ((0 0, 20 0, 20 20, 0 20, 0 0), (5.5 5.5, 14.5 5.5, 14.5 14.5, 5.5 14.5, 5.5 5.5))",
+        "MULTIPOLYGON (((0 0, 4 0, 4 4, 0 4, 0 0)), ((6.5 0.5, 9.5 0.5, 9.5 3.5, 6.5 3.5, 6.5 0.5)))",
+        "LINESTRING (0.5 0.5, 8.5 4.5, 8.5 9.5, 1.5 9.5)",
+        "MULTIPOINT ((3.5 3.5), (4.25 7.5))",
+        "GEOMETRYCOLLECTION (POINT (1.5 1.5), POLYGON ((3 3, 9 3, 6 8, 3 3)))"
+    };
+
+    @Test
+    @DisplayName("Boundary cases match the center-of-block intersects test")
+    public void boundaryCases() throws ParseException {
+        WKTReader reader = new WKTReader(FACTORY);
+
+        for (String wkt : BOUNDARY_CASES)
+            assertSameHits(reader.read(wkt), wkt);
+    }
+
+    @Test
+    @DisplayName("Random polygons with holes match the center-of-block intersects test")
+    public void randomPolygons() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200; i++) {
+            double centerX = random.nextInt(200) - 100 + random.nextDouble();
+            double centerY = random.nextInt(200) - 100 + random.nextDouble();
+            double radius = 5 + random.nextDouble() * 40;
+
+            LinearRing shell = star(random, centerX, centerY, radius, 3 + random.nextInt(40));
+            LinearRing[] holes = random.nextBoolean()
+                ? new LinearRing[] { star(random, centerX, centerY, radius * 0.3, 3 + random.nextInt(10)) }
+                : new LinearRing[0];
+
+            Polygon polygon = FACTORY.createPolygon(shell, holes);
+            assertSameHits(polygon, polygon.toText());
+        }
+    }
+
+    @Test
+    @DisplayName("Clipped rasterization only emits blocks within bounds")
+    public void clipped() {
+        Polygon square = FACTORY.createPolygon(new Coordinate[] {
+            new Coordinate(-50, -50), new Coordinate(50, -50),
+            new Coordinate(50, 50), new Coordinate(-50, 50),
+            new Coordinate(-50, -50)
+        });
+
+        int[] count = { 0 };
+        ScanlineRasterizer.rasterize(square, 0, 0, 9, 4, (z, fromX, toX) -> {
+            Assertions.assertTrue(z >= 0 && z <= 4);
+            Assertions.assertTrue(fromX >= 0 && toX <= 9);
+            count[0] += toX - fromX + 1;
+        });
+
+        Assertions.assertEquals(50, count[0]);
+    }
+
+    private static void assertSameHits(Geometry geometry, String message) {
+        Envelope env = geometry.getEnvelopeInternal();
+        int minX = (int) Math.floor(env.getMinX()) - 1;
+        int minZ = (int) Math.floor(env.getMinY()) - 1;
+        int width = (int) Math.ceil(env.getMaxX()) - minX + 1;
+        int length = (int) Math.ceil(env.getMaxY()) - minZ + 1;
+
+        byte[] actual = ScanlineRasterizer.rasterize(geometry, minX, minZ, width, length);
+        PreparedGeometry prepared = PreparedGeometryFactory.prepare(geometry);
+
+        for (int dz = 0; dz < length; dz++) {
+            for (int dx = 0; dx < width; dx++) {
+                Point center = FACTORY.createPoint(new Coordinate(minX + dx + 0.5, minZ + dz + 0.5));
+                boolean expected = prepared.intersects(center);
+
+                Assertions.assertEquals(expected, actual[dz * width + dx] != 0,
+                    "Block (" + (minX + dx) + ", " + (minZ + dz) + ") mismatch in " + message);
+            }
+        }
+    }
+
+    private static LinearRing star(Random random, double centerX, double centerY, double radius, int vertices) {
+        Coordinate[] ring = new Coordinate[vertices + 1];
+
+        for (int v = 0; v < vertices; v++) {
+            double angle = 2 * Math.PI * v / vertices;
+            double distance = radius * (0.6 + 0.4 * random.nextDouble());
+            ring[v] = new Coordinate(centerX + distance * Math.cos(angle), centerY + distance * Math.sin(angle));
+        }
+        ring[vertices] = ring[0].copy();
+
+        return FACTORY.createLinearRing(ring);
+    }
+}
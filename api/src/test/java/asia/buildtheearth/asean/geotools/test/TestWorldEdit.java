@@ -1,9 +1,17 @@
 package asia.buildtheearth.asean.geotools.test;
 
+import asia.buildtheearth.asean.geotools.ConversionManifest;
+import asia.buildtheearth.asean.geotools.SchematicExport;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLStreamWriter;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLWriterV22;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.projection.PackedSequenceTransformer;
+import asia.buildtheearth.asean.geotools.raster.ScanlineRasterizer;
 import asia.buildtheearth.asean.geotools.test.mocks.MockBukkitPlatform;
 import asia.buildtheearth.asean.geotools.test.mocks.MockWorldEditServer;
 import asia.buildtheearth.asean.geotools.test.utils.TestWorldEditActor;
 import asia.buildtheearth.asean.geotools.worldedit.BufferingRegionExtent;
+import asia.buildtheearth.asean.geotools.worldedit.ConcurrentBufferingRegionExtent;
 import asia.buildtheearth.asean.geotools.worldedit.DefaultPattern;
 import com.sk89q.worldedit.EditSession;
 import com.sk89q.worldedit.WorldEdit;
@@ -21,15 +29,26 @@ import com.sk89q.worldedit.math.BlockVector3;
 import com.sk89q.worldedit.regions.Region;
 import com.sk89q.worldedit.util.eventbus.Subscribe;
 import com.sk89q.worldedit.world.NullWorld;
+import com.sk89q.worldedit.world.block.BaseBlock;
 import com.sk89q.worldedit.world.block.BlockTypes;
+import org.geotools.filter.identity.FeatureIdImpl;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Geometry;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
 import org.mockbukkit.mockbukkit.ServerMock;
 
 import java.util.*;
 import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
@@ -143,6 +162,148 @@ public class TestWorldEdit implements MockWorldEditServer {
         catch (IOException ex) { Assertions.fail("Failed to read schematic", ex); }
     }
 
+    @Test @Order(3)
+    @DisplayName("Export tiled schematic file(s)")
+    public void exportTiledSchematic(@TempDir @NotNull Path tempDir) throws Exception {
+        GeometryFactory factory = new GeometryFactory();
+        Polygon polygon = factory.createPolygon(new Coordinate[] {
+            new Coordinate(100.5000, 13.7500, 5),
+            new Coordinate(100.5004, 13.7500, 5),
+            new Coordinate(100.5004, 13.7503, 5),
+            new Coordinate(100.5000, 13.7503, 5),
+            new Coordinate(100.5000, 13.7500, 5)
+        });
+
+        File kml = tempDir.resolve("source.kml").toFile();
+        try(OutputStream output = new FileOutputStream(kml);
+            KMLStreamWriter writer = new KMLWriterV22().stream(output)) {
+            writer.writeGeometry(polygon, new FeatureIdImpl("square"));
+        }
+
+        // Expected hits of the whole polygon
+        Geometry projected = PackedSequenceTransformer.create(MinecraftProjection.getBTE()).transform(polygon);
+        int[] expected = { 0 };
+        ScanlineRasterizer.rasterize(projected, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            (z, fromX, toX) -> expected[0] += toX - fromX + 1
+        );
+
+        List<Path> tiles = SchematicExport.fromKML(kml).setTileSize(16).export(tempDir.resolve("square.schem"));
+
+        Assertions.assertTrue(tiles.size() > 1, "A 40 blocks wide polygon should span multiple 16 blocks tiles");
+
+        int placed = 0;
+        for (Path tile : tiles) {
+            Assertions.assertTrue(tile.getFileName().toString().matches("square_-?\\d+_-?\\d+\\.schem"));
+
+            try(ClipboardReader reader = TESTING_FORMAT.get().getReader(new FileInputStream(tile.toFile()))) {
+                Clipboard clipboard = reader.read();
+
+                Assertions.assertTrue(clipboard.getDimensions().x() <= 16);
+                Assertions.assertTrue(clipboard.getDimensions().z() <= 16);
+                Assertions.assertEquals(1, clipboard.getDimensions().y());
+
+                for (BlockVector3 position : clipboard.getRegion())
+                    if(clipboard.getBlock(position).getBlockType() == BlockTypes.DIAMOND_BLOCK) placed++;
+            }
+        }
+
+        Assertions.assertEquals(expected[0], placed, "Every rasterized block should be placed in exactly one tile");
+
+        // Recorded tiles not written again are deleted, unrecorded files with a tile name are kept
+        Path recorded = tempDir.resolve("square.schem.tiles");
+        Assertions.assertEquals(tiles.size(), Files.readAllLines(recorded).size());
+
+        Path stale = Files.createFile(tempDir.resolve("square_9998_9998.schem"));
+        Path unrelated = Files.createFile(tempDir.resolve("square_9999_9999.schem"));
+        Files.writeString(recorded, stale.getFileName() + System.lineSeparator(), StandardOpenOption.APPEND);
+
+        // Tiled exports are skipped once recorded in a manifest
+        ConversionManifest manifest = ConversionManifest.load(tempDir.resolve("square.manifest"));
+
+        Assertions.assertTrue(SchematicExport.fromKML(kml).setTileSize(16).convert(tempDir.resolve("square.schem"), manifest));
+        Assertions.assertFalse(Files.exists(stale));
+        Assertions.assertTrue(Files.exists(unrelated));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("square.schem")));
+        Assertions.assertEquals(tiles.size(), Files.readAllLines(recorded).size());
+        Assertions.assertFalse(SchematicExport.fromKML(kml).setTileSize(16).convert(tempDir.resolve("square.schem"), manifest));
+    }
+
+    @Test @Order(4)
+    @DisplayName("Compact block buffer matches the BlockMap buffer")
+    public void compactBuffer() throws WorldEditException {
+        BufferingRegionExtent expected = new BufferingRegionExtent();
+        BufferingRegionExtent compact = BufferingRegionExtent.compact();
+
+        BaseBlock[] blocks = { BlockTypes.DIAMOND_BLOCK.getDefaultState().toBaseBlock(), BlockTypes.AIR.getDefaultState().toBaseBlock() };
+        Random random = new Random(42);
+
+        // Dense enough to overwrite blocks, wide enough to span negative sections
+        for (int i = 0; i < 20000; i++) {
+            int x = random.nextInt(200) - 100, y = random.nextInt(20) - 64, z = random.nextInt(200) - 100;
+            BaseBlock block = blocks[random.nextInt(blocks.length)];
+
+            expected.setBlock(x, y, z, block);
+            compact.setBlock(x, y, z, block);
+        }
+
+        Assertions.assertEquals(expected.getBuffer().size(), compact.getBlocks().size());
+        Assertions.assertEquals(expected.getMin(), compact.getMin());
+        Assertions.assertEquals(expected.getMax(), compact.getMax());
+        Assertions.assertThrows(IllegalStateException.class, compact::getBuffer);
+
+        expected.getBuffer().forEach((position, block) ->
+            Assertions.assertEquals(block, compact.getBlocks().get(position.x(), position.y(), position.z()), "Block at " + position)
+        );
+
+        Set<BlockVector3> positions = new HashSet<>();
+        compact.asRegion().forEach(positions::add);
+        Assertions.assertEquals(expected.getBuffer().keySet(), positions);
+        Assertions.assertFalse(compact.asRegion().contains(BlockVector3.at(0, 100, 0)));
+
+        BlockArrayClipboard clipboard = compact.toClipboard();
+        Assertions.assertEquals(compact.getMin(), clipboard.getOrigin());
+        Assertions.assertEquals(compact.getMax().subtract(compact.getMin()).add(1, 1, 1), clipboard.getDimensions());
+    }
+
+    @Test @Order(5)
+    @DisplayName("Concurrent buffer matches sequential writes")
+    public void concurrentBuffer() throws Exception {
+        BufferingRegionExtent expected = new BufferingRegionExtent();
+        ConcurrentBufferingRegionExtent concurrent = new ConcurrentBufferingRegionExtent();
+        BaseBlock diamond = BlockTypes.DIAMOND_BLOCK.getDefaultState().toBaseBlock();
+
+        int threads = 8, size = 64;
+        for (int t = 0; t < threads; t++)
+            for (int x = 0; x < size; x++)
+                for (int z = 0; z < size; z++)
+                    expected.setBlock(t * 40 + x, t, z - 32, diamond);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                // Neighbouring threads overlap the same chunks
+                writers.add(executor.submit(() -> {
+                    for (int x = 0; x < size; x++)
+                        for (int z = 0; z < size; z++)
+                            concurrent.setBlock(thread * 40 + x, thread, z - 32, diamond);
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) writer.get();
+        }
+        finally { executor.shutdownNow(); }
+
+        Assertions.assertEquals(expected.getBuffer().size(), concurrent.getBlocks().size());
+        Assertions.assertEquals(expected.getMin(), concurrent.getMin());
+        Assertions.assertEquals(expected.getMax(), concurrent.getMax());
+
+        Set<BlockVector3> positions = new HashSet<>();
+        concurrent.asRegion().forEach(positions::add);
+        Assertions.assertEquals(expected.getBuffer().keySet(), positions);
+    }
+
     public static @NotNull AtomicBoolean subscribe(BufferingRegionExtent buffer) {
         AtomicBoolean extent = new AtomicBoolean(false);
 
@@ -0,0 +1,29 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Shared utilities of the benchmark suites.
+ */
+final class Benchmarks {
+    private Benchmarks() {}
+
+    /**
+     * Delete a temporary benchmark directory and everything in it.
+     *
+     * @param directory The directory to delete, ignored if {@code null}
+     * @throws IOException If any file cannot be deleted
+     */
+    static void deleteRecursively(Path directory) throws IOException {
+        if(directory == null || Files.notExists(directory)) return;
+
+        try(Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
+import asia.buildtheearth.asean.geotools.ToBlueMapMarker;
+import asia.buildtheearth.asean.geotools.ToGeoJSON;
+import asia.buildtheearth.asean.geotools.ToKML;
+import org.geotools.api.referencing.FactoryException;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end throughput of every converter.
+ *
+ * <p>Each benchmark converts the whole synthetic dataset once per invocation.
+ * The {@code bytes} auxiliary counter reports consumed input bytes per second,
+ * divide by {@code 1048576} for MB/s.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConverterBenchmark {
+
+    @Param({"5000"})
+    public int features;
+
+    @Param({"64"})
+    public int vertices;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private Path directory;
+    private File kml, geojson;
+    private long kmlSize, geojsonSize;
+
+    /** Counter of consumed input bytes, reported as a rate. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SyntheticDataset dataset = new SyntheticDataset(this.features, this.vertices);
+
+        this.directory = Files.createTempDirectory("geotools-benchmark");
+        this.kml = dataset.writeKML(this.directory.resolve("dataset.kml")).toFile();
+        this.geojson = dataset.writeGeoJSON(this.directory.resolve("dataset.geojson")).toFile();
+        this.kmlSize = this.kml.length();
+        this.geojsonSize = this.geojson.length();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.deleteRecursively(this.directory);
+    }
+
+    @Benchmark
+    public void kmlToGeoJSON(Counters counters) throws IOException, FactoryException {
+        this.convert(ToGeoJSON.fromKML(this.kml), "output.geojson");
+        counters.bytes += this.kmlSize;
+    }
+
+    @Benchmark
+    public void geojsonToKML(Counters counters) throws IOException, FactoryException {
+        this.convert(ToKML.fromGeoJSON(this.geojson), "output.kml");
+        counters.bytes += this.geojsonSize;
+    }
+
+    @Benchmark
+    public void geojsonToKMLStreaming(Counters counters) throws IOException, FactoryException {
+        this.convert(ToKML.fromGeoJSON(this.geojson).enableStreaming(), "output.kml");
+        counters.bytes += this.geojsonSize;
+    }
+
+    @Benchmark
+    public void geojsonToBlueMap(Counters counters) throws IOException, FactoryException {
+        this.convert(ToBlueMapMarker.fromGeoJSON(this.geojson), "output.json");
+        counters.bytes += this.geojsonSize;
+    }
+
+    private void convert(GeoToolsConverter converter, String output) throws IOException, FactoryException {
+        converter.parallel(this.threads);
+        converter.convert(this.directory.resolve(output));
+    }
+}
@@ -0,0 +1,134 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import asia.buildtheearth.asean.geotools.format.CoordinateFormatter;
+import asia.buildtheearth.asean.geotools.geojson.GeoJSONStreamWriter;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLStreamWriter;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLWriterV22;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.geojson.GeoJSONWriter;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.locationtech.jts.geom.Polygon;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing coordinates with a fixed precision of {@code 6} decimal places.
+ *
+ * <p>The {@code format*} benchmarks compare the {@link CoordinateFormatter} against {@link BigDecimal} rounding
+ * on raw ordinates. The {@code export*} benchmarks write the whole synthetic dataset (10M vertices by default)
+ * to a discarding stream, comparing GeoTools' {@link GeoJSONWriter} against {@link GeoJSONStreamWriter}
+ * and full precision KML against rounded KML.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class CoordinateFormatBenchmark {
+
+    private static final int PRECISION = 6;
+
+    @Param({"156250"})
+    public int features;
+
+    @Param({"64"})
+    public int vertices;
+
+    private List<Polygon> polygons;
+    private List<SimpleFeature> collection;
+    private double[] ordinates;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SyntheticDataset dataset = new SyntheticDataset(this.features, this.vertices);
+
+        SimpleFeatureTypeBuilder typeBuilder = new SimpleFeatureTypeBuilder();
+        typeBuilder.setName("synthetic");
+        typeBuilder.add("geometry", Polygon.class);
+        typeBuilder.add("name", String.class);
+        SimpleFeatureType type = typeBuilder.buildFeatureType();
+
+        SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+        this.polygons = dataset.getPolygons();
+        this.collection = new ArrayList<>(this.polygons.size());
+
+        for (int i = 0; i < this.polygons.size(); i++) {
+            builder.set("geometry", this.polygons.get(i));
+            builder.set("name", "synthetic." + i);
+            this.collection.add(builder.buildFeature("synthetic." + i));
+        }
+
+        this.ordinates = SyntheticDataset.coordinates(this.features * this.vertices, SyntheticDataset.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public void formatBigDecimal(Blackhole blackhole) {
+        StringBuilder builder = new StringBuilder(64);
+
+        for (double ordinate : this.ordinates) {
+            builder.setLength(0);
+            builder.append(BigDecimal.valueOf(ordinate).setScale(PRECISION, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString());
+            blackhole.consume(builder.length());
+        }
+    }
+
+    @Benchmark
+    public void formatFormatter(Blackhole blackhole) {
+        CoordinateFormatter formatter = CoordinateFormatter.fixed(PRECISION);
+        StringBuilder builder = new StringBuilder(64);
+
+        for (double ordinate : this.ordinates) {
+            builder.setLength(0);
+            formatter.append(builder, ordinate);
+            blackhole.consume(builder.length());
+        }
+    }
+
+    @Benchmark
+    public void exportGeoJSONWriter() throws IOException {
+        try(GeoJSONWriter writer = new GeoJSONWriter(OutputStream.nullOutputStream())) {
+            writer.setMaxDecimals(PRECISION);
+            for (SimpleFeature feature : this.collection) writer.write(feature);
+        }
+    }
+
+    @Benchmark
+    public void exportGeoJSONStreamWriter() throws IOException {
+        try(GeoJSONStreamWriter writer = new GeoJSONStreamWriter(OutputStream.nullOutputStream(),
+                CoordinateFormatter.fixed(PRECISION), false)) {
+            for (SimpleFeature feature : this.collection) writer.write(feature);
+        }
+    }
+
+    @Benchmark
+    public void exportKMLFullPrecision() throws IOException {
+        this.exportKML(null);
+    }
+
+    @Benchmark
+    public void exportKMLFixedPrecision() throws IOException {
+        this.exportKML(PRECISION);
+    }
+
+    private void exportKML(Integer precision) throws IOException {
+        KMLWriterV22 kml = new KMLWriterV22();
+        kml.setMaxDecimals(precision);
+
+        try(KMLStreamWriter writer = kml.stream(OutputStream.nullOutputStream())) {
+            for (int i = 0; i < this.polygons.size(); i++)
+                writer.writeGeometry(this.polygons.get(i), new FeatureIdImpl("synthetic." + i));
+        }
+    }
+}
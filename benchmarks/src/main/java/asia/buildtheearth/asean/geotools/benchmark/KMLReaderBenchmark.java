@@ -0,0 +1,84 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import asia.buildtheearth.asean.geotools.kml.store.KMLFeatureReader;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParallelFeatureReader;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import org.geotools.api.data.FeatureReader;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.kml.KML;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link KMLFeatureReader} and the {@linkplain KMLParser#PULL pull parser} in features per second,
+ * on a single thread or split at placemark boundaries by the {@link KMLParallelFeatureReader}.
+ *
+ * <p>The {@code features} auxiliary counter reports parsed placemarks per second,
+ * independently of the document size chosen by the parameters.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class KMLReaderBenchmark {
+
+    @Param({"10000"})
+    public int features;
+
+    @Param({"16", "256"})
+    public int vertices;
+
+    @Param({"XSD", "PULL"})
+    public KMLParser parser;
+
+    @Param({"1", "8"})
+    public int threads;
+
+    private Path directory;
+    private File kml;
+
+    /** Counter of parsed features, reported as a rate. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long features;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.features = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        this.directory = Files.createTempDirectory("geotools-benchmark");
+        this.kml = new SyntheticDataset(this.features, this.vertices)
+            .writeKML(this.directory.resolve("dataset.kml"))
+            .toFile();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Benchmarks.deleteRecursively(this.directory);
+    }
+
+    @Benchmark
+    public void readAll(Counters counters, Blackhole blackhole) throws IOException {
+        try(FeatureReader<SimpleFeatureType, SimpleFeature> reader =
+                KMLParallelFeatureReader.open(this.kml, KML.Placemark, this.parser, null, this.threads, true)) {
+            while(reader.hasNext()) {
+                blackhole.consume(reader.next());
+                counters.features++;
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import asia.buildtheearth.asean.geotools.projection.DymaxionMapProjection;
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.TransformException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.awt.geom.Point2D;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link DymaxionMapProjection} in points per second.
+ *
+ * <p>Compares the point-by-point {@link Point2D} path against the bulk packed-array transform,
+ * the grid-interpolated approximation over the ASEAN window, and the iterative inverse transform
+ * back to geographic coordinates, point by point or through the warm-started batch inverse.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectionBenchmark {
+
+    /** Number of points projected per invocation. */
+    private static final int POINTS = 4096;
+
+    private DymaxionMapProjection projection;
+    private DymaxionMapProjection approximate;
+    private MathTransform inverse;
+
+    private double[] geographic;
+    private double[] projected;
+    private double[] output;
+
+    @Setup(Level.Trial)
+    public void setup() throws FactoryException, TransformException {
+        this.projection = MinecraftProjection.getBTE();
+        this.inverse = this.projection.inverse();
+
+        this.geographic = SyntheticDataset.coordinates(POINTS, SyntheticDataset.DEFAULT_SEED);
+        this.projected = new double[this.geographic.length];
+        this.output = new double[this.geographic.length];
+
+        this.projection.transform(this.geographic, 0, this.projected, 0, POINTS);
+
+        // Filled once, as shared by every conversion
+        this.approximate = MinecraftProjection.getApproximate(this.projection, MinecraftProjection.getASEANWindow(), 0.05);
+        this.approximate.transform(this.geographic, 0, this.output, 0, POINTS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public void forwardPoint(Blackhole blackhole) throws TransformException {
+        Point2D.Double source = new Point2D.Double();
+        Point2D.Double target = new Point2D.Double();
+
+        for (int i = 0; i < POINTS; i++) {
+            source.setLocation(this.geographic[i * 2], this.geographic[i * 2 + 1]);
+            blackhole.consume(this.projection.transform(source, target));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] forwardBulk() throws TransformException {
+        this.projection.transform(this.geographic, 0, this.output, 0, POINTS);
+        return this.output;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] forwardApproximate() throws TransformException {
+        this.approximate.transform(this.geographic, 0, this.output, 0, POINTS);
+        return this.output;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] inverseBulk() throws TransformException {
+        this.inverse.transform(this.projected, 0, this.output, 0, POINTS);
+        return this.output;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(POINTS)
+    public double[] inverseBatch() throws TransformException {
+        this.projection.inverseTransform(this.projected, 0, 2, this.output, 0, 2, POINTS);
+        return this.output;
+    }
+}
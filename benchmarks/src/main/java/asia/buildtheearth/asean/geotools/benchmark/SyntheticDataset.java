@@ -0,0 +1,177 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import asia.buildtheearth.asean.geotools.kml.writer.KMLStreamWriter;
+import asia.buildtheearth.asean.geotools.kml.writer.KMLWriterV22;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.data.geojson.GeoJSONWriter;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.feature.simple.SimpleFeatureTypeBuilder;
+import org.geotools.filter.identity.FeatureIdImpl;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic dataset so every benchmark runs offline.
+ *
+ * <p>Generates {@code N} star-shaped polygons of {@code M} vertices each, scattered over the {@linkplain #ASEAN_BOUNDS
+ * ASEAN region}, with a random elevation per vertex. The same seed always produces the same dataset.</p>
+ *
+ * <p>Example usage:</p>
+ * <blockquote>{@snippet :
+ * SyntheticDataset dataset = new SyntheticDataset(1000, 64);
+ * Path kml = dataset.writeKML(directory.resolve("dataset.kml"));
+ * Path geojson = dataset.writeGeoJSON(directory.resolve("dataset.geojson"));
+ * }</blockquote>
+ */
+public final class SyntheticDataset {
+
+    /** Geographic bounds of the ASEAN region in decimal degrees (longitude, latitude). */
+    public static final Envelope ASEAN_BOUNDS = new Envelope(92.0, 141.0, -11.0, 28.5);
+
+    /** Default seed of every generated dataset. */
+    public static final long DEFAULT_SEED = 0x41534541_4EL;
+
+    /** Minimum and maximum polygon radius in decimal degrees (roughly 50 to 250 meters). */
+    private static final double MIN_RADIUS = 0.0005, MAX_RADIUS = 0.0025;
+
+    private static final GeometryFactory FACTORY = new GeometryFactory();
+
+    private final List<Polygon> polygons;
+
+    /**
+     * Generate a new dataset using the {@linkplain #DEFAULT_SEED default seed}.
+     *
+     * @param features Number of polygons to generate
+     * @param vertices Number of distinct vertices per polygon, at least {@code 3}
+     */
+    public SyntheticDataset(int features, int vertices) {
+        this(features, vertices, DEFAULT_SEED);
+    }
+
+    /**
+     * Generate a new dataset.
+     *
+     * @param features Number of polygons to generate
+     * @param vertices Number of distinct vertices per polygon, at least {@code 3}
+     * @param seed Random seed of the dataset
+     */
+    public SyntheticDataset(int features, int vertices, long seed) {
+        if(vertices < 3) throw new IllegalArgumentException("A polygon requires at least 3 vertices");
+
+        Random random = new Random(seed);
+        List<Polygon> polygons = new ArrayList<>(features);
+
+        for (int i = 0; i < features; i++) {
+            double centerX = ASEAN_BOUNDS.getMinX() + random.nextDouble() * ASEAN_BOUNDS.getWidth();
+            double centerY = ASEAN_BOUNDS.getMinY() + random.nextDouble() * ASEAN_BOUNDS.getHeight();
+            double radius = MIN_RADIUS + random.nextDouble() * (MAX_RADIUS - MIN_RADIUS);
+
+            Coordinate[] ring = new Coordinate[vertices + 1];
+
+            // Monotonic angles with a jittered radius always produce a simple polygon
+            for (int v = 0; v < vertices; v++) {
+                double angle = 2 * Math.PI * v / vertices;
+                double distance = radius * (0.7 + 0.3 * random.nextDouble());
+                ring[v] = new Coordinate(
+                    centerX + distance * Math.cos(angle),
+                    centerY + distance * Math.sin(angle),
+                    random.nextInt(50)
+                );
+            }
+            ring[vertices] = ring[0].copy();
+
+            polygons.add(FACTORY.createPolygon(ring));
+        }
+
+        this.polygons = Collections.unmodifiableList(polygons);
+    }
+
+    /**
+     * Get all generated polygons in geographic coordinates.
+     *
+     * @return Unmodifiable list of polygons
+     */
+    public @NotNull List<Polygon> getPolygons() {
+        return this.polygons;
+    }
+
+    /**
+     * Write the dataset as a KML 2.2 document, one {@code Placemark} per polygon.
+     *
+     * @param file The output file
+     * @return The output file
+     * @throws IOException If the file cannot be written
+     */
+    @Contract("_ -> param1")
+    public @NotNull Path writeKML(@NotNull Path file) throws IOException {
+        try(OutputStream output = Files.newOutputStream(file);
+            KMLStreamWriter writer = new KMLWriterV22().stream(output)) {
+            for (int i = 0; i < this.polygons.size(); i++)
+                writer.writeGeometry(this.polygons.get(i), new FeatureIdImpl(featureID(i)));
+        }
+        return file;
+    }
+
+    /**
+     * Write the dataset as a GeoJSON feature collection, one feature per polygon.
+     *
+     * @param file The output file
+     * @return The output file
+     * @throws IOException If the file cannot be written
+     */
+    @Contract("_ -> param1")
+    public @NotNull Path writeGeoJSON(@NotNull Path file) throws IOException {
+        SimpleFeatureTypeBuilder typeBuilder = new SimpleFeatureTypeBuilder();
+        typeBuilder.setName("synthetic");
+        typeBuilder.add("geometry", Polygon.class);
+        typeBuilder.add("name", String.class);
+        SimpleFeatureType type = typeBuilder.buildFeatureType();
+
+        try(GeoJSONWriter writer = new GeoJSONWriter(Files.newOutputStream(file))) {
+            SimpleFeatureBuilder builder = new SimpleFeatureBuilder(type);
+            for (int i = 0; i < this.polygons.size(); i++) {
+                builder.set("geometry", this.polygons.get(i));
+                builder.set("name", featureID(i));
+                writer.write(builder.buildFeature(featureID(i)));
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Generate packed (<var>longitude</var>,<var>latitude</var>) pairs uniformly scattered over the ASEAN region.
+     *
+     * @param points Number of points
+     * @param seed Random seed
+     * @return A packed array of {@code 2 * points} ordinates
+     */
+    public static double @NotNull [] coordinates(int points, long seed) {
+        Random random = new Random(seed);
+        double[] packed = new double[points * 2];
+
+        for (int i = 0; i < points; i++) {
+            packed[i * 2] = ASEAN_BOUNDS.getMinX() + random.nextDouble() * ASEAN_BOUNDS.getWidth();
+            packed[i * 2 + 1] = ASEAN_BOUNDS.getMinY() + random.nextDouble() * ASEAN_BOUNDS.getHeight();
+        }
+
+        return packed;
+    }
+
+    @Contract(pure = true)
+    private static @NotNull String featureID(int index) {
+        return "synthetic." + index;
+    }
+}
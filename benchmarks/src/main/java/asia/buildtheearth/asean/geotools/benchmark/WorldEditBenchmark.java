@@ -0,0 +1,119 @@
+package asia.buildtheearth.asean.geotools.benchmark;
+
+import asia.buildtheearth.asean.geotools.projection.MinecraftProjection;
+import asia.buildtheearth.asean.geotools.test.mocks.MockWorldEditPlugin;
+import asia.buildtheearth.asean.geotools.test.utils.TestWorldEditActor;
+import asia.buildtheearth.asean.geotools.worldedit.BufferingRegionExtent;
+import asia.buildtheearth.asean.geotools.worldedit.WorldEditGeometryWriter;
+import com.sk89q.worldedit.EditSession;
+import com.sk89q.worldedit.WorldEdit;
+import com.sk89q.worldedit.bukkit.WorldEditPlugin;
+import com.sk89q.worldedit.event.extent.EditSessionEvent;
+import com.sk89q.worldedit.util.eventbus.Subscribe;
+import com.sk89q.worldedit.world.NullWorld;
+import com.sk89q.worldedit.world.block.BlockType;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.locationtech.jts.geom.Polygon;
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link WorldEditGeometryWriter} in blocks per second.
+ *
+ * <p>Runs on a mocked Bukkit server with the WorldEdit mocks from the API test classes,
+ * and buffers every block into a {@link BufferingRegionExtent} so no world is ever touched.
+ * The {@code blocks} auxiliary counter reports changed blocks per second.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class WorldEditBenchmark {
+    private static final String WORLD_EDIT_SYMBOL = "WorldEdit", WORLD_EDIT_VERSION = "7.3.18";
+
+    @Param({"500"})
+    public int features;
+
+    @Param({"64"})
+    public int vertices;
+
+    @Param({"false", "true"})
+    public boolean fill;
+
+    /** Buffer backend, {@code map} for a {@link com.sk89q.worldedit.util.collection.BlockMap} or {@code compact}. */
+    @Param({"map", "compact"})
+    public String backend;
+
+    private List<Polygon> polygons;
+
+    /** Buffer of the edit session currently being benchmarked. */
+    private volatile BufferingRegionExtent buffer;
+
+    /** Counter of changed blocks, reported as a rate. */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        public long blocks;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.blocks = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Register every placed block before WorldEdit starts, same as the API tests
+        BlockType.REGISTRY.register("minecraft:diamond_block", new BlockType("minecraft:diamond_block"));
+        BlockType.REGISTRY.register("minecraft:air", new BlockType("minecraft:air"));
+
+        MockBukkit.mock();
+        MockBukkit.loadWith(MockWorldEditPlugin.class, new PluginDescriptionFile(
+            WORLD_EDIT_SYMBOL, WORLD_EDIT_VERSION, WorldEditPlugin.class.getName()
+        ));
+
+        WorldEdit.getInstance().getEventBus().register(this);
+
+        this.polygons = new SyntheticDataset(this.features, this.vertices).getPolygons();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        WorldEdit.getInstance().getEventBus().unregister(this);
+        MockBukkit.unmock();
+    }
+
+    @Subscribe
+    @SuppressWarnings("unused")
+    public void onEditSessionEvent(EditSessionEvent event) {
+        if(event.getStage() == EditSession.Stage.BEFORE_CHANGE)
+            event.setExtent(this.buffer);
+    }
+
+    @Benchmark
+    public BufferingRegionExtent writeAll(Counters counters) throws Exception {
+        this.buffer = this.backend.equals("compact")? BufferingRegionExtent.compact() : new BufferingRegionExtent();
+
+        try(EditSession edit = WorldEdit
+            .getInstance()
+            .newEditSessionBuilder()
+            .world(NullWorld.getInstance())
+            .actor(new TestWorldEditActor())
+            .maxBlocks(-1)
+            .build()) {
+
+            WorldEditGeometryWriter writer = new WorldEditGeometryWriter(edit, MinecraftProjection.getASEAN(), WorldEditGeometryWriter.DEFAULT_PLACING_DIAMOND_BLOCK);
+            if(this.fill) writer.fillGeometry();
+
+            for (Polygon polygon : this.polygons)
+                counters.blocks += writer.writeGeometry(polygon);
+        }
+
+        return this.buffer;
+    }
+}
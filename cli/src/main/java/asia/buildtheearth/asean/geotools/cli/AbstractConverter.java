@@ -1,10 +1,24 @@
 package asia.buildtheearth.asean.geotools.cli;
 
+import asia.buildtheearth.asean.geotools.ConversionManifest;
+import asia.buildtheearth.asean.geotools.ConversionStatistics;
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
+import asia.buildtheearth.asean.geotools.io.Compression;
+import asia.buildtheearth.asean.geotools.kml.store.KMLParser;
+import org.geotools.api.referencing.FactoryException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import picocli.CommandLine;
 
 import java.io.File;
-import java.nio.file.Path;
-import java.util.concurrent.Callable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 abstract class AbstractConverter implements Callable<Integer> {
 
@@ -20,47 +34,446 @@ abstract class AbstractConverter implements Callable<Integer> {
     protected Conversion.Format format;
 
     /**
-     * The input file to read and convert to.
+     * The input files, directories or glob patterns to read and convert.
      */
     @CommandLine.Option(names = {"-f", "--file"},
-            description = "The input file.",
+            description = {
+                    "The input file, or multiple files, directories and glob patterns.",
+                    "Directories are searched recursively for files of the source format."
+            },
             paramLabel = "<path>",
             required = true,
-            type = File.class)
-    protected File input;
+            arity = "1..*")
+    protected List<String> inputs;
 
     /**
-     * The output path to file be created or overwritten
+     * The output path to file be created or overwritten, a directory in batch mode
      */
     @CommandLine.Option(names = {"-o", "--output"},
-            description = "The output path.",
+            description = {
+                    "The output path,",
+                    "a directory when converting multiple files."
+            },
             paramLabel = "<path>",
             required = true,
             type = Path.class)
     protected Path output;
 
+    /**
+     * Number of worker threads for projection and Z modification
+     */
+    @CommandLine.Option(names = {"-t", "--threads"},
+            description = {
+                    "Number of worker threads to convert features with.",
+                    "Output order is preserved. Defaults to 1."
+            },
+            paramLabel = "<integer>",
+            type = Integer.class)
+    protected int threads = 1;
+
+    /**
+     * Number of files converted concurrently in batch mode
+     */
+    @CommandLine.Option(names = {"-j", "--jobs"},
+            description = {
+                    "Number of files converted concurrently",
+                    "when converting multiple files. Defaults to 1."
+            },
+            paramLabel = "<integer>",
+            type = Integer.class)
+    protected int jobs = 1;
+
+    /**
+     * Parser implementation used to read KML input
+     */
+    @CommandLine.Option(names = {"--kml-parser"},
+            description = {
+                    "Parser used to read KML input: ${COMPLETION-CANDIDATES}.",
+                    "PULL is a faster parser of Placemark elements only. Defaults to XSD."
+            },
+            paramLabel = "<parser>",
+            type = KMLParser.class)
+    protected KMLParser kmlParser = KMLParser.XSD;
+
+    /**
+     * Manifest of previous conversions, to skip unchanged files
+     */
+    @CommandLine.Option(names = {"-m", "--manifest"},
+            description = {
+                    "Records each conversion in a manifest file and skips",
+                    "files whose content and options are unchanged since."
+            },
+            paramLabel = "<path>",
+            type = Path.class)
+    protected Path manifestFile;
+
+    /**
+     * Print conversion statistics
+     */
+    @CommandLine.Option(names = {"--stats"},
+            description = "Prints features, vertices, bytes and time of each stage per converted file.")
+    protected boolean stats;
+
+    /**
+     * File to write conversion statistics to as JSON
+     */
+    @CommandLine.Option(names = {"--stats-json"},
+            description = {
+                    "Writes the statistics of every converted file to a JSON file,",
+                    "or - for standard output, then any other output goes to standard error."
+            },
+            paramLabel = "<path>")
+    protected String statsJson;
+
+    /**
+     * A single file conversion.
+     *
+     * @param input The source file
+     * @param output The destination file
+     */
+    protected record Job(@NotNull File input, @NotNull Path output) { }
 
     @Override
     public Integer call() throws RuntimeException {
-        if (!input.exists()) throw new CommandLine.ParameterException(new CommandLine(this),
-            "Input file not found:\n\n\t" + input.getAbsolutePath() + '\n'
-        );
-        else if (!input.isFile()) throw new CommandLine.ParameterException(new CommandLine(this),
-            "Input path is not a file (maybe a directory?):\n\n\n\t" + input.getAbsolutePath() + '\n'
-        );
+        List<Job> jobs = new ArrayList<>();
+        boolean batch = this.resolve(jobs);
 
-        System.out.println(
+        this.console().println(
             "Converting from: " + CommandLine.Help.Ansi.AUTO.string(
             "@|bold,green,underline " + format.name() + "|@")
             + " To: " + CommandLine.Help.Ansi.AUTO.string(
             "@|bold,yellow,underline " + getFormat().name() + "|@")
         );
 
-        return 0;
+        ConversionManifest manifest = this.loadManifest();
+
+        try {
+            if (batch) return this.convertAll(jobs, manifest);
+
+            // Convert for output
+            Job job = jobs.getFirst();
+            long start = System.nanoTime();
+            try {
+                GeoToolsConverter converter = this.createConverter(job.input());
+                boolean skipped = false;
+
+                if (manifest == null) converter.convert(job.output());
+                else skipped = !converter.convert(job.output(), manifest);
+
+                if (skipped) this.console().println("Output is up to date, skipped.");
+                else if (this.stats) this.console().print(converter.getStatistics());
+
+                this.writeStatistics(List.of(new Summary(job, System.nanoTime() - start, Files.size(job.output()), skipped,
+                    skipped ? null : converter.getStatistics(), null)));
+            }
+            catch (IOException | FactoryException ex) {
+                throw new RuntimeException("Exception occurred converting to output file!", ex);
+            }
+
+            return 0;
+        }
+        finally { this.saveManifest(manifest); }
     }
 
+    /**
+     * Stream of every human-readable message, kept off standard output when it carries the {@code --stats-json} report.
+     */
+    private @NotNull PrintStream console() {
+        return "-".equals(this.statsJson) ? System.err : System.out;
+    }
+
+    /**
+     * @return The file format converted to
+     */
     protected abstract Conversion.Format getFormat();
 
+    /**
+     * Create the configured converter of one input file.
+     *
+     * @param input The source file
+     * @return A new converter, safe to run concurrently with converters of other files
+     */
+    protected abstract GeoToolsConverter createConverter(File input);
+
+    private @Nullable ConversionManifest loadManifest() {
+        if (this.manifestFile == null) return null;
+
+        try { return ConversionManifest.load(this.manifestFile); }
+        catch (IOException ex) {
+            throw new CommandLine.ParameterException(new CommandLine(this), ex.getMessage());
+        }
+    }
+
+    private void saveManifest(@Nullable ConversionManifest manifest) {
+        if (manifest == null) return;
+
+        try { manifest.save(); }
+        catch (IOException ex) {
+            throw new RuntimeException("Exception occurred saving the conversion manifest!", ex);
+        }
+    }
+
+    /**
+     * Resolve every input file and its output path.
+     *
+     * @param jobs The list every resolved conversion is added to
+     * @return {@code true} in batch mode, where the output is a directory
+     */
+    private boolean resolve(@NotNull List<Job> jobs) {
+        boolean batch = this.inputs.size() > 1;
+        Map<Path, File> outputs = new LinkedHashMap<>();
+
+        for (String input : this.inputs) {
+            Path base;
+            List<Path> files;
+
+            try {
+                if (isGlob(input)) {
+                    batch = true;
+                    String[] segments = input.split("[/\\\\]", -1);
+                    int literal = 0;
+                    while (!isGlob(segments[literal])) literal++;
+
+                    // Walk from the deepest directory without any glob character
+                    Path root = literal == 0 ? Path.of("")
+                        : Path.of(segments[0].isEmpty() ? "/" : segments[0], Arrays.copyOfRange(segments, 1, literal));
+                    PathMatcher matcher = FileSystems.getDefault().getPathMatcher(
+                        "glob:" + String.join("/", Arrays.copyOfRange(segments, literal, segments.length))
+                    );
+
+                    base = root;
+                    files = Files.isDirectory(root) ? walk(root, file -> matcher.matches(root.relativize(file))) : List.of();
+                }
+                else if (Files.isDirectory(Path.of(input))) {
+                    batch = true;
+                    base = Path.of(input);
+                    files = walk(base, this::isSourceFile);
+                }
+                else {
+                    Path file = Path.of(input);
+                    if (!Files.exists(file)) throw new CommandLine.ParameterException(new CommandLine(this),
+                        "Input file not found:\n\n\t" + file.toAbsolutePath() + '\n'
+                    );
+                    else if (!Files.isRegularFile(file)) throw new CommandLine.ParameterException(new CommandLine(this),
+                        "Input path is not a file (maybe a directory?):\n\n\n\t" + file.toAbsolutePath() + '\n'
+                    );
+
+                    base = file.toAbsolutePath().getParent();
+                    files = List.of(file.toAbsolutePath());
+                }
+            }
+            catch (IOException | UncheckedIOException | InvalidPathException ex) {
+                throw new CommandLine.ParameterException(new CommandLine(this),
+                    "Failed to list input files of " + input + ": " + ex.getMessage()
+                );
+            }
+
+            for (Path file : files) {
+                Path relative = base.toAbsolutePath().relativize(file.toAbsolutePath());
+                outputs.putIfAbsent(relative, file.toFile());
+            }
+        }
+
+        if (outputs.isEmpty()) throw new CommandLine.ParameterException(new CommandLine(this),
+            "No input file of format " + format.name() + " found in:\n\n\t" + String.join("\n\t", this.inputs) + '\n'
+        );
+
+        if (!batch) {
+            jobs.add(new Job(outputs.values().iterator().next(), this.output));
+            return false;
+        }
+
+        Set<Path> targets = new HashSet<>();
+        for (Map.Entry<Path, File> entry : outputs.entrySet()) {
+            Path target = this.output.resolve(this.outputName(entry.getKey()));
+
+            if (!targets.add(target)) throw new CommandLine.ParameterException(new CommandLine(this),
+                "Multiple input files convert to the same output file:\n\n\t" + target + '\n'
+            );
+            jobs.add(new Job(entry.getValue(), target));
+        }
+
+        return true;
+    }
+
+    /**
+     * Convert every file on a pool of {@link #jobs} threads and print a summary of each conversion.
+     *
+     * @return {@code 0} if every file was converted, {@code 1} otherwise
+     */
+    private int convertAll(@NotNull List<Job> jobs, @Nullable ConversionManifest manifest) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, this.jobs));
+        List<Future<Summary>> summaries = new ArrayList<>(jobs.size());
+        long start = System.nanoTime();
+
+        try {
+            for (Job job : jobs) summaries.add(pool.submit(() -> this.convert(job, manifest)));
+
+            int failed = 0, skipped = 0;
+            List<Summary> results = new ArrayList<>(jobs.size());
+            this.console().println();
+
+            for (Future<Summary> future : summaries) {
+                Summary summary = future.get();
+                if (summary.error() != null) failed++;
+                else if (summary.skipped()) skipped++;
+                results.add(summary);
+
+                this.console().println(summary);
+                if (this.stats && summary.statistics() != null)
+                    this.console().print(summary.statistics().toString().indent(10));
+            }
+
+            this.writeStatistics(results);
+
+            this.console().printf("%nConverted %,d of %,d files (%,d up to date) in %,.1f s%n",
+                jobs.size() - failed - skipped, jobs.size(), skipped, (System.nanoTime() - start) / 1e9);
+
+            return failed == 0 ? 0 : 1;
+        }
+        catch (ExecutionException ex) { throw new RuntimeException("Exception occurred converting files!", ex.getCause()); }
+        catch (IOException ex) { throw new RuntimeException("Exception occurred writing conversion statistics!", ex); }
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while converting files!", ex);
+        }
+        finally { pool.shutdownNow(); }
+    }
+
+    /**
+     * Convert one file of a batch, run on a pool thread.
+     */
+    private @NotNull Summary convert(@NotNull Job job, @Nullable ConversionManifest manifest) {
+        long start = System.nanoTime();
+
+        try {
+            Path parent = job.output().toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+
+            GeoToolsConverter converter = this.createConverter(job.input());
+            boolean skipped = false;
+
+            if (manifest == null) converter.convert(job.output());
+            else skipped = !converter.convert(job.output(), manifest);
+
+            return new Summary(job, System.nanoTime() - start, Files.size(job.output()), skipped,
+                skipped ? null : converter.getStatistics(), null);
+        }
+        catch (Exception ex) {
+            return new Summary(job, System.nanoTime() - start, -1, false, null, ex);
+        }
+    }
+
+    /**
+     * Write the {@code --stats-json} report of every conversion, as a JSON object with a {@code files} array.
+     */
+    private void writeStatistics(@NotNull List<Summary> summaries) throws IOException {
+        if (this.statsJson == null) return;
+
+        StringJoiner files = new StringJoiner(",\n    ", "{\n  \"files\": [\n    ", "\n  ]\n}\n");
+        for (Summary summary : summaries) files.add(summary.toJson());
+
+        if (this.statsJson.equals("-")) System.out.print(files);
+        else Files.writeString(Path.of(this.statsJson), files.toString());
+    }
+
+    /**
+     * Result of one file conversion.
+     *
+     * @param job The conversion
+     * @param nanos The conversion duration in nanoseconds
+     * @param size The output file size in bytes, {@code -1} on failure
+     * @param skipped Whether the output was up to date in the manifest
+     * @param statistics The converter statistics, {@code null} if skipped or failed
+     * @param error The failure cause, {@code null} on success
+     */
+    private record Summary(@NotNull Job job, long nanos, long size, boolean skipped,
+                           ConversionStatistics statistics, Exception error) {
+
+        @NotNull String toJson() {
+            String status = this.error != null ? "failed" : this.skipped ? "skipped" : "converted";
+            StringBuilder json = new StringBuilder("{");
+
+            json.append("\"input\":").append(quote(this.job.input().toString()))
+                .append(",\"output\":").append(quote(this.job.output().toString()))
+                .append(",\"status\":\"").append(status).append('"');
+
+            if (this.error != null) json.append(",\"error\":").append(quote(String.valueOf(this.error.getMessage())));
+            if (this.statistics != null) json.append(",\"statistics\":").append(this.statistics.toJson());
+
+            return json.append('}').toString();
+        }
+
+        @Override
+        public @NotNull String toString() {
+            String line = String.format("%9.1f ms %10s  %s -> %s",
+                this.nanos / 1e6, this.size < 0 ? "-" : String.format("%,d B", this.size),
+                this.job.input(), this.job.output());
+
+            if (this.skipped) return CommandLine.Help.Ansi.AUTO.string("@|bold,faint SKIP  |@") + line;
+            if (this.error == null) return CommandLine.Help.Ansi.AUTO.string("@|bold,green OK    |@") + line;
+
+            Throwable cause = this.error;
+            while (cause.getCause() != null) cause = cause.getCause();
+
+            return CommandLine.Help.Ansi.AUTO.string("@|bold,red FAILED|@") + line + "\n\t" + cause;
+        }
+    }
+
+    /**
+     * Check whether a file has an extension of the source format, possibly compressed.
+     */
+    private boolean isSourceFile(@NotNull Path file) {
+        String name = Compression.baseName(file.getFileName().toString()).toLowerCase(Locale.ROOT);
+        if (this.format == Conversion.Format.kml && name.endsWith(".kmz")) return true;
+
+        for (String extension : this.format.extensions)
+            if (name.endsWith('.' + extension)) return true;
+
+        return false;
+    }
+
+    /**
+     * Name the output of an input file relative to the output directory, with the target format extension.
+     */
+    private @NotNull Path outputName(@NotNull Path relative) {
+        String name = Compression.baseName(relative.getFileName().toString());
+        int dot = name.lastIndexOf('.');
+        String converted = (dot > 0 ? name.substring(0, dot) : name) + '.' + this.getFormat().extensions[0];
+
+        return relative.resolveSibling(converted);
+    }
+
+    private static @NotNull String quote(@NotNull String text) {
+        StringBuilder quoted = new StringBuilder("\"");
+
+        for (char c : text.toCharArray()) {
+            switch (c) {
+                case '"' -> quoted.append("\\\"");
+                case '\\' -> quoted.append("\\\\");
+                case '\n' -> quoted.append("\\n");
+                case '\r' -> quoted.append("\\r");
+                case '\t' -> quoted.append("\\t");
+                default -> {
+                    if (c < 0x20) quoted.append(String.format("\\u%04x", (int) c));
+                    else quoted.append(c);
+                }
+            }
+        }
+
+        return quoted.append('"').toString();
+    }
+
+    private static boolean isGlob(@NotNull String input) {
+        return input.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    private static @NotNull List<Path> walk(@NotNull Path base, @NotNull Predicate<Path> filter) throws IOException {
+        try (Stream<Path> files = Files.walk(base)) {
+            return files.filter(Files::isRegularFile).filter(filter).sorted().toList();
+        }
+    }
+
     /**
      * Elevation options for geo data.
      *
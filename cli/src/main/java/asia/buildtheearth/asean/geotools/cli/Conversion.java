@@ -54,7 +54,11 @@ class Conversion implements CommandLine.ITypeConverter<Conversion.Format>, Itera
         kml("kml"),
         bluemap("json");
 
+        /** File extensions of this format, the first one is used to name converted files. */
+        final String[] extensions;
+
         Format(String @NotNull ... extensions) {
+            this.extensions = extensions;
             for (String ext : extensions) extMap.put(ext, this);
         }
     }
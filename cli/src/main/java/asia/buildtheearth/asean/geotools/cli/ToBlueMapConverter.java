@@ -1,10 +1,10 @@
 package asia.buildtheearth.asean.geotools.cli;
 
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
 import asia.buildtheearth.asean.geotools.ToBlueMapMarker;
-import asia.buildtheearth.asean.geotools.ToGeoJSON;
 import picocli.CommandLine;
 
-import java.io.IOException;
+import java.io.File;
 
 @CommandLine.Command(name = "bluemap", version = "1.0.0",
         description = "Converts a geospatial file to BlueMap Marker file.",
@@ -28,16 +28,14 @@ public class ToBlueMapConverter extends AbstractConverter {
 
     @Override
     protected Conversion.Format getFormat() {
-        return Conversion.Format.geojson;
+        return Conversion.Format.bluemap;
     }
 
     @Override
-    public Integer call() throws RuntimeException {
-        super.call();
-
+    protected GeoToolsConverter createConverter(File input) {
         // Figure out converter
         ToBlueMapMarker converter = switch (this.format) {
-            case geojson -> ToBlueMapMarker.fromGeoJSON(this.input);
+            case geojson -> ToBlueMapMarker.fromGeoJSON(input);
             case kml -> throw new RuntimeException("Not Supported yet.");
             case bluemap -> throw new RuntimeException("Not Supported yet.");
             case null -> throw new RuntimeException(
@@ -47,6 +45,9 @@ public class ToBlueMapConverter extends AbstractConverter {
 
         if(compact) converter.disablePrettyPrint();
 
+        converter.parallel(this.threads);
+        converter.setKMLParser(this.kmlParser);
+
         // Elevation modification for Z axis
         if(elevation != null) {
             if(elevation.dropZ) converter.dropZ();
@@ -54,12 +55,6 @@ public class ToBlueMapConverter extends AbstractConverter {
             if(elevation.offsetZ != null) converter.setOffsetZ(elevation.offsetZ);
         }
 
-        // Convert for output
-        try { converter.convert(this.output); }
-        catch (IOException ex) {
-            throw new RuntimeException("Exception occurred converting to output file!", ex);
-        }
-
-        return 0;
+        return converter;
     }
 }
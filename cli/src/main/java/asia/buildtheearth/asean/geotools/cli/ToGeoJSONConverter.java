@@ -1,8 +1,9 @@
 package asia.buildtheearth.asean.geotools.cli;
 
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
 import asia.buildtheearth.asean.geotools.ToGeoJSON;
 import picocli.CommandLine;
-import java.io.IOException;
+import java.io.File;
 
 @CommandLine.Command(name = "geojson", version = "1.0.0",
         description = "Converts a geospatial file to GeoJSON format.",
@@ -37,20 +38,29 @@ public class ToGeoJSONConverter extends AbstractConverter {
             type = Integer.class)
     private Integer precision;
 
+    /**
+     * Read GeoJSON input in Minecraft block coordinates
+     */
+    @CommandLine.Option(
+            names = {"--from-blocks"},
+            description = {
+                    "Reads GeoJSON input in Minecraft block coordinates",
+                    "and converts it back to WGS84 coordinates."
+            })
+    private boolean fromBlocks;
+
     @Override
     protected Conversion.Format getFormat() {
         return Conversion.Format.geojson;
     }
 
     @Override
-    public Integer call() throws RuntimeException {
-        super.call();
-
+    protected GeoToolsConverter createConverter(File input) {
         // Figure out converter
         ToGeoJSON converter = switch (this.format) {
-            case geojson -> ToGeoJSON.identity(this.input);
-            case kml -> ToGeoJSON.fromKML(this.input);
-            case bluemap -> throw new RuntimeException("Not Supported yet.");
+            case geojson -> fromBlocks? ToGeoJSON.fromBlocks(input) : ToGeoJSON.identity(input);
+            case kml -> ToGeoJSON.fromKML(input);
+            case bluemap -> ToGeoJSON.fromBlueMap(input);
             case null -> throw new RuntimeException(
                     "Conversion format return null, this should not happen."
             );
@@ -60,6 +70,9 @@ public class ToGeoJSONConverter extends AbstractConverter {
 
         if(compact) converter.disablePrettyPrint();
 
+        converter.parallel(this.threads);
+        converter.setKMLParser(this.kmlParser);
+
         // Elevation modification for Z axis
         if(elevation != null) {
             if(elevation.dropZ) converter.dropZ();
@@ -67,12 +80,6 @@ public class ToGeoJSONConverter extends AbstractConverter {
             if(elevation.offsetZ != null) converter.setOffsetZ(elevation.offsetZ);
         }
 
-        // Convert for output
-        try { converter.convert(this.output); }
-        catch (IOException ex) {
-            throw new RuntimeException("Exception occurred converting to output file!", ex);
-        }
-
-        return 0;
+        return converter;
     }
 }
@@ -1,8 +1,9 @@
 package asia.buildtheearth.asean.geotools.cli;
 
+import asia.buildtheearth.asean.geotools.GeoToolsConverter;
 import asia.buildtheearth.asean.geotools.ToKML;
 import picocli.CommandLine;
-import java.io.IOException;
+import java.io.File;
 
 @CommandLine.Command(name = "kml", version = "1.0.0",
         description = "Converts a geospatial file to KML format.",
@@ -21,19 +22,29 @@ public class ToKMLConverter extends AbstractConverter {
     @CommandLine.ArgGroup
     private Style style;
 
+    /**
+     * Stream the output instead of buffering the whole document
+     */
+    @CommandLine.Option(
+            names = {"-s", "--stream"},
+            paramLabel = "<boolean>",
+            description = {
+                    "Writes each geometry as soon as it is read,",
+                    "keeping memory use flat for large inputs."
+            })
+    private boolean stream;
+
     @Override
     protected Conversion.Format getFormat() {
         return Conversion.Format.kml;
     }
 
     @Override
-    public Integer call() throws RuntimeException {
-        super.call();
-
+    protected GeoToolsConverter createConverter(File input) {
         // Figure out converter
         ToKML converter = switch (this.format) {
-            case kml -> ToKML.identity(this.input);
-            case geojson -> ToKML.fromGeoJSON(this.input);
+            case kml -> ToKML.identity(input);
+            case geojson -> ToKML.fromGeoJSON(input);
             case bluemap -> throw new RuntimeException("Not Supported yet.");
             case null -> throw new RuntimeException(
                 "Conversion format return null, this should not happen."
@@ -46,6 +57,11 @@ public class ToKMLConverter extends AbstractConverter {
             else converter.disablePrettyPrint();
         }
 
+        if(stream) converter.enableStreaming();
+
+        converter.parallel(this.threads);
+        converter.setKMLParser(this.kmlParser);
+
         // Elevation modification for Z axis
         if(elevation != null) {
             if(elevation.dropZ) converter.dropZ();
@@ -53,13 +69,7 @@ public class ToKMLConverter extends AbstractConverter {
             if(elevation.offsetZ != null) converter.setOffsetZ(elevation.offsetZ);
         }
 
-        // Convert for output
-        try { converter.convert(this.output); }
-        catch (IOException ex) {
-            throw new RuntimeException("Exception occurred converting to output file!", ex);
-        }
-
-        return 0;
+        return converter;
     }
 
     static class Style {
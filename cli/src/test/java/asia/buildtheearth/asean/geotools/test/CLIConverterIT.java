@@ -2,6 +2,10 @@ package asia.buildtheearth.asean.geotools.test;
 
 import io.hosuaby.inject.resources.junit.jupiter.GivenBinaryResource;
 import io.hosuaby.inject.resources.junit.jupiter.TestWithResources;
+import org.json.simple.JSONArray;
+import org.json.simple.JSONObject;
+import org.json.simple.parser.JSONParser;
+import org.json.simple.parser.ParseException;
 import org.junit.jupiter.api.*;
 
 import java.io.File;
@@ -10,6 +14,8 @@ import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 
 /**
@@ -80,4 +86,94 @@ public final class CLIConverterIT extends AbstractConverterIT {
 
         System.out.print(Files.readString(output));
     }
+
+    @Test
+    @DisplayName("Convert directories and globs of files")
+    public void batchInput() throws InterruptedException, IOException {
+        Path batch = Files.createDirectories(directory.resolve("batch"));
+        Files.copy(source, Files.createDirectories(batch.resolve("a")).resolve("first.kml"));
+        Files.copy(source, Files.createDirectories(batch.resolve("b")).resolve("second.kml"));
+
+        Assertions.assertEquals(0, convert(null, "geojson", "kml", "-j", "2",
+            "-f", batch.toString(), "-o", directory.resolve("directory").toString()));
+        Assertions.assertTrue(Files.isRegularFile(directory.resolve("directory").resolve("a").resolve("first.geojson")));
+        Assertions.assertTrue(Files.isRegularFile(directory.resolve("directory").resolve("b").resolve("second.geojson")));
+
+        Assertions.assertEquals(0, convert(null, "geojson", "kml",
+            "-f", batch + "/*/*.kml", "-o", directory.resolve("glob").toString()));
+        Assertions.assertTrue(Files.isRegularFile(directory.resolve("glob").resolve("a").resolve("first.geojson")));
+        Assertions.assertTrue(Files.isRegularFile(directory.resolve("glob").resolve("b").resolve("second.geojson")));
+
+        // Both convert to a/first.geojson
+        Files.copy(source, batch.resolve("a").resolve("first.kml.gz"));
+        Path log = directory.resolve("duplicate.log");
+
+        Assertions.assertNotEquals(0, convert(log.toFile(), "geojson", "kml",
+            "-f", batch.toString(), "-o", directory.resolve("duplicate").toString()));
+        Assertions.assertTrue(Files.readString(Path.of(log + ".err")).contains("Multiple input files convert to the same output file"));
+    }
+
+    @Test
+    @DisplayName("Skip unchanged files recorded in a manifest")
+    public void manifest() throws InterruptedException, IOException {
+        Path manifest = directory.resolve("manifest.properties");
+        Path log = directory.resolve("manifest.log");
+        String target = directory.resolve("manifest.geojson").toString();
+
+        Assertions.assertEquals(0, convert(log.toFile(), "geojson", "kml",
+            "-m", manifest.toString(), "-f", source.toString(), "-o", target));
+        Assertions.assertFalse(Files.readString(log).contains("up to date"));
+        Assertions.assertTrue(Files.isRegularFile(manifest));
+
+        Assertions.assertEquals(0, convert(log.toFile(), "geojson", "kml",
+            "-m", manifest.toString(), "-f", source.toString(), "-o", target));
+        Assertions.assertTrue(Files.readString(log).contains("Output is up to date, skipped."));
+    }
+
+    @Test
+    @DisplayName("Write conversion statistics as JSON")
+    public void statistics() throws Exception {
+        Path stats = directory.resolve("stats.json");
+
+        Assertions.assertEquals(0, convert(null, "geojson", "kml", "--stats", "--stats-json", stats.toString(),
+            "-f", source.toString(), "-o", directory.resolve("stats.geojson").toString()));
+        assertStatistics(Files.readString(stats));
+
+        // Only the report is written to the standard output
+        Path stdout = directory.resolve("stats.out");
+        Assertions.assertEquals(0, convert(stdout.toFile(), "geojson", "kml", "--stats", "--stats-json", "-",
+            "-f", source.toString(), "-o", directory.resolve("stats.geojson").toString()));
+        assertStatistics(Files.readString(stdout));
+    }
+
+    private static void assertStatistics(String json) throws ParseException {
+        JSONObject report = (JSONObject) new JSONParser().parse(json);
+        JSONArray files = (JSONArray) report.get("files");
+
+        Assertions.assertEquals(1, files.size());
+        Assertions.assertEquals("converted", ((JSONObject) files.getFirst()).get("status"));
+        Assertions.assertNotNull(((JSONObject) files.getFirst()).get("statistics"));
+    }
+
+    /**
+     * Run the packaged converter in the test directory.
+     *
+     * @param stdout File to redirect the standard output to, errors go to {@code <stdout>.err}, {@code null} to inherit
+     * @return The process exit code
+     */
+    private static int convert(File stdout, String... arguments) throws InterruptedException, IOException {
+        Path target = Path.of("target", "geotools-utils-cli-1.0.0.jar");
+
+        List<String> command = new ArrayList<>(List.of("java", "-jar", target.toAbsolutePath().toString()));
+        command.addAll(List.of(arguments));
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command).directory(directory.toFile());
+
+        if(stdout == null) processBuilder.inheritIO();
+        else processBuilder
+            .redirectOutput(stdout)
+            .redirectError(new File(stdout.getPath() + ".err"));
+
+        return Assertions.assertDoesNotThrow(processBuilder::start).waitFor();
+    }
 }